@@ -0,0 +1,426 @@
+package ch.epfl.rigel.astronomy;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parsing of the decimal numbers written in ASCII in a range of an array of bytes, without creating any string
+ *
+ * The results are identical to those of Integer.parseInt, Float.parseFloat and Double.parseDouble : the numbers are exactly rounded
+ * to the nearest float or double. Most numbers are computed directly from their digits, by a single exact operation when possible,
+ * else by the algorithm of Eisel and Lemire, which multiplies the digits by a 128 bits approximation of the power of ten
+ * and detects the rare cases where the approximation is not precise enough. Only those cases, the numbers of more than 19 significant
+ * digits and the numbers which are not plain decimals are parsed by the methods of the JDK, from a string
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+final class AsciiNumbers {
+
+	//Greatest number of significant digits held by the long mantissa
+	private static final int MAX_DIGITS = 19;
+
+	//Greatest mantissa and power of ten represented exactly by a double, resp. a float
+	private static final long MAX_EXACT_DOUBLE = 1L << 53;
+	private static final int MAX_EXACT_DOUBLE_EXPONENT = 22;
+	private static final long MAX_EXACT_FLOAT = 1L << 24;
+	private static final int MAX_EXACT_FLOAT_EXPONENT = 10;
+
+	private static final double[] DOUBLE_POWERS = new double[MAX_EXACT_DOUBLE_EXPONENT + 1];
+	private static final float[] FLOAT_POWERS = new float[MAX_EXACT_FLOAT_EXPONENT + 1];
+
+	//Powers of ten for which the algorithm of Eisel and Lemire is used
+	private static final int MIN_EXPONENT = -128, MAX_EXPONENT = 128;
+
+	//High and low 64 bits of the powers of ten from MIN_EXPONENT to MAX_EXPONENT, normalized to 128 bits whose highest is set
+	//and rounded down
+	private static final long[] POWERS_HIGH = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+	private static final long[] POWERS_LOW = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+
+	//View of the arrays of bytes as arrays of longs, the lowest byte of a long being the first one of the array
+	private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+	static {
+		for(int e = 0; e <= MAX_EXACT_DOUBLE_EXPONENT; ++e) {
+			DOUBLE_POWERS[e] = Double.parseDouble("1e" + e);
+		}
+
+		for(int e = 0; e <= MAX_EXACT_FLOAT_EXPONENT; ++e) {
+			FLOAT_POWERS[e] = (float) DOUBLE_POWERS[e];
+		}
+
+		for(int e = MIN_EXPONENT; e <= MAX_EXPONENT; ++e) {
+			BigInteger power = BigInteger.TEN.pow(Math.abs(e));
+			int bits = power.bitLength();
+			BigInteger normalized;
+
+			if (e >= 0)
+				normalized = bits >= 128 ? power.shiftRight(bits - 128) : power.shiftLeft(128 - bits);
+			else
+				normalized = BigInteger.ONE.shiftLeft(127 + bits).divide(power);
+
+			POWERS_HIGH[e - MIN_EXPONENT] = normalized.shiftRight(64).longValue();
+			POWERS_LOW[e - MIN_EXPONENT] = normalized.longValue();
+		}
+	}
+
+	private AsciiNumbers() {}
+
+	/**
+	 * Parses the integer written in the range of bytes
+	 *
+	 * @param bytes
+	 * 			Array of bytes
+	 *
+	 * @param from
+	 * 			Index of the first byte of the number
+	 *
+	 * @param to
+	 * 			Index following the last byte of the number
+	 *
+	 * @throws NumberFormatException
+	 * 			if the range does not contain an integer, as Integer.parseInt
+	 *
+	 * @return value of the integer
+	 */
+	static int parseInt(byte[] bytes, int from, int to) {
+		int i = from;
+		boolean negative = i < to && bytes[i] == '-';
+		if (i < to && (bytes[i] == '-' || bytes[i] == '+'))
+			++i;
+
+		//At most 9 digits cannot overflow
+		if (i == to || to - i > 9)
+			return Integer.parseInt(string(bytes, from, to));
+
+		int value = 0;
+		for(; i < to; ++i) {
+			int digit = bytes[i] - '0';
+
+			if (digit < 0 || digit > 9)
+				return Integer.parseInt(string(bytes, from, to));
+
+			value = 10 * value + digit;
+		}
+
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Parses the float written in the range of bytes
+	 *
+	 * @param bytes
+	 * 			Array of bytes
+	 *
+	 * @param from
+	 * 			Index of the first byte of the number
+	 *
+	 * @param to
+	 * 			Index following the last byte of the number
+	 *
+	 * @throws NumberFormatException
+	 * 			if the range does not contain a number, as Float.parseFloat
+	 *
+	 * @return value of the number, rounded to the nearest float
+	 */
+	static float parseFloat(byte[] bytes, int from, int to) {
+		return (float) parse(bytes, from, to, true);
+	}
+
+	/**
+	 * Parses the double written in the range of bytes
+	 *
+	 * @param bytes
+	 * 			Array of bytes
+	 *
+	 * @param from
+	 * 			Index of the first byte of the number
+	 *
+	 * @param to
+	 * 			Index following the last byte of the number
+	 *
+	 * @throws NumberFormatException
+	 * 			if the range does not contain a number, as Double.parseDouble
+	 *
+	 * @return value of the number, rounded to the nearest double
+	 */
+	static double parseDouble(byte[] bytes, int from, int to) {
+		return parse(bytes, from, to, false);
+	}
+
+	/**
+	 * Parses the number written in the range of bytes, rounded to the nearest float or double
+	 *
+	 * @param bytes
+	 * 			Array of bytes
+	 *
+	 * @param from
+	 * 			Index of the first byte of the number
+	 *
+	 * @param to
+	 * 			Index following the last byte of the number
+	 *
+	 * @param single
+	 * 			True if the number is rounded to the nearest float, false if it is rounded to the nearest double
+	 *
+	 * @return value of the number
+	 */
+	private static double parse(byte[] bytes, int from, int to, boolean single) {
+		int i = from;
+		boolean negative = i < to && bytes[i] == '-';
+		if (i < to && (bytes[i] == '-' || bytes[i] == '+'))
+			++i;
+
+		//The number is mantissa * 10^exponent, the mantissa of at most 19 significant digits being an unsigned long
+		//The counts of digits are given by the indexes at the ends of the runs of digits, the leading zeros being skipped
+		long mantissa = 0;
+		int exponent = 0;
+		int digitsStart = i;
+
+		while (i < to && bytes[i] == '0') {
+			++i;
+		}
+
+		int significantStart = i;
+		long word;
+		while (i + Long.BYTES <= to && isEightDigits(word = (long) LONGS.get(bytes, i))) {
+			mantissa = 100_000_000 * mantissa + eightDigits(word);
+			i += Long.BYTES;
+		}
+		for(int digit; i < to && (digit = bytes[i] - '0') >= 0 && digit <= 9; ++i) {
+			mantissa = 10 * mantissa + digit;
+		}
+
+		int digits = i - significantStart;
+		boolean anyDigit = i > digitsStart;
+
+		if (i < to && bytes[i] == '.') {
+			int fractionStart = ++i;
+
+			if (mantissa == 0) {
+				while (i < to && bytes[i] == '0') {
+					++i;
+				}
+			}
+
+			significantStart = i;
+			while (i + Long.BYTES <= to && isEightDigits(word = (long) LONGS.get(bytes, i))) {
+				mantissa = 100_000_000 * mantissa + eightDigits(word);
+				i += Long.BYTES;
+			}
+			for(int digit; i < to && (digit = bytes[i] - '0') >= 0 && digit <= 9; ++i) {
+				mantissa = 10 * mantissa + digit;
+			}
+
+			digits += i - significantStart;
+			exponent = fractionStart - i;
+			anyDigit |= i > fractionStart;
+		}
+
+		//The mantissa may have overflowed
+		if (digits > MAX_DIGITS)
+			return fallback(bytes, from, to, single);
+
+		if (i < to && (bytes[i] == 'e' || bytes[i] == 'E') && anyDigit) {
+			++i;
+			boolean negativeExponent = i < to && bytes[i] == '-';
+			if (i < to && (bytes[i] == '-' || bytes[i] == '+'))
+				++i;
+
+			int start = i, written = 0;
+			for(; i < to && '0' <= bytes[i] && bytes[i] <= '9' && i - start < 4; ++i) {
+				written = 10 * written + (bytes[i] - '0');
+			}
+
+			if (i == start)
+				return fallback(bytes, from, to, single);
+
+			exponent += negativeExponent ? -written : written;
+		}
+
+		if (i != to || !anyDigit)
+			return fallback(bytes, from, to, single);
+
+		if (mantissa == 0)
+			return negative ? -0.0 : 0.0;
+
+		double value;
+
+		if (single) {
+			if (Long.compareUnsigned(mantissa, MAX_EXACT_FLOAT) > 0 || Math.abs(exponent) > MAX_EXACT_FLOAT_EXPONENT)
+				return fallback(bytes, from, to, true);
+
+			//Single operation on exact floats, rounded once
+			float m = mantissa;
+			value = exponent < 0 ? m / FLOAT_POWERS[-exponent] : m * FLOAT_POWERS[exponent];
+		}
+
+		else if (Long.compareUnsigned(mantissa, MAX_EXACT_DOUBLE) <= 0 && Math.abs(exponent) <= MAX_EXACT_DOUBLE_EXPONENT) {
+			//Single operation on exact doubles, rounded once
+			double m = mantissa;
+			value = exponent < 0 ? m / DOUBLE_POWERS[-exponent] : m * DOUBLE_POWERS[exponent];
+		}
+
+		else {
+			value = eiselLemire(mantissa, exponent);
+
+			if (Double.isNaN(value))
+				return fallback(bytes, from, to, false);
+		}
+
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Returns whether the eight bytes of a long are all ASCII digits
+	 *
+	 * @param word
+	 * 			Long of eight bytes
+	 *
+	 * @return true if all the bytes are between '0' and '9'
+	 */
+	private static boolean isEightDigits(long word) {
+		//The high halves of the bytes and of the bytes plus 6 are all 3 only for the digits
+		return ((word & 0xF0F0F0F0F0F0F0F0L) | (((word + 0x0606060606060606L) & 0xF0F0F0F0F0F0F0F0L) >>> 4)) == 0x3333333333333333L;
+	}
+
+	/**
+	 * Returns the value of eight ASCII digits, the first digit being the lowest byte of the long
+	 *
+	 * @param word
+	 * 			Long of eight digits
+	 *
+	 * @return value of the number of eight digits
+	 */
+	private static long eightDigits(long word) {
+		//Pairs of digits, then groups of four digits, combined by multiplications
+		long value = word - 0x3030303030303030L;
+		value = value * 10 + (value >>> 8);
+		return (((value & 0x000000FF000000FFL) * (100 + (1_000_000L << 32)))
+				+ (((value >>> 16) & 0x000000FF000000FFL) * (1 + (10_000L << 32)))) >>> 32;
+	}
+
+	/**
+	 * Algorithm of Eisel and Lemire, computing the double nearest to mantissa * 10^exponent
+	 *
+	 * @param mantissa
+	 * 			Positive mantissa, as an unsigned long
+	 *
+	 * @param exponent
+	 * 			Power of ten
+	 *
+	 * @return nearest double, NaN if it cannot be determined with the 128 bits approximation of the power of ten
+	 */
+	private static double eiselLemire(long mantissa, int exponent) {
+		if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT)
+			return Double.NaN;
+
+		//Normalization of the mantissa, and binary exponent of the result computed from floor(exponent * log2(10))
+		int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+		long man = mantissa << leadingZeros;
+		long binaryExponent = ((217706L * exponent) >> 16) + 64 + 1023 - leadingZeros;
+
+		long powerHigh = POWERS_HIGH[exponent - MIN_EXPONENT];
+		long powerLow = POWERS_LOW[exponent - MIN_EXPONENT];
+
+		long high = unsignedMultiplyHigh(man, powerHigh);
+		long low = man * powerHigh;
+
+		//The truncated bits may change the result : the product is refined with the low half of the power
+		if ((high & 0x1FF) == 0x1FF && Long.compareUnsigned(low + man, man) < 0) {
+			long lowHigh = unsignedMultiplyHigh(man, powerLow);
+			long lowLow = man * powerLow;
+			long mergedHigh = high, mergedLow = low + lowHigh;
+
+			if (Long.compareUnsigned(mergedLow, low) < 0)
+				++mergedHigh;
+
+			if ((mergedHigh & 0x1FF) == 0x1FF && mergedLow + 1 == 0 && Long.compareUnsigned(lowLow + man, man) < 0)
+				return Double.NaN;
+
+			high = mergedHigh;
+			low = mergedLow;
+		}
+
+		//Shifting to 54 bits
+		long msb = high >>> 63;
+		long result = high >>> (msb + 9);
+		binaryExponent -= 1 ^ msb;
+
+		//Exactly halfway between two doubles
+		if (low == 0 && (high & 0x1FF) == 0 && (result & 3) == 1)
+			return Double.NaN;
+
+		//Rounding from 54 to 53 bits
+		result += result & 1;
+		result >>>= 1;
+		if ((result >>> 53) > 0) {
+			result >>>= 1;
+			++binaryExponent;
+		}
+
+		//Subnormal numbers, infinities and NaN
+		if (binaryExponent <= 0 || binaryExponent >= 0x7FF)
+			return Double.NaN;
+
+		return Double.longBitsToDouble(binaryExponent << 52 | result & 0x000FFFFFFFFFFFFFL);
+	}
+
+	/**
+	 * Returns the high 64 bits of the unsigned 128 bits product of two unsigned longs
+	 *
+	 * @param a
+	 * 			First factor
+	 *
+	 * @param b
+	 * 			Second factor
+	 *
+	 * @return high 64 bits of the product
+	 */
+	private static long unsignedMultiplyHigh(long a, long b) {
+		return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+	}
+
+	/**
+	 * Parses the number with the methods of the JDK
+	 *
+	 * @param bytes
+	 * 			Array of bytes
+	 *
+	 * @param from
+	 * 			Index of the first byte of the number
+	 *
+	 * @param to
+	 * 			Index following the last byte of the number
+	 *
+	 * @param single
+	 * 			True if the number is rounded to the nearest float, false if it is rounded to the nearest double
+	 *
+	 * @return value of the number
+	 */
+	private static double fallback(byte[] bytes, int from, int to, boolean single) {
+		String number = string(bytes, from, to);
+
+		return single ? Float.parseFloat(number) : Double.parseDouble(number);
+	}
+
+	/**
+	 * Returns the string of the ASCII characters of the range of bytes
+	 *
+	 * @param bytes
+	 * 			Array of bytes
+	 *
+	 * @param from
+	 * 			Index of the first byte
+	 *
+	 * @param to
+	 * 			Index following the last byte
+	 *
+	 * @return string of the range
+	 */
+	static String string(byte[] bytes, int from, int to) {
+		return new String(bytes, from, to - from, StandardCharsets.US_ASCII);
+	}
+}
@@ -1,10 +1,7 @@
 package ch.epfl.rigel.astronomy;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,32 +17,103 @@ public enum AsterismLoader implements StarCatalogue.Loader {
 
 	private AsterismLoader() {}
 
+	//Size of the blocks of bytes read from the stream
+	private static final int BUFFER_SIZE = 1 << 13;
+
 	/**
 	 * Method which interprets the data file and loads Star Catalog Builder with the list of asterisms
+	 * 
+	 * Each line is the list of the hipparcosId of the stars of an asterism, separated by commas. The bytes are read by blocks
+	 * and the ids are parsed digit by digit, without creating a string for the lines or the ids, then resolved
+	 * through the index of the builder
+	 * 
+	 * @throws IOException
+	 * 			if the stream cannot be read, contains a character which is neither a digit nor a separator,
+	 * 			a hipparcosId which does not fit in an int or the hipparcosId of a star which has not been added to the builder
 	 */
 	public void load(InputStream inputStream, Builder builder) throws IOException {
 
-		try (BufferedReader b= new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.US_ASCII));) {
-			String currentLine;
-			String[] data;
+		try (InputStream stream = inputStream) {
+			byte[] buffer = new byte[BUFFER_SIZE];
 			List<Star> listars = new ArrayList<Star>();
 
-			currentLine = b.readLine();
+			//Id being parsed, and whether at least one of its digits has been read
+			int id = 0;
+			boolean digits = false;
+			int read;
+
+			while ((read = stream.read(buffer)) != -1) {
+				for(int i = 0; i < read; ++i) {
+					byte c = buffer[i];
+
+					if ('0' <= c && c <= '9') {
+						int digit = c - '0';
+						if (id > (Integer.MAX_VALUE - digit) / 10)
+							throw new IOException("Too large hipparcosId in the list of asterisms");
+
+						id = 10 * id + digit;
+						digits = true;
+					}
 
-			do {
+					else if (c == ',' || c == '\n') {
+						if (digits)
+							listars.add(star(builder, id));
 
-				listars.clear();
-				data = currentLine.split(",");
+						id = 0;
+						digits = false;
 
-				for(int y=0; y<data.length; ++y) {
-					int index = Integer.parseInt(data[y]);
-					listars.add(builder.map().get(index));
+						if (c == '\n')
+							addAsterism(builder, listars);
+					}
+
+					else if (c != '\r' && c != ' ')
+						throw new IOException("Invalid character in the list of asterisms : " + (char) c);
 				}
+			}
 
-				builder.addAsterism(new Asterism(listars));
-				currentLine = b.readLine();
+			//Last line, which may not be terminated
+			if (digits)
+				listars.add(star(builder, id));
+			addAsterism(builder, listars);
+		}
+	}
 
-			} while(currentLine!=null);
+	/**
+	 * Returns the star of given hipparcosId added to the builder
+	 * 
+	 * @param builder
+	 * 			Builder containing the stars
+	 * 
+	 * @param hipparcosId
+	 * 			HipparcosId of the star
+	 * 
+	 * @throws IOException
+	 * 			if no star of that hipparcosId has been added to the builder
+	 * 
+	 * @return star of that hipparcosId
+	 */
+	private static Star star(Builder builder, int hipparcosId) throws IOException {
+		Star star = builder.starOfHipparcosId(hipparcosId);
+
+		if (star == null)
+			throw new IOException("Unknown hipparcosId in the list of asterisms : " + hipparcosId);
+
+		return star;
+	}
+
+	/**
+	 * Adds the asterism formed by the given stars to the builder, if there is at least one star, and clears the list of stars
+	 * 
+	 * @param builder
+	 * 			Builder receiving the asterism
+	 * 
+	 * @param listars
+	 * 			Stars of the asterism, the list being reused for the following asterism
+	 */
+	private static void addAsterism(Builder builder, List<Star> listars) {
+		if (!listars.isEmpty()) {
+			builder.addAsterism(new Asterism(listars));
+			listars.clear();
 		}
 	}
 
@@ -0,0 +1,92 @@
+package ch.epfl.rigel.astronomy;
+
+import static ch.epfl.rigel.Preconditions.checkArgument;
+
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+
+/**
+ * Evaluation of a model of celestial object over a series of instants, writing the results in primitive columns
+ *
+ * Each instant is computed by a sample of the model, which writes the values of the object in a small array reused for all the instants
+ * of a range : no object is created per instant. The ranges are computed in parallel for long series
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+final class BatchEphemeris {
+
+	/**
+	 * Indexes of the values written by a sample : ecliptic longitude and latitude, magnitude, angular size and phase
+	 */
+	static final int LON = 0, LAT = 1, MAGNITUDE = 2, ANGULAR_SIZE = 3, PHASE = 4;
+
+	/**
+	 * Number of values written by a sample
+	 */
+	static final int VALUES = 5;
+
+	private BatchEphemeris() {}
+
+	/**
+	 * Computation of the values of a celestial object at a single instant
+	 *
+	 * @author Nael Ouerghemi (310435)
+	 */
+	@FunctionalInterface
+	interface Sample {
+
+		/**
+		 * Writes the values of the celestial object at the given instant in the array, at the indexes defined by BatchEphemeris
+		 *
+		 * @param daysSinceJ2010
+		 * 			Number of days since the epoch J2010
+		 *
+		 * @param values
+		 * 			Array of size VALUES receiving the values
+		 */
+		public abstract void compute(double daysSinceJ2010, double[] values);
+	}
+
+	/**
+	 * Computes the celestial object at each of the given instants
+	 *
+	 * @param sample
+	 * 			Computation of the celestial object at a single instant
+	 *
+	 * @param daysSinceJ2010
+	 * 			Instants, in number of days since the epoch J2010
+	 *
+	 * @param ra
+	 * 			Array receiving the right ascensions (in radians)
+	 *
+	 * @param dec
+	 * 			Array receiving the declinations (in radians)
+	 *
+	 * @param magnitude
+	 * 			Array receiving the magnitudes
+	 *
+	 * @param angularSize
+	 * 			Array receiving the angular sizes (in radians)
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the sizes of the arrays do not match
+	 */
+	static void run(Sample sample, double[] daysSinceJ2010, double[] ra, double[] dec, double[] magnitude, double[] angularSize) {
+		int count = daysSinceJ2010.length;
+		checkArgument(ra.length == count && dec.length == count && magnitude.length == count && angularSize.length == count);
+
+		ParallelRanges.run(count, (from, to) -> {
+			double[] values = new double[VALUES];
+
+			//The ecliptic coordinates are first written in the equatorial columns, then converted in place
+			for(int i = from; i < to; ++i) {
+				sample.compute(daysSinceJ2010[i], values);
+				ra[i] = values[LON];
+				dec[i] = values[LAT];
+				magnitude[i] = values[MAGNITUDE];
+				angularSize[i] = values[ANGULAR_SIZE];
+			}
+
+			EclipticToEquatorialConversion.applyTo(daysSinceJ2010, ra, dec, ra, dec, from, to);
+		});
+	}
+}
@@ -0,0 +1,174 @@
+package ch.epfl.rigel.astronomy;
+
+import static ch.epfl.rigel.coordinates.EquatorialCoordinates.of;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import ch.epfl.rigel.astronomy.StarCatalogue.Builder;
+
+/**
+ * Represents a loader for the Star Catalogue builder subclass, reading the stars from a precompiled binary catalogue
+ * written by BinaryCatalogueWriter
+ * 
+ * The catalogue is a sequence of little endian columns, preceded by a header of four ints : the magic number, the version
+ * of the format, the number n of stars and the number m of bytes of their names. The columns are, in this order,
+ * the right ascensions, the declinations and the proper motions in right ascension and declination (n doubles each),
+ * the hipparcosIds (n ints), the magnitudes and the color indexes (n floats each), the offsets of the names (n + 1 ints)
+ * and the names (m bytes in UTF-8), the name of the i-th star being between the i-th and the (i + 1)-th offsets
+ * 
+ * Nothing is parsed : a file is mapped in memory, read only, and the columns are copied from the mapping into arrays. 
+ * The same file can thus be shared by several processes
+ * 
+ * @author Nael Ouerghemi (310435)
+ */
+public enum BinaryCatalogueLoader implements StarCatalogue.Loader {
+	INSTANCE;
+
+	private BinaryCatalogueLoader() {}
+
+	//Magic number of the binary catalogues, the ASCII characters "RGLC", and version of the format
+	static final int MAGIC = 0x52474C43;
+	static final int VERSION = 1;
+
+	//Size of the header, in bytes
+	static final int HEADER_BYTES = 4 * Integer.BYTES;
+
+	static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	/**
+	 * Method which reads the binary catalogue and loads Star Catalogue with the list of Stars
+	 * 
+	 * A file stream is mapped in memory from its current position, any other stream is read entirely
+	 * 
+	 * @throws IOException
+	 * 			if the stream cannot be read or does not contain a binary catalogue of this version
+	 */
+	@Override
+	public void load(InputStream inputStream, Builder builder) throws IOException {
+
+		try (InputStream stream = inputStream) {
+			if (stream instanceof FileInputStream) {
+				FileChannel channel = ((FileInputStream) stream).getChannel();
+				load(channel.map(FileChannel.MapMode.READ_ONLY, channel.position(), channel.size() - channel.position()), builder);
+			}
+			else
+				load(ByteBuffer.wrap(stream.readAllBytes()), builder);
+		}
+	}
+
+	/**
+	 * Loads Star Catalogue with the list of Stars of the binary catalogue of given path, mapped in memory
+	 * 
+	 * @param path
+	 * 			Path of the binary catalogue
+	 * 
+	 * @param builder
+	 * 			Builder receiving the stars
+	 * 
+	 * @throws IOException
+	 * 			if the file cannot be read or does not contain a binary catalogue of this version
+	 */
+	public void load(Path path, Builder builder) throws IOException {
+
+		//The mapping stays valid once the channel is closed
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			load(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), builder);
+		}
+	}
+
+	/**
+	 * Loads Star Catalogue with the list of Stars of the binary catalogue contained in a buffer
+	 * 
+	 * @param buffer
+	 * 			Buffer containing the binary catalogue from its position
+	 * 
+	 * @param builder
+	 * 			Builder receiving the stars
+	 * 
+	 * @throws IOException
+	 * 			if the buffer does not contain a binary catalogue of this version
+	 */
+	private static void load(ByteBuffer buffer, Builder builder) throws IOException {
+		ByteBuffer bytes = buffer.slice().order(BYTE_ORDER);
+
+		if (bytes.remaining() < HEADER_BYTES || bytes.getInt() != MAGIC || bytes.getInt() != VERSION)
+			throw new IOException("Invalid binary catalogue");
+
+		int count = bytes.getInt();
+		int nameBytes = bytes.getInt();
+
+		if (count < 0 || nameBytes < 0 || bytes.remaining() != byteSize(count, nameBytes) - HEADER_BYTES)
+			throw new IOException("Invalid size of the binary catalogue");
+
+		double[] ra = new double[count], dec = new double[count];
+		double[] properMotionRa = new double[count], properMotionDec = new double[count];
+		int[] hipparcosIds = new int[count];
+		float[] magnitudes = new float[count], colorIndexes = new float[count];
+		int[] nameOffsets = new int[count + 1];
+		byte[] names = new byte[nameBytes];
+
+		//Bulk copies of the columns, the position of the buffer being advanced by hand as the views have their own
+		readDoubles(bytes, ra);
+		readDoubles(bytes, dec);
+		readDoubles(bytes, properMotionRa);
+		readDoubles(bytes, properMotionDec);
+
+		bytes.asIntBuffer().get(hipparcosIds);
+		bytes.position(bytes.position() + count * Integer.BYTES);
+		bytes.asFloatBuffer().get(magnitudes);
+		bytes.position(bytes.position() + count * Float.BYTES);
+		bytes.asFloatBuffer().get(colorIndexes);
+		bytes.position(bytes.position() + count * Float.BYTES);
+		bytes.asIntBuffer().get(nameOffsets);
+		bytes.position(bytes.position() + (count + 1) * Integer.BYTES);
+		bytes.get(names);
+
+		for(int i = 0; i < count; ++i) {
+			int from = nameOffsets[i], to = nameOffsets[i + 1];
+
+			if (from < 0 || from > to || to > nameBytes)
+				throw new IOException("Invalid name offsets in the binary catalogue");
+
+			builder.addStar(new Star(hipparcosIds[i], new String(names, from, to - from, StandardCharsets.UTF_8), of(ra[i], dec[i]), 
+					magnitudes[i], colorIndexes[i], properMotionRa[i], properMotionDec[i]));
+		}
+	}
+
+	/**
+	 * Copies a column of doubles from the buffer, advancing its position
+	 * 
+	 * @param bytes
+	 * 			Buffer positioned at the start of the column
+	 * 
+	 * @param column
+	 * 			Array receiving the column
+	 */
+	private static void readDoubles(ByteBuffer bytes, double[] column) {
+		bytes.asDoubleBuffer().get(column);
+		bytes.position(bytes.position() + column.length * Double.BYTES);
+	}
+
+	/**
+	 * Returns the size of a binary catalogue
+	 * 
+	 * @param count
+	 * 			Number of stars
+	 * 
+	 * @param nameBytes
+	 * 			Number of bytes of the names of the stars
+	 * 
+	 * @return size of the binary catalogue, in bytes
+	 */
+	static long byteSize(int count, int nameBytes) {
+		return HEADER_BYTES + (long) count * (4 * Double.BYTES + Integer.BYTES + 2 * Float.BYTES) 
+				+ (count + 1L) * Integer.BYTES + nameBytes;
+	}
+}
@@ -0,0 +1,111 @@
+package ch.epfl.rigel.astronomy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writer of the precompiled binary catalogues read by BinaryCatalogueLoader, and converter of a HYG database into a binary catalogue
+ * 
+ * Usage : BinaryCatalogueWriter hygDatabase.csv catalogue.bin
+ * 
+ * @author Nael Ouerghemi (310435)
+ */
+public final class BinaryCatalogueWriter {
+
+	private BinaryCatalogueWriter() {}
+
+	/**
+	 * Converts the HYG database given as first argument into the binary catalogue given as second argument
+	 * 
+	 * @param args
+	 * 			Paths of the HYG database and of the binary catalogue
+	 * 
+	 * @throws IOException
+	 * 			if the HYG database cannot be read or the binary catalogue cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage : BinaryCatalogueWriter hygDatabase.csv catalogue.bin");
+			System.exit(1);
+		}
+
+		StarCatalogue.Builder builder = new StarCatalogue.Builder();
+		try (InputStream stream = Files.newInputStream(Path.of(args[0]))) {
+			builder.loadFrom(stream, HygDatabaseLoader.INSTANCE);
+		}
+
+		try (OutputStream stream = Files.newOutputStream(Path.of(args[1]))) {
+			write(builder.stars(), stream);
+		}
+
+		System.out.printf("%d stars written to %s%n", builder.stars().size(), args[1]);
+	}
+
+	/**
+	 * Writes the binary catalogue of the given stars, in the order of the list
+	 * 
+	 * @param stars
+	 * 			List of the stars
+	 * 
+	 * @param outputStream
+	 * 			Stream receiving the binary catalogue, which is not closed
+	 * 
+	 * @throws IOException
+	 * 			if the stream cannot be written
+	 */
+	public static void write(List<Star> stars, OutputStream outputStream) throws IOException {
+		int count = stars.size();
+
+		ByteArrayOutputStream names = new ByteArrayOutputStream();
+		int[] nameOffsets = new int[count + 1];
+		for(int i = 0; i < count; ++i) {
+			names.writeBytes(stars.get(i).name().getBytes(StandardCharsets.UTF_8));
+			nameOffsets[i + 1] = names.size();
+		}
+
+		long size = BinaryCatalogueLoader.byteSize(count, names.size());
+		if (size > Integer.MAX_VALUE)
+			throw new IOException("Too many stars for a binary catalogue");
+
+		ByteBuffer bytes = ByteBuffer.allocate((int) size).order(BinaryCatalogueLoader.BYTE_ORDER);
+		bytes.putInt(BinaryCatalogueLoader.MAGIC)
+		.putInt(BinaryCatalogueLoader.VERSION)
+		.putInt(count)
+		.putInt(names.size());
+
+		for(Star star : stars) {
+			bytes.putDouble(star.equatorialPos().ra());
+		}
+		for(Star star : stars) {
+			bytes.putDouble(star.equatorialPos().dec());
+		}
+		for(Star star : stars) {
+			bytes.putDouble(star.properMotionRa());
+		}
+		for(Star star : stars) {
+			bytes.putDouble(star.properMotionDec());
+		}
+		for(Star star : stars) {
+			bytes.putInt(star.hipparcosId());
+		}
+		for(Star star : stars) {
+			bytes.putFloat((float) star.magnitude());
+		}
+		for(Star star : stars) {
+			bytes.putFloat(star.colorIndex());
+		}
+		for(int offset : nameOffsets) {
+			bytes.putInt(offset);
+		}
+		bytes.put(names.toByteArray());
+
+		outputStream.write(bytes.array());
+	}
+}
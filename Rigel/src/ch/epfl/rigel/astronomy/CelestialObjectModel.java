@@ -1,5 +1,7 @@
 package ch.epfl.rigel.astronomy;
 
+import static ch.epfl.rigel.Preconditions.checkArgument;
+
 import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
 
 /**
@@ -9,7 +11,7 @@ import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
  * 
  * @author Nael Ouerghemi (310435)
  */
-public interface CelestialObjectModel<O> {
+public interface CelestialObjectModel<O extends CelestialObject> {
 
 	/**
 	 * Modeling of a celestial object given number of days since J2010 and an eclipticToEquatorialConversion
@@ -23,4 +25,57 @@ public interface CelestialObjectModel<O> {
 	 * @return Generic Celestial Object to be modeled
 	 */
 	public abstract O at(double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion);
+
+	/**
+	 * Modeling of a celestial object given the state of the Solar System at the instant,
+	 * models depending on the Sun or on the Earth reusing the terms already computed by the state
+	 * 
+	 * @param state
+	 * 			State of the Solar System at the instant
+	 * 
+	 * @return Generic Celestial Object to be modeled
+	 */
+	public default O at(SolarSystemState state) {
+		return at(state.daysSinceJ2010(), state.eclipticToEquatorialConversion());
+	}
+
+	/**
+	 * Modeling of a celestial object at each of the given instants, the equatorial coordinates, the magnitude and the angular size
+	 * of the object at the i-th instant being written at index i of the destination arrays
+	 * By default, the object is modeled at each instant with the conversion of the date of the instant : the models of the Sun,
+	 * of the Moon and of the planets do not create any object per instant, the obliquity of the ecliptic being computed
+	 * for each instant from its number of days
+	 * 
+	 * @param daysSinceJ2010
+	 * 			Instants, in number of days since Epoch J2010
+	 * 
+	 * @param ra
+	 * 			Array receiving the right ascensions (in radians)
+	 * 
+	 * @param dec
+	 * 			Array receiving the declinations (in radians)
+	 * 
+	 * @param magnitude
+	 * 			Array receiving the magnitudes
+	 * 
+	 * @param angularSize
+	 * 			Array receiving the angular sizes (in radians)
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if the sizes of the arrays do not match
+	 */
+	public default void at(double[] daysSinceJ2010, double[] ra, double[] dec, double[] magnitude, double[] angularSize) {
+		int count = daysSinceJ2010.length;
+		checkArgument(ra.length == count && dec.length == count && magnitude.length == count && angularSize.length == count);
+
+		for(int i = 0; i < count; ++i) {
+			double days = daysSinceJ2010[i];
+			O object = at(days, new EclipticToEquatorialConversion(Epoch.J2010.plusDays(days)));
+
+			ra[i] = object.equatorialPos().ra();
+			dec[i] = object.equatorialPos().dec();
+			magnitude[i] = object.magnitude();
+			angularSize[i] = object.angularSize();
+		}
+	}
 }
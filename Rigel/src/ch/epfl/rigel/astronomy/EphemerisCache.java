@@ -0,0 +1,315 @@
+package ch.epfl.rigel.astronomy;
+
+import static ch.epfl.rigel.Preconditions.checkArgument;
+import static ch.epfl.rigel.math.Angle.normalizePositive;
+import static java.lang.Math.log10;
+import static java.lang.Math.max;
+import static java.lang.Math.pow;
+import static java.lang.Math.sqrt;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+import ch.epfl.rigel.math.Polynomial;
+
+/**
+ * Cache of the positions of the Moon and of the planets, interpolated by Chebyshev polynomials over fixed windows of time
+ *
+ * The values of a body (ecliptic coordinates, magnitude, angular size and phase) are interpolated over windows whose length depends
+ * on how fast the body moves, from one day for the Moon to a month for the outer planets.
+ * Evaluating a fitted window only costs a few polynomial evaluations instead of the full model
+ *
+ * Windows are fitted lazily : the first request in a window is answered by the model while the window is fitted by the executor,
+ * the following requests being answered by the polynomials. The least recently used windows are evicted when the cache is full
+ * A window whose fitting is rejected by the executor or fails is requested again by the next instant of the window
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+public final class EphemerisCache {
+
+	/**
+	 * Number of Chebyshev nodes of each window, that is degree of the polynomials plus one
+	 */
+	public static final int NODES = 14;
+
+	private static final int DEFAULT_CAPACITY = 512;
+	private static final double MOON_WINDOW = 1;
+
+	//Length of the windows of the planets (in days), in the order of PlanetModel
+	private static final double[] PLANET_WINDOWS = {4, 8, 8, 8, 32, 32, 32, 32};
+
+	private final Executor executor;
+
+	//Fitted windows in access order, evicted from the least recently used, and keys of the windows being fitted
+	private final Map<Long, Window> windows;
+	private final Set<Long> pending;
+
+	/**
+	 * Constructor of a cache fitting the windows on a background thread
+	 */
+	public EphemerisCache() {
+		this(DEFAULT_CAPACITY, Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "ephemeris-cache");
+			thread.setDaemon(true);
+			return thread;
+		}));
+	}
+
+	/**
+	 * Constructor of a cache fitting the windows with the given executor
+	 *
+	 * @param capacity
+	 * 			Maximal number of windows kept, all bodies together
+	 *
+	 * @param executor
+	 * 			Executor fitting the windows, which may run them directly in the calling thread
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the capacity is not strictly positive
+	 *
+	 * @throws NullPointerException
+	 * 			if the executor is null
+	 */
+	public EphemerisCache(int capacity, Executor executor) {
+		checkArgument(capacity > 0);
+		this.executor = requireNonNull(executor);
+
+		windows = new LinkedHashMap<Long, Window>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Window> eldest) {
+				return size() > capacity;
+			}
+		};
+		pending = new HashSet<Long>();
+	}
+
+	/**
+	 * Returns a representation of the planet at a given time, interpolated if its window has been fitted
+	 *
+	 * @param planet
+	 * 			Model of the planet
+	 *
+	 * @param daysSinceJ2010
+	 * 			Number of days between the epoch J2010 and wanted time
+	 *
+	 * @param eclipticToEquatorialConversion
+	 * 			Conversion from ecliptic to equatorial coordinates used
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the planet is the Earth
+	 *
+	 * @return representation of the planet at the given time
+	 */
+	public Planet at(PlanetModel planet, double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion) {
+		checkArgument(planet != PlanetModel.EARTH);
+
+		double[] values = values(planet.ordinal(), PLANET_WINDOWS[planet.ordinal()], planet::sample, true, daysSinceJ2010);
+		return planet.fromValues(values, eclipticToEquatorialConversion);
+	}
+
+	/**
+	 * Returns a representation of the moon at a given time, interpolated if its window has been fitted
+	 *
+	 * @param moon
+	 * 			Model of the moon
+	 *
+	 * @param daysSinceJ2010
+	 * 			Number of days between the epoch J2010 and wanted time
+	 *
+	 * @param eclipticToEquatorialConversion
+	 * 			Conversion from ecliptic to equatorial coordinates used
+	 *
+	 * @return representation of the moon at the given time
+	 */
+	public Moon at(MoonModel moon, double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion) {
+		double[] values = values(PlanetModel.ALL.size(), MOON_WINDOW, moon::sample, false, daysSinceJ2010);
+		return moon.fromValues(values, eclipticToEquatorialConversion);
+	}
+
+	/**
+	 * Returns the number of fitted windows currently kept
+	 *
+	 * @return number of fitted windows
+	 */
+	public synchronized int size() {
+		return windows.size();
+	}
+
+	/**
+	 * Returns the values of a body at the given time, from its window if it has been fitted,
+	 * from the model otherwise in which case the fitting of the window is requested
+	 *
+	 * @param body
+	 * 			Index of the body
+	 *
+	 * @param length
+	 * 			Length of the windows of the body (in days)
+	 *
+	 * @param sample
+	 * 			Computation of the values of the body by its model
+	 *
+	 * @param phaseMagnitude
+	 * 			True if the magnitude of the body depends on its phase, as for the planets
+	 *
+	 * @param daysSinceJ2010
+	 * 			Number of days since the epoch J2010
+	 *
+	 * @return values of the body at the indexes defined by BatchEphemeris
+	 */
+	private double[] values(int body, double length, BatchEphemeris.Sample sample, boolean phaseMagnitude, double daysSinceJ2010) {
+		long index = (long) Math.floor(daysSinceJ2010 / length);
+		Long key = ((long) body << 48) | (index & 0xFFFF_FFFF_FFFFL);
+
+		Window window = window(key);
+
+		if (window == null) {
+			boolean submit;
+			synchronized (this) {
+				submit = pending.add(key);
+			}
+
+			if (submit) {
+				try {
+					executor.execute(() -> {
+						try {
+							Window fitted = new Window(sample, index * length, length, phaseMagnitude);
+							synchronized (this) {
+								windows.put(key, fitted);
+							}
+						}
+						finally {
+							synchronized (this) {
+								pending.remove(key);
+							}
+						}
+					});
+				}
+				catch (RejectedExecutionException e) {
+					//The model answers until the window can be fitted
+					synchronized (this) {
+						pending.remove(key);
+					}
+				}
+			}
+
+			//The executor may have fitted the window directly
+			window = window(key);
+		}
+
+		double[] values = new double[BatchEphemeris.VALUES];
+
+		if (window == null)
+			sample.compute(daysSinceJ2010, values);
+		else
+			window.evaluate(daysSinceJ2010, values);
+
+		return values;
+	}
+
+	/**
+	 * Returns the fitted window of given key, marking it as the most recently used, null if it has not been fitted
+	 *
+	 * @param key
+	 * 			Key of the window
+	 *
+	 * @return fitted window, null if there is none
+	 */
+	private synchronized Window window(Long key) {
+		return windows.get(key);
+	}
+
+	/**
+	 * Chebyshev polynomials interpolating the values of a body over a window of time
+	 *
+	 * @author Nael Ouerghemi (310435)
+	 */
+	private static final class Window {
+
+		private final double start, length;
+		private final boolean phaseMagnitude;
+		//Polynomials interpolating the values, null for the values which are zero at all the nodes, as the magnitude of the Moon
+		private final Polynomial[] polynomials;
+
+		/**
+		 * Fits the polynomials of the window, the longitude being unwrapped so that it varies continuously over the window
+		 *
+		 * The magnitude of a planet diverges when its phase tends to zero, near an inferior conjunction : 
+		 * the product 10^(magnitude/5) * sqrt(phase), which is proportional to the distances of the planet to the Sun and to the Earth, 
+		 * is interpolated instead and the magnitude is computed back from the interpolated phase
+		 *
+		 * @param sample
+		 * 			Computation of the values of the body by its model
+		 *
+		 * @param start
+		 * 			First instant of the window (in days since J2010)
+		 *
+		 * @param length
+		 * 			Length of the window (in days)
+		 *
+		 * @param phaseMagnitude
+		 * 			True if the magnitude of the body depends on its phase
+		 */
+		private Window(BatchEphemeris.Sample sample, double start, double length, boolean phaseMagnitude) {
+			this.start = start;
+			this.length = length;
+			this.phaseMagnitude = phaseMagnitude;
+
+			double[][] nodeValues = new double[BatchEphemeris.VALUES][NODES];
+			double[] values = new double[BatchEphemeris.VALUES];
+
+			for(int j = 0; j < NODES; ++j) {
+				sample.compute(start + (Polynomial.chebyshevNode(j, NODES) + 1) * length / 2, values);
+
+				for(int v = 0; v < BatchEphemeris.VALUES; ++v) {
+					nodeValues[v][j] = values[v];
+				}
+
+				if (phaseMagnitude)
+					nodeValues[BatchEphemeris.MAGNITUDE][j] = pow(10, values[BatchEphemeris.MAGNITUDE] / 5) * sqrt(values[BatchEphemeris.PHASE]);
+
+				if (j > 0) {
+					double previous = nodeValues[BatchEphemeris.LON][j - 1];
+					nodeValues[BatchEphemeris.LON][j] = previous + normalizePositive(values[BatchEphemeris.LON] - previous + Math.PI) - Math.PI;
+				}
+			}
+
+			polynomials = new Polynomial[BatchEphemeris.VALUES];
+			for(int v = 0; v < BatchEphemeris.VALUES; ++v) {
+				if (Arrays.stream(nodeValues[v]).anyMatch(value -> value != 0))
+					polynomials[v] = Polynomial.chebyshevInterpolation(nodeValues[v]);
+			}
+		}
+
+		/**
+		 * Writes the interpolated values of the body at the given time
+		 *
+		 * @param daysSinceJ2010
+		 * 			Number of days since the epoch J2010
+		 *
+		 * @param values
+		 * 			Array receiving the values at the indexes defined by BatchEphemeris
+		 */
+		private void evaluate(double daysSinceJ2010, double[] values) {
+			double x = 2 * (daysSinceJ2010 - start) / length - 1;
+
+			for(int v = 0; v < BatchEphemeris.VALUES; ++v) {
+				values[v] = (polynomials[v] == null) ? 0 : polynomials[v].at(x);
+			}
+
+			values[BatchEphemeris.LON] = normalizePositive(values[BatchEphemeris.LON]);
+
+			if (phaseMagnitude)
+				values[BatchEphemeris.MAGNITUDE] = 5 * log10(values[BatchEphemeris.MAGNITUDE]) - 2.5 * log10(max(values[BatchEphemeris.PHASE], Double.MIN_NORMAL));
+		}
+	}
+}
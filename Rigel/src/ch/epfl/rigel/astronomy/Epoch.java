@@ -18,12 +18,16 @@ public enum Epoch {
 	J2000(LocalDate.of(2000, Month.JANUARY, 1), LocalTime.NOON, ZoneId.of("UTC")),
 	J2010(LocalDate.of(2010, Month.JANUARY, 1).minusDays(1), LocalTime.MIDNIGHT, ZoneId.of("UTC"));
 
+	/**
+	 * Number of days in a julian century
+	 */
+	public static final double DAYS_PER_CENTURY = 36525.0;
+
 	private final ZonedDateTime date;
 	private static final double MILLIS_PER_SECOND = 1000.0;
 	private static final double SECONDS_PER_MINUTS = 60.0;
 	private static final double MINUTS_PER_HOUR = 60.0;
 	private static final double HOURS_PER_DAY = 24.0;
-	private static final double DAYS_PER_CENTURY = 36525.0;
 	private static final double MILLIS_PER_DAY = MILLIS_PER_SECOND * SECONDS_PER_MINUTS * MINUTS_PER_HOUR * HOURS_PER_DAY;
 	
 	
@@ -57,4 +61,30 @@ public enum Epoch {
 
 		return daysUntil(when) / DAYS_PER_CENTURY; 
 	}
+
+	/**
+	 * Compute the date at the given number of days after the chosen epoch (J2000/J2010), to the millisecond
+	 * 
+	 * @param days 
+	 * 			number of days from the chosen epoch (J2000/J2010) to the desired date
+	 * 
+	 * @return date at the given number of days after the chosen epoch (J2000/J2010)
+	 */ 
+	public ZonedDateTime plusDays(double days) {
+
+		return date.plus(Math.round(days * MILLIS_PER_DAY), ChronoUnit.MILLIS); 
+	}
+
+	/**
+	 * Compute the number of days from the chosen epoch (J2000/J2010) to the other epoch
+	 * 
+	 * @param other 
+	 * 			epoch to which the number of days is calculated
+	 * 
+	 * @return number of days from the chosen epoch (J2000/J2010) to the other epoch
+	 */ 
+	public double daysUntil(Epoch other) {
+
+		return daysUntil(other.date); 
+	}
 }
@@ -0,0 +1,212 @@
+package ch.epfl.rigel.astronomy;
+
+import static java.lang.Math.acos;
+import static java.lang.Math.ceil;
+import static java.lang.Math.cos;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.sin;
+
+import ch.epfl.rigel.math.Angle;
+
+/**
+ * Coarse tiling of the celestial sphere in equatorial coordinates, used to select the stars of a cone
+ * without testing them one by one : tiles entirely outside of the cone are skipped at once
+ *
+ * The sphere is split in bands of declination of 10°, each band being split in sectors of right ascension about 10° wide
+ * The stars of a tile are stored by increasing rank, that is in the magnitude order of the catalogue
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+final class EquatorialTiling {
+
+	private static final int BANDS = 18;
+	private static final double BAND_HEIGHT = Math.PI / BANDS;
+
+	//Number of sectors of each band and index of the first tile of each band
+	private final int[] sectors;
+	private final int[] firstTile;
+
+	//Unit vector of the center of each tile and angular radius of the cap containing all its stars
+	private final double[] centerX, centerY, centerZ;
+	private final double[] radius;
+
+	//Ranks of the stars sorted by tile : the stars of tile t are at indexes [tileStart[t], tileStart[t+1][ of tileRanks
+	private final int[] tileStart;
+	private final int[] tileRanks;
+
+	/**
+	 * Constructor of the tiling of the given stars
+	 *
+	 * @param ra
+	 * 			Right ascensions of the stars (in radians), in the magnitude order
+	 *
+	 * @param dec
+	 * 			Declinations of the stars (in radians), in the magnitude order
+	 *
+	 * @param x
+	 * 			First components of the equatorial unit vectors of the stars
+	 *
+	 * @param y
+	 * 			Second components of the equatorial unit vectors of the stars
+	 *
+	 * @param z
+	 * 			Third components of the equatorial unit vectors of the stars
+	 */
+	EquatorialTiling(double[] ra, double[] dec, double[] x, double[] y, double[] z) {
+		sectors = new int[BANDS];
+		firstTile = new int[BANDS + 1];
+
+		for(int band = 0; band < BANDS; ++band) {
+			//Sectors are made narrower in right ascension near the equator, where the band is the widest
+			double lowDec = band * BAND_HEIGHT - Math.PI / 2;
+			double highDec = lowDec + BAND_HEIGHT;
+			double closestToEquator = (lowDec < 0 && highDec > 0) ? 0 : min(Math.abs(lowDec), Math.abs(highDec));
+
+			sectors[band] = max(1, (int) ceil(2 * BANDS * cos(closestToEquator)));
+			firstTile[band + 1] = firstTile[band] + sectors[band];
+		}
+
+		int tiles = firstTile[BANDS];
+		centerX = new double[tiles];
+		centerY = new double[tiles];
+		centerZ = new double[tiles];
+		radius = new double[tiles];
+
+		for(int band = 0; band < BANDS; ++band) {
+			double centerDec = (band + 0.5) * BAND_HEIGHT - Math.PI / 2;
+
+			for(int sector = 0; sector < sectors[band]; ++sector) {
+				double centerRa = (sector + 0.5) * Angle.TAU / sectors[band];
+				int tile = firstTile[band] + sector;
+
+				centerX[tile] = cos(centerDec) * cos(centerRa);
+				centerY[tile] = cos(centerDec) * sin(centerRa);
+				centerZ[tile] = sin(centerDec);
+			}
+		}
+
+		//Counting sort of the stars by tile, the ranks staying in increasing order inside each tile
+		int count = ra.length;
+		int[] tileOf = new int[count];
+		tileStart = new int[tiles + 1];
+
+		for(int rank = 0; rank < count; ++rank) {
+			int tile = tileOf(ra[rank], dec[rank]);
+			tileOf[rank] = tile;
+			++tileStart[tile + 1];
+
+			//The radius of the tile is the largest angle between its center and one of its stars
+			double angle = angle(centerX[tile]*x[rank] + centerY[tile]*y[rank] + centerZ[tile]*z[rank]);
+			radius[tile] = max(radius[tile], angle);
+		}
+
+		for(int tile = 0; tile < tiles; ++tile) {
+			tileStart[tile + 1] += tileStart[tile];
+		}
+
+		int[] next = new int[tiles];
+		System.arraycopy(tileStart, 0, next, 0, tiles);
+		tileRanks = new int[count];
+
+		for(int rank = 0; rank < count; ++rank) {
+			tileRanks[next[tileOf[rank]]++] = rank;
+		}
+	}
+
+	/**
+	 * Writes in the destination array the ranks of the stars whose rank is smaller than rankLimit
+	 * and whose angular distance to the given direction is smaller or equal to the radius of the cone
+	 *
+	 * @param x
+	 * 			First component of the equatorial unit vector of the axis of the cone
+	 *
+	 * @param y
+	 * 			Second component of the equatorial unit vector of the axis of the cone
+	 *
+	 * @param z
+	 * 			Third component of the equatorial unit vector of the axis of the cone
+	 *
+	 * @param coneRadius
+	 * 			Angular radius of the cone (in radians)
+	 *
+	 * @param starX
+	 * 			First components of the equatorial unit vectors of the stars
+	 *
+	 * @param starY
+	 * 			Second components of the equatorial unit vectors of the stars
+	 *
+	 * @param starZ
+	 * 			Third components of the equatorial unit vectors of the stars
+	 *
+	 * @param rankLimit
+	 * 			Rank following the rank of the faintest star which can be selected
+	 *
+	 * @param destination
+	 * 			Array of size at least rankLimit receiving the ranks of the selected stars, tile by tile
+	 *
+	 * @return number of selected stars
+	 */
+	int select(double x, double y, double z, double coneRadius, double[] starX, double[] starY, double[] starZ, int rankLimit, int[] destination) {
+		double cosConeRadius = cos(coneRadius);
+		int count = 0;
+
+		for(int tile = 0; tile < radius.length; ++tile) {
+			int start = tileStart[tile];
+			int end = tileStart[tile + 1];
+
+			//Empty tile, or tile whose brightest star is already too faint
+			if (start == end || tileRanks[start] >= rankLimit)
+				continue;
+
+			double distance = angle(centerX[tile]*x + centerY[tile]*y + centerZ[tile]*z);
+
+			if (distance > coneRadius + radius[tile])
+				continue;
+
+			boolean inside = distance + radius[tile] <= coneRadius;
+
+			for(int k = start; k < end; ++k) {
+				int rank = tileRanks[k];
+
+				if (rank >= rankLimit)
+					break;
+
+				if (inside || starX[rank]*x + starY[rank]*y + starZ[rank]*z >= cosConeRadius)
+					destination[count++] = rank;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Returns the index of the tile containing the given position
+	 *
+	 * @param ra
+	 * 			Right ascension (in radians)
+	 *
+	 * @param dec
+	 * 			Declination (in radians)
+	 *
+	 * @return index of the tile
+	 */
+	private int tileOf(double ra, double dec) {
+		int band = min(BANDS - 1, max(0, (int) ((dec + Math.PI / 2) / BAND_HEIGHT)));
+		int sector = min(sectors[band] - 1, max(0, (int) (ra / (Angle.TAU / sectors[band]))));
+
+		return firstTile[band] + sector;
+	}
+
+	/**
+	 * Returns the angle between two unit vectors given their dot product, clipped to [-1, 1] to absorb rounding errors
+	 *
+	 * @param dot
+	 * 			Dot product of the two unit vectors
+	 *
+	 * @return angle between the two vectors (in radians)
+	 */
+	private static double angle(double dot) {
+		return acos(max(-1, min(1, dot)));
+	}
+}
@@ -0,0 +1,114 @@
+package ch.epfl.rigel.astronomy;
+
+import java.util.Arrays;
+
+/**
+ * Index of the stars by Hipparcos id, associating to each id the index of the last star of that id in the list of stars
+ *
+ * The ids and the indexes are stored in two arrays of primitive ints addressed by linear probing : neither the insertion
+ * nor the search allocates any object, and the index is shared as is by the loaders instead of being copied
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+final class HipparcosIndex {
+
+	private static final int INITIAL_CAPACITY = 1 << 10;
+
+	//Index of an empty slot
+	private static final int EMPTY = -1;
+
+	private int[] ids;
+	private int[] indexes;
+	private int size;
+
+	/**
+	 * Constructor of an empty index
+	 */
+	HipparcosIndex() {
+		ids = new int[INITIAL_CAPACITY];
+		indexes = new int[INITIAL_CAPACITY];
+		Arrays.fill(indexes, EMPTY);
+	}
+
+	/**
+	 * Associates the given index to the given Hipparcos id, replacing the index previously associated to that id
+	 *
+	 * @param hipparcosId
+	 * 			Hipparcos id of the star
+	 *
+	 * @param index
+	 * 			Index of the star in the list of stars, positive or zero
+	 */
+	void put(int hipparcosId, int index) {
+		//The table is kept at most half full, so that the probe sequences stay short
+		if (2 * (size + 1) > ids.length)
+			grow();
+
+		int slot = slotOf(ids, indexes, hipparcosId);
+
+		if (indexes[slot] == EMPTY) {
+			ids[slot] = hipparcosId;
+			++size;
+		}
+		indexes[slot] = index;
+	}
+
+	/**
+	 * Returns the index associated to the given Hipparcos id
+	 *
+	 * @param hipparcosId
+	 * 			Hipparcos id of the star
+	 *
+	 * @return index of the last star of that id in the list of stars, -1 if there is no star of that id
+	 */
+	int indexOf(int hipparcosId) {
+		return indexes[slotOf(ids, indexes, hipparcosId)];
+	}
+
+	/**
+	 * Returns the slot containing the given id, or the empty slot ending its probe sequence if the id is absent
+	 *
+	 * @param ids
+	 * 			Ids of the slots
+	 *
+	 * @param indexes
+	 * 			Indexes of the slots, EMPTY if the slot is empty
+	 *
+	 * @param hipparcosId
+	 * 			Hipparcos id searched
+	 *
+	 * @return slot of the id
+	 */
+	private static int slotOf(int[] ids, int[] indexes, int hipparcosId) {
+		int mask = ids.length - 1;
+
+		//Fibonacci hashing, the slot being given by the highest bits of the product, which spread consecutive ids over the whole table
+		int slot = (hipparcosId * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(mask);
+
+		while (indexes[slot] != EMPTY && ids[slot] != hipparcosId) {
+			slot = (slot + 1) & mask;
+		}
+
+		return slot;
+	}
+
+	/**
+	 * Doubles the capacity of the table, inserting again all its entries
+	 */
+	private void grow() {
+		int[] newIds = new int[2 * ids.length];
+		int[] newIndexes = new int[2 * ids.length];
+		Arrays.fill(newIndexes, EMPTY);
+
+		for(int slot = 0; slot < ids.length; ++slot) {
+			if (indexes[slot] != EMPTY) {
+				int newSlot = slotOf(newIds, newIndexes, ids[slot]);
+				newIds[newSlot] = ids[slot];
+				newIndexes[newSlot] = indexes[slot];
+			}
+		}
+
+		ids = newIds;
+		indexes = newIndexes;
+	}
+}
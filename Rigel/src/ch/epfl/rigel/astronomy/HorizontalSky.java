@@ -0,0 +1,528 @@
+package ch.epfl.rigel.astronomy;
+
+import static ch.epfl.rigel.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import ch.epfl.rigel.astronomy.ObservedSky.Mode;
+import ch.epfl.rigel.coordinates.AtmosphericRefraction;
+import ch.epfl.rigel.coordinates.EclipticCoordinates;
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import ch.epfl.rigel.math.Angle;
+
+/**
+ * Represents the horizontal coordinates of all the celestial objects of the sky at a given instant for a given observer,
+ * that is the time dependent stage of the ObservedSky
+ *
+ * It only depends on the instant and on the observer : the same snapshot is reused by all the ObservedSky built
+ * while the user changes the direction of view, which only runs the stereographic projection again
+ *
+ * The coordinates are geometric, unless an atmospheric refraction is given : the altitudes are then corrected into the apparent ones,
+ * in the same pass as the conversion of the stars
+ *
+ * @author Nael Ouerghemi (310435)
+ * @author Tanguy Marbot (316756)
+ */
+public final class HorizontalSky {
+
+	//Number of points used to draw the ecliptic and the equator
+	static final int LINE_POINTS = 180;
+
+	/**
+	 * Number of bodies of the Solar System : the Sun, the Moon and the planets except planet Earth
+	 */
+	public static final int BODIES = 2 + PlanetModel.ALL.size() - 1;
+
+	private final ZonedDateTime when;
+	private final GeographicCoordinates where;
+	private final StarCatalogue catalogue;
+	private final Mode mode;
+	private final EquatorialToHorizontalConversion equToHor;
+
+	//Refraction applied to the altitudes, null if the coordinates are geometric
+	private final AtmosphericRefraction refraction;
+
+	//Positions of the stars at the epoch of observation, for the mean equator and equinox of that epoch
+	private final StarCatalogue.Positions starPositions;
+
+	private final Sun sun;
+	private final HorizontalCoordinates sunHorizontal;
+	private final Moon moon;
+	private final HorizontalCoordinates moonHorizontal;
+	private final List<Planet> planets;
+	private final List<HorizontalCoordinates> planetsHorizontal;
+
+	//Azimuths and altitudes of the stars in mode EXACT, north, east and up components of their unit vectors in mode INCREMENTAL
+	//The stars are stored in the magnitude order of the catalogue
+	private final double[] starsFirst, starsSecond, starsThird;
+
+	//Azimuths and altitudes of the Sun, the Moon and the planets, in this order
+	private final double[] bodyAz, bodyAlt;
+
+	private final double[] eclipticAz, eclipticAlt;
+	private final double[] equatorAz, equatorAlt;
+
+	/**
+	 * Constructor of the horizontal snapshot of the sky
+	 *
+	 * @param when
+	 * 			Instant of observation
+	 *
+	 * @param where
+	 * 			Geographic coordinates of the observer
+	 *
+	 * @param catalogue
+	 * 			StarCatalogue containing the list of stars and asterisms
+	 *
+	 * @param mode
+	 * 			Mode of conversion of the stars
+	 *
+	 * @throws NullPointerException
+	 * 			if one of the parameters is null
+	 */
+	public HorizontalSky(ZonedDateTime when, GeographicCoordinates where, StarCatalogue catalogue, Mode mode) {
+		this(when, where, catalogue, mode, null, new Storage(catalogue.stars().size()), null);
+	}
+
+	/**
+	 * Constructor of the horizontal snapshot of the sky, whose altitudes are corrected by the atmospheric refraction
+	 *
+	 * @param when
+	 * 			Instant of observation
+	 *
+	 * @param where
+	 * 			Geographic coordinates of the observer
+	 *
+	 * @param catalogue
+	 * 			StarCatalogue containing the list of stars and asterisms
+	 *
+	 * @param mode
+	 * 			Mode of conversion of the stars
+	 *
+	 * @param refraction
+	 * 			Atmospheric refraction applied to the altitudes
+	 *
+	 * @throws NullPointerException
+	 * 			if one of the parameters is null
+	 */
+	public HorizontalSky(ZonedDateTime when, GeographicCoordinates where, StarCatalogue catalogue, Mode mode, AtmosphericRefraction refraction) {
+		this(when, where, catalogue, mode, requireNonNull(refraction), new Storage(catalogue.stars().size()), null);
+	}
+
+	/**
+	 * Constructor of the horizontal snapshot of the sky, whose arrays are those of the given storage,
+	 * the Moon and the planets being interpolated by the given ephemeris cache
+	 * The storage is overwritten : the snapshot previously built in it must not be used anymore
+	 *
+	 * @param when
+	 * 			Instant of observation
+	 *
+	 * @param where
+	 * 			Geographic coordinates of the observer
+	 *
+	 * @param catalogue
+	 * 			StarCatalogue containing the list of stars and asterisms
+	 *
+	 * @param mode
+	 * 			Mode of conversion of the stars
+	 *
+	 * @param refraction
+	 * 			Atmospheric refraction applied to the altitudes, null if the coordinates are geometric
+	 *
+	 * @param storage
+	 * 			Arrays receiving the horizontal coordinates
+	 *
+	 * @param ephemeris
+	 * 			Cache interpolating the Moon and the planets, null if they are computed by their models
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the storage has not been allocated for the number of stars of the catalogue
+	 */
+	HorizontalSky(ZonedDateTime when, GeographicCoordinates where, StarCatalogue catalogue, Mode mode, AtmosphericRefraction refraction, Storage storage,
+			EphemerisCache ephemeris) {
+		checkArgument(storage.starsFirst.length == catalogue.stars().size());
+
+		this.when = requireNonNull(when);
+		this.where = requireNonNull(where);
+		this.catalogue = requireNonNull(catalogue);
+		this.mode = requireNonNull(mode);
+		this.refraction = refraction;
+
+		//Terms shared by the Sun, the Moon and the planets, computed once for the whole Solar System
+		SolarSystemState state = SolarSystemState.at(when);
+		EclipticToEquatorialConversion eclToEqu = state.eclipticToEquatorialConversion();
+		equToHor = new EquatorialToHorizontalConversion(when, where);
+
+		sun = SunModel.SUN.at(state);
+		sunHorizontal = apparent(equToHor.apply(sun.equatorialPos()));
+
+		moon = (ephemeris == null) ? MoonModel.MOON.at(state) : ephemeris.at(MoonModel.MOON, state.daysSinceJ2010(), eclToEqu);
+		moonHorizontal = apparent(equToHor.apply(moon.equatorialPos()));
+
+		List<Planet> planetList = new ArrayList<Planet>();
+		List<HorizontalCoordinates> planetHorizontalList = new ArrayList<HorizontalCoordinates>();
+
+		for(PlanetModel planetMod : PlanetModel.ALL) {
+			if (!planetMod.equals(PlanetModel.EARTH)) {
+				Planet planet = (ephemeris == null) ? planetMod.at(state) : ephemeris.at(planetMod, state.daysSinceJ2010(), eclToEqu);
+				planetList.add(planet);
+				planetHorizontalList.add(apparent(equToHor.apply(planet.equatorialPos())));
+			}
+		}
+
+		planets = List.copyOf(planetList);
+		planetsHorizontal = List.copyOf(planetHorizontalList);
+
+		bodyAz = storage.bodyAz;
+		bodyAlt = storage.bodyAlt;
+		bodyAz[0] = sunHorizontal.az();
+		bodyAlt[0] = sunHorizontal.alt();
+		bodyAz[1] = moonHorizontal.az();
+		bodyAlt[1] = moonHorizontal.alt();
+
+		for(int i = 0; i < planetsHorizontal.size(); ++i) {
+			bodyAz[i + 2] = planetsHorizontal.get(i).az();
+			bodyAlt[i + 2] = planetsHorizontal.get(i).alt();
+		}
+
+		int count = catalogue.stars().size();
+		starPositions = catalogue.positionsAt(when);
+		starsFirst = storage.starsFirst;
+		starsSecond = storage.starsSecond;
+		starsThird = storage.starsThird;
+		eclipticAz = storage.eclipticAz;
+		eclipticAlt = storage.eclipticAlt;
+		equatorAz = storage.equatorAz;
+		equatorAlt = storage.equatorAlt;
+
+		//The refraction corrects each range right after its conversion, while it is still in the cache
+		switch (mode) {
+		case EXACT :
+			ParallelRanges.run(count, (from, to) -> {
+				equToHor.applyTo(starPositions.ra(), starPositions.dec(), starsFirst, starsSecond, from, to);
+
+				if (refraction != null)
+					refraction.applyTo(starsSecond, from, to);
+			});
+			break;
+
+		case INCREMENTAL :
+			ParallelRanges.run(count, (from, to) -> {
+				equToHor.applyToUnitVectors(starPositions.unitX(), starPositions.unitY(), starPositions.unitZ(), 
+						starsFirst, starsSecond, starsThird, from, to);
+
+				if (refraction != null)
+					refraction.applyToUnitVectors(starsFirst, starsSecond, starsThird, from, to);
+			});
+			break;
+		}
+
+		//Points of the ecliptic and of the equator, every 2 degrees
+		for(int i = 0; i < LINE_POINTS; i++) {
+			double lon = Angle.ofDeg((double) i * 2);
+
+			HorizontalCoordinates fromEcliptic = apparent(equToHor.apply(eclToEqu.apply(EclipticCoordinates.of(lon, 0.0))));
+			eclipticAz[i] = fromEcliptic.az();
+			eclipticAlt[i] = fromEcliptic.alt();
+
+			HorizontalCoordinates fromEquator = apparent(equToHor.apply(EquatorialCoordinates.of(lon, 0.0)));
+			equatorAz[i] = fromEquator.az();
+			equatorAlt[i] = fromEquator.alt();
+		}
+	}
+
+	/**
+	 * Returns the apparent horizontal coordinates of the given geometric ones, which are returned unchanged if no refraction is applied
+	 *
+	 * @param geometric
+	 * 			Geometric horizontal coordinates
+	 *
+	 * @return horizontal coordinates corrected by the refraction of the snapshot
+	 */
+	private HorizontalCoordinates apparent(HorizontalCoordinates geometric) {
+		return refraction == null ? geometric : refraction.apply(geometric);
+	}
+
+	/**
+	 * Returns true if this snapshot has been computed for the same instant and the same observer,
+	 * in which case it can be reused instead of computing a new one
+	 *
+	 * @param otherWhen
+	 * 			Instant of observation
+	 *
+	 * @param otherWhere
+	 * 			Geographic coordinates of the observer
+	 *
+	 * @return true if the snapshot corresponds to the given instant and observer, false otherwise
+	 */
+	public boolean isFor(ZonedDateTime otherWhen, GeographicCoordinates otherWhere) {
+		return when.toInstant().equals(otherWhen.toInstant())
+				&& where.lon() == otherWhere.lon()
+				&& where.lat() == otherWhere.lat();
+	}
+
+	/**
+	 * Projects the stars of ranks from (inclusive) to to (exclusive) in the magnitude order of the catalogue,
+	 * the positions of the star of rank k being written at indexes 2k and 2k+1 of the destination array
+	 *
+	 * @param projection
+	 * 			Stereographic projection used
+	 *
+	 * @param positions
+	 * 			Array receiving the projected positions of the stars
+	 *
+	 * @param from
+	 * 			Rank of the first star to project
+	 *
+	 * @param to
+	 * 			Rank following the last star to project
+	 */
+	void projectStars(StereographicProjection projection, double[] positions, int from, int to) {
+		switch (mode) {
+		case EXACT :
+			projection.project(starsFirst, starsSecond, positions, from, to);
+			break;
+
+		case INCREMENTAL :
+			projection.projectUnitVectors(starsFirst, starsSecond, starsThird, positions, from, to);
+			break;
+		}
+	}
+
+	/**
+	 * Projects the stars whose ranks in the magnitude order of the catalogue are given by the elements from (inclusive) to to (exclusive)
+	 * of the array of ranks, the positions of the star of rank ranks[k] being written at indexes 2k and 2k+1 of the destination array
+	 *
+	 * @param projection
+	 * 			Stereographic projection used
+	 *
+	 * @param ranks
+	 * 			Ranks of the stars to project
+	 *
+	 * @param positions
+	 * 			Array of size at least 2 * ranks.length receiving the projected positions of the stars
+	 *
+	 * @param from
+	 * 			Index of the first element of the array of ranks
+	 *
+	 * @param to
+	 * 			Index following the last element of the array of ranks
+	 */
+	void projectStars(StereographicProjection projection, int[] ranks, double[] positions, int from, int to) {
+		switch (mode) {
+		case EXACT :
+			projection.project(starsFirst, starsSecond, ranks, positions, from, to);
+			break;
+
+		case INCREMENTAL :
+			projection.projectUnitVectors(starsFirst, starsSecond, starsThird, ranks, positions, from, to);
+			break;
+		}
+	}
+
+	/**
+	 * Returns the equatorial unit vector of the direction of given horizontal coordinates, at the instant and for the observer of the snapshot,
+	 * for the equator and equinox of the catalogue so that it can be compared with the positions of its tiling
+	 *
+	 * @param direction
+	 * 			Horizontal coordinates of the direction
+	 *
+	 * @return equatorial unit vector of the direction
+	 */
+	double[] equatorialDirection(HorizontalCoordinates direction) {
+		return starPositions.toCatalogueFrame(equToHor.equatorialUnitVector(direction));
+	}
+
+	/**
+	 * Returns the angle by which the stars can be moved from their geometric directions, to be added to the radius of a view cone
+	 * whose stars are searched among the geometric positions of the catalogue
+	 *
+	 * @return greatest refraction applied to the stars, 0 if the coordinates are geometric
+	 */
+	double refractionMargin() {
+		return refraction == null ? 0 : refraction.maximum();
+	}
+
+	/**
+	 * Returns true if the altitudes of the snapshot are corrected by the atmospheric refraction
+	 *
+	 * @return true if the coordinates are apparent, false if they are geometric
+	 */
+	public boolean isRefracted() {return refraction != null;}
+
+	/**
+	 * Projects the Sun, the Moon and the planets, in this order, the positions of the i-th body being written 
+	 * at indexes 2i and 2i+1 of the destination array
+	 *
+	 * @param projection
+	 * 			Stereographic projection used
+	 *
+	 * @param positions
+	 * 			Array of size 2 * BODIES receiving the projected positions of the bodies
+	 */
+	void projectBodies(StereographicProjection projection, double[] positions) {
+		projection.project(bodyAz, bodyAlt, positions, 0, BODIES);
+	}
+
+	/**
+	 * Projects the points of the ecliptic
+	 *
+	 * @param projection
+	 * 			Stereographic projection used
+	 *
+	 * @param positions
+	 * 			Array receiving the projected positions of the points
+	 */
+	void projectEcliptic(StereographicProjection projection, double[] positions) {
+		projection.project(eclipticAz, eclipticAlt, positions, 0, LINE_POINTS);
+	}
+
+	/**
+	 * Projects the points of the equator
+	 *
+	 * @param projection
+	 * 			Stereographic projection used
+	 *
+	 * @param positions
+	 * 			Array receiving the projected positions of the points
+	 */
+	void projectEquator(StereographicProjection projection, double[] positions) {
+		projection.project(equatorAz, equatorAlt, positions, 0, LINE_POINTS);
+	}
+
+	/**
+	 * Getter for the instant of observation
+	 *
+	 * @return instant of observation
+	 */
+	public ZonedDateTime when() {return when;}
+
+	/**
+	 * Getter for the geographic coordinates of the observer
+	 *
+	 * @return geographic coordinates of the observer
+	 */
+	public GeographicCoordinates where() {return where;}
+
+	/**
+	 * Getter for the star catalogue
+	 *
+	 * @return star catalogue
+	 */
+	public StarCatalogue catalogue() {return catalogue;}
+
+	/**
+	 * Getter for the Sun
+	 *
+	 * @return the Sun at the instant of observation
+	 */
+	public Sun sun() {return sun;}
+
+	/**
+	 * Getter for the horizontal coordinates of the Sun
+	 *
+	 * @return horizontal coordinates of the Sun
+	 */
+	public HorizontalCoordinates sunHorizontal() {return sunHorizontal;}
+
+	/**
+	 * Getter for the Moon
+	 *
+	 * @return the Moon at the instant of observation
+	 */
+	public Moon moon() {return moon;}
+
+	/**
+	 * Getter for the horizontal coordinates of the Moon
+	 *
+	 * @return horizontal coordinates of the Moon
+	 */
+	public HorizontalCoordinates moonHorizontal() {return moonHorizontal;}
+
+	/**
+	 * Getter for the planets of the Solar System except planet Earth
+	 *
+	 * @return immutable list of the planets
+	 */
+	public List<Planet> planets() {return planets;}
+
+	/**
+	 * Getter for the horizontal coordinates of the planets, in the same order as the list of planets
+	 *
+	 * @return immutable list of the horizontal coordinates of the planets
+	 */
+	public List<HorizontalCoordinates> planetsHorizontal() {return planetsHorizontal;}
+
+	/**
+	 * Returns the equatorial coordinates of the star of given index in the list of stars of the catalogue,
+	 * moved by its proper motion to the epoch of observation and precessed to the mean equator and equinox of that epoch
+	 *
+	 * @param index
+	 * 			Index of the star in the list of stars of the catalogue
+	 *
+	 * @throws IndexOutOfBoundsException
+	 * 			if the index is not the one of a star of the catalogue
+	 *
+	 * @return equatorial coordinates of the star at the epoch of observation
+	 */
+	public EquatorialCoordinates starEquatorial(int index) {
+		int rank = catalogue.rankOfStarIndex(index);
+		return EquatorialCoordinates.of(starPositions.ra()[rank], starPositions.dec()[rank]);
+	}
+
+	/**
+	 * Returns the horizontal coordinates of the star of given index in the list of stars of the catalogue
+	 *
+	 * @param index
+	 * 			Index of the star in the list of stars of the catalogue
+	 *
+	 * @throws IndexOutOfBoundsException
+	 * 			if the index is not the one of a star of the catalogue
+	 *
+	 * @return horizontal coordinates of the star
+	 */
+	public HorizontalCoordinates starHorizontal(int index) {
+		int rank = catalogue.rankOfStarIndex(index);
+
+		if (mode == Mode.EXACT)
+			return HorizontalCoordinates.of(starsFirst[rank], starsSecond[rank]);
+
+		double up = Math.max(-1, Math.min(1, starsThird[rank]));
+		return HorizontalCoordinates.of(Angle.normalizePositive(Math.atan2(starsSecond[rank], starsFirst[rank])), Math.asin(up));
+	}
+
+	/**
+	 * Arrays of a horizontal snapshot of the sky, allocated once and reused by the successive snapshots built in it
+	 *
+	 * @author Nael Ouerghemi (310435)
+	 */
+	static final class Storage {
+		private final double[] starsFirst, starsSecond, starsThird;
+		private final double[] bodyAz = new double[BODIES];
+		private final double[] bodyAlt = new double[BODIES];
+		private final double[] eclipticAz = new double[LINE_POINTS];
+		private final double[] eclipticAlt = new double[LINE_POINTS];
+		private final double[] equatorAz = new double[LINE_POINTS];
+		private final double[] equatorAlt = new double[LINE_POINTS];
+
+		/**
+		 * Allocates the arrays of a snapshot for a catalogue of given size
+		 *
+		 * @param starCount
+		 * 			Number of stars of the catalogue
+		 */
+		Storage(int starCount) {
+			starsFirst = new double[starCount];
+			starsSecond = new double[starCount];
+			starsThird = new double[starCount];
+		}
+	}
+}
@@ -1,11 +1,13 @@
 package ch.epfl.rigel.astronomy;
 
-import java.io.BufferedReader;
-
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
 import ch.epfl.rigel.astronomy.StarCatalogue.Builder;
 import static ch.epfl.rigel.coordinates.EquatorialCoordinates.of;
 /**
@@ -18,57 +20,329 @@ public enum HygDatabaseLoader implements StarCatalogue.Loader{
 
 	private HygDatabaseLoader() {}
 
+	//Size of the blocks of bytes read from the stream
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	//Last column read in a line, the following ones being skipped
+	private static final int LAST_COLUMN = Columns.CON.ordinal();
+
+	//View of the arrays of bytes as arrays of longs, the lowest byte of a long being the first one of the array
+	private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+	//Separators repeated in the eight bytes of a long
+	private static final long COMMAS = 0x2C2C2C2C2C2C2C2CL;
+	private static final long NEW_LINES = 0x0A0A0A0A0A0A0A0AL;
+
 	/**
 	 * Method which interprets the data file and loads Star Catalogue with the list of Stars
+	 * 
+	 * The bytes are read by blocks and each line is scanned once, eight bytes at a time, to find the bounds of the columns used,
+	 * the other columns being skipped without being read. The numbers are parsed in place, without creating a string for the lines or the columns :
+	 * only the names of the stars are created. The stars are the same as the ones obtained by splitting the lines and parsing the columns
+	 * with the methods of the JDK
+	 * 
+	 * @throws IOException
+	 * 			if the stream cannot be read or if a line does not contain all the columns used
 	 */
 	public void load(InputStream inputStream, Builder builder) throws IOException {
 
-		try(BufferedReader b= new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.US_ASCII));) {
-
-			String currentLine;
-			String[] data;
-
-			//Skips first line
-			b.readLine();
-
-			//Initialization
-			currentLine = b.readLine();
-
-			while(currentLine!=null) {
-
-				data = currentLine.split(",");
-
-				String hip = data[Columns.HIP.ordinal()];
-				int hipId = hip.isEmpty() ? 0 : Integer.parseInt(hip);
-				
-                String mag = data[Columns.MAG.ordinal()];
-                float magni = mag.isEmpty() ? 0 : Float.parseFloat(mag);
-                
-                String index = data[Columns.CI.ordinal()];
-                float color = index.isEmpty() ? 0 : Float.parseFloat(index);
-                
-                String bay = data[Columns.BAYER.ordinal()];
-                String bayer = bay.isEmpty() ? "?" : bay;
-                 
-                String con = data[Columns.CON.ordinal()];
-				
-                StringBuilder build = new StringBuilder();
-                String altName = build.append(bayer)
-									  .append(" ")
-									  .append(con)
-									  .toString();
-
-				String raw = data[Columns.PROPER.ordinal()];
-				String name = raw.isEmpty() ? altName : raw;
-				
-				double ra = Double.parseDouble(data[Columns.RARAD.ordinal()]);
-                double dec = Double.parseDouble(data[Columns.DECRAD.ordinal()]);
-
-				builder.addStar(new Star(hipId, name, of(ra, dec), magni, color));
-
-				currentLine = b.readLine();
-			} 
+		try (InputStream stream = inputStream) {
+			byte[] buffer = new byte[BUFFER_SIZE];
+
+			//Bytes of the buffer which have been read, and index from which the end of the last complete line is searched
+			int length = 0, searchFrom = 0;
+			boolean header = true;
+			int read;
+
+			while ((read = stream.read(buffer, length, buffer.length - length)) != -1) {
+				length += read;
+
+				//The bytes before searchFrom do not contain any end of line
+				int end = length;
+				while (end > searchFrom && buffer[end - 1] != '\n') {
+					--end;
+				}
+
+				//The complete lines of the buffer are added, and the beginning of the unterminated line is moved to its start
+				if (end > searchFrom) {
+					int from = 0;
+
+					//Skips first line
+					if (header) {
+						from = nextLine(buffer, 0, end);
+						header = false;
+					}
+
+					addStars(builder::addStar, buffer, from, end);
+
+					length -= end;
+					System.arraycopy(buffer, end, buffer, 0, length);
+				}
+
+				//The buffer grows if a single line fills it
+				searchFrom = length;
+				if (length == buffer.length)
+					buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+			}
+
+			//Last line, which may not be terminated
+			if (!header)
+				addStars(builder::addStar, buffer, 0, length);
+		}
+	}
+
+	/**
+	 * Returns the index of the start of the line following the given index
+	 * 
+	 * @param bytes
+	 * 			Array of bytes
+	 * 
+	 * @param from
+	 * 			Index from which the end of line is searched
+	 * 
+	 * @param to
+	 * 			Index following the last byte searched
+	 * 
+	 * @return index following the first end of line at or after from, to if there is none
+	 */
+	static int nextLine(byte[] bytes, int from, int to) {
+		for(int i = from; i < to; ++i) {
+			if (bytes[i] == '\n')
+				return i + 1;
+		}
+
+		return to;
+	}
+
+	/**
+	 * Gives the stars described by a sequence of lines, in order, to the consumer, empty lines being ignored
+	 * Disjoint sequences can be parsed concurrently
+	 * 
+	 * @param stars
+	 * 			Consumer receiving the stars
+	 * 
+	 * @param bytes
+	 * 			Array of bytes containing the lines
+	 * 
+	 * @param from
+	 * 			Index of the first byte of the first line
+	 * 
+	 * @param to
+	 * 			Index following the end of line of the last line, or its last byte if it is not terminated
+	 * 
+	 * @throws IOException
+	 * 			if a line does not contain all the columns used
+	 */
+	static void addStars(Consumer<Star> stars, byte[] bytes, int from, int to) throws IOException {
+		int[] bounds = new int[2 * (LAST_COLUMN + 1)];
+
+		while (from < to) {
+			from = addStar(stars, bytes, from, to, bounds);
+		}
+	}
+
+	/**
+	 * Gives the star described by the line starting at the given index to the consumer, an empty line being ignored
+	 * 
+	 * @param stars
+	 * 			Consumer receiving the star
+	 * 
+	 * @param bytes
+	 * 			Array of bytes containing the line
+	 * 
+	 * @param from
+	 * 			Index of the first byte of the line
+	 * 
+	 * @param to
+	 * 			Index following the bytes which can be read, at which the line ends if it does not contain any end of line
+	 * 
+	 * @param bounds
+	 * 			Array receiving the start and the end of each column up to the last one used
+	 * 
+	 * @throws IOException
+	 * 			if the line does not contain all the columns used
+	 * 
+	 * @return index following the end of line, or to if the line is not terminated
+	 */
+	private static int addStar(Consumer<Star> stars, byte[] bytes, int from, int to, int[] bounds) throws IOException {
+		//Bounds of the columns up to the last one used, the separators of each block of eight bytes being visited in order
+		int column = 0, columnStart = from, lineEnd = to;
+
+		lines:
+		for(int i = from; i < to; i += Long.BYTES) {
+			long found = i + Long.BYTES <= to ? separators((long) LONGS.get(bytes, i)) : separators(bytes, i, to);
+
+			for(; found != 0; found &= found - 1) {
+				int separator = i + (Long.numberOfTrailingZeros(found) >>> 3);
+
+				if (bytes[separator] == '\n') {
+					lineEnd = separator;
+					break lines;
+				}
+
+				if (column <= LAST_COLUMN) {
+					bounds[2 * column] = columnStart;
+					bounds[2 * column + 1] = separator;
+				}
+				++column;
+				columnStart = separator + 1;
+			}
+		}
+
+		//Last column, ended by the end of line
+		if (column <= LAST_COLUMN) {
+			bounds[2 * column] = columnStart;
+			bounds[2 * column + 1] = lineEnd > columnStart && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+		}
+
+		int next = lineEnd < to ? lineEnd + 1 : to;
+
+		if (column == 0 && bounds[1] == from)
+			return next;
+
+		if (column < LAST_COLUMN)
+			throw new IOException("Invalid line in the HYG database : " + AsciiNumbers.string(bytes, from, lineEnd));
+
+		int hipId = isEmpty(bounds, Columns.HIP) ? 0 : AsciiNumbers.parseInt(bytes, start(bounds, Columns.HIP), end(bounds, Columns.HIP));
+
+		float magni = isEmpty(bounds, Columns.MAG) ? 0 : AsciiNumbers.parseFloat(bytes, start(bounds, Columns.MAG), end(bounds, Columns.MAG));
+
+		float color = isEmpty(bounds, Columns.CI) ? 0 : AsciiNumbers.parseFloat(bytes, start(bounds, Columns.CI), end(bounds, Columns.CI));
+
+		String name;
+		if (isEmpty(bounds, Columns.PROPER)) {
+			String bayer = isEmpty(bounds, Columns.BAYER) ? "?" : string(bytes, bounds, Columns.BAYER);
+			name = bayer + " " + string(bytes, bounds, Columns.CON);
 		}
+		else
+			name = string(bytes, bounds, Columns.PROPER);
+
+		double ra = AsciiNumbers.parseDouble(bytes, start(bounds, Columns.RARAD), end(bounds, Columns.RARAD));
+		double dec = AsciiNumbers.parseDouble(bytes, start(bounds, Columns.DECRAD), end(bounds, Columns.DECRAD));
+
+		double properMotionRa = isEmpty(bounds, Columns.PMRARAD) ? 0 
+				: AsciiNumbers.parseDouble(bytes, start(bounds, Columns.PMRARAD), end(bounds, Columns.PMRARAD));
+
+		double properMotionDec = isEmpty(bounds, Columns.PMDECRAD) ? 0 
+				: AsciiNumbers.parseDouble(bytes, start(bounds, Columns.PMDECRAD), end(bounds, Columns.PMDECRAD));
+
+		stars.accept(new Star(hipId, name, of(ra, dec), magni, color, properMotionRa, properMotionDec));
+
+		return next;
+	}
+
+	/**
+	 * Returns the separators of eight bytes read as a long, the bytes equal to a comma or an end of line being the null bytes
+	 * of the exclusive or of the long with the separator repeated : the highest bit of a byte x of seven low bits y is set
+	 * in ~(y + 0x7F | x | 0x7F) only if the byte is null, the addition not carrying from a byte to the next one
+	 * 
+	 * @param word
+	 * 			Long of eight bytes, the lowest one being the first byte
+	 * 
+	 * @return long whose highest bit of each byte is set if and only if the byte is a separator
+	 */
+	private static long separators(long word) {
+		return zeroBytes(word ^ COMMAS) | zeroBytes(word ^ NEW_LINES);
+	}
+
+	/**
+	 * Returns the separators of the last bytes of an array, fewer than eight
+	 * 
+	 * @param bytes
+	 * 			Array of bytes
+	 * 
+	 * @param from
+	 * 			Index of the first byte
+	 * 
+	 * @param to
+	 * 			Index following the last byte, less than eight bytes after the first one
+	 * 
+	 * @return long whose highest bit of the k-th byte is set if and only if the byte of index from + k is a separator
+	 */
+	private static long separators(byte[] bytes, int from, int to) {
+		long found = 0;
+
+		for(int i = from; i < to; ++i) {
+			if (bytes[i] == ',' || bytes[i] == '\n')
+				found |= 0x80L << (Byte.SIZE * (i - from));
+		}
+
+		return found;
+	}
+
+	/**
+	 * Returns the null bytes of a long
+	 * 
+	 * @param x
+	 * 			Long of eight bytes
+	 * 
+	 * @return long whose highest bit of each byte is set if and only if the byte is null
+	 */
+	private static long zeroBytes(long x) {
+		return ~(((x & 0x7F7F7F7F7F7F7F7FL) + 0x7F7F7F7F7F7F7F7FL) | x | 0x7F7F7F7F7F7F7F7FL);
+	}
+
+	/**
+	 * Returns the index of the first byte of a column
+	 * 
+	 * @param bounds
+	 * 			Bounds of the columns of the line
+	 * 
+	 * @param column
+	 * 			Column
+	 * 
+	 * @return index of the first byte of the column
+	 */
+	private static int start(int[] bounds, Columns column) {
+		return bounds[2 * column.ordinal()];
+	}
+
+	/**
+	 * Returns the index following the last byte of a column
+	 * 
+	 * @param bounds
+	 * 			Bounds of the columns of the line
+	 * 
+	 * @param column
+	 * 			Column
+	 * 
+	 * @return index following the last byte of the column
+	 */
+	private static int end(int[] bounds, Columns column) {
+		return bounds[2 * column.ordinal() + 1];
+	}
+
+	/**
+	 * Returns whether a column is empty
+	 * 
+	 * @param bounds
+	 * 			Bounds of the columns of the line
+	 * 
+	 * @param column
+	 * 			Column
+	 * 
+	 * @return true if the column does not contain any byte
+	 */
+	private static boolean isEmpty(int[] bounds, Columns column) {
+		return start(bounds, column) == end(bounds, column);
+	}
+
+	/**
+	 * Returns the string of the ASCII characters of a column
+	 * 
+	 * @param bytes
+	 * 			Array of bytes containing the line
+	 * 
+	 * @param bounds
+	 * 			Bounds of the columns of the line
+	 * 
+	 * @param column
+	 * 			Column
+	 * 
+	 * @return string of the column
+	 */
+	private static String string(byte[] bytes, int[] bounds, Columns column) {
+		return AsciiNumbers.string(bytes, start(bounds, column), end(bounds, column));
 	}
 
 	private enum Columns {
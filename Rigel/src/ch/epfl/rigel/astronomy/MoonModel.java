@@ -42,11 +42,105 @@ public enum MoonModel implements CelestialObjectModel<Moon>{
 	 */
 	@Override
 	public Moon at(double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion) {
+		return at(daysSinceJ2010, eclipticToEquatorialConversion, SunModel.SUN.at(daysSinceJ2010, eclipticToEquatorialConversion));
+	}
+
+	/**
+	 * Returns a representation of the moon at the instant of the state, reusing the Sun of the state
+	 * 
+	 * @param state
+	 * 				State of the Solar System at the instant
+	 * 
+	 * @return representation of the moon at the instant of the state
+	 */
+	@Override
+	public Moon at(SolarSystemState state) {
+		return at(state.daysSinceJ2010(), state.eclipticToEquatorialConversion(), state.sun());
+	}
+
+	/**
+	 * @see CelestialObjectModel#at(double[], double[], double[], double[], double[])
+	 */
+	@Override
+	public void at(double[] daysSinceJ2010, double[] ra, double[] dec, double[] magnitude, double[] angularSize) {
+		BatchEphemeris.run(this::sample, daysSinceJ2010, ra, dec, magnitude, angularSize);
+	}
+
+	/**
+	 * Writes the ecliptic coordinates, the angular size and the phase of the moon at the given time, without creating any object
+	 * 
+	 * @param daysSinceJ2010
+	 * 				Number of days between the epoch J2010 and wanted time
+	 * 
+	 * @param values
+	 * 				Array receiving the values at the indexes defined by BatchEphemeris
+	 */
+	void sample(double daysSinceJ2010, double[] values) {
+		//Mean anomaly of the Sun rounded as in the Sun objects, so that both ways give the same positions
+		double meanAnomalySun = SunModel.SUN.meanAnomaly(daysSinceJ2010);
+		double lonSun = SunModel.SUN.longitude(SunModel.SUN.realAnomaly(meanAnomalySun));
+		sample(daysSinceJ2010, lonSun, (float) meanAnomalySun, values);
+	}
+
+	/**
+	 * Returns the moon whose values have been written by a sample
+	 * 
+	 * @param values
+	 * 				Values of the moon at the indexes defined by BatchEphemeris
+	 * 
+	 * @param eclipticToEquatorialConversion
+	 * 				Conversion from ecliptic to equatorial coordinates used
+	 * 
+	 * @return representation of the moon
+	 */
+	Moon fromValues(double[] values, EclipticToEquatorialConversion eclipticToEquatorialConversion) {
+		//Conversion from ecliptic to equatorial coordinates
+		EquatorialCoordinates equ = eclipticToEquatorialConversion.apply(of(values[BatchEphemeris.LON], values[BatchEphemeris.LAT]));	
+
+		return new Moon(equ, (float) values[BatchEphemeris.ANGULAR_SIZE], 0f, (float) values[BatchEphemeris.PHASE]);
+	}
+
+	/**
+	 * Returns a representation of the moon given the Sun at the same instant
+	 * 
+	 * @param daysSinceJ2010
+	 * 				Number of days between the epoch J2010 and wanted time
+	 * 
+	 * @param eclipticToEquatorialConversion
+	 * 				Conversion from ecliptic to equatorial coordinates used
+	 * 
+	 * @param sun
+	 * 				Sun at the same instant
+	 * 
+	 * @return representation of the moon at the given time
+	 */
+	private Moon at(double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion, Sun sun) {
+		double[] values = new double[BatchEphemeris.VALUES];
+		sample(daysSinceJ2010, sun.eclipticPos().lon(), sun.meanAnomaly(), values);
+
+		return fromValues(values, eclipticToEquatorialConversion);
+	}
+
+	/**
+	 * Writes the ecliptic coordinates, the angular size and the phase of the moon given the Sun at the same instant,
+	 * without creating any object
+	 * 
+	 * @param daysSinceJ2010
+	 * 				Number of days between the epoch J2010 and wanted time
+	 * 
+	 * @param lonSun
+	 * 				Ecliptic longitude of the Sun
+	 * 
+	 * @param meanAnomalySun
+	 * 				Mean anomaly of the Sun
+	 * 
+	 * @param values
+	 * 				Array receiving the values at the indexes defined by BatchEphemeris
+	 */
+	private void sample(double daysSinceJ2010, double lonSun, double meanAnomalySun, double[] values) {
 
-		//Sun longitude and mean anomaly 
-		Sun sun = SunModel.SUN.at(daysSinceJ2010, eclipticToEquatorialConversion);
-		double lonSun = sun.eclipticPos().lon();
-		double sinMeanSun = sin(sun.meanAnomaly());
+		//Sun mean anomaly 
+		double sinMeanSun = sin(meanAnomalySun);
 
 		//Mean orbital longitude Moon
 		double lon = ofDeg(13.1763966)*daysSinceJ2010 + MEAN_LON;
@@ -97,9 +191,10 @@ public enum MoonModel implements CelestialObjectModel<Moon>{
 
 		double angularSize = MOON_FROM_EARTH / p;
 
-		//Conversion from ecliptic to equatorial coordinates
-		EquatorialCoordinates equ = eclipticToEquatorialConversion.apply(of(lonMoon, latMoon));	
-
-		return new Moon(equ, (float) angularSize, 0f,(float) f);
+		values[BatchEphemeris.LON] = lonMoon;
+		values[BatchEphemeris.LAT] = latMoon;
+		values[BatchEphemeris.MAGNITUDE] = 0;
+		values[BatchEphemeris.ANGULAR_SIZE] = angularSize;
+		values[BatchEphemeris.PHASE] = f;
 	}
 }
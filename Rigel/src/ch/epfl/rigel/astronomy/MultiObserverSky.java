@@ -0,0 +1,222 @@
+package ch.epfl.rigel.astronomy;
+
+import static ch.epfl.rigel.Preconditions.checkArgument;
+import static java.lang.Math.cos;
+import static java.lang.Math.sin;
+import static java.util.Objects.requireNonNull;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+
+/**
+ * Represents the sky at a given instant for any number of observers
+ *
+ * Everything which only depends on the instant is computed once when the sky is built : the sidereal time of Greenwich,
+ * the obliquity of the ecliptic, the equatorial positions of the Sun, the Moon and the planets and the positions of the stars
+ * at the epoch. Each observer then only costs a rotation of the equatorial unit vectors, the observers being converted in parallel
+ * into primitive arrays
+ *
+ * The objects are, in this order, the Sun, the Moon, the planets except planet Earth and the stars in the order of the list of stars of the catalogue
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+public final class MultiObserverSky {
+
+	private final ZonedDateTime when;
+	private final StarCatalogue catalogue;
+	private final double greenwichSiderealTime;
+
+	private final Sun sun;
+	private final Moon moon;
+	private final List<Planet> planets;
+
+	//Equatorial unit vectors of the objects, for the mean equator and equinox of the instant
+	private final int objectCount;
+	private final double[] unitX, unitY, unitZ;
+
+	/**
+	 * Constructor of the sky at the given instant, computing all its terms which do not depend on the observer
+	 *
+	 * @param when
+	 * 			Instant of observation
+	 *
+	 * @param catalogue
+	 * 			StarCatalogue containing the list of stars
+	 *
+	 * @throws NullPointerException
+	 * 			if one of the parameters is null
+	 */
+	public MultiObserverSky(ZonedDateTime when, StarCatalogue catalogue) {
+		this.when = requireNonNull(when);
+		this.catalogue = requireNonNull(catalogue);
+		greenwichSiderealTime = SiderealTime.greenwich(when);
+
+		//Terms shared by the Sun, the Moon and the planets, among which the obliquity of the ecliptic
+		SolarSystemState state = SolarSystemState.at(when);
+		sun = SunModel.SUN.at(state);
+		moon = MoonModel.MOON.at(state);
+
+		List<Planet> planetList = new ArrayList<Planet>();
+		for(PlanetModel planetMod : PlanetModel.ALL) {
+			if (!planetMod.equals(PlanetModel.EARTH))
+				planetList.add(planetMod.at(state));
+		}
+		planets = List.copyOf(planetList);
+
+		int starCount = catalogue.stars().size();
+		objectCount = HorizontalSky.BODIES + starCount;
+		unitX = new double[objectCount];
+		unitY = new double[objectCount];
+		unitZ = new double[objectCount];
+
+		setUnitVector(0, sun.equatorialPos());
+		setUnitVector(1, moon.equatorialPos());
+		for(int i = 0; i < planets.size(); ++i) {
+			setUnitVector(i + 2, planets.get(i).equatorialPos());
+		}
+
+		//Positions of the stars at the epoch of observation, reordered once from the magnitude order to the order of the list of stars
+		StarCatalogue.Positions positions = catalogue.positionsAt(when);
+		ParallelRanges.run(starCount, (from, to) -> {
+			for(int i = from; i < to; ++i) {
+				int rank = catalogue.rankOfStarIndex(i);
+				unitX[HorizontalSky.BODIES + i] = positions.unitX()[rank];
+				unitY[HorizontalSky.BODIES + i] = positions.unitY()[rank];
+				unitZ[HorizontalSky.BODIES + i] = positions.unitZ()[rank];
+			}
+		});
+	}
+
+	/**
+	 * Computes the horizontal coordinates of all the objects for each observer, the azimuth and the altitude of the k-th object
+	 * seen by the o-th observer being written at index o * objectCount() + k of the destination arrays
+	 *
+	 * @param observers
+	 * 			Geographic coordinates of the observers
+	 *
+	 * @param az
+	 * 			Array of size observers.size() * objectCount() receiving the azimuths (in radians)
+	 *
+	 * @param alt
+	 * 			Array of size observers.size() * objectCount() receiving the altitudes (in radians)
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the sizes of the arrays do not match the number of observers and of objects
+	 */
+	public void horizontal(List<GeographicCoordinates> observers, double[] az, double[] alt) {
+		GeographicCoordinates[] wheres = observers.toArray(new GeographicCoordinates[0]);
+		checkArgument(az.length == alt.length && az.length == (long) wheres.length * objectCount);
+
+		//Only the local sidereal time and the latitude differ from an observer to another
+		ParallelRanges.run(wheres.length, objectCount, (from, to) -> {
+			for(int o = from; o < to; ++o) {
+				new EquatorialToHorizontalConversion(greenwichSiderealTime, wheres[o])
+				.applyToUnitVectorsAzAlt(unitX, unitY, unitZ, az, alt, o * objectCount, 0, objectCount);
+			}
+		});
+	}
+
+	/**
+	 * Computes the horizontal unit vectors of all the objects for each observer, the north, east and up components
+	 * (cos(alt)cos(az), cos(alt)sin(az), sin(alt)) of the k-th object seen by the o-th observer being written
+	 * at index o * objectCount() + k of the destination arrays
+	 * Unlike the horizontal coordinates, no trigonometric function is computed : an object is above a given altitude
+	 * if its up component is greater than the sine of that altitude
+	 *
+	 * @param observers
+	 * 			Geographic coordinates of the observers
+	 *
+	 * @param north
+	 * 			Array of size observers.size() * objectCount() receiving the north components
+	 *
+	 * @param east
+	 * 			Array of size observers.size() * objectCount() receiving the east components
+	 *
+	 * @param up
+	 * 			Array of size observers.size() * objectCount() receiving the up components
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the sizes of the arrays do not match the number of observers and of objects
+	 */
+	public void horizontalUnitVectors(List<GeographicCoordinates> observers, double[] north, double[] east, double[] up) {
+		GeographicCoordinates[] wheres = observers.toArray(new GeographicCoordinates[0]);
+		checkArgument(north.length == east.length && north.length == up.length && north.length == (long) wheres.length * objectCount);
+
+		ParallelRanges.run(wheres.length, objectCount, (from, to) -> {
+			for(int o = from; o < to; ++o) {
+				new EquatorialToHorizontalConversion(greenwichSiderealTime, wheres[o])
+				.applyToUnitVectors(unitX, unitY, unitZ, north, east, up, o * objectCount, 0, objectCount);
+			}
+		});
+	}
+
+	/**
+	 * Sets the equatorial unit vector of the object of given index
+	 *
+	 * @param index
+	 * 			Index of the object
+	 *
+	 * @param position
+	 * 			Equatorial coordinates of the object
+	 */
+	private void setUnitVector(int index, EquatorialCoordinates position) {
+		double cosDec = cos(position.dec());
+		unitX[index] = cosDec * cos(position.ra());
+		unitY[index] = cosDec * sin(position.ra());
+		unitZ[index] = sin(position.dec());
+	}
+
+	/**
+	 * Getter for the number of objects seen by each observer
+	 *
+	 * @return number of bodies of the Solar System and of stars of the catalogue
+	 */
+	public int objectCount() {return objectCount;}
+
+	/**
+	 * Getter for the instant of observation
+	 *
+	 * @return instant of observation
+	 */
+	public ZonedDateTime when() {return when;}
+
+	/**
+	 * Getter for the star catalogue
+	 *
+	 * @return star catalogue
+	 */
+	public StarCatalogue catalogue() {return catalogue;}
+
+	/**
+	 * Getter for the sidereal time of Greenwich
+	 *
+	 * @return sidereal time of Greenwich at the instant of observation (in radians)
+	 */
+	public double greenwichSiderealTime() {return greenwichSiderealTime;}
+
+	/**
+	 * Getter for the Sun
+	 *
+	 * @return the Sun at the instant of observation
+	 */
+	public Sun sun() {return sun;}
+
+	/**
+	 * Getter for the Moon
+	 *
+	 * @return the Moon at the instant of observation
+	 */
+	public Moon moon() {return moon;}
+
+	/**
+	 * Getter for the planets of the Solar System except planet Earth
+	 *
+	 * @return immutable list of the planets
+	 */
+	public List<Planet> planets() {return planets;}
+}
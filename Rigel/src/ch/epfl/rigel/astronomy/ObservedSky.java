@@ -2,61 +2,61 @@ package ch.epfl.rigel.astronomy;
 
 
 import static ch.epfl.rigel.Preconditions.checkArgument;
-import static java.lang.Math.abs;
 import static java.util.Objects.requireNonNull;
 
+import java.nio.DoubleBuffer;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
 
 import ch.epfl.rigel.coordinates.CartesianCoordinates;
-import ch.epfl.rigel.coordinates.EclipticCoordinates;
-import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
-import ch.epfl.rigel.coordinates.EquatorialCoordinates;
-import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.CartesianGrid;
 import ch.epfl.rigel.coordinates.GeographicCoordinates;
-import ch.epfl.rigel.coordinates.HorizontalCoordinates;
 import ch.epfl.rigel.coordinates.StereographicProjection;
-import ch.epfl.rigel.math.Angle;
 
 /**
  * Represents the set of all celestial objects visible in the sky
  * 
+ * The positions are computed in two stages : the horizontal coordinates of the objects, depending on the instant and the observer,
+ * are given by a HorizontalSky, and only the stereographic projection is computed by the ObservedSky
+ * 
  * @author Nael Ouerghemi (310435)
  * @author Tanguy Marbot (316756)
  */
 public class ObservedSky {
 
-	private final Map<CelestialObject, CartesianCoordinates> celestialCoordinates;
-	private final List<Planet> planets;
-	private final List<CartesianCoordinates> planetCartesianPositions;
+	private static final Kind[] KINDS = Kind.values();
+
+	private final HorizontalSky horizontalSky;
 	private final double[] planetPositions;
 
 	private final StereographicProjection projection;
-	private final EclipticToEquatorialConversion eclToEqu;
-	private final EquatorialToHorizontalConversion equToHor;
 
-	private final Sun sun;
-	private final CartesianCoordinates sunPosition;
-
-	private final Moon moon;
-	private final CartesianCoordinates moonPosition;
+	//Positions of the Sun, the Moon and the planets, in this order
+	private final double[] bodyPositions;
 
 	private final StarCatalogue catalogue;
-	private final List<CartesianCoordinates> starCartesianPositions;
 	private final double[] starPositions;
+
+	//Table of the projected objects : the visible stars sorted by increasing magnitude, then the Sun, the Moon and the planets
+	//The kind, the index in the catalogue (or in the list of planets) and the position of the i-th object are stored at index i
+	//(2i and 2i+1 for the position) of parallel arrays
+	private final int objectCount;
+	private final int visibleStarCount;
+	private final byte[] objectKinds;
+	private final int[] objectIndices;
+	private final double[] objectPositions;
+	private final CartesianGrid objectGrid;
 	
-	private final double[] eclipticPositions = new double[360];
-	private final double[] equatorialPositions = new double [360];
+	private final double[] eclipticPositions;
+	private final double[] equatorialPositions;
 	
 	//PATH
-	private String starString;
-	private CartesianCoordinates selectedStarCoordinates;
+	private final int selectedStarIndex;
 
 	/**
 	 * Constructor for the ObservedSky class containing representing the set of all celestial objects visible in the sky
@@ -73,146 +73,208 @@ public class ObservedSky {
 	 * @param catalogue 
 	 * 			StarCatalogue containing the list of stars and asterisms
 	 * 
+	 * @param starString
+	 * 			Name of the selected star whose path is traced
+	 * 
 	 */
 	public ObservedSky(ZonedDateTime date, GeographicCoordinates observationPosition, StereographicProjection stereo, StarCatalogue catalogue, String starString) {
-
-		double daysSinceJ2010 = Epoch.J2010.daysUntil(date);
-		eclToEqu = new EclipticToEquatorialConversion(date);
-		equToHor = new EquatorialToHorizontalConversion(date, observationPosition);
-		Function<EclipticCoordinates,HorizontalCoordinates> eclToHor =
-				  eclToEqu.andThen(equToHor);
-		
-		projection = stereo;
-		planets = new ArrayList<Planet>();
-		planetCartesianPositions = new ArrayList<>();
-		starCartesianPositions = new ArrayList<>();
-		this.catalogue = catalogue;
-		this.starString = starString;
-		celestialCoordinates = new HashMap<CelestialObject, CartesianCoordinates>();
-
-		sun = SunModel.SUN.at(daysSinceJ2010, eclToEqu);
-		sunPosition = projectSingleCelestialObject(sun);
-
-		moon = MoonModel.MOON.at(daysSinceJ2010, eclToEqu);
-		moonPosition = projectSingleCelestialObject(moon);
-
-		List<CelestialObject> planetsCelestial = constructPlanetList(daysSinceJ2010);
-		planetPositions = projectListCelestialObject(planetsCelestial, planetCartesianPositions);
-
-		List<CelestialObject> starsCelestial = starsCelestialObjects(catalogue);
-		starPositions = projectListCelestialObject(starsCelestial, starCartesianPositions);
-		
-		// HERE WE INITIATE THE ECLIPTIC AND EQUATOR POSITIONS ARRAYS 
-		for(int i = 0; i < 180; i++) {
-			EclipticCoordinates tempEclipticCoordinates = EclipticCoordinates.of(Angle.ofDeg((double) i *2 ), 0.0); 
-
-			EquatorialCoordinates  tempEquatorialCoordinates = EquatorialCoordinates.of(Angle.ofDeg((double) i *2), 0.0); 
-			HorizontalCoordinates tempFromEclipticHorCoord = eclToHor.apply(tempEclipticCoordinates);
-
-			HorizontalCoordinates tempFromEquatorialHorCoord = equToHor.apply(tempEquatorialCoordinates);
-			
-			CartesianCoordinates tempFromEclipticToCart = stereo.apply(tempFromEclipticHorCoord);
-
-			CartesianCoordinates tempFromEquatorialToCart = stereo.apply(tempFromEquatorialHorCoord);
-
-			
-			eclipticPositions[i * 2] = tempFromEclipticToCart.x();
-			eclipticPositions[ (i * 2) + 1 ] = tempFromEclipticToCart.y();
-			
-			equatorialPositions[i * 2] = tempFromEquatorialToCart.x();
-			equatorialPositions[ (i * 2) + 1 ] = tempFromEquatorialToCart.y();
-
-		}
+		this(date, observationPosition, stereo, catalogue, starString, Mode.EXACT);
 	}
 
 	/**
-	 * Projects single celestial objects (Moon and Sun)
+	 * Constructor for the ObservedSky class containing representing the set of all celestial objects visible in the sky,
+	 * the stars being projected according to the given mode
 	 * 
-	 * @param object
-	 * 			Single celestial object (Moon/Sun)
+	 * @param date 
+	 * 			ZonedDateTime containing the necessary informations about time and date
+	 * 
+	 * @param observationPosition 
+	 * 			GeographicCoordinates of the observer
 	 * 
-	 * @return cartesian coordinates of the projection
+	 * @param stereo 
+	 * 			StereographicProjection used to project in 2D plan the positions of the celestial objects
+	 * 
+	 * @param catalogue 
+	 * 			StarCatalogue containing the list of stars and asterisms
+	 * 
+	 * @param starString
+	 * 			Name of the selected star whose path is traced
+	 * 
+	 * @param mode
+	 * 			Mode of projection of the stars
+	 * 
+	 * @throws NullPointerException
+	 * 			if the mode is null
 	 */
-	public CartesianCoordinates projectSingleCelestialObject(CelestialObject object) {
-		HorizontalCoordinates horConvertedCoordinates = equToHor.apply(object.equatorialPos());
-		CartesianCoordinates projCartCoordinates = projection.apply(horConvertedCoordinates);
-
-		celestialCoordinates.put(object, projCartCoordinates);
-
-		return projCartCoordinates;
+	public ObservedSky(ZonedDateTime date, GeographicCoordinates observationPosition, StereographicProjection stereo, StarCatalogue catalogue, String starString, Mode mode) {
+		this(new HorizontalSky(date, observationPosition, catalogue, mode), stereo, starString);
 	}
 
 	/**
-	 * Projects a list of celestial objects depending on the stereographic projection attribute and conversions
-	 * and adds the object and his projected position to the Map<CelestialObject, CartesianCoordinates>
+	 * Constructor for the ObservedSky class projecting a horizontal snapshot of the sky
+	 * Only the stereographic projection is computed, the snapshot being shared by all the skies of the same instant and observer
 	 * 
-	 * @param objects
-	 * 			Celestial objects to be projected
+	 * @param horizontalSky
+	 * 			Horizontal coordinates of the celestial objects at the instant of observation
+	 * 
+	 * @param stereo 
+	 * 			StereographicProjection used to project in 2D plan the positions of the celestial objects
 	 * 
-	 * @return array of double
+	 * @param starString
+	 * 			Name of the selected star whose path is traced
+	 * 
+	 * @throws NullPointerException
+	 * 			if the horizontal sky or the projection is null
 	 */
-	public double[] projectListCelestialObject(List<CelestialObject> objects, List<CartesianCoordinates> cartesianCoordinates) {
-
-		int index = 0;
-		double[] celestialObjectsPositions = new double[objects.size() * 2];
-
-		for (CelestialObject object : objects) {
-			
-			HorizontalCoordinates horConverted = equToHor.apply(object.equatorialPos());
-			CartesianCoordinates projectedCoordinates = projection.apply(horConverted);
-
-			celestialObjectsPositions[index] = projectedCoordinates.x();
-			celestialObjectsPositions[index + 1] = projectedCoordinates.y();
-			cartesianCoordinates.add(projectedCoordinates);
-			celestialCoordinates.put(object, projectedCoordinates);
-			
-			if(object.name().equals(starString))
-				selectedStarCoordinates = projectedCoordinates;	
-
-			index+=2;
-		}
-
-		return celestialObjectsPositions;
+	public ObservedSky(HorizontalSky horizontalSky, StereographicProjection stereo, String starString) {
+		this(horizontalSky, stereo, starString, Double.POSITIVE_INFINITY);
 	}
 
 	/**
-	 * Fills the list of planets and returns the list of planets in the form of a List<CelestialObject> to be used in further method projectListCelestialObject
+	 * Constructor for the ObservedSky class projecting a horizontal snapshot of the sky,
+	 * only the stars whose magnitude is smaller or equal to the limiting magnitude being projected
+	 * 
+	 * The indexes of the stars are those of the catalogue : the positions of the stars fainter than the limit are NaN
+	 * 
+	 * @param horizontalSky
+	 * 			Horizontal coordinates of the celestial objects at the instant of observation
+	 * 
+	 * @param stereo 
+	 * 			StereographicProjection used to project in 2D plan the positions of the celestial objects
+	 * 
+	 * @param starString
+	 * 			Name of the selected star whose path is traced
 	 * 
-	 * @param daysSinceJ2010
-	 * 			Number of days since the epoch J2010
+	 * @param limitingMagnitude
+	 * 			Magnitude of the faintest visible stars
 	 * 
-	 * @return list of planets in the form of a List<CelestialObject> to be used in further method projectListCelestialObject
+	 * @throws NullPointerException
+	 * 			if the horizontal sky or the projection is null
 	 */
-	private List<CelestialObject> constructPlanetList(double daysSinceJ2010) {
-
-		List<CelestialObject> planetsCelestialObject = new ArrayList<CelestialObject>();
-
-		for(PlanetModel planetMod : PlanetModel.ALL) {
-			if (!planetMod.equals(PlanetModel.EARTH)) {
-				Planet planet = planetMod.at(daysSinceJ2010, eclToEqu);
-				planets.add(planet);
-				planetsCelestialObject.add(planet);
-			}	
-		}
+	public ObservedSky(HorizontalSky horizontalSky, StereographicProjection stereo, String starString, double limitingMagnitude) {
+		this(horizontalSky, stereo, starString, limitingMagnitude, Math.PI);
+	}
 
-		return planetsCelestialObject;
+	/**
+	 * Constructor for the ObservedSky class projecting a horizontal snapshot of the sky,
+	 * only the stars whose magnitude is smaller or equal to the limiting magnitude and which are inside the view cone being projected
+	 * 
+	 * The view cone is centered on the center of the projection : stars further away than its radius are culled before the projection,
+	 * whole tiles of the sky being skipped at once. The indexes of the stars are those of the catalogue : 
+	 * the positions of the stars which are not projected are NaN
+	 * 
+	 * @param horizontalSky
+	 * 			Horizontal coordinates of the celestial objects at the instant of observation
+	 * 
+	 * @param stereo 
+	 * 			StereographicProjection used to project in 2D plan the positions of the celestial objects
+	 * 
+	 * @param starString
+	 * 			Name of the selected star whose path is traced
+	 * 
+	 * @param limitingMagnitude
+	 * 			Magnitude of the faintest visible stars
+	 * 
+	 * @param viewRadius
+	 * 			Angular radius of the view cone (in radians), no star being culled if it is greater or equal to PI
+	 * 
+	 * @throws NullPointerException
+	 * 			if the horizontal sky or the projection is null
+	 */
+	public ObservedSky(HorizontalSky horizontalSky, StereographicProjection stereo, String starString, double limitingMagnitude, double viewRadius) {
+		this(horizontalSky, stereo, starString, limitingMagnitude, viewRadius, new Storage(horizontalSky.catalogue().stars().size()));
 	}
 
-	
 	/**
-	 * Returns the list of stars in the form of a List<CelestialObject> to be used in further method projectListCelestialObject
+	 * Constructor for the ObservedSky class projecting a horizontal snapshot of the sky in the arrays of the given storage
+	 * The storage is overwritten : the sky previously built in it must not be used anymore
+	 * 
+	 * @param horizontalSky
+	 * 			Horizontal coordinates of the celestial objects at the instant of observation
+	 * 
+	 * @param stereo 
+	 * 			StereographicProjection used to project in 2D plan the positions of the celestial objects
+	 * 
+	 * @param starString
+	 * 			Name of the selected star whose path is traced
+	 * 
+	 * @param limitingMagnitude
+	 * 			Magnitude of the faintest visible stars
 	 * 
+	 * @param viewRadius
+	 * 			Angular radius of the view cone (in radians), no star being culled if it is greater or equal to PI
 	 * 
-	 * @return list of stars in the form of a List<CelestialObject> to be used in further method projectListCelestialObject
+	 * @param storage
+	 * 			Arrays receiving the projected positions
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if the storage has not been allocated for the number of stars of the catalogue
 	 */
-	private List<CelestialObject> starsCelestialObjects(StarCatalogue catalogue) {
-		List<CelestialObject> starsCelestialObjects = new ArrayList<CelestialObject>();
+	ObservedSky(HorizontalSky horizontalSky, StereographicProjection stereo, String starString, double limitingMagnitude, double viewRadius, Storage storage) {
+		this.horizontalSky = requireNonNull(horizontalSky);
+		projection = requireNonNull(stereo);
+		catalogue = horizontalSky.catalogue();
+		selectedStarIndex = catalogue.starIndexOf(starString);
+		checkArgument(storage.starPositions.length == 2 * catalogue.stars().size());
+
+		//Stars are projected directly from the arrays of the horizontal sky, without intermediate coordinates objects
+		//Only the brightest stars, forming a prefix of the magnitude order, which are inside the view cone are projected
+		int brighterCount = catalogue.countBrighterThan(limitingMagnitude);
+		int[] visibleRanks = storage.visibleRanks;
+
+		if (viewRadius >= Math.PI) {
+			for(int rank = 0; rank < brighterCount; ++rank) {
+				visibleRanks[rank] = rank;
+			}
+			visibleStarCount = brighterCount;
+		}
 
-		for (Star star : catalogue.stars()) {
-			starsCelestialObjects.add(star);
+		else {
+			double[] direction = horizontalSky.equatorialDirection(projection.center());
+			visibleStarCount = catalogue.starsInCone(direction, viewRadius + horizontalSky.refractionMargin(), brighterCount, visibleRanks);
+			Arrays.sort(visibleRanks, 0, visibleStarCount);
 		}
 
-		return starsCelestialObjects;
+		objectKinds = storage.objectKinds;
+		objectIndices = storage.objectIndices;
+		objectPositions = storage.objectPositions;
+
+		ParallelRanges.run(visibleStarCount, 
+				(from, to) -> horizontalSky.projectStars(projection, visibleRanks, objectPositions, from, to));
+
+		starPositions = storage.starPositions;
+		Arrays.fill(starPositions, Double.NaN);
+
+		for(int k = 0; k < visibleStarCount; ++k) {
+			int index = catalogue.starIndexOfRank(visibleRanks[k]);
+			objectKinds[k] = (byte) Kind.STAR.ordinal();
+			objectIndices[k] = index;
+			starPositions[2 * index] = objectPositions[2 * k];
+			starPositions[2 * index + 1] = objectPositions[2 * k + 1];
+		}
+
+		//Sun, Moon and planets, added to the table after the stars
+		bodyPositions = storage.bodyPositions;
+		horizontalSky.projectBodies(projection, bodyPositions);
+		System.arraycopy(bodyPositions, 0, objectPositions, 2 * visibleStarCount, bodyPositions.length);
+
+		for(int body = 0; body < HorizontalSky.BODIES; ++body) {
+			Kind kind = (body == 0) ? Kind.SUN : (body == 1) ? Kind.MOON : Kind.PLANET;
+			objectKinds[visibleStarCount + body] = (byte) kind.ordinal();
+			objectIndices[visibleStarCount + body] = Math.max(0, body - 2);
+		}
+
+		planetPositions = storage.planetPositions;
+		System.arraycopy(bodyPositions, 4, planetPositions, 0, planetPositions.length);
+
+		objectCount = visibleStarCount + HorizontalSky.BODIES;
+		storage.grid = new CartesianGrid(objectPositions, objectCount, storage.grid);
+		objectGrid = storage.grid;
+
+		eclipticPositions = storage.eclipticPositions;
+		equatorialPositions = storage.equatorialPositions;
+		horizontalSky.projectEcliptic(projection, eclipticPositions);
+		horizontalSky.projectEquator(projection, equatorialPositions);
 	}
 
 	/**
@@ -237,37 +299,152 @@ public class ObservedSky {
 	 *		   or a empty cell if no celestial object has been found
 	 */
 	public Optional<CelestialObject> objectClosestTo(CartesianCoordinates coordinates, double maxDistance) {
+		int object = objectIndexClosestTo(coordinates, maxDistance);
+
+		return (object == -1) ? Optional.empty() : Optional.of(object(object));
+	}
+
+	/**
+	 * Returns the index in the table of objects of the closest object to the point given 
+	 * if the distance between the two is smaller or equal to maxDistance, -1 otherwise
+	 * 
+	 * @param coordinates
+	 * 				 Coordinates of the point
+	 * 
+	 * @param maxDistance 
+	 * 				 Maximal distance to the point
+	 * 
+	 * @throws NullPointerException
+	 * 				 If the coordinates are null
+	 * 
+	 * @throws IllegalArgumentException
+	 * 				If the maxDistance is negative
+	 * 
+	 * @return index of the closest object in the table, -1 if no object has been found
+	 */
+	public int objectIndexClosestTo(CartesianCoordinates coordinates, double maxDistance) {
 		checkArgument(maxDistance>=0);
 		requireNonNull(coordinates);
 
-		List<CelestialObject> reducedList = new ArrayList<CelestialObject>(); 
+		//Every object of the table is looked up in the grid built over their projected positions
+		return objectGrid.closestTo(coordinates.x(), coordinates.y(), maxDistance);
+	}
 
-		//First filter to avoid unnecessary computations : checks if the object is in the square of length 2*maxDistance centered in coordinates parameter 
-		for(CelestialObject object : celestialCoordinates.keySet()) {
-			boolean deltaX = abs(celestialCoordinates.get(object).x() - coordinates.x()) <= maxDistance;
-			boolean deltaY = abs(celestialCoordinates.get(object).y() - coordinates.y()) <= maxDistance;
+	/**
+	 * Returns the number of objects of the table : the visible stars, the Sun, the Moon and the planets
+	 * 
+	 * @return number of objects of the table
+	 */
+	public int objectCount() {
+		return objectCount;
+	}
 
-			if (deltaX && deltaY) {
-				reducedList.add(object);
-			}
-		}
+	/**
+	 * Returns the kind of the object of given index in the table
+	 * 
+	 * @param object
+	 * 			Index of the object in the table
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 			if the index is not the one of an object of the table
+	 * 
+	 * @return kind of the object
+	 */
+	public Kind objectKind(int object) {
+		return KINDS[objectKinds[checkIndex(object)]];
+	}
 
-		double minDistance = Double.MAX_VALUE;
-		Optional<CelestialObject> closest = null;
-		//From the filtered list we can find the closest object
-		for(CelestialObject object : reducedList) {
-			double tempDistance = coordinates.distance(celestialCoordinates.get(object));
+	/**
+	 * Returns the index of the object of given index in the table in the list of objects of its kind :
+	 * index in the list of stars for a star, in the list of planets for a planet, 0 for the Sun and the Moon
+	 * 
+	 * @param object
+	 * 			Index of the object in the table
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 			if the index is not the one of an object of the table
+	 * 
+	 * @return index of the object in the list of objects of its kind
+	 */
+	public int objectCatalogueIndex(int object) {
+		return objectIndices[checkIndex(object)];
+	}
 
-			if (tempDistance <= minDistance) {
-				minDistance = tempDistance;
-				closest = Optional.of(object);
-			}
+	/**
+	 * Returns the abscissa in the projected plan of the object of given index in the table
+	 * 
+	 * @param object
+	 * 			Index of the object in the table
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 			if the index is not the one of an object of the table
+	 * 
+	 * @return abscissa of the object
+	 */
+	public double objectX(int object) {
+		return objectPositions[2 * checkIndex(object)];
+	}
+
+	/**
+	 * Returns the ordinate in the projected plan of the object of given index in the table
+	 * 
+	 * @param object
+	 * 			Index of the object in the table
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 			if the index is not the one of an object of the table
+	 * 
+	 * @return ordinate of the object
+	 */
+	public double objectY(int object) {
+		return objectPositions[2 * checkIndex(object) + 1];
+	}
+
+	/**
+	 * Returns the celestial object of given index in the table
+	 * 
+	 * @param object
+	 * 			Index of the object in the table
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 			if the index is not the one of an object of the table
+	 * 
+	 * @return celestial object
+	 */
+	public CelestialObject object(int object) {
+		int index = objectCatalogueIndex(object);
+
+		switch (objectKind(object)) {
+		case SUN :
+			return sun();
+
+		case MOON :
+			return moon();
+
+		case PLANET :
+			return planets().get(index);
+
+		default :
+			return catalogue.stars().get(index);
 		}
+	}
 
-		if (closest == null)
-			closest = Optional.empty();
+	/**
+	 * Checks that the given index is the one of an object of the table
+	 * 
+	 * @param object
+	 * 			Index of the object in the table
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 			if the index is not the one of an object of the table
+	 * 
+	 * @return the index
+	 */
+	private int checkIndex(int object) {
+		if (object < 0 || object >= objectCount)
+			throw new IndexOutOfBoundsException();
 
-		return closest;
+		return object;
 	}
 
 	/**
@@ -276,7 +453,7 @@ public class ObservedSky {
 	 * @return the Sun calculated in the constructor
 	 */
 	public Sun sun() {
-		return sun;
+		return horizontalSky.sun();
 	}
 
 	/**
@@ -285,7 +462,7 @@ public class ObservedSky {
 	 * @return Coordinates of the Sun in the projected plan
 	 */
 	public CartesianCoordinates sunPosition() {
-		return sunPosition;
+		return CartesianCoordinates.of(bodyPositions[0], bodyPositions[1]);
 	}
 
 	/**
@@ -294,7 +471,7 @@ public class ObservedSky {
 	 * @return Immutable copy of the list of the planets of the Solar System except planet Earth
 	 */
 	public List<Planet> planets() {
-		return List.copyOf(planets);
+		return horizontalSky.planets();
 	}
 
 	/**
@@ -306,16 +483,43 @@ public class ObservedSky {
 	public double[] planetPositions() {
 		return planetPositions.clone();
 	}
+
+	/**
+	 * Returns a read-only view of the cartesian coordinates of the planets, ordered as in planetPositions, without copying them
+	 * 
+	 * @return read-only view of the cartesian coordinates of the planets
+	 */
+	public DoubleBuffer planetPositionsView() {
+		return DoubleBuffer.wrap(planetPositions).asReadOnlyBuffer();
+	}
 	
 	
 	public double[] eclipticPositions() {
 		return eclipticPositions.clone();
 	}
+
+	/**
+	 * Returns a read-only view of the cartesian coordinates of the points of the ecliptic, ordered as in eclipticPositions, without copying them
+	 * 
+	 * @return read-only view of the cartesian coordinates of the points of the ecliptic
+	 */
+	public DoubleBuffer eclipticPositionsView() {
+		return DoubleBuffer.wrap(eclipticPositions).asReadOnlyBuffer();
+	}
 	
 	public double[] equatorialPositions() {
 		return equatorialPositions.clone();
 	}
 
+	/**
+	 * Returns a read-only view of the cartesian coordinates of the points of the equator, ordered as in equatorialPositions, without copying them
+	 * 
+	 * @return read-only view of the cartesian coordinates of the points of the equator
+	 */
+	public DoubleBuffer equatorialPositionsView() {
+		return DoubleBuffer.wrap(equatorialPositions).asReadOnlyBuffer();
+	}
+
 	/**
 	 * Getters for the list of the stars
 	 * 
@@ -328,6 +532,7 @@ public class ObservedSky {
 	/**
 	 * Returns an array containing the cartesian coordinates components of the star list 
 	 * where the 2i-th and (2i+1)-th indexes corresponding respectively to x and y coordinates in the projected plan of the i-th star
+	 * The coordinates of the stars fainter than the limiting magnitude or outside of the view cone are NaN
 	 * 
 	 * @return Copy of the array containing the described above cartesian coordinates of the stars
 	 */
@@ -335,23 +540,83 @@ public class ObservedSky {
 		return starPositions.clone();
 	}
 
+	/**
+	 * Returns a read-only view of the cartesian coordinates of the stars, ordered as in starPositions, without copying them
+	 * 
+	 * @return read-only view of the cartesian coordinates of the stars
+	 */
+	public DoubleBuffer starPositionsView() {
+		return DoubleBuffer.wrap(starPositions).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Returns the indexes in the list of stars of the stars brighter than the limiting magnitude and inside the view cone, 
+	 * sorted by increasing magnitude
+	 * 
+	 * @return indexes of the visible stars
+	 */
+	public int[] visibleStarIndices() {
+		return Arrays.copyOf(objectIndices, visibleStarCount);
+	}
+
 	/**
 	 * Returns immutable copy of the list of cartesian coordinates of the stars
 	 * 
 	 * @return immutable copy of the list of cartesian coordinates of the stars
 	 */
 	public List<CartesianCoordinates> starCartesianCoordinates() {
+		List<CartesianCoordinates> starCartesianPositions = new ArrayList<CartesianCoordinates>();
+
+		for(int i = 0; i < starPositions.length; i+=2) {
+			starCartesianPositions.add(CartesianCoordinates.of(starPositions[i], starPositions[i + 1]));
+		}
+
 		return List.copyOf(starCartesianPositions);
 	}
 	
 	
+	/**
+	 * Returns the projected coordinates of the star of given index in the list of stars, in constant time
+	 * The star is projected even if it is fainter than the limiting magnitude or outside of the view cone
+	 * 
+	 * @param index
+	 * 			Index of the star in the list of stars
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 			if the index is negative or greater or equal to the number of stars
+	 * 
+	 * @return projected coordinates of the star
+	 */
+	public CartesianCoordinates starPosition(int index) {
+		double x = starPositions[2 * Objects.checkIndex(index, catalogue.stars().size())];
+		double y = starPositions[2 * index + 1];
+
+		if (Double.isNaN(x)) {
+			double[] position = new double[2];
+			horizontalSky.projectStars(projection, new int[] {catalogue.rankOfStarIndex(index)}, position, 0, 1);
+			x = position[0];
+			y = position[1];
+		}
+
+		return CartesianCoordinates.of(x, y);
+	}
+
+	/**
+	 * Returns the index in the list of stars of the selected star, whose path is traced
+	 * 
+	 * @return index of the selected star, -1 if there is no star of the selected name
+	 */
+	public int selectedStarIndex() {
+		return selectedStarIndex;
+	}
+
 	/**
 	 * Getter for the projected coordinates of the selected star
 	 * 
-	 * @return projected coordinates of the selected star
+	 * @return projected coordinates of the selected star, null if there is no star of the selected name
 	 */
 	public CartesianCoordinates pathCoordinates() {
-		return selectedStarCoordinates;
+		return (selectedStarIndex == -1) ? null : starPosition(selectedStarIndex);
 	}
 
 	/**
@@ -360,7 +625,7 @@ public class ObservedSky {
 	 * @return the Moon calculated in the constructor
 	 */
 	public Moon moon() {
-		return moon;
+		return horizontalSky.moon();
 	}
 
 	/**
@@ -369,7 +634,7 @@ public class ObservedSky {
 	 * @return Coordinates of the Moon in the projected plan
 	 */
 	public CartesianCoordinates moonPosition() {
-		return moonPosition;
+		return CartesianCoordinates.of(bodyPositions[2], bodyPositions[3]);
 	}
 
 	/**
@@ -393,6 +658,74 @@ public class ObservedSky {
 	public List<Integer> asterismIndices(Asterism asterism) {
 		return catalogue.asterismIndices(asterism);
 	}
-	
-	
+
+	/**
+	 * Returns the horizontal snapshot of the sky which has been projected
+	 * 
+	 * @return horizontal snapshot of the sky
+	 */
+	public HorizontalSky horizontalSky() {
+		return horizontalSky;
+	}
+
+	/**
+	 * Kinds of the objects of the table of objects
+	 * 
+	 * @author Nael Ouerghemi (310435)
+	 */
+	public enum Kind {
+		SUN, MOON, PLANET, STAR;
+	}
+
+	/**
+	 * Modes of projection of the stars
+	 * 
+	 * @author Nael Ouerghemi (310435)
+	 */
+	public enum Mode {
+		/**
+		 * Each star is converted with the spherical trigonometry of EquatorialToHorizontalConversion#apply,
+		 * giving exactly the same positions as the conversion and projection of its coordinates
+		 */
+		EXACT,
+
+		/**
+		 * The equatorial unit vectors cached by the catalogue are rotated by a single rotation depending on the sidereal time 
+		 * and the latitude of the observer, computed once per sky : suited to animations where only the time changes
+		 * The positions differ from the exact ones by rounding errors only
+		 */
+		INCREMENTAL;
+	}
+
+	/**
+	 * Arrays of an observed sky, allocated once and reused by the successive skies built in it
+	 * 
+	 * @author Nael Ouerghemi (310435)
+	 */
+	static final class Storage {
+		private final int[] visibleRanks;
+		private final byte[] objectKinds;
+		private final int[] objectIndices;
+		private final double[] objectPositions;
+		private final double[] starPositions;
+		private final double[] bodyPositions = new double[2 * HorizontalSky.BODIES];
+		private final double[] planetPositions = new double[2 * (HorizontalSky.BODIES - 2)];
+		private final double[] eclipticPositions = new double[2 * HorizontalSky.LINE_POINTS];
+		private final double[] equatorialPositions = new double[2 * HorizontalSky.LINE_POINTS];
+		private CartesianGrid grid;
+
+		/**
+		 * Allocates the arrays of a sky for a catalogue of given size
+		 * 
+		 * @param starCount
+		 * 			Number of stars of the catalogue
+		 */
+		Storage(int starCount) {
+			visibleRanks = new int[starCount];
+			objectKinds = new byte[starCount + HorizontalSky.BODIES];
+			objectIndices = new int[starCount + HorizontalSky.BODIES];
+			objectPositions = new double[2 * (starCount + HorizontalSky.BODIES)];
+			starPositions = new double[2 * starCount];
+		}
+	}
 }
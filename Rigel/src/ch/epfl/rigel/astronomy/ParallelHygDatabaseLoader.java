@@ -0,0 +1,144 @@
+package ch.epfl.rigel.astronomy;
+
+import static ch.epfl.rigel.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import ch.epfl.rigel.astronomy.StarCatalogue.Builder;
+
+/**
+ * Represents a loader for the Star Catalogue builder subclass, parsing a HYG database in parallel, for the complete databases
+ * of more than a hundred thousand stars
+ * 
+ * The file is read entirely then split into ranges of bytes starting at the beginning of a line, which are parsed in parallel
+ * on the common fork/join pool as by HygDatabaseLoader. The stars of the ranges are then added to the builder in the order
+ * of the file : the indexes of the stars, by which the asterisms are resolved, are the same as with HygDatabaseLoader
+ * 
+ * @author Nael Ouerghemi (310435)
+ */
+public enum ParallelHygDatabaseLoader implements StarCatalogue.Loader {
+	INSTANCE;
+
+	private ParallelHygDatabaseLoader() {}
+
+	//Size of the ranges parsed by a single task, in bytes
+	private static final int CHUNK_BYTES = 1 << 20;
+
+	/**
+	 * Method which interprets the data file and loads Star Catalogue with the list of Stars
+	 * 
+	 * @throws IOException
+	 * 			if the stream cannot be read or if a line does not contain all the columns used
+	 */
+	@Override
+	public void load(InputStream inputStream, Builder builder) throws IOException {
+		byte[] bytes;
+
+		try (InputStream stream = inputStream) {
+			bytes = stream.readAllBytes();
+		}
+
+		load(bytes, chunkBytes(), builder);
+	}
+
+	/**
+	 * Loads Star Catalogue with the list of Stars of the HYG database of given path
+	 * 
+	 * @param path
+	 * 			Path of the HYG database
+	 * 
+	 * @param builder
+	 * 			Builder receiving the stars
+	 * 
+	 * @throws IOException
+	 * 			if the file cannot be read or if a line does not contain all the columns used
+	 */
+	public void load(Path path, Builder builder) throws IOException {
+		load(Files.readAllBytes(path), chunkBytes(), builder);
+	}
+
+	/**
+	 * Returns the size of the ranges parsed by a single task : with a single processor, the file is parsed as a single range
+	 * 
+	 * @return size of the ranges, in bytes
+	 */
+	private static int chunkBytes() {
+		return Runtime.getRuntime().availableProcessors() > 1 ? CHUNK_BYTES : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Loads Star Catalogue with the list of Stars of the HYG database contained in an array of bytes,
+	 * parsed in ranges of about the given size
+	 * 
+	 * @param bytes
+	 * 			Array of bytes of the HYG database
+	 * 
+	 * @param chunkBytes
+	 * 			Approximate size of the ranges parsed by a single task, in bytes
+	 * 
+	 * @param builder
+	 * 			Builder receiving the stars
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if the size of the ranges is not strictly positive
+	 * 
+	 * @throws IOException
+	 * 			if a line does not contain all the columns used
+	 */
+	static void load(byte[] bytes, int chunkBytes, Builder builder) throws IOException {
+		checkArgument(chunkBytes > 0);
+
+		//Skips first line
+		int start = HygDatabaseLoader.nextLine(bytes, 0, bytes.length);
+
+		//Bounds of the ranges, each one moved forward to the start of a line
+		int chunkCount = (int) Math.max(1, ((long) bytes.length - start + chunkBytes - 1) / chunkBytes);
+		int[] bounds = new int[chunkCount + 1];
+		bounds[0] = start;
+		bounds[chunkCount] = bytes.length;
+
+		for(int k = 1; k < chunkCount; ++k) {
+			int middle = start + (int) ((long) k * (bytes.length - start) / chunkCount);
+			bounds[k] = Math.max(bounds[k - 1], HygDatabaseLoader.nextLine(bytes, middle - 1, bytes.length));
+		}
+
+		//A single range is parsed directly into the builder
+		if (chunkCount == 1) {
+			HygDatabaseLoader.addStars(builder::addStar, bytes, start, bytes.length);
+			return;
+		}
+
+		//Each range is parsed into its own list
+		List<List<Star>> chunks = new ArrayList<List<Star>>(chunkCount);
+		for(int k = 0; k < chunkCount; ++k) {
+			chunks.add(new ArrayList<Star>());
+		}
+
+		try {
+			ParallelRanges.run(chunkCount, chunkBytes, (from, to) -> {
+				for(int k = from; k < to; ++k) {
+					try {
+						HygDatabaseLoader.addStars(chunks.get(k)::add, bytes, bounds[k], bounds[k + 1]);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		//Merge in the order of the file
+		for(List<Star> chunk : chunks) {
+			for(Star star : chunk) {
+				builder.addStar(star);
+			}
+		}
+	}
+}
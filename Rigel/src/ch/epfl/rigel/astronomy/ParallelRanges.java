@@ -0,0 +1,113 @@
+package ch.epfl.rigel.astronomy;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a computation over the indexes [0, count[ split in ranges, in parallel on the common fork/join pool 
+ * if there are at least PARALLEL_THRESHOLD indexes, sequentially otherwise
+ * Used for the computations on the catalogue where each star is computed independently, 
+ * so that both ways give the same results
+ * 
+ * @author Nael Ouerghemi (310435)
+ */
+final class ParallelRanges {
+
+	/**
+	 * Number of indexes from which the computation is split across the fork/join pool
+	 */
+	static final int PARALLEL_THRESHOLD = 20_000;
+	private static final int CHUNK_SIZE = 4_096;
+
+	private ParallelRanges() {}
+
+	/**
+	 * Computation over a range of indexes
+	 * 
+	 * @author Nael Ouerghemi (310435)
+	 */
+	@FunctionalInterface
+	interface RangeAction {
+
+		/**
+		 * Computes the indexes from (inclusive) to to (exclusive)
+		 * 
+		 * @param from
+		 * 			First index of the range
+		 * 
+		 * @param to
+		 * 			Index following the last index of the range
+		 */
+		public abstract void apply(int from, int to);
+	}
+
+	/**
+	 * Runs the action over the indexes [0, count[
+	 * 
+	 * @param count
+	 * 			Number of indexes
+	 * 
+	 * @param action
+	 * 			Computation over a range of indexes
+	 */
+	static void run(int count, RangeAction action) {
+		run(count, 1, action);
+	}
+
+	/**
+	 * Runs the action over the indexes [0, count[, each index standing for weight elementary computations,
+	 * as an observer for which all the stars of the catalogue are converted
+	 * The thresholds are then counted in elementary computations : the ranges contain at least one index
+	 * 
+	 * @param count
+	 * 			Number of indexes
+	 * 
+	 * @param weight
+	 * 			Number of elementary computations of each index
+	 * 
+	 * @param action
+	 * 			Computation over a range of indexes
+	 */
+	static void run(int count, int weight, RangeAction action) {
+		if ((long) count * weight < PARALLEL_THRESHOLD)
+			action.apply(0, count);
+
+		else
+			ForkJoinPool.commonPool().invoke(new RangeTask(action, 0, count, Math.max(1, CHUNK_SIZE / weight)));
+	}
+
+	/**
+	 * Computation of a range, split in halves until the range contains at most chunkSize indexes
+	 * 
+	 * @author Nael Ouerghemi (310435)
+	 */
+	private static final class RangeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		private final RangeAction action;
+		private final int from, to;
+		private final int chunkSize;
+
+		private RangeTask(RangeAction action, int from, int to, int chunkSize) {
+			this.action = action;
+			this.from = from;
+			this.to = to;
+			this.chunkSize = chunkSize;
+		}
+
+		/**
+		 * @see RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute() {
+			if (to - from <= chunkSize) {
+				action.apply(from, to);
+			}
+
+			else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new RangeTask(action, from, middle, chunkSize), new RangeTask(action, middle, to, chunkSize));
+			}
+		}
+	}
+}
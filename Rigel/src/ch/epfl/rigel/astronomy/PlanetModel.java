@@ -89,17 +89,116 @@ public enum PlanetModel implements CelestialObjectModel<Planet>{
 	@Override
 	public Planet at(double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion) {
 
-		double meanAnomaly = this.meanAnomaly(daysSinceJ2010);
-		double realAnomaly = this.realAnomaly(meanAnomaly);
-		double r = this.radius(realAnomaly);
-		double lonHelio = this.longitudeHelio(realAnomaly);
-
 		//Previous variables adapted for the Earth : meanAnomaly, realAnomaly, radius, heliocentric longitude
 		double meanAnomalyEarth = EARTH.meanAnomaly(daysSinceJ2010);
 		double realAnomalyEarth = EARTH.realAnomaly(meanAnomalyEarth);
 		double rEarth = EARTH.radius(realAnomalyEarth);
 		double lEarth = EARTH.longitudeHelio(realAnomalyEarth); 
 
+		return at(daysSinceJ2010, eclipticToEquatorialConversion, rEarth, lEarth);
+	}
+
+	/**
+	 * Returns a representation of the planet at the instant of the state, reusing the orbit of the Earth computed by the state
+	 * 
+	 * @param state
+	 * 				State of the Solar System at the instant
+	 * 
+	 * @return representation of the planet at the instant of the state
+	 */
+	@Override
+	public Planet at(SolarSystemState state) {
+		return at(state.daysSinceJ2010(), state.eclipticToEquatorialConversion(), state.earthRadius(), state.earthLongitude());
+	}
+
+	/**
+	 * @see CelestialObjectModel#at(double[], double[], double[], double[], double[])
+	 */
+	@Override
+	public void at(double[] daysSinceJ2010, double[] ra, double[] dec, double[] magnitude, double[] angularSize) {
+		BatchEphemeris.run(this::sample, daysSinceJ2010, ra, dec, magnitude, angularSize);
+	}
+
+	/**
+	 * Writes the ecliptic coordinates, the magnitude, the angular size and the phase of the planet at the given time,
+	 * without creating any object
+	 * 
+	 * @param daysSinceJ2010
+	 * 				Number of days between the epoch J2010 and wanted time
+	 * 
+	 * @param values
+	 * 				Array receiving the values at the indexes defined by BatchEphemeris
+	 */
+	void sample(double daysSinceJ2010, double[] values) {
+		double realAnomalyEarth = EARTH.realAnomaly(EARTH.meanAnomaly(daysSinceJ2010));
+		sample(daysSinceJ2010, EARTH.radius(realAnomalyEarth), EARTH.longitudeHelio(realAnomalyEarth), values);
+	}
+
+	/**
+	 * Returns the planet whose values have been written by a sample
+	 * 
+	 * @param values
+	 * 				Values of the planet at the indexes defined by BatchEphemeris
+	 * 
+	 * @param eclipticToEquatorialConversion
+	 * 				Conversion from ecliptic to equatorial coordinates used
+	 * 
+	 * @return representation of the planet
+	 */
+	Planet fromValues(double[] values, EclipticToEquatorialConversion eclipticToEquatorialConversion) {
+		//Conversion from ecliptic to equatorial Coordinates	
+		EquatorialCoordinates equ = eclipticToEquatorialConversion.apply(EclipticCoordinates.of(values[BatchEphemeris.LON], values[BatchEphemeris.LAT]));
+
+		return new Planet(name, equ, (float) values[BatchEphemeris.ANGULAR_SIZE], (float) values[BatchEphemeris.MAGNITUDE]);
+	}
+
+	/**
+	 * Returns a representation of the planet given the position of the Earth at the same instant
+	 * 
+	 * @param daysSinceJ2010
+	 * 				Number of days between the epoch J2010 and wanted time
+	 * 
+	 * @param eclipticToEquatorialConversion
+	 * 				Conversion from ecliptic to equatorial coordinates used
+	 * 
+	 * @param rEarth
+	 * 				Distance between the Earth and the Sun
+	 * 
+	 * @param lEarth
+	 * 				Heliocentric longitude of the Earth
+	 * 
+	 * @return representation of the planet at the given time
+	 */
+	private Planet at(double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion, double rEarth, double lEarth) {
+		double[] values = new double[BatchEphemeris.VALUES];
+		sample(daysSinceJ2010, rEarth, lEarth, values);
+
+		return fromValues(values, eclipticToEquatorialConversion);
+	}
+
+	/**
+	 * Writes the ecliptic coordinates, the magnitude, the angular size and the phase of the planet 
+	 * given the position of the Earth at the same instant, without creating any object
+	 * 
+	 * @param daysSinceJ2010
+	 * 				Number of days between the epoch J2010 and wanted time
+	 * 
+	 * @param rEarth
+	 * 				Distance between the Earth and the Sun
+	 * 
+	 * @param lEarth
+	 * 				Heliocentric longitude of the Earth
+	 * 
+	 * @param values
+	 * 				Array receiving the values at the indexes defined by BatchEphemeris
+	 */
+	private void sample(double daysSinceJ2010, double rEarth, double lEarth, double[] values) {
+
+		double meanAnomaly = this.meanAnomaly(daysSinceJ2010);
+		double realAnomaly = this.realAnomaly(meanAnomaly);
+		double r = this.radius(realAnomaly);
+		double lonHelio = this.longitudeHelio(realAnomaly);
+
 		//Ecliptic heliocentric latitude
 		double repeatedSinTerm = sin(lonHelio - node);
 		double latHelioEcl = asin(repeatedSinTerm * sinIncli);
@@ -138,11 +237,11 @@ public enum PlanetModel implements CelestialObjectModel<Planet>{
 		//Magnitude
 		double mag = magnitude + 5*log10(r*p/sqrt(f));
 
-
-		//Conversion from ecliptic to equatorial Coordinates	
-		EquatorialCoordinates equ = eclipticToEquatorialConversion.apply(EclipticCoordinates.of(delta, beta));
-
-		return new Planet(name, equ, (float) angular, (float) mag);
+		values[BatchEphemeris.LON] = delta;
+		values[BatchEphemeris.LAT] = beta;
+		values[BatchEphemeris.MAGNITUDE] = mag;
+		values[BatchEphemeris.ANGULAR_SIZE] = angular;
+		values[BatchEphemeris.PHASE] = f;
 	}
 
 	/**
@@ -154,7 +253,7 @@ public enum PlanetModel implements CelestialObjectModel<Planet>{
 	 * @return mean anomaly of the Planet at the given time
 	 * 
 	 */
-	private double meanAnomaly(double daysSinceJ2010) {
+	double meanAnomaly(double daysSinceJ2010) {
 		return termAnomaly * (daysSinceJ2010) + lonEpoch - peri;
 	}
 
@@ -169,7 +268,7 @@ public enum PlanetModel implements CelestialObjectModel<Planet>{
 	 * 
 	 * @return real anomaly of the Planet
 	 */
-	private double realAnomaly(double meanAnomaly) {
+	double realAnomaly(double meanAnomaly) {
 		return meanAnomaly + 2*exc*sin(meanAnomaly);
 	}
 
@@ -181,7 +280,7 @@ public enum PlanetModel implements CelestialObjectModel<Planet>{
 	 * 
 	 * @return radius of the Planet (distance Planet-Sun) at the given time
 	 */
-	private double radius(double realAnomaly) {
+	double radius(double realAnomaly) {
 		return half * (1 - excSquared)/(1 + exc*cos(realAnomaly));
 	}
 
@@ -193,7 +292,7 @@ public enum PlanetModel implements CelestialObjectModel<Planet>{
 	 * 
 	 * @return heliocentric longitude
 	 */
-	private double longitudeHelio(double realAnomaly) {
+	double longitudeHelio(double realAnomaly) {
 		return realAnomaly + peri;
 	}
 }
@@ -0,0 +1,423 @@
+package ch.epfl.rigel.astronomy;
+
+import static ch.epfl.rigel.Preconditions.checkArgument;
+import static ch.epfl.rigel.math.Angle.TAU;
+import static ch.epfl.rigel.math.Angle.normalizePositive;
+import static ch.epfl.rigel.math.Angle.ofDeg;
+import static java.lang.Math.acos;
+import static java.lang.Math.cos;
+import static java.lang.Math.sin;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+
+/**
+ * Rise, upper transit and set times of celestial objects for an observer, day by day
+ *
+ * For each day of 24 hours starting at the given instant, the first rise, the first upper transit and the first set of the day are computed,
+ * as numbers of days since J2010. An event which does not happen during the day is NaN : rise and set of circumpolar objects
+ * and of objects which never rise, or events shifted to the following day
+ *
+ * Objects whose equatorial coordinates are fixed, as the stars, are computed in closed form from their hour angle at the horizon.
+ * The Sun, the Moon and the planets are sampled every hour with the batch ephemeris, the events being found by bisection
+ * in the hours where the altitude or the hour angle changes sign
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+public final class RiseTransitSet {
+
+	/**
+	 * Altitude of the center of a star or a planet at rise and set, taking into account the refraction of the atmosphere
+	 */
+	public static final double STANDARD_ALTITUDE = ofDeg(-34.0 / 60);
+
+	/**
+	 * Altitude of the center of the Sun at rise and set, taking into account the refraction and the radius of the Sun
+	 */
+	public static final double SUN_ALTITUDE = ofDeg(-50.0 / 60);
+
+	/**
+	 * Altitude of the center of the Moon at rise and set, taking into account the refraction, the radius and the parallax of the Moon
+	 */
+	public static final double MOON_ALTITUDE = ofDeg(0.125);
+
+	//Rotation of the Earth relative to the stars (in radians per day), as in the computation of the sidereal time
+	private static final double SIDEREAL_RATE = TAU * 1.002737909;
+	private static final double SIDEREAL_DAY = TAU / SIDEREAL_RATE;
+
+	private static final int SAMPLES_PER_DAY = 24;
+	private static final int BISECTIONS = 24;
+
+	private RiseTransitSet() {}
+
+	/**
+	 * Computes the events of the named stars of the catalogue, in the order of getStarNames(),
+	 * the events of the i-th star during the d-th day being at index i * days + d of the destination arrays
+	 * The stars are moved by their proper motions and by the precession to the epoch of the start of the first day
+	 *
+	 * @param catalogue
+	 * 			Catalogue of the stars
+	 *
+	 * @param where
+	 * 			Geographic coordinates of the observer
+	 *
+	 * @param start
+	 * 			Start of the first day
+	 *
+	 * @param days
+	 * 			Number of days
+	 *
+	 * @param rise
+	 * 			Array receiving the rise times (in days since J2010)
+	 *
+	 * @param transit
+	 * 			Array receiving the upper transit times (in days since J2010)
+	 *
+	 * @param set
+	 * 			Array receiving the set times (in days since J2010)
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the number of days is negative or if the sizes of the arrays are not the number of named stars times the number of days
+	 */
+	public static void ofStars(StarCatalogue catalogue, GeographicCoordinates where, ZonedDateTime start, int days,
+			double[] rise, double[] transit, double[] set) {
+		List<String> names = catalogue.getStarNames();
+		StarCatalogue.Positions positions = catalogue.positionsAt(start);
+		double[] ra = new double[names.size()];
+		double[] dec = new double[names.size()];
+
+		for(int i = 0; i < names.size(); ++i) {
+			int rank = catalogue.rankOfStarIndex(catalogue.starIndexOf(names.get(i)));
+			ra[i] = positions.ra()[rank];
+			dec[i] = positions.dec()[rank];
+		}
+
+		ofFixed(ra, dec, STANDARD_ALTITUDE, where, start, days, rise, transit, set);
+	}
+
+	/**
+	 * Computes the events of a celestial object whose equatorial coordinates are considered fixed
+	 *
+	 * @param object
+	 * 			Celestial object
+	 *
+	 * @param altitude
+	 * 			Altitude of the center of the object at rise and set (in radians)
+	 *
+	 * @param where
+	 * 			Geographic coordinates of the observer
+	 *
+	 * @param start
+	 * 			Start of the first day
+	 *
+	 * @param days
+	 * 			Number of days
+	 *
+	 * @param rise
+	 * 			Array of size days receiving the rise times (in days since J2010)
+	 *
+	 * @param transit
+	 * 			Array of size days receiving the upper transit times (in days since J2010)
+	 *
+	 * @param set
+	 * 			Array of size days receiving the set times (in days since J2010)
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the number of days is negative or if the sizes of the arrays are not the number of days
+	 */
+	public static void ofObject(CelestialObject object, double altitude, GeographicCoordinates where, ZonedDateTime start, int days,
+			double[] rise, double[] transit, double[] set) {
+		ofFixed(new double[] {object.equatorialPos().ra()}, new double[] {object.equatorialPos().dec()},
+				altitude, where, start, days, rise, transit, set);
+	}
+
+	/**
+	 * Computes in closed form the events of objects of fixed equatorial coordinates,
+	 * the events of the i-th object during the d-th day being at index i * days + d of the destination arrays
+	 *
+	 * @param ra
+	 * 			Right ascensions of the objects (in radians)
+	 *
+	 * @param dec
+	 * 			Declinations of the objects (in radians)
+	 *
+	 * @param altitude
+	 * 			Altitude of the center of the objects at rise and set (in radians)
+	 *
+	 * @param where
+	 * 			Geographic coordinates of the observer
+	 *
+	 * @param start
+	 * 			Start of the first day
+	 *
+	 * @param days
+	 * 			Number of days
+	 *
+	 * @param rise
+	 * 			Array receiving the rise times (in days since J2010)
+	 *
+	 * @param transit
+	 * 			Array receiving the upper transit times (in days since J2010)
+	 *
+	 * @param set
+	 * 			Array receiving the set times (in days since J2010)
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the number of days is negative or if the sizes of the arrays are not the number of objects times the number of days
+	 */
+	public static void ofFixed(double[] ra, double[] dec, double altitude, GeographicCoordinates where, ZonedDateTime start, int days,
+			double[] rise, double[] transit, double[] set) {
+		int count = ra.length;
+		checkArgument(days >= 0 && dec.length == count);
+		checkArgument(rise.length == (long) count * days && transit.length == rise.length && set.length == rise.length);
+
+		double[] dayStart = new double[days];
+		double[] siderealStart = new double[days];
+		localSiderealTimes(where, start, dayStart, siderealStart);
+
+		//Hour angle at rise and set, NaN if the object never crosses the horizon
+		double sinLat = sin(where.lat());
+		double cosLat = cos(where.lat());
+		double sinAltitude = sin(altitude);
+		double[] horizonHourAngle = new double[count];
+
+		for(int i = 0; i < count; ++i) {
+			double cosHourAngle = (sinAltitude - sinLat * sin(dec[i])) / (cosLat * cos(dec[i]));
+			horizonHourAngle[i] = (cosHourAngle < -1 || cosHourAngle > 1) ? Double.NaN : acos(cosHourAngle);
+		}
+
+		ParallelRanges.run(rise.length, (from, to) -> {
+			for(int k = from; k < to; ++k) {
+				int i = k / days;
+				int d = k % days;
+
+				//First upper transit of the day, when the local sidereal time equals the right ascension
+				double transitOffset = normalizePositive(ra[i] - siderealStart[d]) / SIDEREAL_RATE;
+				double riseOffset = floorModulo(transitOffset - horizonHourAngle[i] / SIDEREAL_RATE, SIDEREAL_DAY);
+				double setOffset = floorModulo(transitOffset + horizonHourAngle[i] / SIDEREAL_RATE, SIDEREAL_DAY);
+
+				transit[k] = dayStart[d] + transitOffset;
+				rise[k] = dayStart[d] + riseOffset;
+				set[k] = dayStart[d] + setOffset;
+			}
+		});
+	}
+
+	/**
+	 * Computes the events of a body of the Solar System given its model, by bisection between hourly samples of the model
+	 *
+	 * @param model
+	 * 			Model of the body
+	 *
+	 * @param altitude
+	 * 			Altitude of the center of the body at rise and set (in radians)
+	 *
+	 * @param where
+	 * 			Geographic coordinates of the observer
+	 *
+	 * @param start
+	 * 			Start of the first day
+	 *
+	 * @param days
+	 * 			Number of days
+	 *
+	 * @param rise
+	 * 			Array of size days receiving the rise times (in days since J2010)
+	 *
+	 * @param transit
+	 * 			Array of size days receiving the upper transit times (in days since J2010)
+	 *
+	 * @param set
+	 * 			Array of size days receiving the set times (in days since J2010)
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the number of days is negative or if the sizes of the arrays are not the number of days
+	 */
+	public static void ofModel(CelestialObjectModel<?> model, double altitude, GeographicCoordinates where, ZonedDateTime start, int days,
+			double[] rise, double[] transit, double[] set) {
+		checkArgument(days >= 0 && rise.length == days && transit.length == days && set.length == days);
+
+		double[] dayStart = new double[days];
+		double[] siderealStart = new double[days];
+		localSiderealTimes(where, start, dayStart, siderealStart);
+
+		//Positions of the body at every hour of the range, the last hour of each day being the first hour of the next one
+		int samples = days * SAMPLES_PER_DAY + 1;
+		double[] sampleDays = new double[samples];
+		double[] ra = new double[samples], dec = new double[samples], magnitude = new double[samples], angularSize = new double[samples];
+		double firstDay = days > 0 ? dayStart[0] : 0;
+
+		for(int s = 0; s < samples; ++s) {
+			sampleDays[s] = firstDay + (double) s / SAMPLES_PER_DAY;
+		}
+		model.at(sampleDays, ra, dec, magnitude, angularSize);
+
+		Track track = new Track(ra, dec, where.lat(), altitude);
+
+		ParallelRanges.run(days, (from, to) -> {
+			for(int d = from; d < to; ++d) {
+				rise[d] = Double.NaN;
+				transit[d] = Double.NaN;
+				set[d] = Double.NaN;
+
+				for(int h = 0; h < SAMPLES_PER_DAY; ++h) {
+					int s = d * SAMPLES_PER_DAY + h;
+					double sidereal = siderealStart[d] + SIDEREAL_RATE * h / SAMPLES_PER_DAY;
+					double siderealNext = siderealStart[d] + SIDEREAL_RATE * (h + 1) / SAMPLES_PER_DAY;
+
+					double height = track.height(s, 0, sidereal);
+					double heightNext = track.height(s, 1, siderealNext);
+					double hourAngle = track.hourAngle(s, 0, sidereal);
+					double hourAngleNext = track.hourAngle(s, 1, siderealNext);
+					double hourStart = dayStart[d] + (double) h / SAMPLES_PER_DAY;
+
+					if (Double.isNaN(rise[d]) && height < 0 && heightNext >= 0)
+						rise[d] = hourStart + track.root(s, sidereal, true) / SAMPLES_PER_DAY;
+
+					if (Double.isNaN(set[d]) && height >= 0 && heightNext < 0)
+						set[d] = hourStart + track.root(s, sidereal, true) / SAMPLES_PER_DAY;
+
+					//The hour angle crosses zero increasing, and not from PI to -PI
+					if (Double.isNaN(transit[d]) && hourAngle < 0 && hourAngleNext >= 0 && hourAngleNext - hourAngle < Math.PI)
+						transit[d] = hourStart + track.root(s, sidereal, false) / SAMPLES_PER_DAY;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Writes the start of each day (in days since J2010) and the local sidereal time of the observer at that instant
+	 *
+	 * @param where
+	 * 			Geographic coordinates of the observer
+	 *
+	 * @param start
+	 * 			Start of the first day
+	 *
+	 * @param dayStart
+	 * 			Array receiving the start of each day
+	 *
+	 * @param siderealStart
+	 * 			Array receiving the local sidereal time at the start of each day
+	 */
+	private static void localSiderealTimes(GeographicCoordinates where, ZonedDateTime start, double[] dayStart, double[] siderealStart) {
+		double first = Epoch.J2010.daysUntil(start);
+
+		for(int d = 0; d < dayStart.length; ++d) {
+			dayStart[d] = first + d;
+			siderealStart[d] = SiderealTime.local(start.plusSeconds(86_400L * d), where);
+		}
+	}
+
+	/**
+	 * Returns the remainder of the division of value by modulus, between 0 (inclusive) and modulus (exclusive)
+	 *
+	 * @param value
+	 * 			Dividend
+	 *
+	 * @param modulus
+	 * 			Divisor
+	 *
+	 * @return remainder between 0 and modulus
+	 */
+	private static double floorModulo(double value, double modulus) {
+		return value - modulus * Math.floor(value / modulus);
+	}
+
+	/**
+	 * Hourly positions of a body, linearly interpolated between two consecutive samples
+	 *
+	 * @author Nael Ouerghemi (310435)
+	 */
+	private static final class Track {
+
+		private final double[] ra, dec;
+		private final double sinLat, cosLat, sinAltitude;
+
+		private Track(double[] ra, double[] dec, double lat, double altitude) {
+			this.ra = ra;
+			this.dec = dec;
+			sinLat = sin(lat);
+			cosLat = cos(lat);
+			sinAltitude = sin(altitude);
+		}
+
+		/**
+		 * Returns the hour angle (between -PI and PI) of the body at the given fraction of the hour following the given sample
+		 *
+		 * @param sample
+		 * 			Index of the sample
+		 *
+		 * @param fraction
+		 * 			Fraction of the hour, between 0 and 1
+		 *
+		 * @param sidereal
+		 * 			Local sidereal time at that instant
+		 *
+		 * @return hour angle of the body
+		 */
+		private double hourAngle(int sample, double fraction, double sidereal) {
+			double deltaRa = normalizePositive(ra[sample + 1] - ra[sample] + Math.PI) - Math.PI;
+			return normalizePositive(sidereal - ra[sample] - fraction * deltaRa + Math.PI) - Math.PI;
+		}
+
+		/**
+		 * Returns the sine of the altitude of the body minus the sine of the altitude of rise and set,
+		 * at the given fraction of the hour following the given sample
+		 *
+		 * @param sample
+		 * 			Index of the sample
+		 *
+		 * @param fraction
+		 * 			Fraction of the hour, between 0 and 1
+		 *
+		 * @param sidereal
+		 * 			Local sidereal time at that instant
+		 *
+		 * @return positive value if the body is above the altitude of rise and set, negative value otherwise
+		 */
+		private double height(int sample, double fraction, double sidereal) {
+			double declination = dec[sample] + fraction * (dec[sample + 1] - dec[sample]);
+			double sinAlt = sinLat * sin(declination) + cosLat * cos(declination) * cos(hourAngle(sample, fraction, sidereal));
+
+			return sinAlt - sinAltitude;
+		}
+
+		/**
+		 * Returns the fraction of the hour following the sample where the height (or the hour angle) crosses zero, by bisection
+		 *
+		 * @param sample
+		 * 			Index of the sample
+		 *
+		 * @param sidereal
+		 * 			Local sidereal time at the sample
+		 *
+		 * @param height
+		 * 			True to find the zero of the height, false to find the zero of the hour angle
+		 *
+		 * @return fraction of the hour, between 0 and 1
+		 */
+		private double root(int sample, double sidereal, boolean height) {
+			double low = 0, high = 1;
+			double lowValue = height ? height(sample, 0, sidereal) : hourAngle(sample, 0, sidereal);
+
+			for(int k = 0; k < BISECTIONS; ++k) {
+				double middle = (low + high) / 2;
+				double middleSidereal = sidereal + SIDEREAL_RATE * middle / SAMPLES_PER_DAY;
+				double value = height ? height(sample, middle, middleSidereal) : hourAngle(sample, middle, middleSidereal);
+
+				if ((value < 0) == (lowValue < 0)) {
+					low = middle;
+					lowValue = value;
+				}
+				else {
+					high = middle;
+				}
+			}
+
+			return (low + high) / 2;
+		}
+	}
+}
@@ -61,6 +61,22 @@ public final class SiderealTime {
 	 * @return local sidereal time at date when and location where
 	 */
 	public static double local(ZonedDateTime when, GeographicCoordinates where) {
-		return normalizePositive(greenwich(when)+where.lon());
+		return local(greenwich(when), where);
+	}
+
+	/**
+	 * Computes local sidereal time at location where from the sidereal time of Greenwich, 
+	 * so that the sidereal time of Greenwich is computed once for all the locations of the same date
+	 * 
+	 * @param greenwich 
+	 * 			sidereal time of Greenwich (in radians)
+	 * 
+	 * @param where 
+	 * 			location from which the local sidereal time is computed
+	 * 
+	 * @return local sidereal time at location where
+	 */
+	public static double local(double greenwich, GeographicCoordinates where) {
+		return normalizePositive(greenwich+where.lon());
 	}	
 }
@@ -0,0 +1,146 @@
+package ch.epfl.rigel.astronomy;
+
+import static ch.epfl.rigel.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.ZonedDateTime;
+
+import ch.epfl.rigel.astronomy.ObservedSky.Mode;
+import ch.epfl.rigel.coordinates.AtmosphericRefraction;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+
+/**
+ * Reusable storage of the successive frames of an animated sky, allocated once for a catalogue
+ *
+ * The horizontal snapshots and the observed skies are each built in two storages used alternately :
+ * a new frame is built in the back storage while the previous one, in the front storage, is still being rendered,
+ * then the two storages are swapped. A frame therefore stays valid until the second following frame of the same kind is built,
+ * and a steady animation does not allocate any new array
+ *
+ * The Moon and the planets of the successive frames, at nearby instants, may be interpolated by an ephemeris cache
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+public final class SkyFrameBuffers {
+
+	private final StarCatalogue catalogue;
+	private final EphemerisCache ephemeris;
+
+	private final HorizontalSky.Storage[] horizontalStorages;
+	private final ObservedSky.Storage[] observedStorages;
+
+	//Indexes of the back storages, in which the next frames are built
+	private int horizontalBack;
+	private int observedBack;
+
+	/**
+	 * Allocates the storages of the frames of the given catalogue
+	 *
+	 * @param catalogue
+	 * 			StarCatalogue whose stars are drawn
+	 *
+	 * @throws NullPointerException
+	 * 			if the catalogue is null
+	 */
+	public SkyFrameBuffers(StarCatalogue catalogue) {
+		this(catalogue, null);
+	}
+
+	/**
+	 * Allocates the storages of the frames of the given catalogue, whose Moon and planets are interpolated by the given ephemeris cache
+	 *
+	 * @param catalogue
+	 * 			StarCatalogue whose stars are drawn
+	 *
+	 * @param ephemeris
+	 * 			Cache interpolating the Moon and the planets, null if they are computed by their models
+	 *
+	 * @throws NullPointerException
+	 * 			if the catalogue is null
+	 */
+	public SkyFrameBuffers(StarCatalogue catalogue, EphemerisCache ephemeris) {
+		this.catalogue = requireNonNull(catalogue);
+		this.ephemeris = ephemeris;
+		int count = catalogue.stars().size();
+
+		horizontalStorages = new HorizontalSky.Storage[] {new HorizontalSky.Storage(count), new HorizontalSky.Storage(count)};
+		observedStorages = new ObservedSky.Storage[] {new ObservedSky.Storage(count), new ObservedSky.Storage(count)};
+	}
+
+	/**
+	 * Builds the horizontal snapshot of the sky in the back storage, which becomes the front one
+	 *
+	 * @param when
+	 * 			Instant of observation
+	 *
+	 * @param where
+	 * 			Geographic coordinates of the observer
+	 *
+	 * @param mode
+	 * 			Mode of conversion of the stars
+	 *
+	 * @return horizontal snapshot of the sky, valid until the second following snapshot is built
+	 */
+	public HorizontalSky horizontalSky(ZonedDateTime when, GeographicCoordinates where, Mode mode) {
+		return horizontalSky(when, where, mode, null);
+	}
+
+	/**
+	 * Builds the horizontal snapshot of the sky in the back storage, which becomes the front one,
+	 * its altitudes being corrected by the given atmospheric refraction
+	 *
+	 * @param when
+	 * 			Instant of observation
+	 *
+	 * @param where
+	 * 			Geographic coordinates of the observer
+	 *
+	 * @param mode
+	 * 			Mode of conversion of the stars
+	 *
+	 * @param refraction
+	 * 			Atmospheric refraction applied to the altitudes, null if the coordinates are geometric
+	 *
+	 * @return horizontal snapshot of the sky, valid until the second following snapshot is built
+	 */
+	public HorizontalSky horizontalSky(ZonedDateTime when, GeographicCoordinates where, Mode mode, AtmosphericRefraction refraction) {
+		HorizontalSky sky = new HorizontalSky(when, where, catalogue, mode, refraction, horizontalStorages[horizontalBack], ephemeris);
+		horizontalBack = 1 - horizontalBack;
+
+		return sky;
+	}
+
+	/**
+	 * Builds the observed sky in the back storage, which becomes the front one
+	 *
+	 * @param horizontalSky
+	 * 			Horizontal coordinates of the celestial objects at the instant of observation
+	 *
+	 * @param projection
+	 * 			StereographicProjection used to project in 2D plan the positions of the celestial objects
+	 *
+	 * @param starString
+	 * 			Name of the selected star whose path is traced
+	 *
+	 * @param limitingMagnitude
+	 * 			Magnitude of the faintest visible stars
+	 *
+	 * @param viewRadius
+	 * 			Angular radius of the view cone (in radians), no star being culled if it is greater or equal to PI
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the horizontal snapshot has not been built for the catalogue of the buffers
+	 *
+	 * @return observed sky, valid until the second following sky is built
+	 */
+	public ObservedSky observedSky(HorizontalSky horizontalSky, StereographicProjection projection, String starString,
+			double limitingMagnitude, double viewRadius) {
+		checkArgument(horizontalSky.catalogue() == catalogue);
+
+		ObservedSky sky = new ObservedSky(horizontalSky, projection, starString, limitingMagnitude, viewRadius, observedStorages[observedBack]);
+		observedBack = 1 - observedBack;
+
+		return sky;
+	}
+}
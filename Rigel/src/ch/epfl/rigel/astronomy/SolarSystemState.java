@@ -0,0 +1,97 @@
+package ch.epfl.rigel.astronomy;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.ZonedDateTime;
+
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+
+/**
+ * Terms of the Solar System shared by the models of all its bodies at a given instant
+ *
+ * The Sun and the orbit of the Earth are computed once when the state is built,
+ * then reused by the Moon, which depends on the Sun, and by each planet, which depends on the Earth
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+public final class SolarSystemState {
+
+	private final double daysSinceJ2010;
+	private final EclipticToEquatorialConversion eclipticToEquatorialConversion;
+
+	private final Sun sun;
+
+	//Distance Earth-Sun (in astronomical units) and heliocentric longitude of the Earth
+	private final double earthRadius;
+	private final double earthLongitude;
+
+	/**
+	 * Constructor of the state of the Solar System
+	 *
+	 * @param daysSinceJ2010
+	 * 			Number of days between the epoch J2010 and the instant
+	 *
+	 * @param eclipticToEquatorialConversion
+	 * 			Conversion from ecliptic to equatorial coordinates at the instant
+	 *
+	 * @throws NullPointerException
+	 * 			if the conversion is null
+	 */
+	public SolarSystemState(double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion) {
+		this.daysSinceJ2010 = daysSinceJ2010;
+		this.eclipticToEquatorialConversion = requireNonNull(eclipticToEquatorialConversion);
+
+		sun = SunModel.SUN.at(daysSinceJ2010, eclipticToEquatorialConversion);
+
+		double realAnomalyEarth = PlanetModel.EARTH.realAnomaly(PlanetModel.EARTH.meanAnomaly(daysSinceJ2010));
+		earthRadius = PlanetModel.EARTH.radius(realAnomalyEarth);
+		earthLongitude = PlanetModel.EARTH.longitudeHelio(realAnomalyEarth);
+	}
+
+	/**
+	 * Returns the state of the Solar System at the given instant
+	 *
+	 * @param when
+	 * 			Instant
+	 *
+	 * @return state of the Solar System at the given instant
+	 */
+	public static SolarSystemState at(ZonedDateTime when) {
+		return new SolarSystemState(Epoch.J2010.daysUntil(when), new EclipticToEquatorialConversion(when));
+	}
+
+	/**
+	 * Getter for the number of days since J2010
+	 *
+	 * @return number of days between the epoch J2010 and the instant
+	 */
+	public double daysSinceJ2010() {return daysSinceJ2010;}
+
+	/**
+	 * Getter for the conversion from ecliptic to equatorial coordinates
+	 *
+	 * @return conversion from ecliptic to equatorial coordinates at the instant
+	 */
+	public EclipticToEquatorialConversion eclipticToEquatorialConversion() {return eclipticToEquatorialConversion;}
+
+	/**
+	 * Getter for the Sun
+	 *
+	 * @return Sun at the instant
+	 */
+	public Sun sun() {return sun;}
+
+	/**
+	 * Getter for the distance between the Earth and the Sun
+	 *
+	 * @return distance between the Earth and the Sun (in astronomical units)
+	 */
+	public double earthRadius() {return earthRadius;}
+
+	/**
+	 * Getter for the heliocentric longitude of the Earth
+	 *
+	 * @return heliocentric longitude of the Earth (in radians, not normalized)
+	 */
+	public double earthLongitude() {return earthLongitude;}
+}
@@ -14,6 +14,7 @@ public final class Star extends CelestialObject{
 	private final int hipparcos;
 	private final float color;
 	private final double colorTemp;
+	private final double properMotionRa, properMotionDec;
 
 	/**
 	 * Constructor for Star
@@ -39,6 +40,40 @@ public final class Star extends CelestialObject{
 	 *
 	 */
 	public Star(int hipparcosId, String name, EquatorialCoordinates equatorialPos, float magnitude, float colorIndex) {
+		this(hipparcosId, name, equatorialPos, magnitude, colorIndex, 0, 0);
+	}
+
+	/**
+	 * Constructor for Star moving on the sky with the given proper motion
+	 * 
+	 * @param hipparcosId
+	 * 			Hipparcos Id of the Star 
+	 * 
+	 * @param name 
+	 * 			Name of the Star
+	 * 
+	 * @param equatorialPos 
+	 * 			Equatorial coordinates of the Star at the epoch J2000
+	 * 
+	 * @param magnitude 
+	 * 			Magnitude of the Star
+	 * 
+	 * @param colorIndex
+	 * 			Color Index of the star
+	 * 
+	 * @param properMotionRa
+	 * 			Proper motion in right ascension, multiplied by the cosine of the declination (in radians per julian year)
+	 * 
+	 * @param properMotionDec
+	 * 			Proper motion in declination (in radians per julian year)
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if hipparcosId is negative
+	 * 			if colorIndex is not in the interval COL_INT
+	 *
+	 */
+	public Star(int hipparcosId, String name, EquatorialCoordinates equatorialPos, float magnitude, float colorIndex,
+			double properMotionRa, double properMotionDec) {
 		super(name, equatorialPos, 0, magnitude);
 		checkArgument(hipparcosId>=0);
 		checkInInterval(COL_INT, colorIndex);
@@ -46,6 +81,8 @@ public final class Star extends CelestialObject{
 		color = colorIndex;
 		double repeated = 0.92 * color;
 		colorTemp = 4600 * (1/(repeated + 1.7) + 1/(repeated + 0.62));
+		this.properMotionRa = properMotionRa;
+		this.properMotionDec = properMotionDec;
 	}
 
 	/**
@@ -55,10 +92,31 @@ public final class Star extends CelestialObject{
 	 */
 	public int hipparcosId() {return hipparcos;}
 
+	/**
+	 * Getter for the color index
+	 * 
+	 * @return color index of the star
+	 */
+	public float colorIndex() {return color;}
+
 	/**
 	 * Getter for the color temperature 
 	 * 
 	 * @return color temperature of the star 
 	 */
 	public int colorTemperature() {return (int) colorTemp;}
+
+	/**
+	 * Getter for the proper motion in right ascension, multiplied by the cosine of the declination
+	 * 
+	 * @return proper motion in right ascension (in radians per julian year)
+	 */
+	public double properMotionRa() {return properMotionRa;}
+
+	/**
+	 * Getter for the proper motion in declination
+	 * 
+	 * @return proper motion in declination (in radians per julian year)
+	 */
+	public double properMotionDec() {return properMotionDec;}
 }
@@ -1,24 +1,71 @@
 package ch.epfl.rigel.astronomy;
 
+import static ch.epfl.rigel.math.Angle.normalizePositive;
+import static java.lang.Math.asin;
+import static java.lang.Math.atan2;
+import static java.lang.Math.cos;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.round;
+import static java.lang.Math.sin;
+import static java.lang.Math.sqrt;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import ch.epfl.rigel.coordinates.PrecessionConversion;
+
 /**
  * Represents a star catalogue
  * 
  * @author Nael Ouerghemi (310435)
  */
 public final class StarCatalogue {
+
+	//Length of the epoch buckets (in julian years) : the stars are moved by their proper motions and by the precession
+	//once per bucket, to its middle, which is at most 3 arcseconds away from their exact positions
+	static final double EPOCH_BUCKET = 0.1;
+
+	private static final double YEARS_PER_CENTURY = 100;
+
+	//Number of epoch buckets whose positions are kept, so that users observing at a few different dates do not recompute them in turn
+	private static final int CACHED_BUCKETS = 4;
+
 	private List<Star> stars;
 	private Map<Asterism, List<Integer>> map;
 	private List<String> starNames;
 
+	//Index of the first star of each name in the list of stars
+	private final Map<String, Integer> nameIndex;
+
+	//Indexes of the stars sorted by increasing magnitude, and the sorted magnitudes
+	//The columns below are stored in this order, so that the stars brighter than a given magnitude form a prefix
+	private final int[] magnitudeOrder;
+	private final int[] magnitudeRanks;
+	private final double[] sortedMagnitudes;
+	private final double[] raColumn;
+	private final double[] decColumn;
+	private final double[] unitXColumn, unitYColumn, unitZColumn;
+	private final EquatorialTiling tiling;
+
+	//Velocities of the equatorial unit vectors due to the proper motions (in radians per julian year), in the magnitude order
+	private final double[] velocityXColumn, velocityYColumn, velocityZColumn;
+
+	//Positions at the epoch of the catalogue, and positions of the last epoch buckets requested, by index of bucket,
+	//the least recently used one being evicted first
+	private final Positions cataloguePositions;
+	private final Map<Long, Positions> propagatedPositions;
+
 	/**
 	 * StarCatalogue constructor
 	 *  
@@ -36,13 +83,23 @@ public final class StarCatalogue {
 		map = new HashMap<Asterism, List<Integer>>();
 		this.stars = List.copyOf(stars);
 		starNames = new ArrayList<String>();
+		raColumn = new double[stars.size()];
+		decColumn = new double[stars.size()];
+		unitXColumn = new double[stars.size()];
+		unitYColumn = new double[stars.size()];
+		unitZColumn = new double[stars.size()];
+		velocityXColumn = new double[stars.size()];
+		velocityYColumn = new double[stars.size()];
+		velocityZColumn = new double[stars.size()];
 
 		//Initialization of the map linking a Star and its index in the List<Star> stars
 		//Faster access to the Star given the index than a linear search, (in order to create the map linking Asterisms and the list of indices of its stars) 
 		Map<Star, Integer> indexMap = new HashMap<Star, Integer>();
+		nameIndex = new HashMap<String, Integer>();
 		int i = 0;
 		for(Star star : stars) {
 			indexMap.put(star, i);
+			nameIndex.putIfAbsent(star.name(), i);
 
 			if (star.name().charAt(0) != '?')
 				starNames.add(star.name());
@@ -50,6 +107,51 @@ public final class StarCatalogue {
 			++i;
 		}
 
+		//Stable sort : stars of same magnitude keep the order of the list
+		Integer[] order = new Integer[stars.size()];
+		for(int k = 0; k < order.length; ++k) {
+			order[k] = k;
+		}
+		Arrays.sort(order, Comparator.comparingDouble((Integer k) -> this.stars.get(k).magnitude()));
+
+		magnitudeOrder = new int[stars.size()];
+		magnitudeRanks = new int[stars.size()];
+		sortedMagnitudes = new double[stars.size()];
+
+		for(int k = 0; k < order.length; ++k) {
+			Star star = this.stars.get(order[k]);
+			magnitudeOrder[k] = order[k];
+			magnitudeRanks[order[k]] = k;
+			sortedMagnitudes[k] = star.magnitude();
+			raColumn[k] = star.equatorialPos().ra();
+			decColumn[k] = star.equatorialPos().dec();
+
+			//Equatorial unit vector, computed once for the whole life of the catalogue
+			double cosDec = cos(decColumn[k]);
+			unitXColumn[k] = cosDec * cos(raColumn[k]);
+			unitYColumn[k] = cosDec * sin(raColumn[k]);
+			unitZColumn[k] = sin(decColumn[k]);
+
+			//Proper motion along the unit vectors of increasing right ascension and of increasing declination
+			double pmRa = star.properMotionRa(), pmDec = star.properMotionDec();
+			double sinRa = sin(raColumn[k]), cosRa = cos(raColumn[k]), sinDec = unitZColumn[k];
+			velocityXColumn[k] = -pmRa * sinRa - pmDec * sinDec * cosRa;
+			velocityYColumn[k] = pmRa * cosRa - pmDec * sinDec * sinRa;
+			velocityZColumn[k] = pmDec * cosDec;
+		}
+
+		cataloguePositions = new Positions(null, raColumn, decColumn, unitXColumn, unitYColumn, unitZColumn);
+		propagatedPositions = new LinkedHashMap<Long, Positions>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Positions> eldest) {
+				return size() > CACHED_BUCKETS;
+			}
+		};
+
+		tiling = new EquatorialTiling(raColumn, decColumn, unitXColumn, unitYColumn, unitZColumn);
+
 
 		for(Asterism ast : asterisms) {
 			List<Star> listars = ast.stars();
@@ -79,6 +181,227 @@ public final class StarCatalogue {
 		return stars;
 	}
 
+	/**
+	 * Returns the number of stars whose magnitude is smaller or equal to the given limiting magnitude,
+	 * that is the length of the prefix of the magnitude order containing these stars
+	 * 
+	 * @param limitingMagnitude
+	 * 			Magnitude of the faintest stars counted
+	 * 
+	 * @return number of stars at least as bright as the limiting magnitude
+	 */
+	public int countBrighterThan(double limitingMagnitude) {
+		//Binary search of the first star fainter than the limit
+		int low = 0;
+		int high = sortedMagnitudes.length;
+
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+
+			if (sortedMagnitudes[middle] <= limitingMagnitude)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+
+		return low;
+	}
+
+	/**
+	 * Writes in the destination array the ranks of the stars among the first ones of the magnitude order
+	 * whose angular distance to the given direction is smaller or equal to the radius of the cone
+	 * 
+	 * @param direction
+	 * 			Equatorial unit vector of the axis of the cone
+	 * 
+	 * @param coneRadius
+	 * 			Angular radius of the cone (in radians)
+	 * 
+	 * @param rankLimit
+	 * 			Number of stars, starting from the brightest one, among which the stars are selected
+	 * 
+	 * @param destination
+	 * 			Array of size at least rankLimit receiving the ranks of the selected stars, in no particular order
+	 * 
+	 * @return number of selected stars
+	 */
+	int starsInCone(double[] direction, double coneRadius, int rankLimit, int[] destination) {
+		return tiling.select(direction[0], direction[1], direction[2], coneRadius, 
+				unitXColumn, unitYColumn, unitZColumn, rankLimit, destination);
+	}
+
+	/**
+	 * Returns the index in the list of stars of the star of given rank in the magnitude order,
+	 * rank 0 corresponding to the brightest star
+	 * 
+	 * @param rank
+	 * 			Rank of the star in the magnitude order
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 			if the rank is negative or greater or equal to the number of stars
+	 * 
+	 * @return index of the star in the list of stars
+	 */
+	public int starIndexOfRank(int rank) {
+		return magnitudeOrder[rank];
+	}
+
+	/**
+	 * Returns the rank in the magnitude order of the star of given index in the list of stars
+	 * 
+	 * @param index
+	 * 			Index of the star in the list of stars
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 			if the index is negative or greater or equal to the number of stars
+	 * 
+	 * @return rank of the star in the magnitude order
+	 */
+	public int rankOfStarIndex(int index) {
+		return magnitudeRanks[index];
+	}
+
+	/**
+	 * Returns the index in the list of stars of the first star of given name, found in constant time
+	 * 
+	 * @param name
+	 * 			Name of the star
+	 * 
+	 * @return index of the star in the list of stars, -1 if there is no star of that name
+	 */
+	public int starIndexOf(String name) {
+		Integer index = (name == null) ? null : nameIndex.get(name);
+
+		return (index == null) ? -1 : index;
+	}
+
+	/**
+	 * Returns the right ascensions of the stars (in radians), the k-th value corresponding to the star of rank k in the magnitude order
+	 * The array is shared and must not be modified
+	 * 
+	 * @return right ascensions of the stars
+	 */
+	double[] raColumn() {
+		return raColumn;
+	}
+
+	/**
+	 * Returns the declinations of the stars (in radians), the k-th value corresponding to the star of rank k in the magnitude order
+	 * The array is shared and must not be modified
+	 * 
+	 * @return declinations of the stars
+	 */
+	double[] decColumn() {
+		return decColumn;
+	}
+
+	/**
+	 * Returns the first components cos(dec)cos(ra) of the equatorial unit vectors of the stars, in the magnitude order
+	 * The array is shared and must not be modified
+	 * 
+	 * @return first components of the equatorial unit vectors of the stars
+	 */
+	double[] unitXColumn() {
+		return unitXColumn;
+	}
+
+	/**
+	 * Returns the second components cos(dec)sin(ra) of the equatorial unit vectors of the stars, in the magnitude order
+	 * The array is shared and must not be modified
+	 * 
+	 * @return second components of the equatorial unit vectors of the stars
+	 */
+	double[] unitYColumn() {
+		return unitYColumn;
+	}
+
+	/**
+	 * Returns the third components sin(dec) of the equatorial unit vectors of the stars, in the magnitude order
+	 * The array is shared and must not be modified
+	 * 
+	 * @return third components of the equatorial unit vectors of the stars
+	 */
+	double[] unitZColumn() {
+		return unitZColumn;
+	}
+
+	/**
+	 * Returns the positions of the stars moved by their proper motions to the middle of the epoch bucket of the given instant,
+	 * for the mean equator and equinox of the middle of the bucket
+	 * 
+	 * The positions are computed by a single pass over the columns the first time a bucket is requested,
+	 * and then reused while the bucket is among the last ones requested : the positions of the catalogue are used as is
+	 * in the bucket of its epoch J2000
+	 * The positions are computed outside of the lock of the cache, two threads requesting a new bucket at the same time
+	 * possibly both computing it, the first one stored being returned to both
+	 * 
+	 * @param when
+	 * 			Instant of observation
+	 * 
+	 * @return positions of the stars at the epoch bucket of the instant
+	 */
+	Positions positionsAt(ZonedDateTime when) {
+		long bucket = round(Epoch.J2000.julianCenturiesUntil(when) * YEARS_PER_CENTURY / EPOCH_BUCKET);
+		if (bucket == 0)
+			return cataloguePositions;
+
+		Positions positions;
+		synchronized (propagatedPositions) {
+			positions = propagatedPositions.get(bucket);
+		}
+
+		if (positions == null) {
+			Positions propagated = propagate(bucket);
+			synchronized (propagatedPositions) {
+				positions = propagatedPositions.putIfAbsent(bucket, propagated);
+			}
+
+			if (positions == null)
+				positions = propagated;
+		}
+
+		return positions;
+	}
+
+	/**
+	 * Moves all the stars by their proper motions to the middle of the given epoch bucket, the unit vectors moving linearly 
+	 * along their velocities before being normalized, and rotates them by the precession matrix of the middle of the bucket
+	 * 
+	 * @param bucket
+	 * 			Index of the epoch bucket, 0 being the one of the epoch J2000 of the catalogue
+	 * 
+	 * @return positions of the stars at the epoch bucket
+	 */
+	private Positions propagate(long bucket) {
+		double years = bucket * EPOCH_BUCKET;
+		PrecessionConversion precession = new PrecessionConversion(years / YEARS_PER_CENTURY);
+		int count = stars.size();
+		double[] ra = new double[count], dec = new double[count];
+		double[] x = new double[count], y = new double[count], z = new double[count];
+
+		ParallelRanges.run(count, (from, to) -> {
+			for(int k = from; k < to; ++k) {
+				double movedX = unitXColumn[k] + years * velocityXColumn[k];
+				double movedY = unitYColumn[k] + years * velocityYColumn[k];
+				double movedZ = unitZColumn[k] + years * velocityZColumn[k];
+				double inverseNorm = 1 / sqrt(movedX*movedX + movedY*movedY + movedZ*movedZ);
+
+				x[k] = movedX * inverseNorm;
+				y[k] = movedY * inverseNorm;
+				z[k] = movedZ * inverseNorm;
+			}
+
+			precession.applyToUnitVectors(x, y, z, x, y, z, from, to);
+
+			for(int k = from; k < to; ++k) {
+				ra[k] = normalizePositive(atan2(y[k], x[k]));
+				dec[k] = asin(max(-1, min(1, z[k])));
+			}
+		});
+
+		return new Positions(precession, ra, dec, x, y, z);
+	}
+
 	/**
 	 * Returns the names of named stars (that do not start with '?' character)
 	 * 
@@ -125,7 +448,7 @@ public final class StarCatalogue {
 	public static final class Builder {
 		private List<Star> stars;
 		private List<Asterism> asterisms;
-		private Map<Integer, Star> map;
+		private HipparcosIndex hipparcosIndex;
 
 		/**
 		 * Constructor of the builder 
@@ -134,10 +457,10 @@ public final class StarCatalogue {
 		public Builder() {
 			stars = new ArrayList<Star>();
 			asterisms = new ArrayList<Asterism>();
-			//Initialization of the map linking the hipparcosId of the star and the star itself
-			//Faster access to the Star given the hipparcosId than a linear search
+			//Initialization of the index linking the hipparcosId of the star and its index in the list of stars
+			//Faster access to the Star given the hipparcosId than a linear search, without boxing the ids
 			//It assumes that the list of stars is loaded before the list of asterisms
-			map = new HashMap<Integer, Star>();
+			hipparcosIndex = new HipparcosIndex();
 		}
 
 		/**
@@ -149,8 +472,8 @@ public final class StarCatalogue {
 		 * @return Current builder with the updated attribute
 		 */
 		public Builder addStar(Star star) {
+			hipparcosIndex.put(star.hipparcosId(), stars.size());
 			stars.add(star);
-			map.put(star.hipparcosId(), star);
 
 			return this;
 		}
@@ -189,13 +512,35 @@ public final class StarCatalogue {
 
 		/**
 		 * Returns an immutable copy of mapping between Stars and their hipparcosId
+		 * The copy is built from the list of stars on each call : the stars are found by their hipparcosId with starOfHipparcosId
 		 * 
 		 * @return immutable copy of mapping between Stars and their hipparcosId
 		 */
 		public Map<Integer, Star> map() {
+			Map<Integer, Star> map = new HashMap<Integer, Star>();
+
+			for(Star star : stars) {
+				map.put(star.hipparcosId(), star);
+			}
+
 			return Map.copyOf(map);
 		}
 
+		/**
+		 * Returns the last star added with the given hipparcosId, found in constant time in the index of the builder
+		 * without copying it
+		 * 
+		 * @param hipparcosId
+		 * 			HipparcosId of the star
+		 * 
+		 * @return star of that hipparcosId, null if no such star has been added
+		 */
+		public Star starOfHipparcosId(int hipparcosId) {
+			int index = hipparcosIndex.indexOf(hipparcosId);
+
+			return index < 0 ? null : stars.get(index);
+		}
+
 		/**
 		 * Loads the lists attributes of the Builder given
 		 *  
@@ -238,4 +583,95 @@ public final class StarCatalogue {
 
 		public abstract void load(InputStream inputStream, Builder builder) throws IOException ;
 	}
+
+	/**
+	 * Equatorial positions of the stars at a given epoch, for the mean equator and equinox of that epoch,
+	 * in the magnitude order of the catalogue
+	 * The arrays are shared and must not be modified
+	 * 
+	 * @author Nael Ouerghemi (310435)
+	 */
+	static final class Positions {
+		private final PrecessionConversion precession;
+		private final double[] ra, dec;
+		private final double[] unitX, unitY, unitZ;
+
+		/**
+		 * Constructor of the positions of the stars
+		 * 
+		 * @param precession
+		 * 			Precession from the equator and equinox of the catalogue to those of the positions, null if they are the same
+		 * 
+		 * @param ra
+		 * 			Right ascensions of the stars (in radians)
+		 * 
+		 * @param dec
+		 * 			Declinations of the stars (in radians)
+		 * 
+		 * @param unitX
+		 * 			First components of the equatorial unit vectors
+		 * 
+		 * @param unitY
+		 * 			Second components of the equatorial unit vectors
+		 * 
+		 * @param unitZ
+		 * 			Third components of the equatorial unit vectors
+		 */
+		private Positions(PrecessionConversion precession, double[] ra, double[] dec, double[] unitX, double[] unitY, double[] unitZ) {
+			this.precession = precession;
+			this.ra = ra;
+			this.dec = dec;
+			this.unitX = unitX;
+			this.unitY = unitY;
+			this.unitZ = unitZ;
+		}
+
+		/**
+		 * Getter for the right ascensions of the stars
+		 * 
+		 * @return right ascensions of the stars (in radians)
+		 */
+		double[] ra() {return ra;}
+
+		/**
+		 * Getter for the declinations of the stars
+		 * 
+		 * @return declinations of the stars (in radians)
+		 */
+		double[] dec() {return dec;}
+
+		/**
+		 * Getter for the first components of the equatorial unit vectors of the stars
+		 * 
+		 * @return first components of the equatorial unit vectors
+		 */
+		double[] unitX() {return unitX;}
+
+		/**
+		 * Getter for the second components of the equatorial unit vectors of the stars
+		 * 
+		 * @return second components of the equatorial unit vectors
+		 */
+		double[] unitY() {return unitY;}
+
+		/**
+		 * Getter for the third components of the equatorial unit vectors of the stars
+		 * 
+		 * @return third components of the equatorial unit vectors
+		 */
+		double[] unitZ() {return unitZ;}
+
+		/**
+		 * Returns the unit vector for the equator and equinox of the catalogue of the direction of given unit vector
+		 * for the equator and equinox of the positions
+		 * 
+		 * @param unitVector
+		 * 			Array containing the three components of the unit vector for the equator and equinox of the positions
+		 * 
+		 * @return array containing the three components of the unit vector for the equator and equinox of the catalogue
+		 */
+		double[] toCatalogueFrame(double[] unitVector) {
+			return (precession == null) ? unitVector : precession.inverseUnitVector(unitVector);
+		}
+	}
 }
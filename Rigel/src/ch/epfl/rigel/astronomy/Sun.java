@@ -14,6 +14,9 @@ import static java.util.Objects.requireNonNull;
  */
 public final class Sun extends CelestialObject{
 
+	//Magnitude of the Sun, also given by the batches of SunModel
+	static final float MAGNITUDE = -26.7f;
+
 	private final EclipticCoordinates eclipticPos;
 	private final float meanAnomaly;
 
@@ -36,7 +39,7 @@ public final class Sun extends CelestialObject{
 	 * 			if eclipticPos is null
 	 */
 	public Sun(EclipticCoordinates eclipticPos, EquatorialCoordinates equatorialPos, float angularSize, float meanAnomaly) {
-		super("Soleil", equatorialPos, angularSize, -26.7f);
+		super("Soleil", equatorialPos, angularSize, MAGNITUDE);
 		this.eclipticPos = requireNonNull(eclipticPos);
 		this.meanAnomaly = meanAnomaly;
 	}
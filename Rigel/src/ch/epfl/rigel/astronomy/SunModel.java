@@ -53,6 +53,34 @@ public enum SunModel implements CelestialObjectModel<Sun>{
 		return new Sun(ecl, equ, (float) angularSize, (float) meanAnomaly);
 	}
 
+	/**
+	 * Returns the Sun already computed by the state of the Solar System
+	 * 
+	 * @param state
+	 * 				State of the Solar System at the instant
+	 * 
+	 * @return representation of the sun at the instant of the state
+	 */
+	@Override
+	public Sun at(SolarSystemState state) {
+		return state.sun();
+	}
+
+	/**
+	 * @see CelestialObjectModel#at(double[], double[], double[], double[], double[])
+	 */
+	@Override
+	public void at(double[] daysSinceJ2010, double[] ra, double[] dec, double[] magnitude, double[] angularSize) {
+		BatchEphemeris.run((days, values) -> {
+			double realAnomaly = realAnomaly(meanAnomaly(days));
+			values[BatchEphemeris.LON] = longitude(realAnomaly);
+			values[BatchEphemeris.LAT] = 0;
+			values[BatchEphemeris.MAGNITUDE] = Sun.MAGNITUDE;
+			values[BatchEphemeris.ANGULAR_SIZE] = angularSize(realAnomaly);
+			values[BatchEphemeris.PHASE] = 1;
+		}, daysSinceJ2010, ra, dec, magnitude, angularSize);
+	}
+
 	/**
 	 * Returns mean anomaly of the Sun
 	 * 
@@ -61,7 +89,7 @@ public enum SunModel implements CelestialObjectModel<Sun>{
 	 * 
 	 * @return mean anomaly at given time
 	 */
-	private double meanAnomaly(double daysSinceJ2010) {
+	double meanAnomaly(double daysSinceJ2010) {
 
 		return (TAU/365.242191)*daysSinceJ2010 + LON_EPOCH - PERI;
 	}
@@ -74,7 +102,7 @@ public enum SunModel implements CelestialObjectModel<Sun>{
 	 * 
 	 * @return real anomaly of the Sun
 	 */
-	private double realAnomaly(double mean) {
+	double realAnomaly(double mean) {
 
 		return mean + 2*E*sin(mean);
 	}
@@ -87,7 +115,7 @@ public enum SunModel implements CelestialObjectModel<Sun>{
 	 * 
 	 * @return ecliptic longitude of the sun
 	 */
-	private double longitude(double realAnomaly) {
+	double longitude(double realAnomaly) {
 
 		return normalizePositive(realAnomaly + PERI);
 	}
@@ -0,0 +1,243 @@
+package ch.epfl.rigel.coordinates;
+
+import static ch.epfl.rigel.Preconditions.checkArgument;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.sin;
+import static java.lang.Math.sqrt;
+import static java.lang.Math.tan;
+
+import java.util.function.Function;
+
+import ch.epfl.rigel.math.Angle;
+
+/**
+ * Correction of the altitudes of the objects by the atmospheric refraction, which raises them mostly near the horizon,
+ * turning the geometric horizontal coordinates into the apparent ones
+ *
+ * The refraction is given by the formula of Saemundsson, tabulated once in altitude and in sine of the altitude :
+ * correcting a point only costs a linear interpolation in a table, without any trigonometric function
+ * Below the lowest tabulated altitude, 2 degrees under the horizon, the refraction of that altitude decreases linearly
+ * to zero over one degree, so that the points far below the horizon are left unchanged
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+public final class AtmosphericRefraction implements Function<HorizontalCoordinates, HorizontalCoordinates> {
+
+	private static final double MIN_ALT_DEG = -2;
+	private static final double ALT_STEP_DEG = 0.05;
+	private static final int ALT_ENTRIES = (int) Math.round((90 - MIN_ALT_DEG) / ALT_STEP_DEG) + 1;
+
+	private static final double MIN_UP = sin(Angle.ofDeg(MIN_ALT_DEG));
+	private static final int UP_ENTRIES = 1 << 11;
+	private static final double UP_STEP = (1 - MIN_UP) / (UP_ENTRIES - 1);
+
+	//Widths, in positions of the tables, of the band below MIN_ALT_DEG over which the refraction decreases to zero :
+	//its slope stays below one, so that the apparent altitudes still increase with the geometric ones
+	private static final double TAPER_DEG = 1;
+	private static final double ALT_TAPER = TAPER_DEG / ALT_STEP_DEG;
+	private static final double UP_TAPER = (MIN_UP - sin(Angle.ofDeg(MIN_ALT_DEG - TAPER_DEG))) / UP_STEP;
+
+	/**
+	 * Refraction for the standard conditions : a pressure of 1010 millibars and a temperature of 10 degrees Celsius
+	 */
+	public static final AtmosphericRefraction STANDARD = new AtmosphericRefraction(1010, 10);
+
+	//Refractions (in radians) of geometric altitudes regularly spaced from MIN_ALT_DEG to 90 degrees,
+	//and of sines of geometric altitudes regularly spaced from MIN_UP to 1
+	private final double[] byAlt = new double[ALT_ENTRIES];
+	private final double[] byUp = new double[UP_ENTRIES];
+
+	/**
+	 * Constructor of the refraction for given atmospheric conditions at the observer
+	 *
+	 * @param pressure
+	 * 			Atmospheric pressure (in millibars)
+	 *
+	 * @param temperature
+	 * 			Temperature (in degrees Celsius)
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the pressure is negative or if the temperature is not above the absolute zero
+	 */
+	public AtmosphericRefraction(double pressure, double temperature) {
+		checkArgument(pressure >= 0 && temperature > -273);
+
+		double factor = (pressure / 1010) * (283 / (273 + temperature));
+
+		for(int i = 0; i < ALT_ENTRIES; ++i) {
+			byAlt[i] = factor * refractionAtDeg(min(90, MIN_ALT_DEG + i * ALT_STEP_DEG));
+		}
+
+		for(int i = 0; i < UP_ENTRIES; ++i) {
+			byUp[i] = factor * refractionAtDeg(Angle.toDeg(Math.asin(min(1, MIN_UP + i * UP_STEP))));
+		}
+	}
+
+	/**
+	 * Returns the apparent horizontal coordinates of a point of given geometric horizontal coordinates
+	 *
+	 * @param t
+	 * 			Geometric horizontal coordinates
+	 *
+	 * @return apparent horizontal coordinates, of same azimuth
+	 */
+	@Override
+	public HorizontalCoordinates apply(HorizontalCoordinates t) {
+		return HorizontalCoordinates.of(t.az(), min(Angle.TAU / 4, t.alt() + refraction(t.alt())));
+	}
+
+	/**
+	 * Returns the refraction of the given geometric altitude, interpolated in the table
+	 *
+	 * @param alt
+	 * 			Geometric altitude (in radians)
+	 *
+	 * @return refraction (in radians), to add to the geometric altitude to obtain the apparent one
+	 */
+	public double refraction(double alt) {
+		return interpolate(byAlt, (Angle.toDeg(alt) - MIN_ALT_DEG) / ALT_STEP_DEG, ALT_TAPER);
+	}
+
+	/**
+	 * Returns the greatest refraction, that is the one of the points at the lowest tabulated altitude
+	 *
+	 * @return greatest refraction (in radians)
+	 */
+	public double maximum() {
+		return byAlt[0];
+	}
+
+	/**
+	 * Corrects the geometric altitudes of indexes from (inclusive) to to (exclusive) of the array, replacing them by the apparent ones
+	 * Disjoint ranges can be corrected concurrently
+	 *
+	 * @param alt
+	 * 			Geometric altitudes (in radians), replaced by the apparent altitudes
+	 *
+	 * @param from
+	 * 			Index of the first altitude to correct
+	 *
+	 * @param to
+	 * 			Index following the last altitude to correct
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the range is not valid
+	 */
+	public void applyTo(double[] alt, int from, int to) {
+		checkArgument(0 <= from && from <= to && to <= alt.length);
+
+		for(int i = from; i < to; ++i) {
+			double a = alt[i];
+			alt[i] = min(Angle.TAU / 4, a + interpolate(byAlt, (Angle.toDeg(a) - MIN_ALT_DEG) / ALT_STEP_DEG, ALT_TAPER));
+		}
+	}
+
+	/**
+	 * Corrects the horizontal unit vectors of indexes from (inclusive) to to (exclusive), given by their north, east and up components,
+	 * replacing them by the unit vectors of the apparent directions
+	 * The vectors are rotated towards the zenith by the refraction, interpolated in the table of the sines of the altitudes :
+	 * the sines and cosines of the refraction, always smaller than one degree, are given by their Taylor expansions
+	 *
+	 * @param north
+	 * 			North components of the unit vectors
+	 *
+	 * @param east
+	 * 			East components of the unit vectors
+	 *
+	 * @param up
+	 * 			Up components of the unit vectors
+	 *
+	 * @param from
+	 * 			Index of the first vector to correct
+	 *
+	 * @param to
+	 * 			Index following the last vector to correct
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the sizes of the arrays do not match or if the range is not valid
+	 */
+	public void applyToUnitVectors(double[] north, double[] east, double[] up, int from, int to) {
+		checkArgument(north.length == east.length && north.length == up.length);
+		checkArgument(0 <= from && from <= to && to <= north.length);
+
+		for(int i = from; i < to; ++i) {
+			double sinAlt = up[i];
+			double cosAlt = sqrt(max(0, 1 - sinAlt * sinAlt));
+
+			//Directions of the zenith and of the nadir, whose azimuth is not defined, are left unchanged
+			if (cosAlt == 0)
+				continue;
+
+			double r = interpolate(byUp, (sinAlt - MIN_UP) / UP_STEP, UP_TAPER);
+			double r2 = r * r;
+			double sinR = r * (1 - r2 / 6);
+			double cosR = 1 - r2 / 2 + r2 * r2 / 24;
+
+			//Sine of alt + r, and ratio of the cosines of alt + r and alt scaling the horizontal components
+			up[i] = min(1, sinAlt * cosR + cosAlt * sinR);
+			double scale = cosR - sinAlt * sinR / cosAlt;
+			north[i] *= scale;
+			east[i] *= scale;
+		}
+	}
+
+	/**
+	 * Returns the value of the table at the given fractional position, interpolated linearly between its two neighbouring entries,
+	 * the positions after the table being clamped to its last entry and the ones before it decreasing linearly from its first entry
+	 * to zero over the given width
+	 *
+	 * @param table
+	 * 			Table of values
+	 *
+	 * @param position
+	 * 			Fractional position in the table
+	 *
+	 * @param taper
+	 * 			Width (in positions of the table) over which the values decrease to zero before the table
+	 *
+	 * @return interpolated value
+	 */
+	private static double interpolate(double[] table, double position, double taper) {
+		if (!(position > 0))
+			return position > -taper ? table[0] * (1 + position / taper) : 0;
+
+		int last = table.length - 1;
+		if (position >= last)
+			return table[last];
+
+		int i = (int) position;
+		double t = position - i;
+
+		return table[i] + t * (table[i + 1] - table[i]);
+	}
+
+	/**
+	 * Formula of Saemundsson, for the standard conditions
+	 *
+	 * @param altDeg
+	 * 			Geometric altitude (in degrees)
+	 *
+	 * @return refraction (in radians), which is never negative
+	 */
+	private static double refractionAtDeg(double altDeg) {
+		double arcmin = 1.02 / tan(Angle.ofDeg(altDeg + 10.3 / (altDeg + 5.11)));
+		return max(0, Angle.ofArcsec(60 * arcmin));
+	}
+
+	/**
+	 * @see Object#equals()
+	 */
+	@Override
+	public final boolean equals(Object o) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @see Object#hashCode()
+	 */
+	@Override
+	public final int hashCode() {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -0,0 +1,199 @@
+package ch.epfl.rigel.coordinates;
+
+import static ch.epfl.rigel.Preconditions.checkArgument;
+import static java.lang.Math.abs;
+import static java.lang.Math.sqrt;
+
+import java.util.Arrays;
+
+import ch.epfl.rigel.math.ClosedInterval;
+
+/**
+ * Uniform grid indexing a set of points of the projected plan, used to find the point closest to a given position
+ * without going through all the points
+ *
+ * The points are stored in an array where the x and y coordinates of the i-th point are at indexes 2i and 2i+1
+ * Points outside of the bounds of the grid are stored in the border cells, which keeps the search exact
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+public final class CartesianGrid {
+
+	//Bounds of the grid, containing the projection of all the points less than about 127° away from the center of projection
+	private static final ClosedInterval BOUNDS = ClosedInterval.symmetric(4);
+
+	private final double[] positions;
+	private final int side;
+	private final double cellSize;
+
+	//Indexes of the points sorted by cell : the points of cell c are at indexes [cellStart[c], cellStart[c+1][ of cellPoints
+	private final int[] cellStart;
+	private final int[] cellPoints;
+
+	//Work arrays of the sort, kept to be reused by a grid recycling this one
+	private final int[] cells;
+	private final int[] next;
+
+	/**
+	 * Constructor of the grid, the number of cells growing linearly with the number of points
+	 *
+	 * @param positions
+	 * 			Coordinates of the points, the x and y coordinates of the i-th point being at indexes 2i and 2i+1
+	 * 			The array is not copied and must not be modified afterwards
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the length of the array is odd
+	 */
+	public CartesianGrid(double[] positions) {
+		this(positions, positions.length / 2);
+		checkArgument(positions.length % 2 == 0);
+	}
+
+	/**
+	 * Constructor of the grid indexing only the first points of the array
+	 *
+	 * @param positions
+	 * 			Coordinates of the points, the x and y coordinates of the i-th point being at indexes 2i and 2i+1
+	 * 			The array is not copied and must not be modified afterwards
+	 *
+	 * @param count
+	 * 			Number of points indexed, starting from the first one
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the count is negative or if the array contains less than count points
+	 */
+	public CartesianGrid(double[] positions, int count) {
+		this(positions, count, null);
+	}
+
+	/**
+	 * Constructor of the grid indexing only the first points of the array, reusing the arrays of another grid when they are large enough
+	 * The recycled grid is overwritten and must not be used anymore
+	 *
+	 * @param positions
+	 * 			Coordinates of the points, the x and y coordinates of the i-th point being at indexes 2i and 2i+1
+	 * 			The array is not copied and must not be modified afterwards
+	 *
+	 * @param count
+	 * 			Number of points indexed, starting from the first one
+	 *
+	 * @param recycled
+	 * 			Grid whose arrays are reused, null if there is no such grid
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the count is negative or if the array contains less than count points
+	 */
+	public CartesianGrid(double[] positions, int count, CartesianGrid recycled) {
+		checkArgument(0 <= count && 2 * count <= positions.length);
+
+		this.positions = positions;
+		side = Math.max(1, (int) sqrt(count));
+		cellSize = BOUNDS.size() / side;
+
+		//Counting sort of the points by cell
+		cells = (recycled != null && recycled.cells.length >= count) ? recycled.cells : new int[count];
+		cellStart = (recycled != null && recycled.cellStart.length >= side * side + 1) ? recycled.cellStart : new int[side * side + 1];
+		Arrays.fill(cellStart, 0, side * side + 1, 0);
+
+		for(int i = 0; i < count; ++i) {
+			cells[i] = cellIndex(cellColumn(positions[2 * i]), cellColumn(positions[2 * i + 1]));
+			++cellStart[cells[i] + 1];
+		}
+
+		for(int c = 0; c < side * side; ++c) {
+			cellStart[c + 1] += cellStart[c];
+		}
+
+		next = (recycled != null && recycled.next.length >= side * side) ? recycled.next : new int[side * side];
+		System.arraycopy(cellStart, 0, next, 0, side * side);
+		cellPoints = (recycled != null && recycled.cellPoints.length >= count) ? recycled.cellPoints : new int[count];
+
+		for(int i = 0; i < count; ++i) {
+			cellPoints[next[cells[i]]++] = i;
+		}
+	}
+
+	/**
+	 * Returns the index of the point closest to the given position among the points
+	 * at a distance smaller or equal to maxDistance, -1 if there is no such point
+	 *
+	 * @param x
+	 * 			Abscissa of the position
+	 *
+	 * @param y
+	 * 			Ordinate of the position
+	 *
+	 * @param maxDistance
+	 * 			Maximal distance to the position
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if maxDistance is negative
+	 *
+	 * @return index of the closest point, -1 if no point has been found
+	 */
+	public int closestTo(double x, double y, double maxDistance) {
+		checkArgument(maxDistance >= 0);
+
+		int minColumn = cellColumn(x - maxDistance);
+		int maxColumn = cellColumn(x + maxDistance);
+		int minRow = cellColumn(y - maxDistance);
+		int maxRow = cellColumn(y + maxDistance);
+
+		int closest = -1;
+		double minDistance = maxDistance;
+
+		for(int row = minRow; row <= maxRow; ++row) {
+			for(int column = minColumn; column <= maxColumn; ++column) {
+				int cell = cellIndex(column, row);
+
+				for(int k = cellStart[cell]; k < cellStart[cell + 1]; ++k) {
+					int i = cellPoints[k];
+					double deltaX = positions[2 * i] - x;
+					double deltaY = positions[2 * i + 1] - y;
+
+					//First filter to avoid unnecessary computations : checks if the point is in the square of length 2*maxDistance
+					if (abs(deltaX) <= maxDistance && abs(deltaY) <= maxDistance) {
+						double distance = sqrt(deltaX*deltaX + deltaY*deltaY);
+
+						if (distance <= minDistance) {
+							minDistance = distance;
+							closest = i;
+						}
+					}
+				}
+			}
+		}
+
+		return closest;
+	}
+
+	/**
+	 * Returns the column (or row) of the cell containing the given coordinate, clipped to the bounds of the grid
+	 *
+	 * @param coordinate
+	 * 			Abscissa (or ordinate)
+	 *
+	 * @return column (or row) of the cell
+	 */
+	private int cellColumn(double coordinate) {
+		double clipped = BOUNDS.clip(coordinate);
+		int column = (int) ((clipped - BOUNDS.low()) / cellSize);
+
+		return Math.min(column, side - 1);
+	}
+
+	/**
+	 * Returns the index of the cell of given column and row
+	 *
+	 * @param column
+	 * 			Column of the cell
+	 *
+	 * @param row
+	 * 			Row of the cell
+	 *
+	 * @return index of the cell
+	 */
+	private int cellIndex(int column, int row) {
+		return row * side + column;
+	}
+}
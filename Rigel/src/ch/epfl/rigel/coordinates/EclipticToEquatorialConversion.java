@@ -1,5 +1,6 @@
 package ch.epfl.rigel.coordinates;
 
+import static ch.epfl.rigel.Preconditions.checkArgument;
 import static ch.epfl.rigel.math.Angle.normalizePositive;
 
 import static ch.epfl.rigel.math.Angle.ofArcsec;
@@ -25,6 +26,7 @@ import ch.epfl.rigel.math.Polynomial;
 public final class EclipticToEquatorialConversion implements Function<EclipticCoordinates, EquatorialCoordinates>{
 	private final double cosEcl, sinEcl;
 	private final static Polynomial POLY = Polynomial.of(ofArcsec(0.00181), ofArcsec(-0.0006), ofArcsec(-46.815),  ofDMS(23, 26, 21.45)); 
+	private final static double J2010_FROM_J2000 = Epoch.J2000.daysUntil(Epoch.J2010);
 
 	/**
 	 * Constructor for EclipticToEquatorialConversion given a ZonedDate
@@ -49,18 +51,98 @@ public final class EclipticToEquatorialConversion implements Function<EclipticCo
 	 */
 	@Override
 	public EquatorialCoordinates apply(EclipticCoordinates t) {
-		//Repeated sin term
-		double sinLonCoor = sin(t.lon());
+		double[] equatorial = new double[2];
+		applyTo(t.lon(), t.lat(), cosEcl, sinEcl, equatorial);
+
+		return EquatorialCoordinates.of(equatorial[0], equatorial[1]);
+	}
+
+	/**
+	 * Converts the points of indexes from (inclusive) to to (exclusive) of the columns of ecliptic coordinates,
+	 * each point being converted with the obliquity of the ecliptic at its own instant,
+	 * and writes the right ascension and the declination of the i-th point at index i of the destination arrays
+	 * No object is created per point and the destination arrays can be the source arrays
+	 * 
+	 * @param daysSinceJ2010
+	 * 			Instants of the points, in number of days since the epoch J2010
+	 * 
+	 * @param lon
+	 * 			Ecliptic longitudes (in radians)
+	 * 
+	 * @param lat
+	 * 			Ecliptic latitudes (in radians)
+	 * 
+	 * @param ra
+	 * 			Array receiving the right ascensions (in radians)
+	 * 
+	 * @param dec
+	 * 			Array receiving the declinations (in radians)
+	 * 
+	 * @param from
+	 * 			Index of the first point to convert
+	 * 
+	 * @param to
+	 * 			Index following the last point to convert
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if the sizes of the arrays do not match or if the range is not valid
+	 */
+	public static void applyTo(double[] daysSinceJ2010, double[] lon, double[] lat, double[] ra, double[] dec, int from, int to) {
+		int count = daysSinceJ2010.length;
+		checkArgument(lon.length == count && lat.length == count && ra.length == count && dec.length == count);
+		checkArgument(0 <= from && from <= to && to <= count);
 
-		double exp = sinLonCoor*cosEcl - tan(t.lat())*sinEcl;
-		double lon = normalizePositive( atan2(exp, cos(t.lon())) );
+		double[] equatorial = new double[2];
+
+		for(int i = from; i < to; ++i) {
+			double obl = obliquity(daysSinceJ2010[i]);
+			applyTo(lon[i], lat[i], cos(obl), sin(obl), equatorial);
+			ra[i] = equatorial[0];
+			dec[i] = equatorial[1];
+		}
+	}
+
+	/**
+	 * Returns the obliquity of the ecliptic at the given instant
+	 * 
+	 * @param daysSinceJ2010
+	 * 			Number of days since the epoch J2010
+	 * 
+	 * @return obliquity of the ecliptic (in radians)
+	 */
+	public static double obliquity(double daysSinceJ2010) {
+		return POLY.at((daysSinceJ2010 + J2010_FROM_J2000) / Epoch.DAYS_PER_CENTURY);
+	}
+
+	/**
+	 * Converts a point of ecliptic coordinates given the cosine and the sine of the obliquity of the ecliptic
+	 * 
+	 * @param lon
+	 * 			Ecliptic longitude (in radians)
+	 * 
+	 * @param lat
+	 * 			Ecliptic latitude (in radians)
+	 * 
+	 * @param cosEcl
+	 * 			Cosine of the obliquity of the ecliptic
+	 * 
+	 * @param sinEcl
+	 * 			Sine of the obliquity of the ecliptic
+	 * 
+	 * @param destination
+	 * 			Array receiving the right ascension and the declination at indexes 0 and 1
+	 */
+	private static void applyTo(double lon, double lat, double cosEcl, double sinEcl, double[] destination) {
+		//Repeated sin term
+		double sinLonCoor = sin(lon);
 
-		double termA = sin(t.lat()) * cosEcl;
-		double termB = cos(t.lat()) * sinEcl * sinLonCoor;
+		double exp = sinLonCoor*cosEcl - tan(lat)*sinEcl;
+		destination[0] = normalizePositive( atan2(exp, cos(lon)) );
 
-		double lat = asin(termA + termB);
+		double termA = sin(lat) * cosEcl;
+		double termB = cos(lat) * sinEcl * sinLonCoor;
 
-		return EquatorialCoordinates.of(lon, lat);
+		destination[1] = asin(termA + termB);
 	}
 
 	/**
@@ -1,11 +1,15 @@
 package ch.epfl.rigel.coordinates;
 
+import static ch.epfl.rigel.Preconditions.checkArgument;
+import static ch.epfl.rigel.astronomy.SiderealTime.greenwich;
 import static ch.epfl.rigel.astronomy.SiderealTime.local;
 
 import static ch.epfl.rigel.math.Angle.normalizePositive;
 import static java.lang.Math.asin;
 import static java.lang.Math.atan2;
 import static java.lang.Math.cos;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.Math.sin;
 
 import java.time.ZonedDateTime;
@@ -20,6 +24,7 @@ import java.util.function.Function;
 public final class EquatorialToHorizontalConversion implements Function<EquatorialCoordinates, HorizontalCoordinates>{
 	private final double sinLatObs, cosLatObs;
 	private final double time;
+	private final double sinTime, cosTime;
 
 	/**
 	 * Constructs an EquatorialToHorizontalConversion given a ZonedDateTime and a location in geographic coordinates
@@ -31,7 +36,23 @@ public final class EquatorialToHorizontalConversion implements Function<Equatori
 	 * 			Geographic coordinates of the point of observation
 	 */
 	public EquatorialToHorizontalConversion(ZonedDateTime when, GeographicCoordinates where) {
-		time = local(when, where);
+		this(greenwich(when), where);
+	}
+
+	/**
+	 * Constructs an EquatorialToHorizontalConversion given the sidereal time of Greenwich and a location in geographic coordinates,
+	 * so that the sidereal time is computed once for all the locations of the same date
+	 * 
+	 * @param greenwichSiderealTime
+	 * 			Sidereal time of Greenwich (in radians)
+	 * 
+	 * @param where
+	 * 			Geographic coordinates of the point of observation
+	 */
+	public EquatorialToHorizontalConversion(double greenwichSiderealTime, GeographicCoordinates where) {
+		time = local(greenwichSiderealTime, where);
+		sinTime = sin(time);
+		cosTime = cos(time);
 		double latObs = where.lat();
 		sinLatObs = sin(latObs);
 		cosLatObs = cos(latObs);
@@ -47,13 +68,237 @@ public final class EquatorialToHorizontalConversion implements Function<Equatori
 	 */
 	@Override
 	public HorizontalCoordinates apply(EquatorialCoordinates t) {
+		double[] horizontal = new double[2];
+		applyTo(t.ra(), t.dec(), horizontal);
+
+		return HorizontalCoordinates.of(horizontal[0], horizontal[1]);
+	}
+
+	/**
+	 * Converts the points of indexes from (inclusive) to to (exclusive) of the columns of equatorial coordinates,
+	 * writing the azimuth and the altitude of the i-th point at index i of the destination arrays
+	 * No intermediate coordinates objects are created and disjoint ranges can be converted concurrently
+	 * 
+	 * @param ra
+	 * 			Right ascensions (in radians)
+	 * 
+	 * @param dec
+	 * 			Declinations (in radians)
+	 * 
+	 * @param az
+	 * 			Array receiving the azimuths (in radians)
+	 * 
+	 * @param alt
+	 * 			Array receiving the altitudes (in radians)
+	 * 
+	 * @param from
+	 * 			Index of the first point to convert
+	 * 
+	 * @param to
+	 * 			Index following the last point to convert
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if the sizes of the arrays do not match or if the range is not valid
+	 */
+	public void applyTo(double[] ra, double[] dec, double[] az, double[] alt, int from, int to) {
+		checkArgument(ra.length == dec.length && az.length == ra.length && alt.length == ra.length);
+		checkArgument(0 <= from && from <= to && to <= ra.length);
+
+		double[] horizontal = new double[2];
+
+		for(int i = from; i < to; ++i) {
+			applyTo(ra[i], dec[i], horizontal);
+			az[i] = horizontal[0];
+			alt[i] = horizontal[1];
+		}
+	}
+
+	/**
+	 * Converts the points of indexes from (inclusive) to to (exclusive) given by their equatorial unit vectors
+	 * (cos(dec)cos(ra), cos(dec)sin(ra), sin(dec)) into the north, east and up components of their horizontal unit vectors
+	 * (cos(alt)cos(az), cos(alt)sin(az), sin(alt)), written at index i of the destination arrays
+	 * The conversion is a single rotation depending only on the local sidereal time and the latitude of the observer,
+	 * computed once for all the points : each point only costs a few multiplications and additions
+	 * 
+	 * @param x
+	 * 			First components of the equatorial unit vectors
+	 * 
+	 * @param y
+	 * 			Second components of the equatorial unit vectors
+	 * 
+	 * @param z
+	 * 			Third components of the equatorial unit vectors
+	 * 
+	 * @param north
+	 * 			Array receiving the north components of the horizontal unit vectors
+	 * 
+	 * @param east
+	 * 			Array receiving the east components of the horizontal unit vectors
+	 * 
+	 * @param up
+	 * 			Array receiving the up components of the horizontal unit vectors
+	 * 
+	 * @param from
+	 * 			Index of the first point to convert
+	 * 
+	 * @param to
+	 * 			Index following the last point to convert
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if the sizes of the arrays do not match or if the range is not valid
+	 */
+	public void applyToUnitVectors(double[] x, double[] y, double[] z, double[] north, double[] east, double[] up, int from, int to) {
+		checkArgument(north.length == x.length);
+		applyToUnitVectors(x, y, z, north, east, up, 0, from, to);
+	}
+
+	/**
+	 * Converts the points of indexes from (inclusive) to to (exclusive) given by their equatorial unit vectors
+	 * into the north, east and up components of their horizontal unit vectors, written at index offset + i of the destination arrays,
+	 * so that the points seen by several observers can be written one after the other in the same arrays
+	 * 
+	 * @param x
+	 * 			First components of the equatorial unit vectors
+	 * 
+	 * @param y
+	 * 			Second components of the equatorial unit vectors
+	 * 
+	 * @param z
+	 * 			Third components of the equatorial unit vectors
+	 * 
+	 * @param north
+	 * 			Array receiving the north components of the horizontal unit vectors
+	 * 
+	 * @param east
+	 * 			Array receiving the east components of the horizontal unit vectors
+	 * 
+	 * @param up
+	 * 			Array receiving the up components of the horizontal unit vectors
+	 * 
+	 * @param offset
+	 * 			Index of the destination arrays receiving the point of index 0
+	 * 
+	 * @param from
+	 * 			Index of the first point to convert
+	 * 
+	 * @param to
+	 * 			Index following the last point to convert
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if the sizes of the arrays do not match or if the ranges are not valid
+	 */
+	public void applyToUnitVectors(double[] x, double[] y, double[] z, double[] north, double[] east, double[] up, int offset, int from, int to) {
+		checkArgument(x.length == y.length && x.length == z.length);
+		checkArgument(east.length == north.length && up.length == north.length);
+		checkArgument(0 <= from && from <= to && to <= x.length);
+		checkArgument(0 <= offset && offset + to <= north.length);
+
+		//Rows of the rotation giving the north, east and up components of the horizontal unit vector
+		double northX = -sinLatObs * cosTime, northY = -sinLatObs * sinTime, northZ = cosLatObs;
+		double eastX = -sinTime, eastY = cosTime;
+		double upX = cosLatObs * cosTime, upY = cosLatObs * sinTime, upZ = sinLatObs;
+
+		for(int i = from; i < to; ++i) {
+			north[offset + i] = northX*x[i] + northY*y[i] + northZ*z[i];
+			east[offset + i] = eastX*x[i] + eastY*y[i];
+			up[offset + i] = upX*x[i] + upY*y[i] + upZ*z[i];
+		}
+	}
+
+	/**
+	 * Converts the points of indexes from (inclusive) to to (exclusive) given by their equatorial unit vectors
+	 * (cos(dec)cos(ra), cos(dec)sin(ra), sin(dec)) into their azimuths and altitudes, written at index offset + i of the destination arrays,
+	 * so that the points seen by several observers can be written one after the other in the same arrays
+	 * 
+	 * @param x
+	 * 			First components of the equatorial unit vectors
+	 * 
+	 * @param y
+	 * 			Second components of the equatorial unit vectors
+	 * 
+	 * @param z
+	 * 			Third components of the equatorial unit vectors
+	 * 
+	 * @param az
+	 * 			Array receiving the azimuths (in radians)
+	 * 
+	 * @param alt
+	 * 			Array receiving the altitudes (in radians)
+	 * 
+	 * @param offset
+	 * 			Index of the destination arrays receiving the point of index 0
+	 * 
+	 * @param from
+	 * 			Index of the first point to convert
+	 * 
+	 * @param to
+	 * 			Index following the last point to convert
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if the sizes of the arrays do not match or if the ranges are not valid
+	 */
+	public void applyToUnitVectorsAzAlt(double[] x, double[] y, double[] z, double[] az, double[] alt, int offset, int from, int to) {
+		checkArgument(x.length == y.length && x.length == z.length && az.length == alt.length);
+		checkArgument(0 <= from && from <= to && to <= x.length);
+		checkArgument(0 <= offset && offset + to <= az.length);
+
+		double northX = -sinLatObs * cosTime, northY = -sinLatObs * sinTime, northZ = cosLatObs;
+		double eastX = -sinTime, eastY = cosTime;
+		double upX = cosLatObs * cosTime, upY = cosLatObs * sinTime, upZ = sinLatObs;
+
+		for(int i = from; i < to; ++i) {
+			double north = northX*x[i] + northY*y[i] + northZ*z[i];
+			double east = eastX*x[i] + eastY*y[i];
+			double up = upX*x[i] + upY*y[i] + upZ*z[i];
+
+			az[offset + i] = normalizePositive(atan2(east, north));
+			alt[offset + i] = asin(max(-1, min(1, up)));
+		}
+	}
+
+	/**
+	 * Returns the equatorial unit vector (cos(dec)cos(ra), cos(dec)sin(ra), sin(dec)) of the direction of given horizontal coordinates,
+	 * computed with the inverse of the rotation used by applyToUnitVectors
+	 * 
+	 * @param horizontal
+	 * 			Horizontal coordinates of the direction
+	 * 
+	 * @return array containing the three components of the equatorial unit vector
+	 */
+	public double[] equatorialUnitVector(HorizontalCoordinates horizontal) {
+		double cosAlt = cos(horizontal.alt());
+		double north = cosAlt * cos(horizontal.az());
+		double east = cosAlt * sin(horizontal.az());
+		double up = sin(horizontal.alt());
+
+		//The rotation is orthogonal : its inverse is its transpose
+		return new double[] {
+				-sinLatObs*cosTime*north - sinTime*east + cosLatObs*cosTime*up,
+				-sinLatObs*sinTime*north + cosTime*east + cosLatObs*sinTime*up,
+				cosLatObs*north + sinLatObs*up
+		};
+	}
+
+	/**
+	 * Computes the azimuth and altitude corresponding to the given right ascension and declination
+	 * 
+	 * @param ra
+	 * 			Right ascension (in radians)
+	 * 
+	 * @param dec
+	 * 			Declination (in radians)
+	 * 
+	 * @param horizontal
+	 * 			Array receiving the azimuth at index 0 and the altitude at index 1 (in radians)
+	 */
+	private void applyTo(double ra, double dec, double[] horizontal) {
 
 		//Repeated sin/cos term
-		double sinCoor = sin(t.dec());
-		double cosCoor = cos(t.dec());
+		double sinCoor = sin(dec);
+		double cosCoor = cos(dec);
 
 		//Hour angle
-		double horangle = time - t.ra();
+		double horangle = time - ra;
 
 		//Latitude
 		double termA = sinCoor * sinLatObs;
@@ -63,10 +308,8 @@ public final class EquatorialToHorizontalConversion implements Function<Equatori
 		//Azimuth
 		double den = sinCoor - sinLatObs*latTerm;
 		double num = -cosCoor * cosLatObs * sin(horangle);
-		double az = normalizePositive(atan2(num, den));
-		double lat = asin(latTerm);
-
-		return HorizontalCoordinates.of(az, lat);
+		horizontal[0] = normalizePositive(atan2(num, den));
+		horizontal[1] = asin(latTerm);
 	}
 
 	/**
@@ -0,0 +1,176 @@
+package ch.epfl.rigel.coordinates;
+
+import static ch.epfl.rigel.Preconditions.checkArgument;
+import static ch.epfl.rigel.math.Angle.normalizePositive;
+import static ch.epfl.rigel.math.Angle.ofArcsec;
+import static java.lang.Math.asin;
+import static java.lang.Math.atan2;
+import static java.lang.Math.cos;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.sin;
+
+import java.time.ZonedDateTime;
+import java.util.function.Function;
+
+import ch.epfl.rigel.astronomy.Epoch;
+import ch.epfl.rigel.math.Polynomial;
+
+/**
+ * Conversion of equatorial coordinates from the mean equator and equinox of J2000 to the mean equator and equinox of a date,
+ * by the rotation of the precession of the IAU 1976 model
+ *
+ * The rotation is computed once per date : converting a point only costs a product by a 3x3 matrix on its unit vector
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+public final class PrecessionConversion implements Function<EquatorialCoordinates, EquatorialCoordinates> {
+
+	//Angles zeta, z and theta of the precession, as polynomials of the number of julian centuries since J2000
+	private static final Polynomial ZETA = Polynomial.of(ofArcsec(0.017998), ofArcsec(0.30188), ofArcsec(2306.2181), 0);
+	private static final Polynomial Z = Polynomial.of(ofArcsec(0.018203), ofArcsec(1.09468), ofArcsec(2306.2181), 0);
+	private static final Polynomial THETA = Polynomial.of(ofArcsec(-0.041833), ofArcsec(-0.42665), ofArcsec(2004.3109), 0);
+
+	//Rotation matrix, by rows
+	private final double xx, xy, xz;
+	private final double yx, yy, yz;
+	private final double zx, zy, zz;
+
+	/**
+	 * Constructor of the conversion to the mean equator and equinox of a date
+	 *
+	 * @param when
+	 * 			Date of the equator and equinox
+	 */
+	public PrecessionConversion(ZonedDateTime when) {
+		this(Epoch.J2000.julianCenturiesUntil(when));
+	}
+
+	/**
+	 * Constructor of the conversion to the mean equator and equinox of a date
+	 *
+	 * @param julianCenturiesSinceJ2000
+	 * 			Number of julian centuries between the epoch J2000 and the date of the equator and equinox
+	 */
+	public PrecessionConversion(double julianCenturiesSinceJ2000) {
+		double zeta = ZETA.at(julianCenturiesSinceJ2000);
+		double z = Z.at(julianCenturiesSinceJ2000);
+		double theta = THETA.at(julianCenturiesSinceJ2000);
+
+		double cosZeta = cos(zeta), sinZeta = sin(zeta);
+		double cosZ = cos(z), sinZ = sin(z);
+		double cosTheta = cos(theta), sinTheta = sin(theta);
+
+		//Rotation Rz(-z) * Ry(theta) * Rz(-zeta)
+		xx = cosZeta * cosZ * cosTheta - sinZeta * sinZ;
+		xy = -sinZeta * cosZ * cosTheta - cosZeta * sinZ;
+		xz = -cosZ * sinTheta;
+		yx = cosZeta * sinZ * cosTheta + sinZeta * cosZ;
+		yy = -sinZeta * sinZ * cosTheta + cosZeta * cosZ;
+		yz = -sinZ * sinTheta;
+		zx = cosZeta * sinTheta;
+		zy = -sinZeta * sinTheta;
+		zz = cosTheta;
+	}
+
+	/**
+	 * Returns the equatorial coordinates of the point for the mean equator and equinox of the date
+	 *
+	 * @param t
+	 * 			Equatorial coordinates for the mean equator and equinox of J2000
+	 *
+	 * @return equatorial coordinates for the mean equator and equinox of the date
+	 */
+	@Override
+	public EquatorialCoordinates apply(EquatorialCoordinates t) {
+		double cosDec = cos(t.dec());
+		double x = cosDec * cos(t.ra()), y = cosDec * sin(t.ra()), z = sin(t.dec());
+
+		double newX = xx*x + xy*y + xz*z;
+		double newY = yx*x + yy*y + yz*z;
+		double newZ = zx*x + zy*y + zz*z;
+
+		return EquatorialCoordinates.of(normalizePositive(atan2(newY, newX)), asin(max(-1, min(1, newZ))));
+	}
+
+	/**
+	 * Rotates the unit vectors of indexes from (inclusive) to to (exclusive) and writes the rotated vectors at the same indexes
+	 * of the destination arrays, which can be the source arrays
+	 *
+	 * @param x
+	 * 			First components of the unit vectors for the mean equator and equinox of J2000
+	 *
+	 * @param y
+	 * 			Second components of the unit vectors
+	 *
+	 * @param z
+	 * 			Third components of the unit vectors
+	 *
+	 * @param destX
+	 * 			Array receiving the first components for the mean equator and equinox of the date
+	 *
+	 * @param destY
+	 * 			Array receiving the second components
+	 *
+	 * @param destZ
+	 * 			Array receiving the third components
+	 *
+	 * @param from
+	 * 			Index of the first vector to rotate
+	 *
+	 * @param to
+	 * 			Index following the last vector to rotate
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the sizes of the arrays do not match or if the range is not valid
+	 */
+	public void applyToUnitVectors(double[] x, double[] y, double[] z, double[] destX, double[] destY, double[] destZ, int from, int to) {
+		checkArgument(x.length == y.length && x.length == z.length);
+		checkArgument(destX.length == x.length && destY.length == x.length && destZ.length == x.length);
+		checkArgument(0 <= from && from <= to && to <= x.length);
+
+		for(int i = from; i < to; ++i) {
+			double vx = x[i], vy = y[i], vz = z[i];
+
+			destX[i] = xx*vx + xy*vy + xz*vz;
+			destY[i] = yx*vx + yy*vy + yz*vz;
+			destZ[i] = zx*vx + zy*vy + zz*vz;
+		}
+	}
+
+	/**
+	 * Returns the unit vector for the mean equator and equinox of J2000 of the direction of given unit vector
+	 * for the mean equator and equinox of the date, computed with the inverse rotation
+	 *
+	 * @param unitVector
+	 * 			Array containing the three components of the unit vector for the mean equator and equinox of the date
+	 *
+	 * @return array containing the three components of the unit vector for the mean equator and equinox of J2000
+	 */
+	public double[] inverseUnitVector(double[] unitVector) {
+		double x = unitVector[0], y = unitVector[1], z = unitVector[2];
+
+		//The rotation is orthogonal : its inverse is its transpose
+		return new double[] {
+				xx*x + yx*y + zx*z,
+				xy*x + yy*y + zy*z,
+				xz*x + yz*y + zz*z
+		};
+	}
+
+	/**
+	 * @see Object#equals()
+	 */
+	@Override
+	public final boolean equals(Object o) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @see Object#hashCode()
+	 */
+	@Override
+	public final int hashCode() {
+		throw new UnsupportedOperationException();
+	}
+}
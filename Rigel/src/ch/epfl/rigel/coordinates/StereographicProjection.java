@@ -1,5 +1,6 @@
 package ch.epfl.rigel.coordinates;
 
+import static ch.epfl.rigel.Preconditions.checkArgument;
 import static ch.epfl.rigel.math.Angle.normalizePositive;
 import static java.lang.Math.asin;
 import static java.lang.Math.atan2;
@@ -21,6 +22,8 @@ public final class StereographicProjection implements Function<HorizontalCoordin
 	private final HorizontalCoordinates center;
 	private final double cosAltCenter;
 	private final double sinAltCenter;
+	private final double cosAzCenter;
+	private final double sinAzCenter;
 
 	/**
 	 * Constructor of StereographicProjection
@@ -32,6 +35,17 @@ public final class StereographicProjection implements Function<HorizontalCoordin
 		this.center = center;
 		cosAltCenter = cos(center.alt());
 		sinAltCenter = sin(center.alt());
+		cosAzCenter = cos(center.az());
+		sinAzCenter = sin(center.az());
+	}
+
+	/**
+	 * Getter for the center of the projection
+	 * 
+	 * @return horizontal coordinates of the center of the projection
+	 */
+	public HorizontalCoordinates center() {
+		return center;
 	}
 
 	/**
@@ -44,17 +58,209 @@ public final class StereographicProjection implements Function<HorizontalCoordin
 	 */
 	@Override
 	public CartesianCoordinates apply(HorizontalCoordinates t) {
-		double sinAltCoor = sin(t.alt());
-		double cosAltCoor = cos(t.alt());
+		double[] xy = new double[2];
+		applyTo(t.az(), t.alt(), xy, 0);
+
+		return CartesianCoordinates.of(xy[0], xy[1]);
+	}
+
+	/**
+	 * Projects the points of indexes from (inclusive) to to (exclusive) given by their azimuths and altitudes,
+	 * writing the x and y coordinates of the i-th point at indexes 2i and 2i+1 of the destination array
+	 * Gives exactly the same coordinates as apply, without creating intermediate coordinates objects
+	 * 
+	 * @param az
+	 * 			Azimuths of the original points (in radians)
+	 * 
+	 * @param alt
+	 * 			Altitudes of the original points (in radians)
+	 * 
+	 * @param destination
+	 * 			Array of size 2 * az.length receiving the projected coordinates
+	 * 
+	 * @param from
+	 * 			Index of the first point to project
+	 * 
+	 * @param to
+	 * 			Index following the last point to project
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if the sizes of the arrays do not match or if the range is not valid
+	 */
+	public void project(double[] az, double[] alt, double[] destination, int from, int to) {
+		checkArgument(az.length == alt.length && destination.length == 2 * az.length);
+		checkArgument(0 <= from && from <= to && to <= az.length);
+
+		for(int i = from; i < to; ++i) {
+			applyTo(az[i], alt[i], destination, 2 * i);
+		}
+	}
 
-		double delta = t.az() - center.az();
+	/**
+	 * Projects the points of indexes from (inclusive) to to (exclusive) given by the north, east and up components 
+	 * of their horizontal unit vectors, writing the x and y coordinates of the i-th point at indexes 2i and 2i+1 of the destination array
+	 * 
+	 * @param north
+	 * 			North components of the horizontal unit vectors
+	 * 
+	 * @param east
+	 * 			East components of the horizontal unit vectors
+	 * 
+	 * @param up
+	 * 			Up components of the horizontal unit vectors
+	 * 
+	 * @param destination
+	 * 			Array of size 2 * north.length receiving the projected coordinates
+	 * 
+	 * @param from
+	 * 			Index of the first point to project
+	 * 
+	 * @param to
+	 * 			Index following the last point to project
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if the sizes of the arrays do not match or if the range is not valid
+	 */
+	public void projectUnitVectors(double[] north, double[] east, double[] up, double[] destination, int from, int to) {
+		checkArgument(north.length == east.length && north.length == up.length && destination.length == 2 * north.length);
+		checkArgument(0 <= from && from <= to && to <= north.length);
+
+		for(int i = from; i < to; ++i) {
+			applyToVector(north[i], east[i], up[i], destination, 2 * i);
+		}
+	}
+
+	/**
+	 * Projects the points whose indexes are given by the elements from (inclusive) to to (exclusive) of the array of indexes,
+	 * writing the x and y coordinates of the point of index indices[k] at indexes 2k and 2k+1 of the destination array
+	 * 
+	 * @param az
+	 * 			Azimuths of the original points (in radians)
+	 * 
+	 * @param alt
+	 * 			Altitudes of the original points (in radians)
+	 * 
+	 * @param indices
+	 * 			Indexes of the points to project
+	 * 
+	 * @param destination
+	 * 			Array of size at least 2 * indices.length receiving the projected coordinates
+	 * 
+	 * @param from
+	 * 			Index of the first element of the array of indexes
+	 * 
+	 * @param to
+	 * 			Index following the last element of the array of indexes
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if the sizes of the arrays do not match or if the range is not valid
+	 */
+	public void project(double[] az, double[] alt, int[] indices, double[] destination, int from, int to) {
+		checkArgument(az.length == alt.length && 2 * indices.length <= destination.length);
+		checkArgument(0 <= from && from <= to && to <= indices.length);
+
+		for(int k = from; k < to; ++k) {
+			int i = indices[k];
+			applyTo(az[i], alt[i], destination, 2 * k);
+		}
+	}
+
+	/**
+	 * Projects the points whose indexes are given by the elements from (inclusive) to to (exclusive) of the array of indexes,
+	 * the points being given by the north, east and up components of their horizontal unit vectors
+	 * The x and y coordinates of the point of index indices[k] are written at indexes 2k and 2k+1 of the destination array
+	 * 
+	 * @param north
+	 * 			North components of the horizontal unit vectors
+	 * 
+	 * @param east
+	 * 			East components of the horizontal unit vectors
+	 * 
+	 * @param up
+	 * 			Up components of the horizontal unit vectors
+	 * 
+	 * @param indices
+	 * 			Indexes of the points to project
+	 * 
+	 * @param destination
+	 * 			Array of size at least 2 * indices.length receiving the projected coordinates
+	 * 
+	 * @param from
+	 * 			Index of the first element of the array of indexes
+	 * 
+	 * @param to
+	 * 			Index following the last element of the array of indexes
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if the sizes of the arrays do not match or if the range is not valid
+	 */
+	public void projectUnitVectors(double[] north, double[] east, double[] up, int[] indices, double[] destination, int from, int to) {
+		checkArgument(north.length == east.length && north.length == up.length && 2 * indices.length <= destination.length);
+		checkArgument(0 <= from && from <= to && to <= indices.length);
+
+		for(int k = from; k < to; ++k) {
+			int i = indices[k];
+			applyToVector(north[i], east[i], up[i], destination, 2 * k);
+		}
+	}
+
+	/**
+	 * Projects the point of given azimuth and altitude and writes its x and y coordinates
+	 * at indexes index and index+1 of the destination array
+	 * 
+	 * @param az
+	 * 			Azimuth of the original point (in radians)
+	 * 
+	 * @param alt
+	 * 			Altitude of the original point (in radians)
+	 * 
+	 * @param destination
+	 * 			Array receiving the coordinates of the projected point
+	 * 
+	 * @param index
+	 * 			Index of the x coordinate in the destination array
+	 */
+	private void applyTo(double az, double alt, double[] destination, int index) {
+		double sinAltCoor = sin(alt);
+		double cosAltCoor = cos(alt);
+
+		double delta = az - center.az();
 		double cosDelta = cos(delta);
 		double d = 1 / (1 + sinAltCenter*sinAltCoor + cosAltCenter*cosAltCoor*cosDelta);
 
-		double x = d * cosAltCoor * sin(delta);
-		double y = d * (cosAltCenter*sinAltCoor - sinAltCenter*cosAltCoor*cosDelta);
+		destination[index] = d * cosAltCoor * sin(delta);
+		destination[index + 1] = d * (cosAltCenter*sinAltCoor - sinAltCenter*cosAltCoor*cosDelta);
+	}
+
+	/**
+	 * Projects the point given by the north, east and up components of its horizontal unit vector
+	 * (cos(alt)cos(az), cos(alt)sin(az), sin(alt)) and writes its x and y coordinates
+	 * at indexes index and index+1 of the destination array
+	 * Only multiplications and additions are used, no trigonometric function
+	 * 
+	 * @param north
+	 * 			North component of the horizontal unit vector
+	 * 
+	 * @param east
+	 * 			East component of the horizontal unit vector
+	 * 
+	 * @param up
+	 * 			Up component of the horizontal unit vector
+	 * 
+	 * @param destination
+	 * 			Array receiving the coordinates of the projected point
+	 * 
+	 * @param index
+	 * 			Index of the x coordinate in the destination array
+	 */
+	private void applyToVector(double north, double east, double up, double[] destination, int index) {
+		//cos(alt)cos(delta) and cos(alt)sin(delta) where delta is the difference of azimuth with the center
+		double cosAltCosDelta = north*cosAzCenter + east*sinAzCenter;
+		double cosAltSinDelta = east*cosAzCenter - north*sinAzCenter;
+		double d = 1 / (1 + sinAltCenter*up + cosAltCenter*cosAltCosDelta);
 
-		return CartesianCoordinates.of(x, y);
+		destination[index] = d * cosAltSinDelta;
+		destination[index + 1] = d * (cosAltCenter*up - sinAltCenter*cosAltCosDelta);
 	}
 
 	/**
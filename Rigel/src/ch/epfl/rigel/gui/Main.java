@@ -3,6 +3,9 @@ package ch.epfl.rigel.gui;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -14,6 +17,7 @@ import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 
 import ch.epfl.rigel.astronomy.AsterismLoader;
+import ch.epfl.rigel.astronomy.BinaryCatalogueLoader;
 import ch.epfl.rigel.astronomy.HygDatabaseLoader;
 import ch.epfl.rigel.astronomy.StarCatalogue;
 import ch.epfl.rigel.coordinates.GeographicCoordinates;
@@ -107,6 +111,7 @@ public final class Main extends Application {
 
 	//FILES PATH
 	private static final String STARS_PATH = "/hygdata_v3.csv";
+	private static final String BINARY_STARS_PATH = "/hygdata_v3.bin";
 	private static final String AST_PATH = "/asterisms.txt";
 
 	private static final List<String> SORTED_ZONEIDS = sortedZoneIds();
@@ -147,8 +152,7 @@ public final class Main extends Application {
 	 */
 	@Override
 	public void start(Stage primaryStage) throws Exception {
-		try (InputStream hs = resourceStream(STARS_PATH);
-				InputStream ast = resourceStream(AST_PATH)) {
+		try (InputStream ast = resourceStream(AST_PATH)) {
 
 			resetStartProcess();
 			this.primaryStage = primaryStage;
@@ -156,8 +160,7 @@ public final class Main extends Application {
 			HBox whenBox = dateControlBar();
 
 			//SKY PANE
-			StarCatalogue catalogue = new StarCatalogue.Builder()
-					.loadFrom(hs, HygDatabaseLoader.INSTANCE)
+			StarCatalogue catalogue = loadStars(new StarCatalogue.Builder())
 					.loadFrom(ast, AsterismLoader.INSTANCE)
 					.build();
 
@@ -209,6 +212,39 @@ public final class Main extends Application {
 		} 
 	}
 
+	/**
+	 * Loads the stars into the builder from the precompiled binary catalogue, mapped in memory when it is a file,
+	 * or from the HYG database if there is no binary catalogue
+	 * 
+	 * @param builder
+	 * 			Builder receiving the stars
+	 * 
+	 * @throws IOException
+	 * 			if the catalogue cannot be read
+	 * 
+	 * @return the builder
+	 */
+	private StarCatalogue.Builder loadStars(StarCatalogue.Builder builder) throws IOException {
+		URL binary = getClass().getResource(BINARY_STARS_PATH);
+
+		if (binary == null) {
+			try (InputStream hs = resourceStream(STARS_PATH)) {
+				return builder.loadFrom(hs, HygDatabaseLoader.INSTANCE);
+			}
+		}
+
+		if ("file".equals(binary.getProtocol())) {
+			try {
+				BinaryCatalogueLoader.INSTANCE.load(Path.of(binary.toURI()), builder);
+				return builder;
+			} catch (URISyntaxException e) {
+				//The catalogue is then read as a stream
+			}
+		}
+
+		return builder.loadFrom(binary.openStream(), BinaryCatalogueLoader.INSTANCE);
+	}
+
 	private InputStream resourceStream(String resourceName) {
 		return getClass().getResourceAsStream(resourceName);
 	}
@@ -442,6 +478,8 @@ public final class Main extends Application {
 
 			CheckBox showEcliptic = tickBoxMaker("Show Ecliptic", fontAwesome, true, canvasManager.showEclipticProperty());
 
+			CheckBox refraction = tickBoxMaker("Atmospheric Refraction", fontAwesome, true, canvasManager.refractionProperty());
+
 			parametersButton.setOnMouseClicked(e -> {
 
 				skyRoot.setEffect(new SepiaTone());
@@ -455,7 +493,7 @@ public final class Main extends Application {
 				Button confirm = new Button("Confirm");
 				confirm.setFont(fontAwesome);
 
-				parametersRoot.getChildren().addAll(parameters, showAsterisms, showHorizon, showStars, showGrid, showEquator, showEcliptic, confirm);
+				parametersRoot.getChildren().addAll(parameters, showAsterisms, showHorizon, showStars, showGrid, showEquator, showEcliptic, refraction, confirm);
 
 				Stage parametersStage = new Stage(StageStyle.TRANSPARENT);
 				parametersStage.initOwner(primaryStage);
@@ -578,4 +616,4 @@ public final class Main extends Application {
 
 		return informationBar;
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
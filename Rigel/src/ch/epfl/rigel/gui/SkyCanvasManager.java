@@ -1,12 +1,19 @@
 package ch.epfl.rigel.gui;
 
 import ch.epfl.rigel.astronomy.CelestialObject;
+import ch.epfl.rigel.astronomy.EphemerisCache;
 import static java.lang.Math.abs;
+import static java.lang.Math.atan;
+import static java.lang.Math.hypot;
+import static java.lang.Math.tan;
 
 import java.util.Optional;
 
+import ch.epfl.rigel.astronomy.HorizontalSky;
 import ch.epfl.rigel.astronomy.ObservedSky;
+import ch.epfl.rigel.astronomy.SkyFrameBuffers;
 import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.coordinates.AtmosphericRefraction;
 import ch.epfl.rigel.coordinates.CartesianCoordinates;
 import ch.epfl.rigel.coordinates.HorizontalCoordinates;
 import ch.epfl.rigel.coordinates.StereographicProjection;
@@ -40,6 +47,7 @@ public class SkyCanvasManager {
 	//Internal links
 	private final ObjectBinding<StereographicProjection> projection;
 	private final ObjectBinding<Transform> planeToCanvas;
+	private final ObjectBinding<HorizontalSky> horizontalSky;
 	private final ObjectBinding<ObservedSky> observedSky;
 	private final ObjectProperty<CartesianCoordinates> mousePosition;
 	private final ObjectProperty<CartesianCoordinates> mousePositionOnPressed;
@@ -55,6 +63,7 @@ public class SkyCanvasManager {
 	private final BooleanProperty showGrid;
 	private final BooleanProperty showEcliptic;
 	private final BooleanProperty showEquator;
+	private final BooleanProperty refraction;
 
 
 	//External links
@@ -73,6 +82,9 @@ public class SkyCanvasManager {
 
 	private static final double MAX_DISTANCE = 10.0;
 
+	//Margin added to the view cone, so that the asterism lines leaving the canvas keep both of their ends
+	private static final double VIEW_MARGIN = Angle.ofDeg(30);
+
 	/**
 	 * Constructor of the skyCanvasManager
 	 * 
@@ -102,6 +114,7 @@ public class SkyCanvasManager {
 
 		showEcliptic = new SimpleBooleanProperty();
 		showEquator = new SimpleBooleanProperty();
+		refraction = new SimpleBooleanProperty();
 
 		//Bindings
 		painter.showGridProperty().bind(showGrid);
@@ -115,9 +128,21 @@ public class SkyCanvasManager {
 		projection = Bindings.createObjectBinding(() -> new StereographicProjection(viewingParametersBean.getCenterCoordinates()), 
 				viewingParametersBean.centerCoordinatesProperty());
 
+		//Frames are built alternately in two storages, the previous frame staying readable while the next one is built
+		//The Moon and the planets of the animated frames are interpolated over windows fitted in the background
+		SkyFrameBuffers buffers = new SkyFrameBuffers(catalogue, new EphemerisCache());
+
+		//Time dependent stage, only recomputed when the instant, the observer or the refraction changes
+		horizontalSky = Bindings.createObjectBinding(
+				() -> buffers.horizontalSky(dateTimeBean.getZonedDateTime(), observerLocationBean.getGeographicCoordinates(), ObservedSky.Mode.INCREMENTAL,
+						refraction.get() ? AtmosphericRefraction.STANDARD : null), 
+				dateTimeBean.zonedDateTimeProperty(), observerLocationBean.getGeographicCoordinatesBinding(), refraction);
+
 		observedSky = Bindings.createObjectBinding(
-				() -> new ObservedSky(dateTimeBean.getZonedDateTime(), observerLocationBean.getGeographicCoordinates(), projection.get(), catalogue, getSelectedStar()), 
-				dateTimeBean.zonedDateTimeProperty(), observerLocationBean.getGeographicCoordinatesBinding(), projection);
+				() -> buffers.observedSky(horizontalSky.get(), projection.get(), getSelectedStar(), viewingParametersBean.getLimitingMagnitude(), 
+						viewRadius(viewingParametersBean.getFieldOfViewDeg())), 
+				horizontalSky, projection, viewingParametersBean.limitingMagnitudeBinding(), viewingParametersBean.fieldOfViewDegProperty(),
+				canvas.widthProperty(), canvas.heightProperty());
 
 		DoubleBinding dilatation = Bindings.createDoubleBinding(
 				() -> (dilatationFactor(projection.get(), viewingParametersBean.getFieldOfViewDeg())), 
@@ -332,6 +357,25 @@ public class SkyCanvasManager {
 		return (canvas.getWidth())/(proj.applyToAngle(Angle.ofDeg(fov)));
 	}
 
+	/**
+	 * Computes the angular radius of the view cone : the angle between the center of the projection and the corners of the canvas,
+	 * plus a margin
+	 * 
+	 * @param fov
+	 * 			Field of view (in degrees), corresponding to the width of the canvas
+	 * 
+	 * @return angular radius of the view cone (in radians)
+	 */
+	private double viewRadius(double fov) {
+		if (canvas.getWidth() == 0)
+			return Math.PI;
+
+		//A point at angle t from the center is projected at distance tan(t/2) of the center, the half width being tan(fov/4)
+		double halfDiagonal = tan(Angle.ofDeg(fov) / 4) * hypot(canvas.getWidth(), canvas.getHeight()) / canvas.getWidth();
+
+		return 2 * atan(halfDiagonal) + VIEW_MARGIN;
+	}
+
 	/**
 	 * Getter for the canvas
 	 * 
@@ -473,4 +517,13 @@ public class SkyCanvasManager {
 	public BooleanProperty showEquatorProperty() {
 		return showEquator;
 	}	
+
+	/**
+	 * Getter for the value of the atmospheric refraction property
+	 * 
+	 * @return value of the atmospheric refraction property
+	 */
+	public BooleanProperty refractionProperty() {
+		return refraction;
+	}	
 }
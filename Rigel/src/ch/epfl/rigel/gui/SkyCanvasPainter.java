@@ -1,11 +1,14 @@
 package ch.epfl.rigel.gui;
 
 import static ch.epfl.rigel.gui.BlackBodyColor.colorForTemperature;
+import static ch.epfl.rigel.gui.SkyGeometry.paintSun;
+import static ch.epfl.rigel.gui.SkyGeometry.transformPoints;
+import static ch.epfl.rigel.gui.SkyGeometry.transformedDiskSize;
+import static ch.epfl.rigel.gui.SkyGeometry.transformedSunMoonSize;
 
+import java.nio.DoubleBuffer;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import ch.epfl.rigel.astronomy.Asterism;
 import ch.epfl.rigel.astronomy.ObservedSky;
@@ -14,8 +17,6 @@ import ch.epfl.rigel.astronomy.Star;
 import ch.epfl.rigel.coordinates.CartesianCoordinates;
 import ch.epfl.rigel.coordinates.HorizontalCoordinates;
 import ch.epfl.rigel.coordinates.StereographicProjection;
-import ch.epfl.rigel.math.Angle;
-import ch.epfl.rigel.math.ClosedInterval;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.geometry.Point2D;
@@ -41,8 +42,6 @@ public class SkyCanvasPainter {
 	private final GraphicsContext graphicsContext;
 
 	//Star transform
-	private final Map<Star, CartesianCoordinates> starTransformed;
-	private final Map<Star, Double> starRadius;
 	private double[] starPoints;
 
 	private final static HorizontalCoordinates ZERO_LAT_COORDINATES = HorizontalCoordinates.of(0.0,0.0);
@@ -51,9 +50,6 @@ public class SkyCanvasPainter {
 	private final static List<HorizontalCoordinates> POINTS_FOR_PARALLELS_LIST = new ArrayList<HorizontalCoordinates>(); 
 	private final static HorizontalCoordinates ZENITH_COORDINATES = HorizontalCoordinates.ofDeg(0.0,90.0);
 
-
-	private static final ClosedInterval MAGNITUDE_INT = ClosedInterval.of(-2, 5);
-
 	//Path
 	private boolean tracePath;
 	private List<Double> deltaXPath;
@@ -79,8 +75,6 @@ public class SkyCanvasPainter {
 	public SkyCanvasPainter(Canvas canvas) {
 		this.canvas = canvas;
 		graphicsContext = this.canvas.getGraphicsContext2D();
-		starTransformed = new HashMap<Star, CartesianCoordinates>();
-		starRadius = new HashMap<Star, Double>();
 		deltaXPath = new ArrayList<Double>();
 		deltaYPath = new ArrayList<Double>();
 		first = true;
@@ -177,23 +171,24 @@ public class SkyCanvasPainter {
 	 */
 	public void drawPlanets(ObservedSky sky, StereographicProjection projection, Transform transform) {
 
-		double[] destPoints = new double[sky.planetPositions().length];
-		int size = destPoints.length/2;
-		transform.transform2DPoints(sky.planetPositions(), 0, destPoints, 0, size);
+		DoubleBuffer planetPositions = sky.planetPositionsView();
+		double[] destPoints = new double[planetPositions.capacity()];
+		double[] matrix = matrix(transform);
+		transformPoints(planetPositions, destPoints, matrix);
 
 		int index = 0;
 
 		graphicsContext.setFill(Color.LIGHTGRAY);
 
 		for (Planet planet : sky.planets()) { 
-			double diameter = transformedDiskSize(projection, planet.magnitude(), transform);
+			double diameter = transformedDiskSize(projection, planet.magnitude(), matrix);
 			graphicsContext.fillOval(destPoints[index] - diameter/2, destPoints[index+1] - diameter/2, diameter, diameter);
 			index+=2;
 		}
 	}
 
 	/**
-	 * Draw all the Stars
+	 * Draw the Stars brighter than the limiting magnitude of the sky
 	 * 
 	 * @param sky
 	 * 			Observed Sky
@@ -205,13 +200,17 @@ public class SkyCanvasPainter {
 	 * 			2D Transform
 	 */
 	public void drawStars(ObservedSky sky, StereographicProjection projection, Transform transform) {
-		for(Star star : sky.stars()) {
+		List<Star> stars = sky.stars();
+		double[] matrix = matrix(transform);
+
+		for(int index : sky.visibleStarIndices()) {
+			Star star = stars.get(index);
 			int temperature = star.colorTemperature();
 			Color starColor = colorForTemperature(temperature);
 
-			double diameter = starRadius.get(star);
-			double x = starTransformed.get(star).x();
-			double y = starTransformed.get(star).y();
+			double diameter = transformedDiskSize(projection, star.magnitude(), matrix);
+			double x = starPoints[2 * index];
+			double y = starPoints[2 * index + 1];
 
 			graphicsContext.setFill(starColor);
 			graphicsContext.fillOval(x - diameter/2, y - diameter/2, diameter, diameter);
@@ -232,44 +231,14 @@ public class SkyCanvasPainter {
 	 */
 	public void drawSun(ObservedSky sky, StereographicProjection projection, Transform transform) {
 		CartesianCoordinates sunCoor = sky.sunPosition();
-		double sunSize = projection.applyToAngle(Angle.ofDeg(0.5));
 		Point2D sunPoint = transform.transform(sunCoor.x(), sunCoor.y());
-		double diameter = transform.deltaTransform(0, sunSize)
-				.magnitude();
-
 		double x = sunPoint.getX();
 		double y = sunPoint.getY();
 
-		//Here the index correspond to the order of painting, index 0 being the background
-		double[] diameters = new double[3];
-		Color[] colors = new Color[3];
-
-		//Sort ovals based on diameters
-		// 2 + diameter > 2.2 * diameter <=> diameter < (2.0/1.2)
-
-		if (diameter < (2.0/1.2)) {	
-			colors[0] = Color.YELLOW;
-			diameters[0] = 2 + diameter;
-
-			colors[1] = Color.YELLOW.deriveColor(1, 1, 1, 0.25);
-			diameters[1] = 2.2 * diameter;	
-		}
-
-		else {
-			colors[0] = Color.YELLOW.deriveColor(1, 1, 1, 0.25);
-			diameters[0] = 2.2 * diameter;
-
-			colors[1] = Color.YELLOW;
-			diameters[1] = 2 + diameter;
-		}
-
-		colors[2] = Color.WHITE;
-		diameters[2] = diameter;
-
-		for(int i = 0; i < diameters.length; ++i) {
-			canvas.getGraphicsContext2D().setFill(colors[i]);
-			canvas.getGraphicsContext2D().fillOval(x - diameters[i]/2, y - diameters[i]/2, diameters[i], diameters[i]);
-		}
+		paintSun(transformedSunMoonSize(projection, matrix(transform)),
+				d -> fillDisk(Color.YELLOW.deriveColor(1, 1, 1, 0.25), x, y, d),
+				d -> fillDisk(Color.YELLOW, x, y, d),
+				d -> fillDisk(Color.WHITE, x, y, d));
 	}
 
 	/**
@@ -287,16 +256,9 @@ public class SkyCanvasPainter {
 	 */
 	public void drawMoon(ObservedSky sky, StereographicProjection projection, Transform transform) {
 		CartesianCoordinates moonCoor = sky.moonPosition();
-
-		double moonSize = projection.applyToAngle(Angle.ofDeg(0.5));
 		Point2D moonPoint = transform.transform(moonCoor.x(), moonCoor.y());
-		double diameter = transform.deltaTransform(0, moonSize)
-				.magnitude();
-		double x = moonPoint.getX();
-		double y = moonPoint.getY();
 
-		graphicsContext.setFill(Color.WHITE);
-		graphicsContext.fillOval(x - diameter/2, y - diameter/2, diameter, diameter);
+		fillDisk(Color.WHITE, moonPoint.getX(), moonPoint.getY(), transformedSunMoonSize(projection, matrix(transform)));
 	}
 
 	/**
@@ -330,6 +292,10 @@ public class SkyCanvasPainter {
 				double x2 = starPoints[2*(list.get(i+1))];
 				double y2 = starPoints[2*(list.get(i+1)) + 1];
 
+				//Segments with an end fainter than the limiting magnitude, whose position is NaN, are not drawn
+				if (Double.isNaN(x1) || Double.isNaN(x2))
+					continue;
+
 				if ((canvas.getBoundsInLocal().contains(x1, y1) || canvas.getBoundsInLocal().contains(x2, y2))) {
 
 					graphicsContext.moveTo(x1, y1);
@@ -356,19 +322,12 @@ public class SkyCanvasPainter {
 	 * 			Transform used
 	 */
 	private void transformStars(ObservedSky sky, StereographicProjection projection, Transform transform) {
-		starPoints = new double[sky.starPositions().length];
-		transform.transform2DPoints(sky.starPositions(), 0, starPoints, 0, starPoints.length/2);
-		int y = 0;
+		DoubleBuffer starPositions = sky.starPositionsView();
 
+		if (starPoints == null || starPoints.length != starPositions.capacity())
+			starPoints = new double[starPositions.capacity()];
 
-		for(Star star : sky.stars()) {
-			double diameter = transformedDiskSize(projection, star.magnitude(), transform);
-			starTransformed.put(star, CartesianCoordinates.of(starPoints[y], starPoints[y+1]));
-
-			starRadius.put(star, diameter);
-
-			y+=2;
-		}
+		transformPoints(starPositions, starPoints, matrix(transform));
 	}
 
 	/**
@@ -469,7 +428,7 @@ public class SkyCanvasPainter {
 	 * 			Transform used
 	 */
 	public void drawEcliptic(ObservedSky sky, StereographicProjection projection, Transform transform) {
-		drawBaseParallel(sky, projection, transform, sky.eclipticPositions(), Color.GREEN); 
+		drawBaseParallel(sky, projection, transform, sky.eclipticPositionsView(), Color.GREEN); 
 	}
 
 	/** Draws the equator
@@ -484,7 +443,7 @@ public class SkyCanvasPainter {
 	 * 			Transform used
 	 */
 	public void drawEquator(ObservedSky sky, StereographicProjection projection, Transform transform) {
-		drawBaseParallel(sky, projection, transform, sky.equatorialPositions(), Color.PURPLE);
+		drawBaseParallel(sky, projection, transform, sky.equatorialPositionsView(), Color.PURPLE);
 	}
 
 
@@ -501,21 +460,21 @@ public class SkyCanvasPainter {
 	 * 			Transform used
 	 * 
 	 * @param arrayOfCoordinates
-	 * 			Array of coordinates characteristic of the line to be drawn
+	 * 			Read-only view of the coordinates characteristic of the line to be drawn
 	 * 
 	 * @param color
 	 * 			Color used
 	 */
-	private void drawBaseParallel(ObservedSky sky, StereographicProjection projection, Transform transform,  double[] arrayOfCoordinates, Color color ) {
+	private void drawBaseParallel(ObservedSky sky, StereographicProjection projection, Transform transform,  DoubleBuffer arrayOfCoordinates, Color color ) {
 		for(int i1 = 0, i2 = 1; i2 < 180; i1++, i2++) {
 			graphicsContext.beginPath();
-			double tempX1 = arrayOfCoordinates[i1*2];
-			double tempY1 = arrayOfCoordinates[i1*2 + 1];
+			double tempX1 = arrayOfCoordinates.get(i1*2);
+			double tempY1 = arrayOfCoordinates.get(i1*2 + 1);
 			Point2D tempTransformed1 = transform.transform(tempX1, tempY1);
 			graphicsContext.moveTo(tempTransformed1.getX(), tempTransformed1.getY() );
 
-			double tempX2 = arrayOfCoordinates[i2*2];
-			double tempY2 = arrayOfCoordinates[i2*2 + 1];
+			double tempX2 = arrayOfCoordinates.get(i2*2);
+			double tempY2 = arrayOfCoordinates.get(i2*2 + 1);
 			Point2D tempTransformed2 = transform.transform(tempX2, tempY2);
 			graphicsContext.lineTo(tempTransformed2.getX(), tempTransformed2.getY());
 
@@ -531,12 +490,12 @@ public class SkyCanvasPainter {
 		graphicsContext.closePath();		
 		graphicsContext.beginPath();
 
-		double xFirst = arrayOfCoordinates[0];
-		double yFirst= arrayOfCoordinates[1];
+		double xFirst = arrayOfCoordinates.get(0);
+		double yFirst= arrayOfCoordinates.get(1);
 		Point2D firstTransformed = transform.transform(xFirst, yFirst);
 		graphicsContext.moveTo(firstTransformed.getX(), firstTransformed.getY() );
-		double xSecond = arrayOfCoordinates[358];
-		double ySecond = arrayOfCoordinates[359];
+		double xSecond = arrayOfCoordinates.get(358);
+		double ySecond = arrayOfCoordinates.get(359);
 		Point2D secondTransformed = transform.transform(xSecond, ySecond);
 		graphicsContext.lineTo(secondTransformed.getX(), secondTransformed.getY());
 
@@ -561,12 +520,13 @@ public class SkyCanvasPainter {
 	 * 			Transform used
 	 */
 	private void tracePath(ObservedSky sky, Transform transform) {
-		CartesianCoordinates actual;
-		actual = sky.pathCoordinates();
+		//The selected star is found by its index, its projected position being read in constant time
+		int selected = sky.selectedStarIndex();
+		CartesianCoordinates actual = (selected == -1) ? null : sky.starPosition(selected);
 
 		if (tracePath) {
 			if (first) {
-				firstCoor = sky.pathCoordinates();
+				firstCoor = actual;
 				first = false;
 			}
 
@@ -577,7 +537,7 @@ public class SkyCanvasPainter {
 		}
 
 		else {
-			firstCoor = sky.pathCoordinates();
+			firstCoor = actual;
 		}
 
 		for(int i = 0; i < deltaXPath.size(); ++i) {
@@ -643,27 +603,34 @@ public class SkyCanvasPainter {
 	}
 
 	/**
-	 * Computes the size of the disk of the transformed celestial object
-	 * Method used for celestial objects whose positions are stored in arrays, as it would duplicate the transform operation of the coordinates for a single celestial object
-	 * 
-	 * @param proj
-	 * 			Stereographic projection used
-	 * 
-	 * @param magnitude
-	 * 			Magnitude of the celestial object
+	 * Returns the flat matrix of the transform, as used by SkyGeometry
 	 * 
 	 * @param transform
-	 * 			Transform depending on the canvas
+	 * 			Transform used
 	 * 
-	 * @return size of the disk of the transformed celestial object
+	 * @return flat matrix {mxx, myx, mxy, myy, tx, ty} of the transform
 	 */
-	private double transformedDiskSize(StereographicProjection proj, double magnitude, Transform transform) {
-
-		double mp = MAGNITUDE_INT.clip(magnitude);	
-		double factor = (99 - 17*mp)/ 140.0;
-		double size = factor * proj.applyToAngle(Angle.ofDeg(0.5));
-		Point2D transformedDistance = transform.deltaTransform(size, 0);
+	private static double[] matrix(Transform transform) {
+		return new double[] {transform.getMxx(), transform.getMyx(), transform.getMxy(), transform.getMyy(), transform.getTx(), transform.getTy()};
+	}
 
-		return transformedDistance.magnitude();
+	/**
+	 * Fills the disk of given center and diameter with the given color
+	 * 
+	 * @param color
+	 * 			Color of the disk
+	 * 
+	 * @param x
+	 * 			Abscissa of the center
+	 * 
+	 * @param y
+	 * 			Ordinate of the center
+	 * 
+	 * @param diameter
+	 * 			Diameter of the disk
+	 */
+	private void fillDisk(Color color, double x, double y, double diameter) {
+		graphicsContext.setFill(color);
+		graphicsContext.fillOval(x - diameter/2, y - diameter/2, diameter, diameter);
 	}
 }
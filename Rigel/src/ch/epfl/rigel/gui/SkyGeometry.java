@@ -0,0 +1,133 @@
+package ch.epfl.rigel.gui;
+
+import java.nio.DoubleBuffer;
+import java.util.function.DoubleConsumer;
+
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import ch.epfl.rigel.math.Angle;
+import ch.epfl.rigel.math.ClosedInterval;
+
+/**
+ * Geometry and sizes of the objects of the sky, shared by the painters of the canvas and of the images,
+ * which only differ by their drawing backends
+ *
+ * The affine transforms from the plane of the projection to the drawing surface are given by their flat matrices
+ * {mxx, myx, mxy, myy, tx, ty}, in the order of java.awt.geom.AffineTransform.getMatrix
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+public final class SkyGeometry {
+
+	private static final ClosedInterval MAGNITUDE_INT = ClosedInterval.of(-2, 5);
+
+	//Angular size of the Sun and of the Moon, and sizes of the halo and of the yellow disk around the Sun
+	private static final double SUN_MOON_SIZE = Angle.ofDeg(0.5);
+	private static final double HALO_FACTOR = 2.2;
+	private static final double DISK_MARGIN = 2;
+
+	private SkyGeometry() {}
+
+	/**
+	 * Applies the affine transform to the points of the read-only view, the coordinates of the i-th point being at indexes 2i and 2i+1,
+	 * and writes the transformed points at the same indexes of the destination array
+	 * The positions are read directly in the view, without copying them first
+	 *
+	 * @param source
+	 * 			Read-only view of the coordinates of the points
+	 *
+	 * @param destination
+	 * 			Array receiving the coordinates of the transformed points
+	 *
+	 * @param matrix
+	 * 			Flat matrix of the transform
+	 */
+	public static void transformPoints(DoubleBuffer source, double[] destination, double[] matrix) {
+		double mxx = matrix[0], myx = matrix[1], mxy = matrix[2], myy = matrix[3], tx = matrix[4], ty = matrix[5];
+
+		for(int i = 0; i < destination.length; i += 2) {
+			double x = source.get(i);
+			double y = source.get(i + 1);
+
+			destination[i] = mxx*x + mxy*y + tx;
+			destination[i + 1] = myx*x + myy*y + ty;
+		}
+	}
+
+	/**
+	 * Returns the factor by which the transform scales the lengths
+	 *
+	 * @param matrix
+	 * 			Flat matrix of the transform
+	 *
+	 * @return scale factor of the transform
+	 */
+	public static double scale(double[] matrix) {
+		return Math.hypot(matrix[0], matrix[1]);
+	}
+
+	/**
+	 * Computes the size of the disk of a transformed star or planet of given magnitude
+	 *
+	 * @param projection
+	 * 			Stereographic projection used
+	 *
+	 * @param magnitude
+	 * 			Magnitude of the celestial object
+	 *
+	 * @param matrix
+	 * 			Flat matrix of the transform
+	 *
+	 * @return size of the disk of the transformed celestial object
+	 */
+	public static double transformedDiskSize(StereographicProjection projection, double magnitude, double[] matrix) {
+		double factor = (99 - 17 * MAGNITUDE_INT.clip(magnitude)) / 140.0;
+		return factor * transformedSunMoonSize(projection, matrix);
+	}
+
+	/**
+	 * Computes the size of the disk of the transformed Sun or Moon
+	 *
+	 * @param projection
+	 * 			Stereographic projection used
+	 *
+	 * @param matrix
+	 * 			Flat matrix of the transform
+	 *
+	 * @return size of the disk of the transformed Sun or Moon
+	 */
+	public static double transformedSunMoonSize(StereographicProjection projection, double[] matrix) {
+		return projection.applyToAngle(SUN_MOON_SIZE) * scale(matrix);
+	}
+
+	/**
+	 * Paints the Sun of given diameter with the given painters of disks, which receive the diameters of their disks :
+	 * the largest of the halo and of the yellow disk is painted first, and the white disk of the Sun last
+	 *
+	 * @param diameter
+	 * 			Diameter of the transformed Sun
+	 *
+	 * @param halo
+	 * 			Painter of the translucent halo
+	 *
+	 * @param disk
+	 * 			Painter of the yellow disk
+	 *
+	 * @param sun
+	 * 			Painter of the white disk of the Sun
+	 */
+	public static void paintSun(double diameter, DoubleConsumer halo, DoubleConsumer disk, DoubleConsumer sun) {
+		double haloDiameter = HALO_FACTOR * diameter;
+		double diskDiameter = DISK_MARGIN + diameter;
+
+		if (haloDiameter > diskDiameter) {
+			halo.accept(haloDiameter);
+			disk.accept(diskDiameter);
+		}
+		else {
+			disk.accept(diskDiameter);
+			halo.accept(haloDiameter);
+		}
+
+		sun.accept(diameter);
+	}
+}
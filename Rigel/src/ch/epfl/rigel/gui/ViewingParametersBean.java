@@ -1,7 +1,10 @@
 package ch.epfl.rigel.gui;
 
+import static java.lang.Math.log10;
+
 import ch.epfl.rigel.coordinates.HorizontalCoordinates;
 import javafx.beans.binding.Bindings;
+import javafx.beans.binding.DoubleBinding;
 import javafx.beans.binding.ObjectBinding;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleDoubleProperty;
@@ -14,10 +17,15 @@ import javafx.beans.property.SimpleDoubleProperty;
 public class ViewingParametersBean {
 
 	private final DoubleProperty fieldOfViewDeg; 
+	private final DoubleBinding limitingMagnitude;
 	private final ObjectBinding<HorizontalCoordinates> centerCoordinates;
 	private final DoubleProperty lonDeg;
 	private final DoubleProperty altDeg;
 
+	//Limiting magnitude for the reference field of view, the faintest stars of the catalogue being of magnitude 6
+	private static final double REFERENCE_FOV_DEG = 60;
+	private static final double REFERENCE_MAGNITUDE = 6;
+
 	/**
 	 * Constructor for the viewingParametersBean : initialises properties fieldOfViewDeg, lonDeg, altDeg properties and binding centerCoordinates
 	 */
@@ -28,6 +36,11 @@ public class ViewingParametersBean {
 		centerCoordinates = Bindings.createObjectBinding(
 				() -> HorizontalCoordinates.ofDeg(lonDeg.getValue(), altDeg.getValue()), 
 				lonDeg, altDeg);
+		//The limit decreases by 2.5 magnitudes each time the field of view is multiplied by 10,
+		//the stars fainter than the limit being smaller than a pixel
+		limitingMagnitude = Bindings.createDoubleBinding(
+				() -> REFERENCE_MAGNITUDE + 2.5 * log10(REFERENCE_FOV_DEG / fieldOfViewDeg.get()), 
+				fieldOfViewDeg);
 	}
 
 	//FIELD OF VIEW PROPERTY
@@ -60,6 +73,24 @@ public class ViewingParametersBean {
 		return fieldOfViewDeg;
 	}
 
+	/**
+	 * Getter for the value of the limiting magnitude, the magnitude of the faintest stars drawn with the current field of view
+	 * 
+	 * @return value of the limiting magnitude
+	 */
+	public double getLimitingMagnitude() {
+		return limitingMagnitude.get();
+	}
+
+	/**
+	 * Getter for the limiting magnitude binding, depending on the field of view
+	 * 
+	 * @return limiting magnitude binding
+	 */
+	public DoubleBinding limitingMagnitudeBinding() {
+		return limitingMagnitude;
+	}
+
 	//CENTER COORDINATES PROPERTY
 
 	/**
@@ -0,0 +1,393 @@
+package ch.epfl.rigel.headless;
+
+import static ch.epfl.rigel.Preconditions.checkArgument;
+import static java.lang.Math.atan;
+import static java.lang.Math.hypot;
+import static java.lang.Math.tan;
+import static java.util.Objects.requireNonNull;
+
+import java.awt.Color;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiPredicate;
+
+import javax.imageio.ImageIO;
+
+import ch.epfl.rigel.astronomy.HorizontalSky;
+import ch.epfl.rigel.astronomy.ObservedSky;
+import ch.epfl.rigel.astronomy.ObservedSky.Mode;
+import ch.epfl.rigel.astronomy.SkyFrameBuffers;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import ch.epfl.rigel.math.Angle;
+
+/**
+ * Offscreen renderer of sky charts to PNG files, without any window
+ *
+ * The charts are rendered concurrently by a pool of worker threads sharing the same immutable catalogue and colors of the stars.
+ * Each worker thread reuses its own image, painter and snapshot arrays for all the charts it renders
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+public final class ChartRenderer {
+
+	//Margin added to the angular radius of the view cone, as in the graphical interface
+	private static final double VIEW_MARGIN = Angle.ofDeg(30);
+
+	private static final String USAGE = "Usage : ChartRenderer --start <date-time> --end <date-time> --step <duration> "
+			+ "--observer <lon,lat> [--observer <lon,lat> ...] [--center <az,alt>] [--fov <degrees>] [--size <width>x<height>] "
+			+ "[--magnitude <limit>] [--threads <count>] --output <directory>";
+
+	private final StarCatalogue catalogue;
+	private final Color[] starColors;
+	private final int width, height;
+	private final double limitingMagnitude;
+	private final int threads;
+
+	/**
+	 * Constructor of the renderer
+	 *
+	 * @param catalogue
+	 * 			StarCatalogue shared by all the charts
+	 *
+	 * @param width
+	 * 			Width of the charts (in pixels)
+	 *
+	 * @param height
+	 * 			Height of the charts (in pixels)
+	 *
+	 * @param limitingMagnitude
+	 * 			Magnitude of the faintest stars drawn
+	 *
+	 * @param threads
+	 * 			Number of worker threads rendering the charts
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the dimensions or the number of threads are not strictly positive
+	 *
+	 * @throws NullPointerException
+	 * 			if the catalogue is null
+	 */
+	public ChartRenderer(StarCatalogue catalogue, int width, int height, double limitingMagnitude, int threads) {
+		checkArgument(width > 0 && height > 0 && threads > 0);
+
+		this.catalogue = requireNonNull(catalogue);
+		this.starColors = SkyImagePainter.starColors(catalogue);
+		this.width = width;
+		this.height = height;
+		this.limitingMagnitude = limitingMagnitude;
+		this.threads = threads;
+	}
+
+	/**
+	 * Renders the charts and writes them in their PNG files, which are created or overwritten
+	 *
+	 * @param charts
+	 * 			Charts to render
+	 *
+	 * @throws IOException
+	 * 			in case of input/output error, or if the rendering is interrupted
+	 *
+	 * @return throughput of the rendering, in charts per second
+	 */
+	public double render(List<Chart> charts) throws IOException {
+		long start = System.nanoTime();
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for(Chart chart : charts) {
+				futures.add(executor.submit(() -> workers.get().render(chart)));
+			}
+
+			for(Future<?> future : futures) {
+				future.get();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof UncheckedIOException)
+				throw ((UncheckedIOException) e.getCause()).getCause();
+
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+
+			throw new IllegalStateException(e.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		return charts.size() / ((System.nanoTime() - start) / 1e9);
+	}
+
+	/**
+	 * Renders one chart in a new image, without writing it
+	 *
+	 * @param chart
+	 * 			Chart to render
+	 *
+	 * @return image of the chart
+	 */
+	public BufferedImage image(Chart chart) {
+		Worker worker = new Worker();
+		worker.paint(chart);
+		return worker.image;
+	}
+
+	/**
+	 * Computes the angular radius of the view cone : the angle between the center of the projection and the corners of the chart,
+	 * plus a margin
+	 *
+	 * @param fov
+	 * 			Field of view (in degrees), corresponding to the width of the chart
+	 *
+	 * @return angular radius of the view cone (in radians)
+	 */
+	private double viewRadius(double fov) {
+		//A point at angle t from the center is projected at distance tan(t/2) of the center, the half width being tan(fov/4)
+		double halfDiagonal = tan(Angle.ofDeg(fov) / 4) * hypot(width, height) / width;
+
+		return 2 * atan(halfDiagonal) + VIEW_MARGIN;
+	}
+
+	/**
+	 * Image, painter and snapshot arrays of a worker thread, reused by all the charts it renders
+	 *
+	 * @author Nael Ouerghemi (310435)
+	 */
+	private final class Worker {
+		private final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		private final SkyImagePainter painter = new SkyImagePainter(image, starColors);
+		private final SkyFrameBuffers buffers = new SkyFrameBuffers(catalogue);
+
+		/**
+		 * Paints the chart in the image of the worker
+		 *
+		 * @param chart
+		 * 			Chart to paint
+		 */
+		private void paint(Chart chart) {
+			StereographicProjection projection = new StereographicProjection(chart.center());
+
+			HorizontalSky horizontalSky = buffers.horizontalSky(chart.when(), chart.where(), Mode.INCREMENTAL);
+			ObservedSky sky = buffers.observedSky(horizontalSky, projection, "", limitingMagnitude, viewRadius(chart.fieldOfViewDeg()));
+
+			//Same transform as the graphical interface : the field of view corresponds to the width of the chart
+			double dilatation = width / projection.applyToAngle(Angle.ofDeg(chart.fieldOfViewDeg()));
+			AffineTransform transform = new AffineTransform(dilatation, 0, 0, -dilatation, width / 2.0, height / 2.0);
+
+			painter.drawSky(sky, projection, transform);
+		}
+
+		/**
+		 * Paints the chart and writes it in its PNG file
+		 *
+		 * @param chart
+		 * 			Chart to render
+		 *
+		 * @throws UncheckedIOException
+		 * 			in case of input/output error
+		 */
+		private void render(Chart chart) {
+			paint(chart);
+
+			try {
+				ImageIO.write(image, "png", chart.output().toFile());
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Description of a sky chart : instant, observer, direction and field of view, and file written
+	 *
+	 * @author Nael Ouerghemi (310435)
+	 */
+	public static final class Chart {
+		private final ZonedDateTime when;
+		private final GeographicCoordinates where;
+		private final HorizontalCoordinates center;
+		private final double fieldOfViewDeg;
+		private final Path output;
+
+		/**
+		 * Constructor of the chart
+		 *
+		 * @param when
+		 * 			Instant of observation
+		 *
+		 * @param where
+		 * 			Geographic coordinates of the observer
+		 *
+		 * @param center
+		 * 			Horizontal coordinates of the center of the chart
+		 *
+		 * @param fieldOfViewDeg
+		 * 			Field of view (in degrees), corresponding to the width of the chart
+		 *
+		 * @param output
+		 * 			Path of the PNG file of the chart
+		 *
+		 * @throws IllegalArgumentException
+		 * 			if the field of view is not in ]0, 360[
+		 *
+		 * @throws NullPointerException
+		 * 			if one of the other parameters is null
+		 */
+		public Chart(ZonedDateTime when, GeographicCoordinates where, HorizontalCoordinates center, double fieldOfViewDeg, Path output) {
+			checkArgument(fieldOfViewDeg > 0 && fieldOfViewDeg < 360);
+
+			this.when = requireNonNull(when);
+			this.where = requireNonNull(where);
+			this.center = requireNonNull(center);
+			this.fieldOfViewDeg = fieldOfViewDeg;
+			this.output = requireNonNull(output);
+		}
+
+		/**
+		 * Getter for the instant of observation
+		 *
+		 * @return instant of observation
+		 */
+		public ZonedDateTime when() {return when;}
+
+		/**
+		 * Getter for the geographic coordinates of the observer
+		 *
+		 * @return geographic coordinates of the observer
+		 */
+		public GeographicCoordinates where() {return where;}
+
+		/**
+		 * Getter for the center of the chart
+		 *
+		 * @return horizontal coordinates of the center of the chart
+		 */
+		public HorizontalCoordinates center() {return center;}
+
+		/**
+		 * Getter for the field of view
+		 *
+		 * @return field of view (in degrees)
+		 */
+		public double fieldOfViewDeg() {return fieldOfViewDeg;}
+
+		/**
+		 * Getter for the path of the PNG file
+		 *
+		 * @return path of the PNG file of the chart
+		 */
+		public Path output() {return output;}
+	}
+
+	/**
+	 * Options of the command line proper to the renderer : the center and the field of view of the charts,
+	 * their size and the limiting magnitude of the stars
+	 *
+	 * @author Nael Ouerghemi (310435)
+	 */
+	private static final class ToolOptions implements BiPredicate<String, Iterator<String>> {
+		private HorizontalCoordinates center = HorizontalCoordinates.ofDeg(180, 15);
+		private double fov = 100, magnitude = Double.POSITIVE_INFINITY;
+		private int width = 800, height = 600;
+
+		/**
+		 * Reads the option with its value, if it is one of the renderer
+		 *
+		 * @param option
+		 * 			Name of the option
+		 *
+		 * @param arguments
+		 * 			Following arguments of the command line
+		 *
+		 * @return true if the option is one of the renderer
+		 */
+		@Override
+		public boolean test(String option, Iterator<String> arguments) {
+			switch (option) {
+			case "--center" :
+				String[] azAlt = arguments.next().split(",");
+				checkArgument(azAlt.length == 2);
+				center = HorizontalCoordinates.ofDeg(Double.parseDouble(azAlt[0]), Double.parseDouble(azAlt[1]));
+				return true;
+
+			case "--fov" :
+				fov = Double.parseDouble(arguments.next());
+				return true;
+
+			case "--size" :
+				String[] size = arguments.next().split("x");
+				checkArgument(size.length == 2);
+				width = Integer.parseInt(size[0]);
+				height = Integer.parseInt(size[1]);
+				return true;
+
+			case "--magnitude" :
+				magnitude = Double.parseDouble(arguments.next());
+				return true;
+
+			default :
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Renders the charts described by the arguments of the command line, one per observer and instant,
+	 * and prints the throughput
+	 *
+	 * @param args
+	 * 			Arguments of the command line, see USAGE
+	 *
+	 * @throws IOException
+	 * 			in case of input/output error
+	 */
+	public static void main(String[] args) throws IOException {
+		System.setProperty("java.awt.headless", "true");
+
+		ToolOptions toolOptions = new ToolOptions();
+		CommandLineOptions options = CommandLineOptions.parseOrExit(args, USAGE, toolOptions);
+		List<GeographicCoordinates> observers = options.observers();
+		Path output = options.output();
+
+		Files.createDirectories(output);
+
+		List<Chart> charts = new ArrayList<Chart>();
+		for(ZonedDateTime when = options.start(); when.isBefore(options.end()); when = when.plus(options.step())) {
+			for(int o = 0; o < observers.size(); ++o) {
+				String name = String.format(Locale.ROOT, "chart-%d-%d.png", charts.size() / observers.size(), o);
+				charts.add(new Chart(when, observers.get(o), toolOptions.center, toolOptions.fov, output.resolve(name)));
+			}
+		}
+
+		StarCatalogue catalogue = CommandLineOptions.loadCatalogue();
+
+		double throughput = new ChartRenderer(catalogue, toolOptions.width, toolOptions.height, toolOptions.magnitude, options.threads())
+				.render(charts);
+		System.out.printf(Locale.ROOT, "%d charts rendered to %s, %.1f charts/s%n", charts.size(), output, throughput);
+	}
+}
@@ -0,0 +1,234 @@
+package ch.epfl.rigel.headless;
+
+import static ch.epfl.rigel.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+import ch.epfl.rigel.astronomy.AsterismLoader;
+import ch.epfl.rigel.astronomy.BinaryCatalogueLoader;
+import ch.epfl.rigel.astronomy.HygDatabaseLoader;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+
+/**
+ * Options of the command line shared by the headless tools, and loading of their catalogue
+ *
+ * The shared options are --start, --end and --step, describing the time range, --observer, which can be repeated,
+ * --threads and --output, the other options being given to the tool which reads them
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+final class CommandLineOptions {
+
+	private static final String BINARY_HYG_RESOURCE = "/hygdata_v3.bin";
+	private static final String HYG_RESOURCE = "/hygdata_v3.csv";
+	private static final String ASTERISM_RESOURCE = "/asterisms.txt";
+
+	private ZonedDateTime start, end;
+	private Duration step;
+	private Path output;
+	private final List<GeographicCoordinates> observers = new ArrayList<GeographicCoordinates>();
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	private CommandLineOptions() {}
+
+	/**
+	 * Parses the arguments of the command line : the options which are not shared are given, with the iterator of the following
+	 * arguments, to the parser of the tool, which reads their values and returns false if it does not know them
+	 *
+	 * @param args
+	 * 			Arguments of the command line
+	 *
+	 * @param toolOptions
+	 * 			Parser of the options of the tool
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if an option is not known, if a shared option is missing or if the time range is empty
+	 *
+	 * @throws RuntimeException
+	 * 			if the value of an option is missing or not valid
+	 *
+	 * @return parsed shared options
+	 */
+	static CommandLineOptions parse(String[] args, BiPredicate<String, Iterator<String>> toolOptions) {
+		CommandLineOptions options = new CommandLineOptions();
+		Iterator<String> arguments = Arrays.asList(args).iterator();
+
+		while (arguments.hasNext()) {
+			String option = arguments.next();
+
+			switch (option) {
+			case "--start" :
+				options.start = ZonedDateTime.parse(arguments.next());
+				break;
+
+			case "--end" :
+				options.end = ZonedDateTime.parse(arguments.next());
+				break;
+
+			case "--step" :
+				options.step = Duration.parse(arguments.next());
+				break;
+
+			case "--observer" :
+				String[] lonLat = arguments.next().split(",");
+				checkArgument(lonLat.length == 2);
+				options.observers.add(GeographicCoordinates.ofDeg(Double.parseDouble(lonLat[0]), Double.parseDouble(lonLat[1])));
+				break;
+
+			case "--threads" :
+				options.threads = Integer.parseInt(arguments.next());
+				break;
+
+			case "--output" :
+				options.output = Paths.get(arguments.next());
+				break;
+
+			default :
+				checkArgument(toolOptions.test(option, arguments));
+			}
+		}
+
+		checkArgument(options.start != null && options.end != null && options.step != null && options.output != null);
+		checkArgument(!options.observers.isEmpty() && options.threads > 0);
+		checkArgument(!options.step.isNegative() && !options.step.isZero() && options.start.isBefore(options.end));
+
+		return options;
+	}
+
+	/**
+	 * Parses the arguments of the command line as parse does, but prints the usage of the tool and exits
+	 * if they are not valid
+	 *
+	 * @param args
+	 * 			Arguments of the command line
+	 *
+	 * @param usage
+	 * 			Usage of the tool
+	 *
+	 * @param toolOptions
+	 * 			Parser of the options of the tool
+	 *
+	 * @return parsed shared options
+	 */
+	static CommandLineOptions parseOrExit(String[] args, String usage, BiPredicate<String, Iterator<String>> toolOptions) {
+		try {
+			return parse(args, toolOptions);
+		}
+		catch (RuntimeException e) {
+			System.err.println(usage);
+			System.exit(2);
+			return null;
+		}
+	}
+
+	/**
+	 * Loads the catalogue of the stars of the HYG database and of its asterisms : the stars are read from the precompiled
+	 * binary catalogue, mapped in memory when it is a file, as in the graphical interface, and parsed from the CSV database
+	 * only if the binary catalogue is not bundled
+	 *
+	 * @throws IOException
+	 * 			in case of input/output error
+	 *
+	 * @return catalogue of the stars and asterisms
+	 */
+	static StarCatalogue loadCatalogue() throws IOException {
+		StarCatalogue.Builder builder = new StarCatalogue.Builder();
+		URL binary = CommandLineOptions.class.getResource(BINARY_HYG_RESOURCE);
+
+		if (binary == null) {
+			try (InputStream hs = CommandLineOptions.class.getResourceAsStream(HYG_RESOURCE)) {
+				builder.loadFrom(hs, HygDatabaseLoader.INSTANCE);
+			}
+		}
+		else if (!loadMapped(binary, builder)) {
+			builder.loadFrom(binary.openStream(), BinaryCatalogueLoader.INSTANCE);
+		}
+
+		try (InputStream as = CommandLineOptions.class.getResourceAsStream(ASTERISM_RESOURCE)) {
+			return builder.loadFrom(as, AsterismLoader.INSTANCE).build();
+		}
+	}
+
+	/**
+	 * Loads the binary catalogue mapped in memory if it is a file
+	 *
+	 * @param binary
+	 * 			URL of the binary catalogue
+	 *
+	 * @param builder
+	 * 			Builder receiving the stars
+	 *
+	 * @throws IOException
+	 * 			in case of input/output error
+	 *
+	 * @return true if the catalogue was loaded, false if it is not a file
+	 */
+	private static boolean loadMapped(URL binary, StarCatalogue.Builder builder) throws IOException {
+		if (!"file".equals(binary.getProtocol()))
+			return false;
+
+		try {
+			BinaryCatalogueLoader.INSTANCE.load(Path.of(binary.toURI()), builder);
+			return true;
+		}
+		catch (URISyntaxException e) {
+			//The catalogue is then read as a stream
+			return false;
+		}
+	}
+
+	/**
+	 * Getter for the first instant of the time range
+	 *
+	 * @return first instant of the time range
+	 */
+	ZonedDateTime start() {return start;}
+
+	/**
+	 * Getter for the end of the time range
+	 *
+	 * @return end of the time range (exclusive)
+	 */
+	ZonedDateTime end() {return end;}
+
+	/**
+	 * Getter for the duration between two consecutive instants
+	 *
+	 * @return duration between two consecutive instants
+	 */
+	Duration step() {return step;}
+
+	/**
+	 * Getter for the path of the output
+	 *
+	 * @return path of the output
+	 */
+	Path output() {return output;}
+
+	/**
+	 * Getter for the observers, in the order of the command line
+	 *
+	 * @return unmodifiable list of the geographic coordinates of the observers
+	 */
+	List<GeographicCoordinates> observers() {return List.copyOf(observers);}
+
+	/**
+	 * Getter for the number of worker threads, by default the number of available processors
+	 *
+	 * @return number of worker threads
+	 */
+	int threads() {return threads;}
+}
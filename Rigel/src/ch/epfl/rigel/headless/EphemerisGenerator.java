@@ -0,0 +1,433 @@
+package ch.epfl.rigel.headless;
+
+import static ch.epfl.rigel.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiPredicate;
+
+import ch.epfl.rigel.astronomy.HorizontalSky;
+import ch.epfl.rigel.astronomy.ObservedSky.Mode;
+import ch.epfl.rigel.astronomy.Planet;
+import ch.epfl.rigel.astronomy.SkyFrameBuffers;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+
+/**
+ * Headless generator of ephemerides, writing the equatorial and horizontal coordinates of the Sun, the Moon, the planets
+ * and optionally the stars, for a list of observers at regular instants of a time range
+ *
+ * Each row gives the instant, the observer, the name of the object, its right ascension and declination
+ * and its azimuth and altitude, all angles being in degrees. The rows are written in the order of the instants,
+ * then of the observers, then of the objects (Sun, Moon, planets and stars in the order of the catalogue)
+ *
+ * The rows are cut into chunks computed by a pool of worker threads with the time dependent stage of the ObservedSky,
+ * and written in order through a file channel. A chunk holds the rows of consecutive skies, that is pairs of an instant
+ * and an observer, or a range of the rows of a single sky when the stars do not fit in one chunk : no chunk exceeds
+ * a fixed number of rows, and only a bounded number of chunks are in memory at any time, whatever the length
+ * of the time range, the number of observers and the size of the catalogue
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+public final class EphemerisGenerator {
+
+	/**
+	 * Format of the rows written
+	 */
+	public enum Format {
+		/**
+		 * Comma separated values, with a header row
+		 */
+		CSV,
+
+		/**
+		 * One JSON object per line
+		 */
+		NDJSON;
+	}
+
+	//Maximal number of rows of a chunk, and number of chunks in memory per worker thread
+	private static final int CHUNK_ROWS = 1 << 14;
+	private static final int CHUNKS_PER_THREAD = 2;
+
+	private static final String CSV_HEADER = "instant,lon,lat,object,ra,dec,az,alt\n";
+	private static final String USAGE = "Usage : EphemerisGenerator --start <date-time> --end <date-time> --step <duration> "
+			+ "--observer <lon,lat> [--observer <lon,lat> ...] [--format csv|ndjson] [--stars] [--threads <count>] --output <file>";
+
+	//Catalogue without any star, used when the stars are not written so that the snapshots only compute the Solar System
+	private static final StarCatalogue NO_STARS = new StarCatalogue(List.of(), List.of());
+
+	private final StarCatalogue catalogue;
+	private final List<GeographicCoordinates> observers;
+	private final Format format;
+	private final int threads;
+
+	/**
+	 * Constructor of the generator
+	 *
+	 * @param catalogue
+	 * 			StarCatalogue of the stars to write, null if only the Solar System is written
+	 *
+	 * @param observers
+	 * 			Geographic coordinates of the observers
+	 *
+	 * @param format
+	 * 			Format of the rows
+	 *
+	 * @param threads
+	 * 			Number of worker threads computing the rows
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the list of observers is empty or if the number of threads is not strictly positive
+	 *
+	 * @throws NullPointerException
+	 * 			if the observers or the format are null
+	 */
+	public EphemerisGenerator(StarCatalogue catalogue, List<GeographicCoordinates> observers, Format format, int threads) {
+		checkArgument(!observers.isEmpty() && threads > 0);
+
+		this.catalogue = catalogue == null ? NO_STARS : catalogue;
+		this.observers = List.copyOf(observers);
+		this.format = requireNonNull(format);
+		this.threads = threads;
+	}
+
+	/**
+	 * Writes the rows of the instants start, start + step, start + 2 * step... strictly before end in the given file,
+	 * which is created or overwritten
+	 *
+	 * @param start
+	 * 			First instant of the time range
+	 *
+	 * @param end
+	 * 			End of the time range (exclusive)
+	 *
+	 * @param step
+	 * 			Duration between two consecutive instants
+	 *
+	 * @param output
+	 * 			Path of the file written
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the step is not strictly positive or if end is not after start
+	 *
+	 * @throws IOException
+	 * 			in case of input/output error, or if the generation is interrupted
+	 *
+	 * @return number of rows written, header excluded
+	 */
+	public long generate(ZonedDateTime start, ZonedDateTime end, Duration step, Path output) throws IOException {
+		Duration range = Duration.between(start, end);
+		checkArgument(!step.isNegative() && !step.isZero() && !range.isNegative() && !range.isZero());
+
+		long instants = range.dividedBy(step);
+		if (!step.multipliedBy(instants).equals(range))
+			++instants;
+
+		//Skies in the order of the instants, then of the observers, and ranges of their rows of at most CHUNK_ROWS rows
+		long skies = instants * observers.size();
+		int rowsPerSky = HorizontalSky.BODIES + catalogue.stars().size();
+		int chunkSkies = Math.max(1, CHUNK_ROWS / rowsPerSky);
+		int chunkRows = Math.min(rowsPerSky, CHUNK_ROWS);
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		Queue<Future<ByteBuffer>> chunks = new ArrayDeque<Future<ByteBuffer>>();
+
+		try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+
+			if (format == Format.CSV)
+				write(channel, StandardCharsets.UTF_8.encode(CSV_HEADER));
+
+			for(long sky = 0; sky < skies; sky += chunkSkies) {
+				for(int row = 0; row < rowsPerSky; row += chunkRows) {
+					long skyFrom = sky, skyTo = Math.min(skies, sky + chunkSkies);
+					int rowFrom = row, rowTo = Math.min(rowsPerSky, row + chunkRows);
+
+					if (chunks.size() == threads * CHUNKS_PER_THREAD)
+						write(channel, next(chunks));
+
+					chunks.add(executor.submit(() -> chunk(start, step, skyFrom, skyTo, rowFrom, rowTo)));
+				}
+			}
+
+			while (!chunks.isEmpty()) {
+				write(channel, next(chunks));
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		return skies * rowsPerSky;
+	}
+
+	/**
+	 * Computes the rows of indexes rowFrom (inclusive) to rowTo (exclusive) of the skies of indexes skyFrom (inclusive)
+	 * to skyTo (exclusive), the sky of index k being the one of the instant k / n and of the observer k % n, for n observers,
+	 * and the rows of a sky being the ones of the Sun, of the Moon, of the planets and then of the stars
+	 *
+	 * @param start
+	 * 			First instant of the time range
+	 *
+	 * @param step
+	 * 			Duration between two consecutive instants
+	 *
+	 * @param skyFrom
+	 * 			Index of the first sky of the chunk
+	 *
+	 * @param skyTo
+	 * 			Index following the last sky of the chunk
+	 *
+	 * @param rowFrom
+	 * 			Index of the first row of each sky
+	 *
+	 * @param rowTo
+	 * 			Index following the last row of each sky
+	 *
+	 * @return UTF-8 encoded rows of the chunk
+	 */
+	private ByteBuffer chunk(ZonedDateTime start, Duration step, long skyFrom, long skyTo, int rowFrom, int rowTo) {
+		//The arrays of the snapshots are reused by all the skies of the chunk
+		SkyFrameBuffers buffers = new SkyFrameBuffers(catalogue);
+		StringBuilder rows = new StringBuilder();
+
+		for(long k = skyFrom; k < skyTo; ++k) {
+			ZonedDateTime when = start.plus(step.multipliedBy(k / observers.size()));
+			GeographicCoordinates where = observers.get((int) (k % observers.size()));
+			String instant = when.toInstant().toString();
+			HorizontalSky sky = buffers.horizontalSky(when, where, Mode.EXACT);
+
+			for(int row = rowFrom; row < rowTo; ++row) {
+				if (row == 0) {
+					appendRow(rows, instant, where, sky.sun().name(), sky.sun().equatorialPos(), sky.sunHorizontal());
+				}
+				else if (row == 1) {
+					appendRow(rows, instant, where, sky.moon().name(), sky.moon().equatorialPos(), sky.moonHorizontal());
+				}
+				else if (row < HorizontalSky.BODIES) {
+					Planet planet = sky.planets().get(row - 2);
+					appendRow(rows, instant, where, planet.name(), planet.equatorialPos(), sky.planetsHorizontal().get(row - 2));
+				}
+				else {
+					//Position moved by the proper motion of the star to the epoch of observation
+					int i = row - HorizontalSky.BODIES;
+					appendRow(rows, instant, where, catalogue.stars().get(i).name(), sky.starEquatorial(i), sky.starHorizontal(i));
+				}
+			}
+		}
+
+		return StandardCharsets.UTF_8.encode(rows.toString());
+	}
+
+	/**
+	 * Appends the row of a celestial object in the format of the generator
+	 *
+	 * @param rows
+	 * 			Builder receiving the row
+	 *
+	 * @param instant
+	 * 			Instant of observation, in ISO-8601 format
+	 *
+	 * @param where
+	 * 			Geographic coordinates of the observer
+	 *
+	 * @param name
+	 * 			Name of the celestial object
+	 *
+	 * @param equatorial
+	 * 			Equatorial coordinates of the object
+	 *
+	 * @param horizontal
+	 * 			Horizontal coordinates of the object
+	 */
+	private void appendRow(StringBuilder rows, String instant, GeographicCoordinates where, String name,
+			EquatorialCoordinates equatorial, HorizontalCoordinates horizontal) {
+		double ra = equatorial.raDeg(), dec = equatorial.decDeg();
+
+		switch (format) {
+		case CSV :
+			rows.append(instant).append(',').append(where.lonDeg()).append(',').append(where.latDeg()).append(',');
+			appendCsvString(rows, name);
+			rows.append(',').append(ra).append(',').append(dec)
+			.append(',').append(horizontal.azDeg()).append(',').append(horizontal.altDeg()).append('\n');
+			break;
+
+		case NDJSON :
+			rows.append("{\"instant\":\"").append(instant).append("\",\"lon\":").append(where.lonDeg())
+			.append(",\"lat\":").append(where.latDeg()).append(",\"object\":");
+			appendJsonString(rows, name);
+			rows.append(",\"ra\":").append(ra).append(",\"dec\":").append(dec)
+			.append(",\"az\":").append(horizontal.azDeg()).append(",\"alt\":").append(horizontal.altDeg()).append("}\n");
+			break;
+		}
+	}
+
+	/**
+	 * Appends a CSV field, quoted if it contains a comma, a quote or a line break
+	 *
+	 * @param rows
+	 * 			Builder receiving the field
+	 *
+	 * @param value
+	 * 			Value of the field
+	 */
+	private static void appendCsvString(StringBuilder rows, String value) {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+			rows.append(value);
+		}
+		else {
+			rows.append('"').append(value.replace("\"", "\"\"")).append('"');
+		}
+	}
+
+	/**
+	 * Appends a JSON string, escaping the quotes, the backslashes and the control characters
+	 *
+	 * @param rows
+	 * 			Builder receiving the string
+	 *
+	 * @param value
+	 * 			Value of the string
+	 */
+	private static void appendJsonString(StringBuilder rows, String value) {
+		rows.append('"');
+
+		for(int i = 0; i < value.length(); ++i) {
+			char c = value.charAt(i);
+
+			if (c == '"' || c == '\\')
+				rows.append('\\').append(c);
+			else if (c < 0x20)
+				rows.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+			else
+				rows.append(c);
+		}
+
+		rows.append('"');
+	}
+
+	/**
+	 * Waits for the oldest chunk being computed and returns its rows
+	 *
+	 * @param chunks
+	 * 			Chunks being computed, in the order of the instants
+	 *
+	 * @throws IOException
+	 * 			if the generation is interrupted
+	 *
+	 * @return rows of the oldest chunk
+	 */
+	private static ByteBuffer next(Queue<Future<ByteBuffer>> chunks) throws IOException {
+		try {
+			return chunks.remove().get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Writes the whole buffer in the channel
+	 *
+	 * @param channel
+	 * 			Channel of the file
+	 *
+	 * @param buffer
+	 * 			Bytes to write
+	 *
+	 * @throws IOException
+	 * 			in case of input/output error
+	 */
+	private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Options of the command line proper to the generator : the format of the rows and the writing of the stars
+	 *
+	 * @author Nael Ouerghemi (310435)
+	 */
+	private static final class ToolOptions implements BiPredicate<String, Iterator<String>> {
+		private Format format = Format.CSV;
+		private boolean stars = false;
+
+		/**
+		 * Reads the option with its value, if it is one of the generator
+		 *
+		 * @param option
+		 * 			Name of the option
+		 *
+		 * @param arguments
+		 * 			Following arguments of the command line
+		 *
+		 * @return true if the option is one of the generator
+		 */
+		@Override
+		public boolean test(String option, Iterator<String> arguments) {
+			switch (option) {
+			case "--format" :
+				format = Format.valueOf(arguments.next().toUpperCase(Locale.ROOT));
+				return true;
+
+			case "--stars" :
+				stars = true;
+				return true;
+
+			default :
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Generates the ephemerides described by the arguments of the command line, the stars being those of the HYG database
+	 *
+	 * @param args
+	 * 			Arguments of the command line, see USAGE
+	 *
+	 * @throws IOException
+	 * 			in case of input/output error
+	 */
+	public static void main(String[] args) throws IOException {
+		ToolOptions toolOptions = new ToolOptions();
+		CommandLineOptions options = CommandLineOptions.parseOrExit(args, USAGE, toolOptions);
+
+		StarCatalogue catalogue = toolOptions.stars ? CommandLineOptions.loadCatalogue() : null;
+
+		long startTime = System.nanoTime();
+		long rows = new EphemerisGenerator(catalogue, options.observers(), toolOptions.format, options.threads())
+				.generate(options.start(), options.end(), options.step(), options.output());
+		double seconds = (System.nanoTime() - startTime) / 1e9;
+
+		System.out.printf(Locale.ROOT, "%d rows written to %s in %.2f s%n", rows, options.output(), seconds);
+	}
+}
@@ -0,0 +1,339 @@
+package ch.epfl.rigel.headless;
+
+import static ch.epfl.rigel.Preconditions.checkArgument;
+import static ch.epfl.rigel.gui.BlackBodyColor.colorForTemperature;
+import static ch.epfl.rigel.gui.SkyGeometry.paintSun;
+import static ch.epfl.rigel.gui.SkyGeometry.scale;
+import static ch.epfl.rigel.gui.SkyGeometry.transformPoints;
+import static ch.epfl.rigel.gui.SkyGeometry.transformedDiskSize;
+import static ch.epfl.rigel.gui.SkyGeometry.transformedSunMoonSize;
+import static java.util.Objects.requireNonNull;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+import java.nio.DoubleBuffer;
+import java.util.List;
+
+import ch.epfl.rigel.astronomy.Asterism;
+import ch.epfl.rigel.astronomy.ObservedSky;
+import ch.epfl.rigel.astronomy.Planet;
+import ch.epfl.rigel.astronomy.Star;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.coordinates.CartesianCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+
+/**
+ * Paints the sky in an image, without any window nor JavaFX toolkit
+ *
+ * The sky is drawn as by the SkyCanvasPainter of the graphical interface, with the same geometry and sizes of the objects,
+ * in the following order : asterisms, stars, planets, Sun, Moon and horizon with the cardinal points
+ *
+ * A painter only draws in its own image : charts are painted concurrently by distinct painters,
+ * which may share the same colors of the stars
+ *
+ * @author Nael Ouerghemi (310435)
+ */
+public final class SkyImagePainter {
+
+	private static final HorizontalCoordinates ZERO_LAT_COORDINATES = HorizontalCoordinates.of(0.0, 0.0);
+	private static final Color SUN_HALO = new Color(1f, 1f, 0f, 0.25f);
+
+	private final BufferedImage image;
+	private final Graphics2D graphics;
+	private final Color[] starColors;
+
+	//Flat matrix of the transform of the chart being painted
+	private final double[] matrix = new double[6];
+
+	//Transformed positions of the stars, reused by the successive charts
+	private double[] starPoints = new double[0];
+
+	/**
+	 * Constructor of a painter drawing in the given image
+	 *
+	 * @param image
+	 * 			Image in which the sky is painted
+	 *
+	 * @param starColors
+	 * 			Colors of the stars, in the order of the list of stars of the catalogue
+	 *
+	 * @throws NullPointerException
+	 * 			if the image or the colors are null
+	 */
+	public SkyImagePainter(BufferedImage image, Color[] starColors) {
+		this.image = requireNonNull(image);
+		this.starColors = requireNonNull(starColors);
+
+		graphics = image.createGraphics();
+		graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+	}
+
+	/**
+	 * Returns the colors of the stars of the catalogue, computed once and shared by all the painters
+	 *
+	 * @param catalogue
+	 * 			StarCatalogue of the stars
+	 *
+	 * @return colors of the stars, in the order of the list of stars of the catalogue
+	 */
+	public static Color[] starColors(StarCatalogue catalogue) {
+		List<Star> stars = catalogue.stars();
+		Color[] colors = new Color[stars.size()];
+
+		for(int i = 0; i < colors.length; ++i) {
+			javafx.scene.paint.Color color = colorForTemperature(stars.get(i).colorTemperature());
+			colors[i] = new Color((float) color.getRed(), (float) color.getGreen(), (float) color.getBlue());
+		}
+
+		return colors;
+	}
+
+	/**
+	 * Paints the entire sky, the image being cleared first
+	 *
+	 * @param sky
+	 * 			Observed sky used
+	 *
+	 * @param projection
+	 * 			Stereographic projection used
+	 *
+	 * @param transform
+	 * 			Transform from the plane of the projection to the image
+	 *
+	 * @throws IllegalArgumentException
+	 * 			if the colors of the stars do not correspond to the catalogue of the sky
+	 */
+	public void drawSky(ObservedSky sky, StereographicProjection projection, AffineTransform transform) {
+		checkArgument(starColors.length == sky.stars().size());
+		transform.getMatrix(matrix);
+
+		DoubleBuffer starPositions = sky.starPositionsView();
+		if (starPoints.length != starPositions.capacity())
+			starPoints = new double[starPositions.capacity()];
+
+		transformPoints(starPositions, starPoints, matrix);
+
+		graphics.setColor(Color.BLACK);
+		graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+
+		drawAsterisms(sky);
+		drawStars(sky, projection);
+		drawPlanets(sky, projection);
+		drawSun(sky, projection, transform);
+		drawMoon(sky, projection, transform);
+		drawHorizon(projection, transform);
+	}
+
+	/**
+	 * Draws the asterisms, the segments being ignored if both of their ends are outside of the image
+	 *
+	 * @param sky
+	 * 			Observed sky used
+	 */
+	private void drawAsterisms(ObservedSky sky) {
+		graphics.setColor(Color.BLUE);
+		graphics.setStroke(new BasicStroke(1f));
+
+		Line2D.Double segment = new Line2D.Double();
+
+		for(Asterism asterism : sky.asterisms()) {
+			List<Integer> list = sky.asterismIndices(asterism);
+
+			for(int i = 0; i < list.size() - 1; ++i) {
+				double x1 = starPoints[2 * list.get(i)], y1 = starPoints[2 * list.get(i) + 1];
+				double x2 = starPoints[2 * list.get(i + 1)], y2 = starPoints[2 * list.get(i + 1) + 1];
+
+				//Segments with an end fainter than the limiting magnitude, whose position is NaN, are not drawn
+				if (Double.isNaN(x1) || Double.isNaN(x2))
+					continue;
+
+				if (contains(x1, y1) || contains(x2, y2)) {
+					segment.setLine(x1, y1, x2, y2);
+					graphics.draw(segment);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Draws the stars brighter than the limiting magnitude of the sky
+	 *
+	 * @param sky
+	 * 			Observed sky used
+	 *
+	 * @param projection
+	 * 			Stereographic projection used
+	 */
+	private void drawStars(ObservedSky sky, StereographicProjection projection) {
+		List<Star> stars = sky.stars();
+
+		for(int index : sky.visibleStarIndices()) {
+			double diameter = transformedDiskSize(projection, stars.get(index).magnitude(), matrix);
+
+			graphics.setColor(starColors[index]);
+			fillDisk(starPoints[2 * index], starPoints[2 * index + 1], diameter);
+		}
+	}
+
+	/**
+	 * Draws the planets
+	 *
+	 * @param sky
+	 * 			Observed sky used
+	 *
+	 * @param projection
+	 * 			Stereographic projection used
+	 */
+	private void drawPlanets(ObservedSky sky, StereographicProjection projection) {
+		DoubleBuffer planetPositions = sky.planetPositionsView();
+		double[] points = new double[planetPositions.capacity()];
+		transformPoints(planetPositions, points, matrix);
+
+		graphics.setColor(Color.LIGHT_GRAY);
+
+		int index = 0;
+		for(Planet planet : sky.planets()) {
+			fillDisk(points[index], points[index + 1], transformedDiskSize(projection, planet.magnitude(), matrix));
+			index += 2;
+		}
+	}
+
+	/**
+	 * Draws the Sun with its halo
+	 *
+	 * @param sky
+	 * 			Observed sky used
+	 *
+	 * @param projection
+	 * 			Stereographic projection used
+	 *
+	 * @param transform
+	 * 			Transform from the plane of the projection to the image
+	 */
+	private void drawSun(ObservedSky sky, StereographicProjection projection, AffineTransform transform) {
+		CartesianCoordinates sun = sky.sunPosition();
+		double[] point = {sun.x(), sun.y()};
+		transform.transform(point, 0, point, 0, 1);
+
+		paintSun(transformedSunMoonSize(projection, matrix),
+				d -> fillDisk(SUN_HALO, point[0], point[1], d),
+				d -> fillDisk(Color.YELLOW, point[0], point[1], d),
+				d -> fillDisk(Color.WHITE, point[0], point[1], d));
+	}
+
+	/**
+	 * Draws the Moon
+	 *
+	 * @param sky
+	 * 			Observed sky used
+	 *
+	 * @param projection
+	 * 			Stereographic projection used
+	 *
+	 * @param transform
+	 * 			Transform from the plane of the projection to the image
+	 */
+	private void drawMoon(ObservedSky sky, StereographicProjection projection, AffineTransform transform) {
+		CartesianCoordinates moon = sky.moonPosition();
+		double[] point = {moon.x(), moon.y()};
+		transform.transform(point, 0, point, 0, 1);
+
+		fillDisk(Color.WHITE, point[0], point[1], transformedSunMoonSize(projection, matrix));
+	}
+
+	/**
+	 * Draws the horizon and the names of the cardinal and intercardinal points
+	 *
+	 * @param projection
+	 * 			Stereographic projection used
+	 *
+	 * @param transform
+	 * 			Transform from the plane of the projection to the image
+	 */
+	private void drawHorizon(StereographicProjection projection, AffineTransform transform) {
+		CartesianCoordinates center = projection.circleCenterForParallel(ZERO_LAT_COORDINATES);
+		double[] point = {center.x(), center.y()};
+		transform.transform(point, 0, point, 0, 1);
+
+		double diameter = 2 * projection.circleRadiusForParallel(ZERO_LAT_COORDINATES) * scale(matrix);
+
+		graphics.setColor(Color.RED);
+		graphics.setStroke(new BasicStroke(2f));
+		graphics.draw(new Ellipse2D.Double(point[0] - diameter / 2, point[1] - diameter / 2, diameter, diameter));
+
+		FontMetrics metrics = graphics.getFontMetrics();
+
+		for(int i = 0; i < 8; ++i) {
+			HorizontalCoordinates cardinal = HorizontalCoordinates.ofDeg(i * 45.0, -0.5);
+			String name = cardinal.azOctantName("N", "E", "S", "O");
+
+			CartesianCoordinates position = projection.apply(cardinal);
+			point[0] = position.x();
+			point[1] = position.y();
+			transform.transform(point, 0, point, 0, 1);
+
+			//Text centered horizontally, whose top is at the position of the point
+			graphics.drawString(name, (float) (point[0] - metrics.stringWidth(name) / 2.0), (float) (point[1] + metrics.getAscent()));
+		}
+	}
+
+	/**
+	 * Fills the disk of given center and diameter with the current color
+	 *
+	 * @param x
+	 * 			Abscissa of the center
+	 *
+	 * @param y
+	 * 			Ordinate of the center
+	 *
+	 * @param diameter
+	 * 			Diameter of the disk
+	 */
+	private void fillDisk(double x, double y, double diameter) {
+		graphics.fill(new Ellipse2D.Double(x - diameter / 2, y - diameter / 2, diameter, diameter));
+	}
+
+	/**
+	 * Fills the disk of given center and diameter with the given color
+	 *
+	 * @param color
+	 * 			Color of the disk
+	 *
+	 * @param x
+	 * 			Abscissa of the center
+	 *
+	 * @param y
+	 * 			Ordinate of the center
+	 *
+	 * @param diameter
+	 * 			Diameter of the disk
+	 */
+	private void fillDisk(Color color, double x, double y, double diameter) {
+		graphics.setColor(color);
+		fillDisk(x, y, diameter);
+	}
+
+	/**
+	 * Returns true if the point is inside the image
+	 *
+	 * @param x
+	 * 			Abscissa of the point
+	 *
+	 * @param y
+	 * 			Ordinate of the point
+	 *
+	 * @return true if the point is inside the image, false otherwise
+	 */
+	private boolean contains(double x, double y) {
+		return x >= 0 && x < image.getWidth() && y >= 0 && y < image.getHeight();
+	}
+}
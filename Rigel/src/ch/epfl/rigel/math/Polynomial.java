@@ -35,6 +35,94 @@ public final class Polynomial {
 		return new Polynomial(coefficientN, coefficients);
 	}
 
+	/**
+	 * Returns the abscissa of the node of given index among the count Chebyshev nodes of the interval [-1, 1],
+	 * the nodes being sorted by decreasing abscissa
+	 * 
+	 * @param index
+	 * 			Index of the node, between 0 (inclusive) and count (exclusive)
+	 * 
+	 * @param count
+	 * 			Number of nodes
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if the index is not between 0 (inclusive) and count (exclusive)
+	 * 
+	 * @return abscissa of the node
+	 */
+	public static double chebyshevNode(int index, int count) {
+		checkArgument(0 <= index && index < count);
+
+		return Math.cos(Math.PI * (index + 0.5) / count);
+	}
+
+	/**
+	 * Create the polynomial of degree n-1 interpolating the n given values at the n Chebyshev nodes of the interval [-1, 1]
+	 * Interpolating at these nodes keeps the error close to the smallest possible error over the whole interval
+	 * 
+	 * The polynomial is first computed as a series of Chebyshev polynomials, then expanded in powers of the variable
+	 * so that it is evaluated with Horner's method like any other polynomial
+	 * 
+	 * @param values
+	 * 			Values at the nodes, the i-th value corresponding to chebyshevNode(i, n)
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if there is no value, or if the interpolating polynomial is zero, whose first coefficient would be 0 as in of
+	 * 
+	 * @return interpolating Polynomial, of smaller degree if its highest coefficients are zero
+	 */
+	public static Polynomial chebyshevInterpolation(double... values) {
+		int count = values.length;
+		checkArgument(count > 0);
+
+		//Coefficients of the powers of the variable (in increasing order) of the interpolating polynomial 
+		//and of the last two Chebyshev polynomials T(k-1) and T(k)
+		double[] powers = new double[count];
+		double[] previous = new double[count];
+		double[] current = new double[count];
+		previous[0] = 1;
+		if (count > 1)
+			current[1] = 1;
+
+		for(int k = 0; k < count; ++k) {
+			double coefficient = 0;
+
+			for(int j = 0; j < count; ++j) {
+				coefficient += values[j] * Math.cos(Math.PI * k * (j + 0.5) / count);
+			}
+			coefficient *= (k == 0 ? 1.0 : 2.0) / count;
+
+			double[] chebyshev = (k == 0) ? previous : current;
+
+			for(int i = 0; i <= k; ++i) {
+				powers[i] += coefficient * chebyshev[i];
+			}
+
+			//T(k+1) = 2x T(k) - T(k-1), computed in place of T(k-1)
+			if (k >= 1 && k + 1 < count) {
+				for(int i = count - 1; i >= 0; --i) {
+					previous[i] = (i > 0 ? 2 * current[i - 1] : 0) - previous[i];
+				}
+
+				double[] swap = previous;
+				previous = current;
+				current = swap;
+			}
+		}
+
+		int degree = count - 1;
+		while (degree > 0 && powers[degree] == 0) {
+			--degree;
+		}
+
+		double[] lower = new double[degree];
+		for(int i = 0; i < degree; ++i) {
+			lower[i] = powers[degree - 1 - i];
+		}
+
+		return of(powers[degree], lower);
+	}
+
 	/**
 	 * Override of the function toString of Object
 	 * Return the string representing the polynomial for example : 5x^2+8x+5
@@ -0,0 +1,189 @@
+package ch.epfl.rigel.astronomy;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Startup benchmark of the catalogue : loading of the stars by parsing the bytes in place, compared with the previous loading
+ * which split the lines and parsed the columns with the methods of the JDK, loading of the asterisms through the index of the builder,
+ * compared with the previous loading which split the lines and looked each star up in a copy of the map of the builder,
+ * then loading of the whole catalogue. The stars are also loaded from the binary catalogue, mapped from a file,
+ * and a database as large as the complete HYG database, made of copies of the stars, is loaded sequentially and in parallel
+ * 
+ * In cold mode, a single loading of the stars from the HYG database or from the binary catalogue is timed, 
+ * in a fresh virtual machine, as at the start of the application
+ * 
+ * Usage : CatalogueStartupBenchmark [runs] | CatalogueStartupBenchmark cold hyg|binary
+ */
+public final class CatalogueStartupBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 2 && args[0].equals("cold")) {
+			cold(args[1].equals("binary"));
+			return;
+		}
+
+		int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+
+		byte[] hyg, asterisms;
+		try (InputStream hs = CatalogueStartupBenchmark.class.getResourceAsStream("/hygdata_v3.csv");
+				InputStream as = CatalogueStartupBenchmark.class.getResourceAsStream("/asterisms.txt")) {
+			hyg = hs.readAllBytes();
+			asterisms = as.readAllBytes();
+		}
+
+		StarCatalogue.Builder builder = new StarCatalogue.Builder().loadFrom(new ByteArrayInputStream(hyg), HygDatabaseLoader.INSTANCE);
+		Map<Integer, Star> map = new HashMap<Integer, Star>();
+		for(Star star : builder.stars()) {
+			map.put(star.hipparcosId(), star);
+		}
+
+		//Previous loading of the stars, splitting the lines
+		long splitStars = Long.MAX_VALUE;
+		for(int run = 0; run < runs; ++run) {
+			long start = System.nanoTime();
+			int count = HygTestStars.loadBySplitting(hyg).size();
+			splitStars = Math.min(splitStars, System.nanoTime() - start);
+
+			if (count != 5067)
+				throw new AssertionError(count);
+		}
+
+		long parsedStars = Long.MAX_VALUE;
+		for(int run = 0; run < runs; ++run) {
+			long start = System.nanoTime();
+			HygDatabaseLoader.INSTANCE.load(new ByteArrayInputStream(hyg), new StarCatalogue.Builder());
+			parsedStars = Math.min(parsedStars, System.nanoTime() - start);
+		}
+
+		Path binary = Files.createTempFile("catalogue", ".bin");
+		long mappedStars = Long.MAX_VALUE;
+		try {
+			try (OutputStream stream = Files.newOutputStream(binary)) {
+				BinaryCatalogueWriter.write(builder.stars(), stream);
+			}
+
+			for(int run = 0; run < runs; ++run) {
+				long start = System.nanoTime();
+				BinaryCatalogueLoader.INSTANCE.load(binary, new StarCatalogue.Builder());
+				mappedStars = Math.min(mappedStars, System.nanoTime() - start);
+			}
+		} finally {
+			Files.delete(binary);
+		}
+
+		//Database of about 120 000 stars
+		int copies = 24;
+		int headerEnd = HygDatabaseLoader.nextLine(hyg, 0, hyg.length);
+		ByteArrayOutputStream large = new ByteArrayOutputStream();
+		large.write(hyg, 0, headerEnd);
+		for(int i = 0; i < copies; ++i) {
+			large.write(hyg, headerEnd, hyg.length - headerEnd);
+		}
+		byte[] largeHyg = large.toByteArray();
+
+		long sequentialLarge = Long.MAX_VALUE, parallelLarge = Long.MAX_VALUE;
+		for(int run = 0; run < Math.max(1, runs / 10); ++run) {
+			long start = System.nanoTime();
+			HygDatabaseLoader.INSTANCE.load(new ByteArrayInputStream(largeHyg), new StarCatalogue.Builder());
+			sequentialLarge = Math.min(sequentialLarge, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			ParallelHygDatabaseLoader.INSTANCE.load(new ByteArrayInputStream(largeHyg), new StarCatalogue.Builder());
+			parallelLarge = Math.min(parallelLarge, System.nanoTime() - start);
+		}
+
+		//Previous loading, copying the map once per star of each asterism
+		long splitAndCopy = Long.MAX_VALUE;
+		for(int run = 0; run < Math.min(runs, 3); ++run) {
+			long start = System.nanoTime();
+			int count = loadBySplitting(asterisms, map);
+			splitAndCopy = Math.min(splitAndCopy, System.nanoTime() - start);
+
+			if (count != 153)
+				throw new AssertionError(count);
+		}
+
+		long indexed = Long.MAX_VALUE;
+		for(int run = 0; run < 100 * runs; ++run) {
+			long start = System.nanoTime();
+			AsterismLoader.INSTANCE.load(new ByteArrayInputStream(asterisms), builder);
+			indexed = Math.min(indexed, System.nanoTime() - start);
+		}
+
+		long catalogue = Long.MAX_VALUE;
+		for(int run = 0; run < runs; ++run) {
+			long start = System.nanoTime();
+			new StarCatalogue.Builder()
+			.loadFrom(new ByteArrayInputStream(hyg), HygDatabaseLoader.INSTANCE)
+			.loadFrom(new ByteArrayInputStream(asterisms), AsterismLoader.INSTANCE)
+			.build();
+			catalogue = Math.min(catalogue, System.nanoTime() - start);
+		}
+
+		System.out.printf("stars, split lines and JDK parsing    : %10.3f ms%n", splitStars / 1e6);
+		System.out.printf("stars, bytes parsed in place          : %10.3f ms (x%.1f)%n", parsedStars / 1e6, (double) splitStars / parsedStars);
+		System.out.printf("stars, mapped binary catalogue        : %10.3f ms (x%.1f)%n", mappedStars / 1e6, (double) splitStars / mappedStars);
+		System.out.printf("%d stars, sequential             : %10.3f ms%n", copies * builder.stars().size(), sequentialLarge / 1e6);
+		System.out.printf("%d stars, parallel (%d cores)     : %10.3f ms (x%.1f)%n", copies * builder.stars().size(), 
+				Runtime.getRuntime().availableProcessors(), parallelLarge / 1e6, (double) sequentialLarge / parallelLarge);
+		System.out.printf("asterisms, split lines and copied map : %10.3f ms%n", splitAndCopy / 1e6);
+		System.out.printf("asterisms, parsed bytes and index     : %10.3f ms (x%.0f)%n", indexed / 1e6, (double) splitAndCopy / indexed);
+		System.out.printf("whole catalogue (%d stars)        : %10.3f ms, %.3f ms with the previous asterism loading%n", 
+				builder.stars().size(), catalogue / 1e6, (catalogue - indexed + splitAndCopy) / 1e6);
+	}
+
+	private static void cold(boolean binary) throws IOException {
+		long start = System.nanoTime();
+		StarCatalogue.Builder builder = new StarCatalogue.Builder();
+
+		if (binary) {
+			try {
+				BinaryCatalogueLoader.INSTANCE.load(Path.of(CatalogueStartupBenchmark.class.getResource("/hygdata_v3.bin").toURI()), builder);
+			} catch (URISyntaxException e) {
+				throw new IOException(e);
+			}
+		}
+		else {
+			try (InputStream hs = CatalogueStartupBenchmark.class.getResourceAsStream("/hygdata_v3.csv")) {
+				builder.loadFrom(hs, HygDatabaseLoader.INSTANCE);
+			}
+		}
+
+		System.out.printf("cold loading of %d stars from the %s : %.3f ms%n", builder.stars().size(), 
+				binary ? "binary catalogue" : "HYG database", (System.nanoTime() - start) / 1e6);
+	}
+
+	private static int loadBySplitting(byte[] asterisms, Map<Integer, Star> map) throws IOException {
+		List<Asterism> loaded = new ArrayList<Asterism>();
+
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(asterisms), StandardCharsets.US_ASCII))) {
+			String line;
+			List<Star> stars = new ArrayList<Star>();
+
+			while ((line = reader.readLine()) != null) {
+				stars.clear();
+
+				for(String id : line.split(",")) {
+					stars.add(Map.copyOf(map).get(Integer.parseInt(id)));
+				}
+				loaded.add(new Asterism(stars));
+			}
+		}
+
+		return loaded.size();
+	}
+}
@@ -118,4 +118,13 @@ class EpochTest {
         assertEquals(0.3518254468020382, Epoch.J2010.julianCenturiesUntil(ZDT4), 1e-9);
     }
 
+    @Test
+    void plusDaysIsTheInverseOfDaysUntil() {
+        assertEquals(ZDT_J2010.toInstant(), Epoch.J2000.plusDays(Epoch.J2000.daysUntil(Epoch.J2010)).toInstant());
+        for (var zdt : new ZonedDateTime[] {ZDT1, ZDT2, ZDT3, ZDT4}) {
+            assertEquals(zdt.toInstant(), Epoch.J2000.plusDays(Epoch.J2000.daysUntil(zdt)).toInstant());
+            assertEquals(zdt.toInstant(), Epoch.J2010.plusDays(Epoch.J2010.daysUntil(zdt)).toInstant());
+        }
+    }
+
 }
@@ -0,0 +1,73 @@
+package ch.epfl.rigel.astronomy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+
+//Stars of the HYG database shared by the tests and the benchmark of the loaders of the catalogue
+final class HygTestStars {
+
+	private HygTestStars() {}
+
+	//Bytes of the bundled HYG database
+	static byte[] hygBytes() throws IOException {
+		try (InputStream hs = HygTestStars.class.getResourceAsStream("/hygdata_v3.csv")) {
+			return hs.readAllBytes();
+		}
+	}
+
+	//Reference loader, splitting the lines and parsing the columns with the methods of the JDK
+	static List<Star> loadBySplitting(byte[] bytes) throws IOException {
+		List<Star> stars = new ArrayList<Star>();
+
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.US_ASCII))) {
+			reader.readLine();
+			String line;
+
+			while ((line = reader.readLine()) != null) {
+				String[] data = line.split(",");
+
+				int hip = data[1].isEmpty() ? 0 : Integer.parseInt(data[1]);
+				float mag = data[13].isEmpty() ? 0 : Float.parseFloat(data[13]);
+				float ci = data[16].isEmpty() ? 0 : Float.parseFloat(data[16]);
+				String bayer = data[27].isEmpty() ? "?" : data[27];
+				String name = data[6].isEmpty() ? bayer + " " + data[29] : data[6];
+				double ra = Double.parseDouble(data[23]);
+				double dec = Double.parseDouble(data[24]);
+				double pmRa = data[25].isEmpty() ? 0 : Double.parseDouble(data[25]);
+				double pmDec = data[26].isEmpty() ? 0 : Double.parseDouble(data[26]);
+
+				stars.add(new Star(hip, name, EquatorialCoordinates.of(ra, dec), mag, ci, pmRa, pmDec));
+			}
+		}
+
+		return stars;
+	}
+
+	//Checks that the stars are the same, in the same order, all their values being exactly equal
+	static void assertSameStars(List<Star> expected, List<Star> actual) {
+		assertEquals(expected.size(), actual.size());
+
+		for(int i = 0; i < expected.size(); ++i) {
+			Star e = expected.get(i), a = actual.get(i);
+
+			assertEquals(e.hipparcosId(), a.hipparcosId());
+			assertEquals(e.name(), a.name());
+			assertEquals(e.equatorialPos().ra(), a.equatorialPos().ra());
+			assertEquals(e.equatorialPos().dec(), a.equatorialPos().dec());
+			assertEquals(e.magnitude(), a.magnitude());
+			assertEquals(e.colorIndex(), a.colorIndex());
+			assertEquals(e.properMotionRa(), a.properMotionRa());
+			assertEquals(e.properMotionDec(), a.properMotionDec());
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package ch.epfl.rigel.astronomy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+
+//Checks shared by the tests of the models of the Sun, of the Moon and of the planets
+final class ModelBatchAssertions {
+
+	private static final ZonedDateTime START = ZonedDateTime.of(LocalDate.of(2000, Month.MARCH, 3), LocalTime.of(4, 30), ZoneOffset.UTC);
+	private static final int COUNT = 1_000;
+	private static final long STEP_HOURS = 37;
+
+	private ModelBatchAssertions() {}
+
+	//Checks that the batch of the model gives the same values as the model at each single instant, over about four years
+	static void assertBatchGivesSamePositionsAsSingleInstants(CelestialObjectModel<? extends CelestialObject> model) {
+		ZonedDateTime[] instants = new ZonedDateTime[COUNT];
+		double[] days = new double[COUNT];
+
+		for(int i = 0; i < COUNT; ++i) {
+			instants[i] = START.plusHours(STEP_HOURS * i);
+			days[i] = Epoch.J2010.daysUntil(instants[i]);
+		}
+
+		double[] ra = new double[COUNT], dec = new double[COUNT], magnitude = new double[COUNT], angularSize = new double[COUNT];
+		model.at(days, ra, dec, magnitude, angularSize);
+
+		for(int i = 0; i < COUNT; ++i) {
+			CelestialObject object = model.at(days[i], new EclipticToEquatorialConversion(instants[i]));
+			assertEquals(object.equatorialPos().ra(), ra[i], 1e-9);
+			assertEquals(object.equatorialPos().dec(), dec[i], 1e-9);
+			assertEquals(object.magnitude(), magnitude[i], 1e-4);
+			assertEquals(object.angularSize(), angularSize[i], 1e-8);
+		}
+
+		assertThrows(IllegalArgumentException.class, () -> model.at(days, ra, dec, magnitude, new double[COUNT - 1]));
+	}
+}
@@ -0,0 +1,114 @@
+package ch.epfl.rigel.astronomy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.test.TestRandomizer;
+
+public class MyAsciiNumbersTest {
+
+	private static void assertParsedAsJdk(String number) {
+		//The number is surrounded by other bytes, which must not be read
+		byte[] bytes = (",," + number + ",").getBytes(StandardCharsets.US_ASCII);
+		int from = 2, to = 2 + number.length();
+
+		assertEquals(Double.doubleToLongBits(Double.parseDouble(number)), 
+				Double.doubleToLongBits(AsciiNumbers.parseDouble(bytes, from, to)), number);
+		assertEquals(Float.floatToIntBits(Float.parseFloat(number)), 
+				Float.floatToIntBits(AsciiNumbers.parseFloat(bytes, from, to)), number);
+	}
+
+	private static String randomDecimal(SplittableRandom rng) {
+		StringBuilder b = new StringBuilder();
+
+		if (rng.nextBoolean())
+			b.append('-');
+
+		int leadingZeros = rng.nextInt(0, 12);
+		int digits = rng.nextInt(1, 26);
+		int point = rng.nextInt(0, digits + 1);
+
+		if (leadingZeros > 0)
+			b.append("0.").append("0".repeat(leadingZeros - 1));
+
+		for(int i = 0; i < digits; ++i) {
+			if (leadingZeros == 0 && i == point && i > 0)
+				b.append('.');
+			b.append((char) ('0' + rng.nextInt(i == 0 ? 1 : 0, 10)));
+		}
+
+		if (rng.nextInt(4) == 0)
+			b.append(rng.nextBoolean() ? 'e' : 'E').append(rng.nextInt(-40, 40));
+
+		return b.toString();
+	}
+
+	@Test
+	void parseDoubleAndFloatGiveSameBitsAsJdkOnRandomDecimals() {
+		SplittableRandom rng = TestRandomizer.newRandom();
+
+		for(int i = 0; i < 100 * TestRandomizer.RANDOM_ITERATIONS; ++i) {
+			assertParsedAsJdk(randomDecimal(rng));
+		}
+	}
+
+	@Test
+	void parseDoubleAndFloatGiveSameBitsAsJdkOnShortestRepresentations() {
+		SplittableRandom rng = TestRandomizer.newRandom();
+
+		for(int i = 0; i < 100 * TestRandomizer.RANDOM_ITERATIONS; ++i) {
+			assertParsedAsJdk(Double.toString(rng.nextDouble(-10, 10) * Math.pow(10, rng.nextInt(-30, 30))));
+			assertParsedAsJdk(Float.toString((float) rng.nextDouble(-10, 10)));
+		}
+	}
+
+	@Test
+	void parseDoubleAndFloatGiveSameBitsAsJdkOnHalfwayAndSpecialCases() {
+		//Halfway between two doubles, resp. two floats, and their neighbours
+		String[] numbers = {"9007199254740993", "9007199254740993.0000000001", "9007199254740992.9999999999",
+				"16777217", "16777217.000001", "2.2250738585072014e-308", "4.9e-324", "1.7976931348623157e308",
+				"1e400", "0", "-0", "0.000", "-0.0e5", ".5", "5.", "+1.5", "1e-7", "123456789012345678901234567890",
+				"0.30000000000000004", "0.1", "3.4028235e38", "1.4e-45", "NaN", "-Infinity", " 1.5", "1.5 ", "0x1p3"};
+
+		for(String number : numbers) {
+			assertParsedAsJdk(number);
+		}
+	}
+
+	@Test
+	void parseFailsOnInvalidNumbersAsJdk() {
+		String[] numbers = {"", "-", ".", "e5", "1e", "1.2.3", "1,5", "abc", "--1"};
+
+		for(String number : numbers) {
+			byte[] bytes = number.getBytes(StandardCharsets.US_ASCII);
+
+			assertThrows(NumberFormatException.class, () -> AsciiNumbers.parseDouble(bytes, 0, bytes.length));
+			assertThrows(NumberFormatException.class, () -> AsciiNumbers.parseFloat(bytes, 0, bytes.length));
+			assertThrows(NumberFormatException.class, () -> AsciiNumbers.parseInt(bytes, 0, bytes.length));
+		}
+	}
+
+	@Test
+	void parseIntGivesSameValuesAsJdk() {
+		SplittableRandom rng = TestRandomizer.newRandom();
+		String[] numbers = {"0", "-0", "+12", "2147483647", "-2147483648", "0000000000123"};
+
+		for(String number : numbers) {
+			byte[] bytes = number.getBytes(StandardCharsets.US_ASCII);
+			assertEquals(Integer.parseInt(number), AsciiNumbers.parseInt(bytes, 0, bytes.length));
+		}
+
+		for(int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; ++i) {
+			String number = Integer.toString(rng.nextInt());
+			byte[] bytes = number.getBytes(StandardCharsets.US_ASCII);
+			assertEquals(Integer.parseInt(number), AsciiNumbers.parseInt(bytes, 0, bytes.length));
+		}
+
+		byte[] overflow = "2147483648".getBytes(StandardCharsets.US_ASCII);
+		assertThrows(NumberFormatException.class, () -> AsciiNumbers.parseInt(overflow, 0, overflow.length));
+	}
+}
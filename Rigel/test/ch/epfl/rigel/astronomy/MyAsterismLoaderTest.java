@@ -1,5 +1,123 @@
 package ch.epfl.rigel.astronomy;
 
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+
 public class MyAsterismLoaderTest {
 
+	private static StarCatalogue.Builder builderWithStars(int... hipparcosIds) {
+		StarCatalogue.Builder builder = new StarCatalogue.Builder();
+
+		for(int hip : hipparcosIds) {
+			builder.addStar(new Star(hip, "Star" + hip, EquatorialCoordinates.of(0, 0), 1f, 0f));
+		}
+
+		return builder;
+	}
+
+	private static InputStream ascii(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private static List<Integer> hipparcosIds(Asterism asterism) {
+		List<Integer> ids = new ArrayList<Integer>();
+
+		for(Star star : asterism.stars()) {
+			ids.add(star.hipparcosId());
+		}
+
+		return ids;
+	}
+
+	@Test
+	void loaderGivesSameAsterismsAsSplittingTheLines() throws IOException {
+		StarCatalogue.Builder builder = new StarCatalogue.Builder();
+
+		try (InputStream hs = getClass().getResourceAsStream("/hygdata_v3.csv");
+				InputStream as = getClass().getResourceAsStream("/asterisms.txt")) {
+			builder.loadFrom(hs, HygDatabaseLoader.INSTANCE).loadFrom(as, AsterismLoader.INSTANCE);
+		}
+
+		//Asterisms built as before, by splitting the lines and looking the stars up in a map
+		Map<Integer, Star> map = builder.map();
+		List<List<Star>> expected = new ArrayList<List<Star>>();
+
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream("/asterisms.txt"), 
+				StandardCharsets.US_ASCII))) {
+			String line;
+
+			while ((line = reader.readLine()) != null) {
+				List<Star> stars = new ArrayList<Star>();
+				for(String id : line.split(",")) {
+					stars.add(map.get(Integer.parseInt(id)));
+				}
+				expected.add(stars);
+			}
+		}
+
+		assertEquals(153, builder.asterisms().size());
+		assertEquals(expected.size(), builder.asterisms().size());
+
+		for(int i = 0; i < expected.size(); ++i) {
+			List<Star> actual = builder.asterisms().get(i).stars();
+			assertEquals(expected.get(i).size(), actual.size());
+
+			for(int k = 0; k < actual.size(); ++k) {
+				assertSame(expected.get(i).get(k), actual.get(k));
+			}
+		}
+	}
+
+	@Test
+	void loaderAcceptsWindowsLineEndingsAndMissingLastNewline() throws IOException {
+		StarCatalogue.Builder builder = builderWithStars(7, 42, 1234567, 99);
+		AsterismLoader.INSTANCE.load(ascii("7,42\r\n\r\n1234567, 99,7\r\n42,99"), builder);
+
+		assertEquals(3, builder.asterisms().size());
+		assertEquals(List.of(7, 42), hipparcosIds(builder.asterisms().get(0)));
+		assertEquals(List.of(1234567, 99, 7), hipparcosIds(builder.asterisms().get(1)));
+		assertEquals(List.of(42, 99), hipparcosIds(builder.asterisms().get(2)));
+	}
+
+	@Test
+	void idsSplitAcrossBlocksAreParsedWhole() throws IOException {
+		StarCatalogue.Builder builder = builderWithStars(12345, 678);
+		StringBuilder text = new StringBuilder();
+
+		//Lines long enough for ids to straddle the blocks read from the stream
+		for(int i = 0; i < 5000; ++i) {
+			text.append(i % 2 == 0 ? "12345,678\n" : "678,12345,678\n");
+		}
+
+		AsterismLoader.INSTANCE.load(ascii(text.toString()), builder);
+
+		assertEquals(5000, builder.asterisms().size());
+		for(int i = 0; i < 5000; ++i) {
+			assertEquals(i % 2 == 0 ? List.of(12345, 678) : List.of(678, 12345, 678), hipparcosIds(builder.asterisms().get(i)));
+		}
+	}
+
+	@Test
+	void unknownIdsAndInvalidCharactersAreRejected() {
+		assertThrows(IOException.class, () -> AsterismLoader.INSTANCE.load(ascii("7,8\n"), builderWithStars(7)));
+		assertThrows(IOException.class, () -> AsterismLoader.INSTANCE.load(ascii("7;7\n"), builderWithStars(7)));
+		assertThrows(IOException.class, () -> AsterismLoader.INSTANCE.load(ascii("7,-7\n"), builderWithStars(7)));
+
+		//Ids which do not fit in an int, the first one wrapping around to 7 without the check
+		assertThrows(IOException.class, () -> AsterismLoader.INSTANCE.load(ascii("7,4294967303\n"), builderWithStars(7)));
+		assertThrows(IOException.class, () -> AsterismLoader.INSTANCE.load(ascii("7,2147483648\n"), builderWithStars(7)));
+	}
 }
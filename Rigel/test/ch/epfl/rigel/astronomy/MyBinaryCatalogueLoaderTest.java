@@ -0,0 +1,98 @@
+package ch.epfl.rigel.astronomy;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ch.epfl.rigel.astronomy.HygTestStars.assertSameStars;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+
+public class MyBinaryCatalogueLoaderTest {
+
+	private static List<Star> hygStars() throws IOException {
+		try (InputStream hs = MyBinaryCatalogueLoaderTest.class.getResourceAsStream("/hygdata_v3.csv")) {
+			return new StarCatalogue.Builder().loadFrom(hs, HygDatabaseLoader.INSTANCE).stars();
+		}
+	}
+
+	private static byte[] binary(List<Star> stars) throws IOException {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		BinaryCatalogueWriter.write(stars, stream);
+		return stream.toByteArray();
+	}
+
+	private static List<Star> load(byte[] binary) throws IOException {
+		return new StarCatalogue.Builder().loadFrom(new ByteArrayInputStream(binary), BinaryCatalogueLoader.INSTANCE).stars();
+	}
+
+	@Test
+	void binaryCatalogueGivesSameStarsAsHygDatabase() throws IOException {
+		List<Star> stars = hygStars();
+
+		assertSameStars(stars, load(binary(stars)));
+	}
+
+	@Test
+	void bundledBinaryCatalogueIsUpToDate() throws IOException {
+		try (InputStream bs = getClass().getResourceAsStream("/hygdata_v3.bin")) {
+			assertNotNull(bs);
+			assertArrayEquals(binary(hygStars()), bs.readAllBytes());
+		}
+	}
+
+	@Test
+	void mappedFilesGiveSameStarsAsStreams() throws IOException {
+		List<Star> stars = List.of(
+				new Star(1, "\u00c4\u00f6\u00fc \u03a9mega", EquatorialCoordinates.of(1, 0.5), -1.5f, 5.5f, 1e-8, -2e-9),
+				new Star(0, "", EquatorialCoordinates.of(0, -Math.PI / 2), 6.5f, -0.5f),
+				new Star(32349, "Sirius", EquatorialCoordinates.of(1.7677, -0.2917), -1.44f, 0.009f));
+		byte[] binary = binary(stars);
+
+		Path file = Files.createTempFile("catalogue", ".bin");
+		try {
+			Files.write(file, binary);
+
+			StarCatalogue.Builder mapped = new StarCatalogue.Builder();
+			BinaryCatalogueLoader.INSTANCE.load(file, mapped);
+			assertSameStars(stars, mapped.stars());
+
+			assertSameStars(stars, new StarCatalogue.Builder()
+					.loadFrom(new FileInputStream(file.toFile()), BinaryCatalogueLoader.INSTANCE).stars());
+			assertSameStars(stars, load(binary));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void emptyCatalogueContainsNoStar() throws IOException {
+		assertEquals(0, load(binary(List.of())).size());
+	}
+
+	@Test
+	void loaderFailsOnInvalidCatalogues() throws IOException {
+		byte[] binary = binary(hygStars().subList(0, 10));
+
+		assertThrows(IOException.class, () -> load(new byte[0]));
+		assertThrows(IOException.class, () -> load(Arrays.copyOf(binary, binary.length - 1)));
+		assertThrows(IOException.class, () -> load(Arrays.copyOf(binary, binary.length + 1)));
+
+		byte[] wrongMagic = binary.clone();
+		wrongMagic[0] ^= 1;
+		assertThrows(IOException.class, () -> load(wrongMagic));
+
+		byte[] wrongVersion = binary.clone();
+		wrongVersion[4] = 2;
+		assertThrows(IOException.class, () -> load(wrongVersion));
+	}
+}
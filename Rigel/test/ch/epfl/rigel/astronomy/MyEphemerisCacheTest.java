@@ -0,0 +1,129 @@
+package ch.epfl.rigel.astronomy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+import ch.epfl.rigel.math.Angle;
+import ch.epfl.test.TestRandomizer;
+
+public class MyEphemerisCacheTest {
+
+	private static final ZonedDateTime WHEN = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(0, 0), ZoneOffset.UTC);
+	private static final EclipticToEquatorialConversion CONVERSION = new EclipticToEquatorialConversion(WHEN);
+
+	//Maximal errors of the interpolation with respect to the models
+	private static final double POSITION_ERROR = Angle.ofArcsec(0.05);
+	private static final double SIZE_ERROR = 1e-9;
+	private static final double MAGNITUDE_ERROR = 1e-5;
+
+	private static void assertClose(CelestialObject expected, CelestialObject actual) {
+		double deltaRa = Angle.normalizePositive(expected.equatorialPos().ra() - actual.equatorialPos().ra() + Math.PI) - Math.PI;
+
+		assertEquals(expected.name(), actual.name());
+		assertEquals(0, deltaRa, POSITION_ERROR);
+		assertEquals(expected.equatorialPos().dec(), actual.equatorialPos().dec(), POSITION_ERROR);
+		assertEquals(expected.angularSize(), actual.angularSize(), SIZE_ERROR);
+		assertEquals(expected.magnitude(), actual.magnitude(), MAGNITUDE_ERROR);
+	}
+
+	@Test
+	void interpolatedPlanetsAreCloseToModel() {
+		EphemerisCache cache = new EphemerisCache(1_000, Runnable::run);
+		SplittableRandom rng = TestRandomizer.newRandom();
+
+		for(PlanetModel planet : PlanetModel.ALL) {
+			if (planet == PlanetModel.EARTH)
+				continue;
+
+			for(int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; ++i) {
+				double days = rng.nextDouble(-20_000, 20_000);
+				assertClose(planet.at(days, CONVERSION), cache.at(planet, days, CONVERSION));
+			}
+		}
+	}
+
+	@Test
+	void interpolatedMoonIsCloseToModel() {
+		EphemerisCache cache = new EphemerisCache(1_000, Runnable::run);
+		SplittableRandom rng = TestRandomizer.newRandom();
+
+		for(int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; ++i) {
+			//Several instants in the same window, so that most of them are interpolated
+			double days = rng.nextDouble(-20_000, 20_000);
+
+			for(int k = 0; k < 4; ++k) {
+				Moon expected = MoonModel.MOON.at(days + k * 0.2, CONVERSION);
+				Moon actual = cache.at(MoonModel.MOON, days + k * 0.2, CONVERSION);
+
+				assertClose(expected, actual);
+				assertEquals(expected.info(), actual.info());
+			}
+		}
+	}
+
+	@Test
+	void windowsAreFittedOnceAndEvictedWhenFull() {
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		EphemerisCache cache = new EphemerisCache(3, tasks::add);
+
+		//The window is requested only once while it is being fitted, the model answering meanwhile
+		Planet first = cache.at(PlanetModel.MARS, 100.5, CONVERSION);
+		cache.at(PlanetModel.MARS, 101.5, CONVERSION);
+		assertEquals(1, tasks.size());
+		assertEquals(0, cache.size());
+		assertEquals(PlanetModel.MARS.at(100.5, CONVERSION).equatorialPos().ra(), first.equatorialPos().ra());
+
+		tasks.get(0).run();
+		assertEquals(1, cache.size());
+
+		//Four other windows, the least recently used ones being evicted
+		EphemerisCache direct = new EphemerisCache(3, Runnable::run);
+		for(int k = 0; k < 5; ++k) {
+			direct.at(PlanetModel.JUPITER, 32.0 * k, CONVERSION);
+			assertEquals(Math.min(k + 1, 3), direct.size());
+		}
+	}
+
+	@Test
+	void rejectedWindowsAreRequestedAgain() {
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		boolean[] reject = {true};
+		EphemerisCache cache = new EphemerisCache(3, task -> {
+			if (reject[0])
+				throw new RejectedExecutionException();
+			tasks.add(task);
+		});
+
+		//The rejected window is answered by the model, and not left as being fitted
+		assertEquals(PlanetModel.VENUS.at(10.5, CONVERSION).equatorialPos().ra(), cache.at(PlanetModel.VENUS, 10.5, CONVERSION).equatorialPos().ra());
+		assertEquals(0, cache.size());
+
+		reject[0] = false;
+		cache.at(PlanetModel.VENUS, 11.5, CONVERSION);
+		assertEquals(1, tasks.size());
+
+		tasks.get(0).run();
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	void cacheFailsOnEarthAndInvalidCapacity() {
+		EphemerisCache cache = new EphemerisCache(10, Runnable::run);
+
+		assertThrows(IllegalArgumentException.class, () -> cache.at(PlanetModel.EARTH, 0, CONVERSION));
+		assertThrows(IllegalArgumentException.class, () -> new EphemerisCache(0, Runnable::run));
+		assertThrows(NullPointerException.class, () -> new EphemerisCache(10, null));
+	}
+}
@@ -2,9 +2,15 @@ package ch.epfl.rigel.astronomy;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ch.epfl.rigel.astronomy.HygTestStars.assertSameStars;
+import static ch.epfl.rigel.astronomy.HygTestStars.hygBytes;
+import static ch.epfl.rigel.astronomy.HygTestStars.loadBySplitting;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,6 +22,53 @@ class MyHygDatabaseLoaderTest {
 	  private static final String ASTERISM_CATALOGUE_NAME = 
 			  "/asterisms.txt";
 
+	  private static List<Star> load(byte[] bytes) throws IOException {
+		  return new StarCatalogue.Builder().loadFrom(new ByteArrayInputStream(bytes), HygDatabaseLoader.INSTANCE).stars();
+	  }
+
+	  @Test
+	  void loaderGivesSameStarsAsSplittingTheLines() throws IOException {
+		  byte[] bytes = hygBytes();
+		  List<Star> expected = loadBySplitting(bytes);
+		  assertEquals(5067, expected.size());
+		  assertSameStars(expected, load(bytes));
+	  }
+
+	  @Test
+	  void loaderHandlesLineEndingsEmptyColumnsAndLongLines() throws IOException {
+		  String longName = "N".repeat(200_000);
+		  String text = "HEADER\r\n"
+				  + "1,88,2,3,,Tau Phe,,0.01,-48.8,1.0,1,2,,5.710,1,K0,-0.128,1,2,3,4,5,6,"
+				  + "0.004696959812148889,-0.8518930353430763,-0.00000008687861155555555,-0.000000032724923,Tau,,Phe,1,88,,1.5,,,\r\n"
+				  + "2,,,,,,,0,0,0,0,0,,,,,,0,0,0,0,0,0,3.1415,-1e-5,,,,,Ori\n"
+				  + "3,12,,,,," + longName + ",0,0,0,0,0,,-1.5E1,,,1.23456789,0,0,0,0,0,0,"
+				  + "6.2831853071795812345678901234,1.5707963267948966192313216916398,1.0E-12,-7.5e-10,Alp,,CMa,,,,,,,\n"
+				  + "4,+7,,,,,Sirius,0,0,0,0,0,,.5,,,+0.25,0,0,0,0,0,0,+0.5,-0.,0.1,0.2,,,CMa";
+		  byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+
+		  List<Star> stars = load(bytes);
+		  assertSameStars(loadBySplitting(bytes), stars);
+		  assertEquals("Tau Phe", stars.get(0).name());
+		  assertEquals("? Ori", stars.get(1).name());
+		  assertEquals(longName, stars.get(2).name());
+		  assertEquals("Sirius", stars.get(3).name());
+	  }
+
+	  @Test
+	  void loaderIgnoresEmptyLinesAndEmptyFiles() throws IOException {
+		  assertEquals(0, load(new byte[0]).size());
+		  assertEquals(0, load("HEADER".getBytes(StandardCharsets.US_ASCII)).size());
+		  assertEquals(1, load(("HEADER\n\n1,2,,,,,,0,0,0,0,0,,1,,,1,0,0,0,0,0,0,1,1,,,,,Ori\n\r\n")
+				  .getBytes(StandardCharsets.US_ASCII)).size());
+	  }
+
+	  @Test
+	  void loaderFailsOnLinesWithMissingColumns() {
+		  assertThrows(IOException.class, () -> load("HEADER\n1,2,3,,,Sirius\n".getBytes(StandardCharsets.US_ASCII)));
+		  assertThrows(NumberFormatException.class, 
+				  () -> load("HEADER\n1,x,,,,,,0,0,0,0,0,,1,,,1,0,0,0,0,0,0,1,1,,,,,Ori\n".getBytes(StandardCharsets.US_ASCII)));
+	  }
+
 	  @Test
 	  void hygDatabaseIsCorrectlyInstalled() throws IOException {
 	    try (InputStream hygStream = getClass()
@@ -103,4 +156,4 @@ class MyHygDatabaseLoaderTest {
 		        }
 		    }
 		}
-	}
\ No newline at end of file
+	}
\ No newline at end of file
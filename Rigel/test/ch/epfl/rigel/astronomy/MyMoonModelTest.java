@@ -1,5 +1,6 @@
 package ch.epfl.rigel.astronomy;
 
+import static ch.epfl.rigel.astronomy.ModelBatchAssertions.assertBatchGivesSamePositionsAsSingleInstants;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.time.LocalDate;
@@ -64,4 +65,16 @@ public class MyMoonModelTest {
 		        		
 		      assertEquals("Lune (22.5%)", test4);
 	}
+
+	@Test
+	void batchGivesSamePositionsAsSingleInstants() {
+		assertBatchGivesSamePositionsAsSingleInstants(MoonModel.MOON);
+	}
+
+	@Test
+	void defaultBatchGivesSamePositionsAsSingleInstants() {
+		//Model only implementing the single instants, whose batch is the default one of the interface
+		CelestialObjectModel<Moon> model = (days, conversion) -> MoonModel.MOON.at(days, conversion);
+		assertBatchGivesSamePositionsAsSingleInstants(model);
+	}
 }
@@ -0,0 +1,140 @@
+package ch.epfl.rigel.astronomy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.rigel.astronomy.ObservedSky.Mode;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.math.Angle;
+import ch.epfl.test.TestRandomizer;
+
+public class MyMultiObserverSkyTest {
+
+	private static final ZonedDateTime WHEN = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(21, 30), ZoneOffset.UTC);
+
+	private static StarCatalogue randomCatalogue(SplittableRandom rng, int count) {
+		List<Star> stars = new ArrayList<Star>();
+
+		for(int i = 0; i < count; ++i) {
+			EquatorialCoordinates pos = EquatorialCoordinates.of(rng.nextDouble(0, Angle.TAU), rng.nextDouble(-Math.PI / 2, Math.PI / 2));
+			stars.add(new Star(i, "Star" + i, pos, (float) rng.nextDouble(-1, 7), (float) rng.nextDouble(-0.5, 5.5)));
+		}
+
+		return new StarCatalogue(stars, List.of());
+	}
+
+	private static List<GeographicCoordinates> randomObservers(SplittableRandom rng, int count) {
+		List<GeographicCoordinates> observers = new ArrayList<GeographicCoordinates>();
+
+		for(int o = 0; o < count; ++o) {
+			observers.add(GeographicCoordinates.ofDeg(rng.nextDouble(-180, 180), rng.nextDouble(-90, 90)));
+		}
+
+		return observers;
+	}
+
+	private static void assertSameDirection(HorizontalCoordinates expected, double az, double alt) {
+		assertEquals(expected.alt(), alt, 1e-9);
+		assertEquals(0, Math.cos(expected.alt()) * Math.sin(expected.az() - az), 1e-9);
+	}
+
+	@Test
+	void observersSeeTheSameSkyAsHorizontalSky() {
+		SplittableRandom rng = TestRandomizer.newRandom();
+		StarCatalogue catalogue = randomCatalogue(rng, 500);
+		List<GeographicCoordinates> observers = randomObservers(rng, 7);
+		MultiObserverSky sky = new MultiObserverSky(WHEN, catalogue);
+		int objects = sky.objectCount();
+
+		assertEquals(HorizontalSky.BODIES + 500, objects);
+		assertEquals(SiderealTime.greenwich(WHEN), sky.greenwichSiderealTime());
+
+		double[] az = new double[observers.size() * objects], alt = new double[observers.size() * objects];
+		sky.horizontal(observers, az, alt);
+
+		for(int o = 0; o < observers.size(); ++o) {
+			HorizontalSky expected = new HorizontalSky(WHEN, observers.get(o), catalogue, Mode.EXACT);
+			int offset = o * objects;
+
+			assertSameDirection(expected.sunHorizontal(), az[offset], alt[offset]);
+			assertSameDirection(expected.moonHorizontal(), az[offset + 1], alt[offset + 1]);
+
+			for(int i = 0; i < expected.planets().size(); ++i) {
+				assertEquals(expected.planets().get(i).name(), sky.planets().get(i).name());
+				assertSameDirection(expected.planetsHorizontal().get(i), az[offset + 2 + i], alt[offset + 2 + i]);
+			}
+
+			for(int i = 0; i < catalogue.stars().size(); ++i) {
+				int k = offset + HorizontalSky.BODIES + i;
+				assertTrue(0 <= az[k] && az[k] < Angle.TAU);
+				assertSameDirection(expected.starHorizontal(i), az[k], alt[k]);
+			}
+		}
+	}
+
+	@Test
+	void parallelObserversGiveSameResultsAsSingleObserver() {
+		SplittableRandom rng = TestRandomizer.newRandom();
+		StarCatalogue catalogue = randomCatalogue(rng, 300);
+		List<GeographicCoordinates> observers = randomObservers(rng, 2 * ParallelRanges.PARALLEL_THRESHOLD / 300 + 3);
+		MultiObserverSky sky = new MultiObserverSky(WHEN, catalogue);
+		int objects = sky.objectCount();
+
+		double[] az = new double[observers.size() * objects], alt = new double[observers.size() * objects];
+		sky.horizontal(observers, az, alt);
+
+		double[] singleAz = new double[objects], singleAlt = new double[objects];
+		for(int o = 0; o < observers.size(); ++o) {
+			sky.horizontal(observers.subList(o, o + 1), singleAz, singleAlt);
+
+			for(int k = 0; k < objects; ++k) {
+				assertEquals(singleAz[k], az[o * objects + k]);
+				assertEquals(singleAlt[k], alt[o * objects + k]);
+			}
+		}
+	}
+
+	@Test
+	void unitVectorsMatchHorizontalCoordinates() {
+		SplittableRandom rng = TestRandomizer.newRandom();
+		List<GeographicCoordinates> observers = randomObservers(rng, 5);
+		MultiObserverSky sky = new MultiObserverSky(WHEN, randomCatalogue(rng, 200));
+		int size = observers.size() * sky.objectCount();
+
+		double[] az = new double[size], alt = new double[size];
+		double[] north = new double[size], east = new double[size], up = new double[size];
+		sky.horizontal(observers, az, alt);
+		sky.horizontalUnitVectors(observers, north, east, up);
+
+		for(int k = 0; k < size; ++k) {
+			assertEquals(Math.cos(alt[k]) * Math.cos(az[k]), north[k], 1e-12);
+			assertEquals(Math.cos(alt[k]) * Math.sin(az[k]), east[k], 1e-12);
+			assertEquals(Math.sin(alt[k]), up[k], 1e-12);
+		}
+	}
+
+	@Test
+	void horizontalFailsOnArraysOfWrongSize() {
+		MultiObserverSky sky = new MultiObserverSky(WHEN, randomCatalogue(TestRandomizer.newRandom(), 10));
+		List<GeographicCoordinates> observers = List.of(GeographicCoordinates.ofDeg(6.57, 46.52), GeographicCoordinates.ofDeg(0, 0));
+		int size = 2 * sky.objectCount();
+
+		assertThrows(IllegalArgumentException.class, () -> sky.horizontal(observers, new double[size - 1], new double[size - 1]));
+		assertThrows(IllegalArgumentException.class, () -> sky.horizontal(observers, new double[size], new double[size + 1]));
+		assertThrows(IllegalArgumentException.class, 
+				() -> sky.horizontalUnitVectors(observers, new double[size], new double[size], new double[size + 1]));
+		assertThrows(NullPointerException.class, () -> new MultiObserverSky(null, sky.catalogue()));
+	}
+}
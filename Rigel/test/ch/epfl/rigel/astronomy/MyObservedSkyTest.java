@@ -0,0 +1,409 @@
+package ch.epfl.rigel.astronomy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.DoubleBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.rigel.coordinates.AtmosphericRefraction;
+import ch.epfl.rigel.coordinates.CartesianCoordinates;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import ch.epfl.rigel.math.Angle;
+import ch.epfl.test.TestRandomizer;
+
+public class MyObservedSkyTest {
+
+	private static final ZonedDateTime WHEN = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(0, 0), ZoneOffset.UTC);
+	private static final GeographicCoordinates WHERE = GeographicCoordinates.ofDeg(30, 45);
+
+	private static StarCatalogue randomCatalogue(int count) {
+		var rng = TestRandomizer.newRandom();
+		List<Star> stars = new ArrayList<Star>();
+
+		for(int i = 0; i < count; ++i) {
+			EquatorialCoordinates pos = EquatorialCoordinates.of(rng.nextDouble(0, Angle.TAU), rng.nextDouble(-Math.PI / 2, Math.PI / 2));
+			stars.add(new Star(i, "Star" + i, pos, (float) rng.nextDouble(-1, 7), (float) rng.nextDouble(-0.5, 5.5)));
+		}
+
+		return new StarCatalogue(stars, List.of());
+	}
+
+	private static double[] inCatalogueOrder(StarCatalogue catalogue, double[] rankedPositions) {
+		double[] positions = new double[rankedPositions.length];
+
+		for(int rank = 0; rank < rankedPositions.length / 2; ++rank) {
+			int index = catalogue.starIndexOfRank(rank);
+			positions[2 * index] = rankedPositions[2 * rank];
+			positions[2 * index + 1] = rankedPositions[2 * rank + 1];
+		}
+
+		return positions;
+	}
+
+	@Test
+	void parallelProjectionGivesSameStarPositions() {
+		StarCatalogue catalogue = randomCatalogue(3 * ParallelRanges.PARALLEL_THRESHOLD + 17);
+		StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.ofDeg(20, 22));
+		ObservedSky sky = new ObservedSky(WHEN, WHERE, projection, catalogue, null);
+
+		int count = catalogue.stars().size();
+		double[] az = new double[count], alt = new double[count];
+		double[] expected = new double[2 * count];
+		StarCatalogue.Positions positions = catalogue.positionsAt(WHEN);
+		new EquatorialToHorizontalConversion(WHEN, WHERE).applyTo(positions.ra(), positions.dec(), az, alt, 0, count);
+		projection.project(az, alt, expected, 0, count);
+
+		assertArrayEquals(inCatalogueOrder(catalogue, expected), sky.starPositions());
+	}
+
+	@Test
+	void incrementalModeGivesExactPositionsUpToRounding() {
+		StarCatalogue catalogue = randomCatalogue(10_000);
+		StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.ofDeg(120, 35));
+
+		double[] exact = new ObservedSky(WHEN, WHERE, projection, catalogue, null).starPositions();
+		double[] incremental = new ObservedSky(WHEN, WHERE, projection, catalogue, null, ObservedSky.Mode.INCREMENTAL).starPositions();
+
+		assertEquals(exact.length, incremental.length);
+		for(int i = 0; i < exact.length; ++i) {
+			assertEquals(exact[i], incremental[i], 1e-9 * Math.max(1, Math.abs(exact[i])));
+		}
+	}
+
+	@Test
+	void incrementalModeWorksInParallel() {
+		StarCatalogue catalogue = randomCatalogue(ParallelRanges.PARALLEL_THRESHOLD + 1);
+		StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.ofDeg(300, 60));
+		ObservedSky sky = new ObservedSky(WHEN, WHERE, projection, catalogue, null, ObservedSky.Mode.INCREMENTAL);
+
+		int count = catalogue.stars().size();
+		double[] north = new double[count], east = new double[count], up = new double[count];
+		double[] expected = new double[2 * count];
+		StarCatalogue.Positions positions = catalogue.positionsAt(WHEN);
+		new EquatorialToHorizontalConversion(WHEN, WHERE).applyToUnitVectors(positions.unitX(), positions.unitY(), 
+				positions.unitZ(), north, east, up, 0, count);
+		projection.projectUnitVectors(north, east, up, expected, 0, count);
+
+		assertArrayEquals(inCatalogueOrder(catalogue, expected), sky.starPositions());
+	}
+
+	@Test
+	void skiesSharingHorizontalSkyGiveSamePositions() {
+		StarCatalogue catalogue = randomCatalogue(2_000);
+		HorizontalSky horizontalSky = new HorizontalSky(WHEN, WHERE, catalogue, ObservedSky.Mode.EXACT);
+
+		for(HorizontalCoordinates center : List.of(HorizontalCoordinates.ofDeg(20, 22), HorizontalCoordinates.ofDeg(200, 70))) {
+			StereographicProjection projection = new StereographicProjection(center);
+			ObservedSky shared = new ObservedSky(horizontalSky, projection, null);
+			ObservedSky full = new ObservedSky(WHEN, WHERE, projection, catalogue, null);
+
+			assertSame(horizontalSky, shared.horizontalSky());
+			assertArrayEquals(full.starPositions(), shared.starPositions());
+			assertArrayEquals(full.planetPositions(), shared.planetPositions());
+			assertArrayEquals(full.eclipticPositions(), shared.eclipticPositions());
+			assertEquals(full.sunPosition().x(), shared.sunPosition().x());
+			assertEquals(full.moonPosition().y(), shared.moonPosition().y());
+		}
+	}
+
+	@Test
+	void horizontalSkyIsForSameInstantAndObserver() {
+		HorizontalSky horizontalSky = new HorizontalSky(WHEN, WHERE, randomCatalogue(10), ObservedSky.Mode.INCREMENTAL);
+
+		assertTrue(horizontalSky.isFor(WHEN.withZoneSameInstant(ZoneOffset.ofHours(2)), GeographicCoordinates.ofDeg(30, 45)));
+		assertFalse(horizontalSky.isFor(WHEN.plusSeconds(1), WHERE));
+		assertFalse(horizontalSky.isFor(WHEN, GeographicCoordinates.ofDeg(30, 46)));
+	}
+
+	@Test
+	void onlyStarsBrighterThanLimitingMagnitudeAreProjected() {
+		StarCatalogue catalogue = randomCatalogue(5_000);
+		StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.ofDeg(80, 40));
+		HorizontalSky horizontalSky = new HorizontalSky(WHEN, WHERE, catalogue, ObservedSky.Mode.INCREMENTAL);
+
+		double[] all = new ObservedSky(horizontalSky, projection, null).starPositions();
+		ObservedSky sky = new ObservedSky(horizontalSky, projection, null, 2.5);
+		double[] limited = sky.starPositions();
+
+		int visible = 0;
+		for(int i = 0; i < catalogue.stars().size(); ++i) {
+			if (catalogue.stars().get(i).magnitude() <= 2.5) {
+				++visible;
+				assertEquals(all[2 * i], limited[2 * i]);
+				assertEquals(all[2 * i + 1], limited[2 * i + 1]);
+			}
+			else {
+				assertTrue(Double.isNaN(limited[2 * i]) && Double.isNaN(limited[2 * i + 1]));
+			}
+		}
+
+		int[] visibleIndices = sky.visibleStarIndices();
+		assertEquals(visible, visibleIndices.length);
+		for(int k = 1; k < visibleIndices.length; ++k) {
+			assertTrue(catalogue.stars().get(visibleIndices[k - 1]).magnitude() <= catalogue.stars().get(visibleIndices[k]).magnitude());
+		}
+	}
+
+	@Test
+	void faintStarsAreNeitherFoundNorLostWhenSelected() {
+		StarCatalogue catalogue = randomCatalogue(2_000);
+		StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.ofDeg(80, 40));
+		HorizontalSky horizontalSky = new HorizontalSky(WHEN, WHERE, catalogue, ObservedSky.Mode.EXACT);
+		double[] all = new ObservedSky(horizontalSky, projection, null).starPositions();
+
+		int faint = 0;
+		while (catalogue.stars().get(faint).magnitude() <= 2)
+			++faint;
+
+		ObservedSky sky = new ObservedSky(horizontalSky, projection, "Star" + faint, 2);
+		assertEquals(all[2 * faint], sky.pathCoordinates().x());
+		assertEquals(all[2 * faint + 1], sky.pathCoordinates().y());
+
+		Optional<CelestialObject> closest = sky.objectClosestTo(CartesianCoordinates.of(all[2 * faint], all[2 * faint + 1]), 1e-3);
+		assertTrue(closest.isEmpty() || closest.get().magnitude() <= 2);
+	}
+
+	@Test
+	void starsOutsideOfViewConeAreCulled() {
+		StarCatalogue catalogue = randomCatalogue(20_000);
+		HorizontalSky horizontalSky = new HorizontalSky(WHEN, WHERE, catalogue, ObservedSky.Mode.EXACT);
+
+		for(HorizontalCoordinates center : List.of(HorizontalCoordinates.ofDeg(20, 22), HorizontalCoordinates.ofDeg(250, 85))) {
+			for(double radius : new double[] {0.3, 1.2, 2.5}) {
+				StereographicProjection projection = new StereographicProjection(center);
+				double[] all = new ObservedSky(horizontalSky, projection, null, 4).starPositions();
+				double[] culled = new ObservedSky(horizontalSky, projection, null, 4, radius).starPositions();
+
+				for(int i = 0; i < catalogue.stars().size(); ++i) {
+					HorizontalCoordinates horizontal = horizontalSky.starHorizontal(i);
+					double cosAngle = Math.sin(center.alt()) * Math.sin(horizontal.alt()) 
+							+ Math.cos(center.alt()) * Math.cos(horizontal.alt()) * Math.cos(center.az() - horizontal.az());
+					double angle = Math.acos(Math.max(-1, Math.min(1, cosAngle)));
+
+					if (angle < radius - 1e-9) {
+						assertEquals(all[2 * i], culled[2 * i]);
+						assertEquals(all[2 * i + 1], culled[2 * i + 1]);
+					}
+					else if (angle > radius + 1e-9) {
+						assertTrue(Double.isNaN(culled[2 * i]));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void refractedSkyRaisesAllObjectsAndKeepsVisibleStars() {
+		StarCatalogue catalogue = randomCatalogue(5_000);
+		AtmosphericRefraction refraction = AtmosphericRefraction.STANDARD;
+		HorizontalSky geometric = new HorizontalSky(WHEN, WHERE, catalogue, ObservedSky.Mode.EXACT);
+		HorizontalSky exact = new HorizontalSky(WHEN, WHERE, catalogue, ObservedSky.Mode.EXACT, refraction);
+		HorizontalSky incremental = new HorizontalSky(WHEN, WHERE, catalogue, ObservedSky.Mode.INCREMENTAL, refraction);
+
+		assertFalse(geometric.isRefracted());
+		assertTrue(exact.isRefracted());
+		assertEquals(refraction.apply(geometric.sunHorizontal()).alt(), exact.sunHorizontal().alt());
+		assertEquals(refraction.apply(geometric.moonHorizontal()).alt(), incremental.moonHorizontal().alt());
+
+		for(int i = 0; i < catalogue.stars().size(); ++i) {
+			HorizontalCoordinates expected = refraction.apply(geometric.starHorizontal(i));
+
+			assertEquals(expected.alt(), exact.starHorizontal(i).alt(), 1e-12);
+			assertEquals(expected.alt(), incremental.starHorizontal(i).alt(), Angle.ofArcsec(2));
+			assertEquals(Math.sin(expected.az()), Math.sin(incremental.starHorizontal(i).az()), 1e-9);
+		}
+
+		//Stars raised into a view cone close to the horizon are not culled
+		HorizontalCoordinates center = HorizontalCoordinates.ofDeg(40, 10);
+		double radius = Angle.ofDeg(10);
+		StereographicProjection projection = new StereographicProjection(center);
+		double[] culled = new ObservedSky(exact, projection, null, 4, radius).starPositions();
+
+		for(int i = 0; i < catalogue.stars().size(); ++i) {
+			HorizontalCoordinates horizontal = exact.starHorizontal(i);
+			double cosAngle = Math.sin(center.alt()) * Math.sin(horizontal.alt()) 
+					+ Math.cos(center.alt()) * Math.cos(horizontal.alt()) * Math.cos(center.az() - horizontal.az());
+
+			if (catalogue.stars().get(i).magnitude() <= 4 && cosAngle > Math.cos(radius))
+				assertFalse(Double.isNaN(culled[2 * i]));
+		}
+	}
+
+	@Test
+	void objectTableIsConsistentWithPositions() {
+		StarCatalogue catalogue = randomCatalogue(3_000);
+		StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.ofDeg(150, 30));
+		ObservedSky sky = new ObservedSky(new HorizontalSky(WHEN, WHERE, catalogue, ObservedSky.Mode.INCREMENTAL), projection, null, 3, 1.5);
+
+		double[] starPositions = sky.starPositions();
+		double[] planetPositions = sky.planetPositions();
+		int stars = 0;
+
+		for(int object = 0; object < sky.objectCount(); ++object) {
+			int index = sky.objectCatalogueIndex(object);
+
+			switch (sky.objectKind(object)) {
+			case STAR :
+				++stars;
+				assertSame(catalogue.stars().get(index), sky.object(object));
+				assertEquals(starPositions[2 * index], sky.objectX(object));
+				assertEquals(starPositions[2 * index + 1], sky.objectY(object));
+				break;
+
+			case PLANET :
+				assertSame(sky.planets().get(index), sky.object(object));
+				assertEquals(planetPositions[2 * index], sky.objectX(object));
+				assertEquals(planetPositions[2 * index + 1], sky.objectY(object));
+				break;
+
+			case SUN :
+				assertSame(sky.sun(), sky.object(object));
+				assertEquals(sky.sunPosition().x(), sky.objectX(object));
+				break;
+
+			case MOON :
+				assertSame(sky.moon(), sky.object(object));
+				assertEquals(sky.moonPosition().y(), sky.objectY(object));
+				break;
+			}
+
+			CartesianCoordinates position = CartesianCoordinates.of(sky.objectX(object), sky.objectY(object));
+			int closest = sky.objectIndexClosestTo(position, 1e-2);
+			assertEquals(sky.objectX(object), sky.objectX(closest));
+			assertEquals(sky.objectY(object), sky.objectY(closest));
+		}
+
+		assertEquals(sky.visibleStarIndices().length, stars);
+		assertEquals(stars + 2 + sky.planets().size(), sky.objectCount());
+		assertThrows(IndexOutOfBoundsException.class, () -> sky.objectKind(sky.objectCount()));
+		assertThrows(IndexOutOfBoundsException.class, () -> sky.objectX(-1));
+	}
+
+	@Test
+	void starPositionWorksForVisibleAndHiddenStars() {
+		StarCatalogue catalogue = randomCatalogue(2_000);
+		StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.ofDeg(10, 50));
+		HorizontalSky horizontalSky = new HorizontalSky(WHEN, WHERE, catalogue, ObservedSky.Mode.EXACT);
+		double[] all = new ObservedSky(horizontalSky, projection, null).starPositions();
+		ObservedSky sky = new ObservedSky(horizontalSky, projection, "Star42", 3, 0.5);
+
+		for(int i = 0; i < catalogue.stars().size(); ++i) {
+			assertEquals(all[2 * i], sky.starPosition(i).x());
+			assertEquals(all[2 * i + 1], sky.starPosition(i).y());
+		}
+
+		assertEquals(42, sky.selectedStarIndex());
+		assertEquals(all[84], sky.pathCoordinates().x());
+		assertEquals(-1, new ObservedSky(horizontalSky, projection, "Rigel").selectedStarIndex());
+		assertNull(new ObservedSky(horizontalSky, projection, null).pathCoordinates());
+		assertThrows(IndexOutOfBoundsException.class, () -> sky.starPosition(catalogue.stars().size()));
+	}
+
+	@Test
+	void positionViewsAreReadOnlyAndMatchArrays() {
+		StarCatalogue catalogue = randomCatalogue(500);
+		ObservedSky sky = new ObservedSky(WHEN, WHERE, new StereographicProjection(HorizontalCoordinates.ofDeg(40, 10)), catalogue, null);
+
+		List<DoubleBuffer> views = List.of(sky.starPositionsView(), sky.planetPositionsView(), sky.eclipticPositionsView(), sky.equatorialPositionsView());
+		List<double[]> arrays = List.of(sky.starPositions(), sky.planetPositions(), sky.eclipticPositions(), sky.equatorialPositions());
+
+		for(int i = 0; i < views.size(); ++i) {
+			DoubleBuffer view = views.get(i);
+			double[] array = arrays.get(i);
+
+			assertTrue(view.isReadOnly());
+			assertEquals(array.length, view.capacity());
+			for(int j = 0; j < array.length; ++j) {
+				assertEquals(array[j], view.get(j));
+			}
+			assertThrows(ReadOnlyBufferException.class, () -> view.put(0, 1));
+		}
+	}
+
+	@Test
+	void bufferedSkiesEqualFreshlyAllocatedOnes() {
+		StarCatalogue catalogue = randomCatalogue(2_000);
+		SkyFrameBuffers buffers = new SkyFrameBuffers(catalogue);
+
+		for(int frame = 0; frame < 5; ++frame) {
+			ZonedDateTime when = WHEN.plusMinutes(17 * frame);
+			StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.ofDeg(40 * frame, 5 * frame));
+
+			HorizontalSky horizontal = buffers.horizontalSky(when, WHERE, ObservedSky.Mode.INCREMENTAL);
+			ObservedSky buffered = buffers.observedSky(horizontal, projection, null, 5, 1.2);
+			ObservedSky fresh = new ObservedSky(new HorizontalSky(when, WHERE, catalogue, ObservedSky.Mode.INCREMENTAL), projection, null, 5, 1.2);
+
+			assertArrayEquals(fresh.starPositions(), buffered.starPositions());
+			assertArrayEquals(fresh.planetPositions(), buffered.planetPositions());
+			assertArrayEquals(fresh.eclipticPositions(), buffered.eclipticPositions());
+			assertArrayEquals(fresh.equatorialPositions(), buffered.equatorialPositions());
+			assertArrayEquals(fresh.visibleStarIndices(), buffered.visibleStarIndices());
+			assertEquals(fresh.sunPosition().x(), buffered.sunPosition().x());
+			assertEquals(fresh.moonPosition().y(), buffered.moonPosition().y());
+
+			for(int object = 0; object < fresh.objectCount(); ++object) {
+				CartesianCoordinates position = CartesianCoordinates.of(fresh.objectX(object), fresh.objectY(object));
+				assertEquals(fresh.objectIndexClosestTo(position, 1e-2), buffered.objectIndexClosestTo(position, 1e-2));
+			}
+		}
+	}
+
+	@Test
+	void bufferedSkiesInterpolateTheMoonAndPlanetsOfTheirEphemerisCache() {
+		StarCatalogue catalogue = randomCatalogue(100);
+		SkyFrameBuffers buffers = new SkyFrameBuffers(catalogue, new EphemerisCache(100, Runnable::run));
+
+		for(int frame = 0; frame < 5; ++frame) {
+			ZonedDateTime when = WHEN.plusMinutes(17 * frame);
+			HorizontalSky interpolated = buffers.horizontalSky(when, WHERE, ObservedSky.Mode.INCREMENTAL);
+			HorizontalSky exact = new HorizontalSky(when, WHERE, catalogue, ObservedSky.Mode.INCREMENTAL);
+
+			assertEquals(exact.moon().equatorialPos().dec(), interpolated.moon().equatorialPos().dec(), Angle.ofArcsec(0.05));
+			for(int i = 0; i < exact.planets().size(); ++i) {
+				assertEquals(exact.planets().get(i).name(), interpolated.planets().get(i).name());
+				assertEquals(exact.planets().get(i).equatorialPos().dec(), interpolated.planets().get(i).equatorialPos().dec(), Angle.ofArcsec(0.05));
+			}
+		}
+	}
+
+	@Test
+	void previousFrameStaysValidUntilItsStorageIsReused() {
+		StarCatalogue catalogue = randomCatalogue(1_000);
+		SkyFrameBuffers buffers = new SkyFrameBuffers(catalogue);
+		HorizontalSky horizontal = buffers.horizontalSky(WHEN, WHERE, ObservedSky.Mode.INCREMENTAL);
+
+		ObservedSky first = buffers.observedSky(horizontal, new StereographicProjection(HorizontalCoordinates.ofDeg(10, 20)), null, 6, Math.PI);
+		double[] firstPositions = first.starPositions();
+
+		ObservedSky second = buffers.observedSky(horizontal, new StereographicProjection(HorizontalCoordinates.ofDeg(200, 40)), null, 6, Math.PI);
+		assertArrayEquals(firstPositions, first.starPositions());
+
+		ObservedSky third = buffers.observedSky(horizontal, new StereographicProjection(HorizontalCoordinates.ofDeg(300, 60)), null, 6, Math.PI);
+		assertArrayEquals(third.starPositions(), first.starPositions());
+		assertFalse(Arrays.equals(firstPositions, first.starPositions()));
+		assertFalse(Arrays.equals(second.starPositions(), third.starPositions()));
+	}
+
+	@Test
+	void frameBuffersRejectSkiesOfAnotherCatalogue() {
+		SkyFrameBuffers buffers = new SkyFrameBuffers(randomCatalogue(100));
+		HorizontalSky other = new HorizontalSky(WHEN, WHERE, randomCatalogue(100), ObservedSky.Mode.INCREMENTAL);
+
+		assertThrows(IllegalArgumentException.class, () -> buffers.observedSky(other, new StereographicProjection(HorizontalCoordinates.ofDeg(0, 0)), null, 6, Math.PI));
+	}
+}
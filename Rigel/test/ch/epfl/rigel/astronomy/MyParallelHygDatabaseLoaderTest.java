@@ -0,0 +1,136 @@
+package ch.epfl.rigel.astronomy;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ch.epfl.rigel.astronomy.HygTestStars.assertSameStars;
+import static ch.epfl.rigel.astronomy.HygTestStars.hygBytes;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class MyParallelHygDatabaseLoaderTest {
+
+	private static List<Star> sequential(byte[] bytes) throws IOException {
+		return new StarCatalogue.Builder().loadFrom(new ByteArrayInputStream(bytes), HygDatabaseLoader.INSTANCE).stars();
+	}
+
+	private static List<Star> parallel(byte[] bytes, int chunkBytes) throws IOException {
+		StarCatalogue.Builder builder = new StarCatalogue.Builder();
+		ParallelHygDatabaseLoader.load(bytes, chunkBytes, builder);
+		return builder.stars();
+	}
+
+	//HYG database whose stars are repeated, as large as the complete database
+	private static byte[] largeHygBytes(int copies) throws IOException {
+		byte[] bytes = hygBytes();
+		int start = HygDatabaseLoader.nextLine(bytes, 0, bytes.length);
+
+		ByteArrayOutputStream large = new ByteArrayOutputStream();
+		large.write(bytes, 0, start);
+		for(int i = 0; i < copies; ++i) {
+			large.write(bytes, start, bytes.length - start);
+		}
+
+		return large.toByteArray();
+	}
+
+	@Test
+	void parallelLoaderGivesSameStarsInSameOrderForAllChunkSizes() throws IOException {
+		byte[] bytes = hygBytes();
+		List<Star> expected = sequential(bytes);
+
+		for(int chunkBytes : new int[] {1, 7, 64, 1_000, 4_096, 100_000, 1 << 20, Integer.MAX_VALUE}) {
+			assertSameStars(expected, parallel(bytes, chunkBytes));
+		}
+	}
+
+	@Test
+	void parallelLoaderGivesSameCatalogueOnLargeDatabase() throws IOException {
+		byte[] bytes = largeHygBytes(24);
+
+		StarCatalogue.Builder expected = new StarCatalogue.Builder()
+				.loadFrom(new ByteArrayInputStream(bytes), HygDatabaseLoader.INSTANCE);
+		StarCatalogue.Builder actual = new StarCatalogue.Builder()
+				.loadFrom(new ByteArrayInputStream(bytes), ParallelHygDatabaseLoader.INSTANCE);
+
+		assertEquals(24 * 5067, actual.stars().size());
+		assertSameStars(expected.stars(), actual.stars());
+
+		//The asterisms are resolved to the same indexes, those of the last copy of each star
+		StarCatalogue expectedCatalogue, actualCatalogue;
+		try (InputStream as = getClass().getResourceAsStream("/asterisms.txt")) {
+			expectedCatalogue = expected.loadFrom(as, AsterismLoader.INSTANCE).build();
+		}
+		try (InputStream as = getClass().getResourceAsStream("/asterisms.txt")) {
+			actualCatalogue = actual.loadFrom(as, AsterismLoader.INSTANCE).build();
+		}
+
+		assertEquals(153, actual.asterisms().size());
+		for(int i = 0; i < actual.asterisms().size(); ++i) {
+			List<Integer> indices = actualCatalogue.asterismIndices(actual.asterisms().get(i));
+
+			assertEquals(expectedCatalogue.asterismIndices(expected.asterisms().get(i)), indices);
+			for(int index : indices) {
+				assertTrue(index >= 23 * 5067);
+			}
+		}
+	}
+
+	@Test
+	void parallelLoaderReadsFiles() throws IOException {
+		byte[] bytes = hygBytes();
+		Path file = Files.createTempFile("hyg", ".csv");
+
+		try {
+			Files.write(file, bytes);
+			StarCatalogue.Builder builder = new StarCatalogue.Builder();
+			ParallelHygDatabaseLoader.INSTANCE.load(file, builder);
+
+			assertSameStars(sequential(bytes), builder.stars());
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void parallelLoaderHandlesLineEndingsAndEmptyLines() throws IOException {
+		String text = "HEADER\r\n"
+				+ "1,2,,,,,,0,0,0,0,0,,1,,,1,0,0,0,0,0,0,1,1,,,,,Ori\r\n"
+				+ "\r\n"
+				+ "2,3,,,,,Rigel,0,0,0,0,0,,0.5,,,0.1,0,0,0,0,0,0,2,0.5,1e-8,-1e-8,Bet,,Ori\n"
+				+ "\n"
+				+ "3,,,,,,,0,0,0,0,0,,,,,,0,0,0,0,0,0,3,-0.5,,,Alp,,CMa";
+		byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+
+		for(int chunkBytes = 1; chunkBytes < bytes.length + 2; ++chunkBytes) {
+			List<Star> stars = parallel(bytes, chunkBytes);
+
+			assertEquals(3, stars.size());
+			assertSameStars(sequential(bytes), stars);
+		}
+
+		assertEquals(0, parallel(new byte[0], 1).size());
+		assertEquals(0, parallel("HEADER".getBytes(StandardCharsets.US_ASCII), 1).size());
+	}
+
+	@Test
+	void parallelLoaderFailsOnInvalidLines() throws IOException {
+		byte[] bytes = hygBytes();
+
+		byte[] missingColumns = new String(bytes, StandardCharsets.US_ASCII).concat("1,2,3,,,Sirius\n").getBytes(StandardCharsets.US_ASCII);
+		assertThrows(IOException.class, () -> parallel(missingColumns, 4_096));
+
+		byte[] invalidNumber = new String(bytes, StandardCharsets.US_ASCII)
+				.concat("1,x,,,,,,0,0,0,0,0,,1,,,1,0,0,0,0,0,0,1,1,,,,,Ori\n").getBytes(StandardCharsets.US_ASCII);
+		assertThrows(NumberFormatException.class, () -> parallel(invalidNumber, 4_096));
+
+		assertThrows(IllegalArgumentException.class, () -> parallel(bytes, 0));
+	}
+}
@@ -1,6 +1,7 @@
 package ch.epfl.rigel.astronomy;
 
 import static java.time.ZonedDateTime.of;
+import static ch.epfl.rigel.astronomy.ModelBatchAssertions.assertBatchGivesSamePositionsAsSingleInstants;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDate;
@@ -11,6 +12,8 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
 import ch.epfl.rigel.coordinates.EquatorialCoordinates;
@@ -88,4 +91,10 @@ public class MyPlanetModelTest {
 		//System.out.println(test9);
 		
 	}
+
+	@ParameterizedTest
+	@EnumSource(value = PlanetModel.class, names = "EARTH", mode = EnumSource.Mode.EXCLUDE)
+	void batchGivesSamePositionsAsSingleInstants(PlanetModel planet) {
+		assertBatchGivesSamePositionsAsSingleInstants(planet);
+	}
 }
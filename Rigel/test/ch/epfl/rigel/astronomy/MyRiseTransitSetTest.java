@@ -0,0 +1,185 @@
+package ch.epfl.rigel.astronomy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.math.Angle;
+import ch.epfl.test.TestRandomizer;
+
+public class MyRiseTransitSetTest {
+
+	private static final GeographicCoordinates LAUSANNE = GeographicCoordinates.ofDeg(6.57, 46.52);
+	private static final ZonedDateTime J2010 = ZonedDateTime.of(LocalDate.of(2009, Month.DECEMBER, 31), LocalTime.MIDNIGHT, ZoneOffset.UTC);
+	private static final ZonedDateTime START = ZonedDateTime.of(LocalDate.of(2020, Month.JUNE, 21), LocalTime.MIDNIGHT, ZoneId.of("Europe/Zurich"));
+
+	private static ZonedDateTime instant(double daysSinceJ2010) {
+		return J2010.plusNanos(Math.round(daysSinceJ2010 * 86_400e9));
+	}
+
+	private static HorizontalCoordinates horizontal(EquatorialCoordinates equatorial, double daysSinceJ2010) {
+		return new EquatorialToHorizontalConversion(instant(daysSinceJ2010), LAUSANNE).apply(equatorial);
+	}
+
+	private static double hourAngle(HorizontalCoordinates horizontal) {
+		//Zero hour angle : the object is due south, or due north if it culminates north of the zenith
+		double az = horizontal.az();
+		return Math.min(Math.abs(az - Math.PI), Math.min(az, Angle.TAU - az));
+	}
+
+	@Test
+	void fixedObjectsCrossHorizonAndMeridianAtComputedTimes() {
+		SplittableRandom rng = TestRandomizer.newRandom();
+		int count = 500, days = 30;
+		double[] ra = new double[count], dec = new double[count];
+
+		for(int i = 0; i < count; ++i) {
+			ra[i] = rng.nextDouble(0, Angle.TAU);
+			dec[i] = rng.nextDouble(-Math.PI / 2, Math.PI / 2);
+		}
+
+		double[] rise = new double[count * days], transit = new double[count * days], set = new double[count * days];
+		RiseTransitSet.ofFixed(ra, dec, RiseTransitSet.STANDARD_ALTITUDE, LAUSANNE, START, days, rise, transit, set);
+		double firstDay = Epoch.J2010.daysUntil(START);
+
+		for(int i = 0; i < count; ++i) {
+			EquatorialCoordinates equatorial = EquatorialCoordinates.of(ra[i], dec[i]);
+			boolean circumpolar = Angle.toDeg(dec[i]) > 90 - 46.52 - 0.5;
+			boolean neverRises = Angle.toDeg(dec[i]) < -(90 - 46.52) - 0.6;
+
+			for(int d = 0; d < days; ++d) {
+				int k = i * days + d;
+
+				assertTrue(firstDay + d <= transit[k] && transit[k] < firstDay + d + 1);
+				assertEquals(0, hourAngle(horizontal(equatorial, transit[k])), 1e-5);
+
+				if (circumpolar || neverRises) {
+					assertTrue(Double.isNaN(rise[k]) && Double.isNaN(set[k]));
+				}
+				else if (!Double.isNaN(rise[k])) {
+					assertTrue(firstDay + d <= rise[k] && rise[k] < firstDay + d + 1);
+					assertTrue(firstDay + d <= set[k] && set[k] < firstDay + d + 1);
+					assertEquals(RiseTransitSet.STANDARD_ALTITUDE, horizontal(equatorial, rise[k]).alt(), 1e-5);
+					assertEquals(RiseTransitSet.STANDARD_ALTITUDE, horizontal(equatorial, set[k]).alt(), 1e-5);
+					assertTrue(horizontal(equatorial, rise[k]).az() < Math.PI);
+					assertTrue(horizontal(equatorial, set[k]).az() > Math.PI);
+				}
+			}
+		}
+	}
+
+	@Test
+	void namedStarsOfCatalogueAreComputedInOrderAtTheirPositionsOfDate() throws IOException {
+		StarCatalogue catalogue;
+		try (InputStream hygStream = getClass().getResourceAsStream("/hygdata_v3.csv")) {
+			catalogue = new StarCatalogue.Builder().loadFrom(hygStream, HygDatabaseLoader.INSTANCE).build();
+		}
+
+		int stars = catalogue.getStarNames().size(), days = 365;
+		double[] rise = new double[stars * days], transit = new double[stars * days], set = new double[stars * days];
+		RiseTransitSet.ofStars(catalogue, LAUSANNE, START, days, rise, transit, set);
+
+		int rigel = catalogue.getStarNames().indexOf("Rigel");
+		int rank = catalogue.rankOfStarIndex(catalogue.starIndexOf("Rigel"));
+		StarCatalogue.Positions positions = catalogue.positionsAt(START);
+		double[] expectedRise = new double[days], expectedTransit = new double[days], expectedSet = new double[days];
+		RiseTransitSet.ofFixed(new double[] {positions.ra()[rank]}, new double[] {positions.dec()[rank]}, RiseTransitSet.STANDARD_ALTITUDE,
+				LAUSANNE, START, days, expectedRise, expectedTransit, expectedSet);
+
+		for(int d = 0; d < days; ++d) {
+			assertEquals(expectedRise[d], rise[rigel * days + d]);
+			assertEquals(expectedTransit[d], transit[rigel * days + d]);
+			assertEquals(expectedSet[d], set[rigel * days + d]);
+		}
+
+		//Rigel transits about 3 min 56 s earlier every day
+		assertEquals(1 - 1 / 1.002737909, expectedTransit[0] + 1 - expectedTransit[1], 1e-9);
+
+		//The precession since J2000 delays the transit of Rigel by about one minute in 2020
+		Star star = catalogue.stars().get(catalogue.starIndexOf("Rigel"));
+		double[] j2000Rise = new double[days], j2000Transit = new double[days], j2000Set = new double[days];
+		RiseTransitSet.ofObject(star, RiseTransitSet.STANDARD_ALTITUDE, LAUSANNE, START, days, j2000Rise, j2000Transit, j2000Set);
+		assertEquals(1.0 / (24 * 60), transit[rigel * days] - j2000Transit[0], 0.5 / (24 * 60));
+	}
+
+	@Test
+	void sunRisesAndSetsAtKnownTimes() {
+		int days = 3;
+		double[] rise = new double[days], transit = new double[days], set = new double[days];
+		RiseTransitSet.ofModel(SunModel.SUN, RiseTransitSet.SUN_ALTITUDE, LAUSANNE, START, days, rise, transit, set);
+
+		for(int d = 0; d < days; ++d) {
+			ZonedDateTime sunrise = instant(rise[d]).withZoneSameInstant(START.getZone());
+			ZonedDateTime sunset = instant(set[d]).withZoneSameInstant(START.getZone());
+
+			//Sunrise at about 5:38 and sunset at about 21:28 in Lausanne at the summer solstice
+			assertEquals(5 * 60 + 38, sunrise.getHour() * 60 + sunrise.getMinute(), 3);
+			assertEquals(21 * 60 + 28, sunset.getHour() * 60 + sunset.getMinute(), 3);
+
+			for(double time : new double[] {rise[d], set[d]}) {
+				Sun sun = SunModel.SUN.at(time, new EclipticToEquatorialConversion(instant(time)));
+				assertEquals(RiseTransitSet.SUN_ALTITUDE, horizontal(sun.equatorialPos(), time).alt(), 1e-5);
+			}
+
+			Sun sun = SunModel.SUN.at(transit[d], new EclipticToEquatorialConversion(instant(transit[d])));
+			assertEquals(Math.PI, horizontal(sun.equatorialPos(), transit[d]).az(), 1e-5);
+		}
+	}
+
+	@Test
+	void moonEventsMatchItsAltitude() {
+		int days = 60, rises = 0, sets = 0, transits = 0;
+		double[] rise = new double[days], transit = new double[days], set = new double[days];
+		RiseTransitSet.ofModel(MoonModel.MOON, RiseTransitSet.MOON_ALTITUDE, LAUSANNE, START, days, rise, transit, set);
+
+		for(int d = 0; d < days; ++d) {
+			if (!Double.isNaN(rise[d])) {
+				++rises;
+				Moon moon = MoonModel.MOON.at(rise[d], new EclipticToEquatorialConversion(instant(rise[d])));
+				assertEquals(RiseTransitSet.MOON_ALTITUDE, horizontal(moon.equatorialPos(), rise[d]).alt(), 1e-4);
+			}
+
+			if (!Double.isNaN(set[d])) {
+				++sets;
+				Moon moon = MoonModel.MOON.at(set[d], new EclipticToEquatorialConversion(instant(set[d])));
+				assertEquals(RiseTransitSet.MOON_ALTITUDE, horizontal(moon.equatorialPos(), set[d]).alt(), 1e-4);
+			}
+
+			if (!Double.isNaN(transit[d])) {
+				++transits;
+				Moon moon = MoonModel.MOON.at(transit[d], new EclipticToEquatorialConversion(instant(transit[d])));
+				assertEquals(0, hourAngle(horizontal(moon.equatorialPos(), transit[d])), 1e-4);
+			}
+		}
+
+		//The Moon rises about 50 minutes later every day : one day out of about thirty has no rise, set or transit
+		assertTrue(rises >= days - 3 && sets >= days - 3 && transits >= days - 3);
+	}
+
+	@Test
+	void arraysOfWrongSizeAreRejected() {
+		double[] one = new double[1], two = new double[2];
+
+		assertThrows(IllegalArgumentException.class,
+				() -> RiseTransitSet.ofFixed(one, one, 0, LAUSANNE, START, 2, one, one, one));
+		assertThrows(IllegalArgumentException.class,
+				() -> RiseTransitSet.ofFixed(one, two, 0, LAUSANNE, START, 1, one, one, one));
+		assertThrows(IllegalArgumentException.class,
+				() -> RiseTransitSet.ofModel(SunModel.SUN, 0, LAUSANNE, START, 2, two, two, one));
+	}
+}
@@ -0,0 +1,75 @@
+package ch.epfl.rigel.astronomy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+import ch.epfl.rigel.math.Angle;
+import ch.epfl.test.TestRandomizer;
+
+public class MySolarSystemStateTest {
+
+	private static final ZonedDateTime WHEN = ZonedDateTime.of(LocalDate.of(2003, Month.NOVEMBER, 22), LocalTime.of(0, 0), ZoneOffset.UTC);
+
+	private static void assertSameObject(CelestialObject expected, CelestialObject actual) {
+		assertEquals(expected.name(), actual.name());
+		assertEquals(expected.equatorialPos().ra(), actual.equatorialPos().ra());
+		assertEquals(expected.equatorialPos().dec(), actual.equatorialPos().dec());
+		assertEquals(expected.angularSize(), actual.angularSize());
+		assertEquals(expected.magnitude(), actual.magnitude());
+	}
+
+	@Test
+	void modelsGiveSameObjectsFromState() {
+		SplittableRandom rng = TestRandomizer.newRandom();
+
+		for(int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; ++i) {
+			ZonedDateTime when = WHEN.plusMinutes(rng.nextInt(-10_000_000, 10_000_000));
+			double days = Epoch.J2010.daysUntil(when);
+			EclipticToEquatorialConversion conversion = new EclipticToEquatorialConversion(when);
+			SolarSystemState state = new SolarSystemState(days, conversion);
+
+			assertSameObject(SunModel.SUN.at(days, conversion), SunModel.SUN.at(state));
+			assertSameObject(MoonModel.MOON.at(days, conversion), MoonModel.MOON.at(state));
+			assertEquals(MoonModel.MOON.at(days, conversion).info(), MoonModel.MOON.at(state).info());
+
+			for(PlanetModel planet : PlanetModel.ALL) {
+				if (planet != PlanetModel.EARTH)
+					assertSameObject(planet.at(days, conversion), planet.at(state));
+			}
+		}
+	}
+
+	@Test
+	void stateIsComputedForGivenInstant() {
+		SolarSystemState state = SolarSystemState.at(WHEN);
+
+		assertEquals(Epoch.J2010.daysUntil(WHEN), state.daysSinceJ2010());
+		assertSame(state.sun(), SunModel.SUN.at(state));
+		assertEquals(SunModel.SUN.at(state.daysSinceJ2010(), state.eclipticToEquatorialConversion()).eclipticPos().lon(),
+				state.sun().eclipticPos().lon());
+	}
+
+	@Test
+	void earthOrbitIsConsistentWithSun() {
+		SolarSystemState state = SolarSystemState.at(WHEN);
+
+		//The Sun is seen from the Earth in the direction opposite to the heliocentric longitude of the Earth
+		double difference = state.earthLongitude() - state.sun().eclipticPos().lon();
+		assertEquals(Math.PI, Angle.normalizePositive(difference), 1e-2);
+		assertEquals(1, state.earthRadius(), 2e-2);
+	}
+
+	@Test
+	void constructorFailsOnNullConversion() {
+		assertThrows(NullPointerException.class, () -> new SolarSystemState(0, null));
+	}
+}
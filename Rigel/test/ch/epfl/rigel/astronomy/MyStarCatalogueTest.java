@@ -1,16 +1,179 @@
 package ch.epfl.rigel.astronomy;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
-import org.junit.Test;
+import org.junit.jupiter.api.Test;
 
+import ch.epfl.rigel.astronomy.ObservedSky.Mode;
 import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.PrecessionConversion;
+import ch.epfl.rigel.math.Angle;
+import ch.epfl.test.TestRandomizer;
 
 public class MyStarCatalogueTest {
 
-	
-	
+	private static final float[] MAGNITUDES = {3.5f, -1.2f, 5.9f, 3.5f, 0.4f, 6.0f, 3.5f};
+
+	private static List<Star> stars() {
+		List<Star> stars = new ArrayList<Star>();
+
+		for(int i = 0; i < MAGNITUDES.length; ++i) {
+			stars.add(new Star(i + 1, "Star" + i, EquatorialCoordinates.of(0.1 * i, 0.05 * i), MAGNITUDES[i], 0.5f));
+		}
+
+		return stars;
+	}
+
+	@Test
+	void builderFindsStarsByHipparcosIdLikeItsMap() {
+		var rng = TestRandomizer.newRandom();
+		StarCatalogue.Builder builder = new StarCatalogue.Builder();
+
+		//Enough stars to grow the index several times, with repeated ids among which 0, the id of the stars out of Hipparcos
+		for(int i = 0; i < 20_000; ++i) {
+			int hip = i % 10 == 0 ? 0 : rng.nextInt(1, 15_000);
+			builder.addStar(new Star(hip, "Star" + i, EquatorialCoordinates.of(0, 0), 1f, 0f));
+		}
+
+		Map<Integer, Star> map = builder.map();
+
+		for(int hip = -5; hip < 16_000; ++hip) {
+			assertSame(map.get(hip), builder.starOfHipparcosId(hip));
+		}
+		assertSame(builder.stars().get(19_990), builder.starOfHipparcosId(0));
+	}
+
+	@Test
+	void magnitudeOrderIsSortedAndStable() {
+		StarCatalogue catalogue = new StarCatalogue(stars(), List.of());
+		int[] expected = {1, 4, 0, 3, 6, 2, 5};
+
+		for(int rank = 0; rank < expected.length; ++rank) {
+			assertEquals(expected[rank], catalogue.starIndexOfRank(rank));
+		}
+	}
+
+	@Test
+	void countBrighterThanWorks() {
+		StarCatalogue catalogue = new StarCatalogue(stars(), List.of());
+
+		assertEquals(0, catalogue.countBrighterThan(-2));
+		assertEquals(1, catalogue.countBrighterThan(-1.2f));
+		assertEquals(2, catalogue.countBrighterThan(3.4));
+		assertEquals(5, catalogue.countBrighterThan(3.5f));
+		assertEquals(6, catalogue.countBrighterThan(5.95));
+		assertEquals(7, catalogue.countBrighterThan(Double.POSITIVE_INFINITY));
+		assertEquals(0, new StarCatalogue(List.of(), List.of()).countBrighterThan(6));
+	}
+
+	@Test
+	void columnsFollowMagnitudeOrderAndAsterismIndicesDoNot() {
+		List<Star> stars = stars();
+		Asterism asterism = new Asterism(List.of(stars.get(2), stars.get(1), stars.get(5)));
+		StarCatalogue catalogue = new StarCatalogue(stars, List.of(asterism));
+
+		assertEquals(List.of(2, 1, 5), catalogue.asterismIndices(asterism));
+
+		for(int rank = 0; rank < stars.size(); ++rank) {
+			Star star = stars.get(catalogue.starIndexOfRank(rank));
+			assertEquals(star.equatorialPos().ra(), catalogue.raColumn()[rank]);
+			assertEquals(star.equatorialPos().dec(), catalogue.decColumn()[rank]);
+		}
+	}
+
+	@Test
+	void starIndexOfAndRanksWork() {
+		List<Star> stars = new ArrayList<Star>(stars());
+		stars.add(new Star(100, "Star2", EquatorialCoordinates.of(1, 0), 1f, 0.5f));
+		StarCatalogue catalogue = new StarCatalogue(stars, List.of());
+
+		for(int i = 0; i < MAGNITUDES.length; ++i) {
+			assertEquals(i, catalogue.starIndexOf("Star" + i));
+			assertEquals(i, catalogue.starIndexOfRank(catalogue.rankOfStarIndex(i)));
+		}
+
+		assertEquals(-1, catalogue.starIndexOf("Rigel"));
+		assertEquals(-1, catalogue.starIndexOf(null));
+	}
+
+	@Test
+	void starsAreMovedAndPrecessedToEpochBucket() {
+		//Barnard's star, the fastest star on the sky, and a fixed star
+		double pmRa = Angle.ofArcsec(-0.79858), pmDec = Angle.ofArcsec(10.32812), dec = Angle.ofDeg(4.693391);
+		Star barnard = new Star(87937, "Barnard's Star", EquatorialCoordinates.of(Angle.ofDeg(269.452075), dec), 9.54f, 1.57f, pmRa, pmDec);
+		Star fixed = new Star(1, "Fixed", EquatorialCoordinates.of(1, 0.5), 3f, 0.5f);
+		StarCatalogue catalogue = new StarCatalogue(List.of(barnard, fixed), List.of());
+		int barnardRank = catalogue.rankOfStarIndex(0), fixedRank = catalogue.rankOfStarIndex(1);
+
+		//J2100 is the middle of its epoch bucket, one julian century after J2000
+		ZonedDateTime j2100 = ZonedDateTime.of(LocalDate.of(2100, Month.JANUARY, 1), LocalTime.NOON, ZoneOffset.UTC);
+		StarCatalogue.Positions positions = catalogue.positionsAt(j2100);
+		PrecessionConversion precession = new PrecessionConversion(1);
+
+		EquatorialCoordinates movedBarnard = precession.apply(EquatorialCoordinates.of(barnard.equatorialPos().ra() + 100 * pmRa / Math.cos(dec), dec + 100 * pmDec));
+		assertEquals(movedBarnard.ra(), positions.ra()[barnardRank], Angle.ofArcsec(0.5));
+		assertEquals(movedBarnard.dec(), positions.dec()[barnardRank], Angle.ofArcsec(0.5));
+
+		EquatorialCoordinates movedFixed = precession.apply(fixed.equatorialPos());
+		assertEquals(movedFixed.ra(), positions.ra()[fixedRank], 1e-12);
+		assertEquals(movedFixed.dec(), positions.dec()[fixedRank], 1e-12);
+
+		//Unit vectors consistent with the coordinates
+		assertEquals(Math.sin(positions.dec()[barnardRank]), positions.unitZ()[barnardRank], 1e-12);
+		assertEquals(Math.cos(positions.dec()[barnardRank]) * Math.cos(positions.ra()[barnardRank]), positions.unitX()[barnardRank], 1e-12);
+
+		//The positions are reused within the bucket
+		assertSame(positions, catalogue.positionsAt(j2100.plusDays(10)));
+		assertNotSame(positions, catalogue.positionsAt(j2100.plusDays(30)));
+
+		//Alternating between a few buckets does not recompute them, the least recently used one being evicted beyond them
+		StarCatalogue.Positions next = catalogue.positionsAt(j2100.plusDays(30));
+		for(int i = 0; i < 10; ++i) {
+			assertSame(positions, catalogue.positionsAt(j2100.plusDays(i % 2 == 0 ? 5 : 15)));
+			assertSame(next, catalogue.positionsAt(j2100.plusDays(30 + i)));
+		}
+		for(int years = 1; years <= 4; ++years)
+			catalogue.positionsAt(j2100.plusYears(years));
+		assertNotSame(positions, catalogue.positionsAt(j2100));
+
+		EquatorialCoordinates moved = new HorizontalSky(j2100, GeographicCoordinates.ofDeg(6.57, 46.52), catalogue, Mode.EXACT).starEquatorial(0);
+		assertEquals(positions.dec()[barnardRank], moved.dec());
+	}
+
+	@Test
+	void catalogueIsUsedAsIsAroundItsEpoch() {
+		StarCatalogue catalogue = new StarCatalogue(stars(), List.of());
+		ZonedDateTime j2000 = ZonedDateTime.of(LocalDate.of(2000, Month.JANUARY, 1), LocalTime.NOON, ZoneOffset.UTC);
+
+		assertSame(catalogue.raColumn(), catalogue.positionsAt(j2000.plusDays(10)).ra());
+		assertSame(catalogue.unitXColumn(), catalogue.positionsAt(j2000.minusDays(10)).unitX());
+		assertNotSame(catalogue.raColumn(), catalogue.positionsAt(j2000.plusYears(500)).ra());
+
+		double[] direction = {0.6, 0.0, 0.8};
+		assertSame(direction, catalogue.positionsAt(j2000).toCatalogueFrame(direction));
+	}
+
+	@Test
+	void properMotionsAreLoadedFromHygDatabase() throws IOException {
+		StarCatalogue catalogue;
+		try (InputStream hygStream = getClass().getResourceAsStream("/hygdata_v3.csv")) {
+			catalogue = new StarCatalogue.Builder().loadFrom(hygStream, HygDatabaseLoader.INSTANCE).build();
+		}
+
+		Star rigel = catalogue.stars().get(catalogue.starIndexOf("Rigel"));
+		assertEquals(0.00000000906601582638889, rigel.properMotionRa());
+		assertEquals(-0.000000002714956, rigel.properMotionDec());
+	}
 }
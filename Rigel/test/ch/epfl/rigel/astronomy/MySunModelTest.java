@@ -1,6 +1,7 @@
 package ch.epfl.rigel.astronomy;
 
 import static java.time.ZonedDateTime.of;
+import static ch.epfl.rigel.astronomy.ModelBatchAssertions.assertBatchGivesSamePositionsAsSingleInstants;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDate;
@@ -238,4 +239,18 @@ public class MySunModelTest {
         assertEquals(0.00932283978909254, angSz4, 1e-8);
     }
 
+	@Test
+	void batchGivesSamePositionsAsSingleInstants() {
+		assertBatchGivesSamePositionsAsSingleInstants(SunModel.SUN);
+	}
+
+	@Test
+	void batchGivesSameMagnitudeAsSingleInstants() {
+		double[] days = {-1000, 0, 4000}, ra = new double[3], dec = new double[3], magnitude = new double[3], angularSize = new double[3];
+		SunModel.SUN.at(days, ra, dec, magnitude, angularSize);
+
+		for(int i = 0; i < days.length; ++i) {
+			assertEquals(SunModel.SUN.at(days[i], new EclipticToEquatorialConversion(Epoch.J2010.plusDays(days[i]))).magnitude(), magnitude[i]);
+		}
+	}
 }
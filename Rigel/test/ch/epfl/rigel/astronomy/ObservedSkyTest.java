@@ -1,6 +1,7 @@
 package ch.epfl.rigel.astronomy;
 
 import ch.epfl.rigel.coordinates.*;
+import ch.epfl.rigel.math.Angle;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
@@ -39,7 +40,7 @@ class ObservedSkyTest {
             var geoCoords = GeographicCoordinates.ofDeg(30, 45);
             var stereographic = new StereographicProjection(HorizontalCoordinates.ofDeg(20, 22));
             var equToHor = new EquatorialToHorizontalConversion(ZDT_FRAMAPAD, geoCoords);
-            var observedSky = new ObservedSky(ZDT_FRAMAPAD, geoCoords, stereographic, test);
+            var observedSky = new ObservedSky(ZDT_FRAMAPAD, geoCoords, stereographic, test, null);
 
             int i=0;
             for(Planet p : observedSky.planets()){
@@ -70,17 +71,27 @@ class ObservedSkyTest {
             var geoCoords = GeographicCoordinates.ofDeg(30, 45);
             var stereographic = new StereographicProjection(HorizontalCoordinates.ofDeg(20, 22));
             var equToHor = new EquatorialToHorizontalConversion(ZDT_FRAMAPAD, geoCoords);
-            var observedSky = new ObservedSky(ZDT_FRAMAPAD, geoCoords, stereographic, test);
+            var observedSky = new ObservedSky(ZDT_FRAMAPAD, geoCoords, stereographic, test, null);
+
+            //Julian years between the epoch of the catalogue and the date of observation
+            double years = Epoch.J2000.daysUntil(ZDT_FRAMAPAD) / 365.25;
+            var precession = new PrecessionConversion(ZDT_FRAMAPAD);
 
             int i=0;
             for(Star s : observedSky.stars()){
-                var horCoords = equToHor.apply(s.equatorialPos());
-                var cartCoords = stereographic.apply(horCoords);
-
-                double expectedX = cartCoords.x();
-                double expectedY = cartCoords.y();
-                assertEquals(expectedX, observedSky.starPositions()[i]);
-                assertEquals(expectedY, observedSky.starPositions()[i+1]);
+                //Position moved by the proper motion of the star and precessed to the date of observation
+                double dec = s.equatorialPos().dec() + years * s.properMotionDec();
+                double ra = s.equatorialPos().ra() + years * s.properMotionRa() / Math.cos(s.equatorialPos().dec());
+                var equCoords = precession.apply(EquatorialCoordinates.of(Angle.normalizePositive(ra), dec));
+                var cartCoords = stereographic.apply(equToHor.apply(equCoords));
+
+                //The catalogue moves the stars to the middle of the 0.1-year bucket of the date, at most 3 arcseconds away,
+                //the distances being scaled by the stereographic projection by (1 + r^2) / 2 at a distance r of the center
+                double r = Math.hypot(cartCoords.x(), cartCoords.y());
+                double delta = Angle.ofArcsec(4) * (1 + r * r) / 2;
+
+                assertEquals(cartCoords.x(), observedSky.starPositions()[i], delta);
+                assertEquals(cartCoords.y(), observedSky.starPositions()[i+1], delta);
                 i+=2;
             }
         }
@@ -101,7 +112,7 @@ class ObservedSkyTest {
             var geoCoords = GeographicCoordinates.ofDeg(30, 45);
             var stereographic = new StereographicProjection(HorizontalCoordinates.ofDeg(20, 22));
             var equToHor = new EquatorialToHorizontalConversion(ZDT_FRAMAPAD, geoCoords);
-            var observedSky = new ObservedSky(ZDT_FRAMAPAD, geoCoords, stereographic, test);
+            var observedSky = new ObservedSky(ZDT_FRAMAPAD, geoCoords, stereographic, test, null);
 
             var equCoords = EquatorialCoordinates.of(0.004696959812148989,-0.861893035343076);
             var horCoords = equToHor.apply(equCoords);
@@ -131,7 +142,7 @@ class ObservedSkyTest {
             var geoCoords = GeographicCoordinates.ofDeg(0, 0); //TO CHANGE
             var stereographic = new StereographicProjection(HorizontalCoordinates.ofDeg(0, 0)); //TO CHANGE
             var equToHor = new EquatorialToHorizontalConversion(ZDT_SEMESTER_START, geoCoords);
-            var observedSky = new ObservedSky(ZDT_SEMESTER_START, geoCoords, stereographic, test);
+            var observedSky = new ObservedSky(ZDT_SEMESTER_START, geoCoords, stereographic, test, null);
 
             var equCoords = EquatorialCoordinates.of(1.3724303693276385, -0.143145630755865); //RIGEL
             var horCoords = equToHor.apply(equCoords);
@@ -159,7 +170,7 @@ class ObservedSkyTest {
             var geoCoords = GeographicCoordinates.ofDeg(0, 0); //TO CHANGE
             var stereographic = new StereographicProjection(HorizontalCoordinates.ofDeg(0, 0)); //TO CHANGE
             var equToHor = new EquatorialToHorizontalConversion(ZDT_SEMESTER_START, geoCoords);
-            var observedSky = new ObservedSky(ZDT_SEMESTER_START, geoCoords, stereographic, test);
+            var observedSky = new ObservedSky(ZDT_SEMESTER_START, geoCoords, stereographic, test, null);
 
             var equCoords = EquatorialCoordinates.of(1.5497291183713153, 0.12927763169419373); //BETELGEUSE
             var horCoords = equToHor.apply(equCoords);
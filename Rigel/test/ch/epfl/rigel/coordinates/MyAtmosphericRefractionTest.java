@@ -0,0 +1,122 @@
+package ch.epfl.rigel.coordinates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.rigel.math.Angle;
+import ch.epfl.test.TestRandomizer;
+
+public class MyAtmosphericRefractionTest {
+
+	private static double saemundsson(double alt) {
+		double altDeg = Angle.toDeg(alt);
+		return Math.max(0, Angle.ofArcsec(60 * 1.02 / Math.tan(Angle.ofDeg(altDeg + 10.3 / (altDeg + 5.11)))));
+	}
+
+	@Test
+	void tableMatchesSaemundssonFormula() {
+		SplittableRandom rng = TestRandomizer.newRandom();
+
+		assertEquals(Angle.ofArcsec(60 * 28.98), AtmosphericRefraction.STANDARD.refraction(0), Angle.ofArcsec(1));
+		assertEquals(0, AtmosphericRefraction.STANDARD.refraction(Angle.TAU / 4), 1e-12);
+
+		for(int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; ++i) {
+			double alt = rng.nextDouble(Angle.ofDeg(-2), Angle.TAU / 4);
+			assertEquals(saemundsson(alt), AtmosphericRefraction.STANDARD.refraction(alt), Angle.ofArcsec(1));
+		}
+	}
+
+	@Test
+	void refractionVanishesWellBelowTheHorizon() {
+		AtmosphericRefraction refraction = AtmosphericRefraction.STANDARD;
+
+		assertEquals(saemundsson(Angle.ofDeg(-2)), refraction.maximum(), 1e-12);
+		assertEquals(refraction.maximum(), refraction.refraction(Angle.ofDeg(-2)), 1e-12);
+		assertEquals(refraction.maximum() / 2, refraction.refraction(Angle.ofDeg(-2.5)), 1e-12);
+		assertEquals(0, refraction.refraction(Angle.ofDeg(-3)));
+		assertEquals(0, refraction.refraction(Angle.ofDeg(-60)));
+		assertEquals(0, refraction.refraction(-Angle.TAU / 4));
+
+		double[] alt = {Angle.ofDeg(-10), Angle.ofDeg(-60)};
+		double[] north = {Math.cos(alt[0]), Math.cos(alt[1])}, east = new double[2], up = {Math.sin(alt[0]), Math.sin(alt[1])};
+		double[] geometricUp = up.clone();
+		refraction.applyTo(alt, 0, 2);
+		refraction.applyToUnitVectors(north, east, up, 0, 2);
+
+		assertEquals(Angle.ofDeg(-10), alt[0]);
+		assertEquals(Angle.ofDeg(-60), alt[1]);
+		assertArrayEquals(geometricUp, up);
+	}
+
+	@Test
+	void apparentAltitudesIncreaseWithGeometricOnes() {
+		AtmosphericRefraction refraction = AtmosphericRefraction.STANDARD;
+		double previous = Double.NEGATIVE_INFINITY;
+
+		for(double altDeg = -6; altDeg <= 2; altDeg += 0.01) {
+			double apparent = altDeg + Angle.toDeg(refraction.refraction(Angle.ofDeg(altDeg)));
+			assertTrue(apparent > previous);
+			previous = apparent;
+		}
+	}
+
+	@Test
+	void refractionDependsOnPressureAndTemperature() {
+		assertEquals(0, new AtmosphericRefraction(0, 10).refraction(0));
+		assertEquals(0.5 * AtmosphericRefraction.STANDARD.refraction(0.1), new AtmosphericRefraction(505, 10).refraction(0.1), 1e-12);
+		assertTrue(new AtmosphericRefraction(1010, -20).refraction(0.1) > AtmosphericRefraction.STANDARD.refraction(0.1));
+	}
+
+	@Test
+	void applyKeepsAzimuthAndRaisesAltitude() {
+		HorizontalCoordinates apparent = AtmosphericRefraction.STANDARD.apply(HorizontalCoordinates.ofDeg(123, 0));
+
+		assertEquals(123, apparent.azDeg(), 1e-12);
+		assertEquals(28.98 / 60, apparent.altDeg(), 1.0 / 3600);
+		assertEquals(90, AtmosphericRefraction.STANDARD.apply(HorizontalCoordinates.ofDeg(10, 90)).altDeg(), 1e-12);
+	}
+
+	@Test
+	void batchesMatchSingleCorrections() {
+		SplittableRandom rng = TestRandomizer.newRandom();
+		AtmosphericRefraction refraction = AtmosphericRefraction.STANDARD;
+		int count = 5000;
+		double[] az = new double[count], alt = new double[count];
+		double[] north = new double[count], east = new double[count], up = new double[count];
+
+		for(int i = 0; i < count; ++i) {
+			az[i] = rng.nextDouble(0, Angle.TAU);
+			alt[i] = i % 2 == 0 ? rng.nextDouble(Angle.ofDeg(-5), Angle.ofDeg(10)) : rng.nextDouble(-Angle.TAU / 4, Angle.TAU / 4);
+			north[i] = Math.cos(alt[i]) * Math.cos(az[i]);
+			east[i] = Math.cos(alt[i]) * Math.sin(az[i]);
+			up[i] = Math.sin(alt[i]);
+		}
+
+		double[] geometric = alt.clone();
+		refraction.applyTo(alt, 0, count);
+		refraction.applyToUnitVectors(north, east, up, 0, count);
+
+		for(int i = 0; i < count; ++i) {
+			HorizontalCoordinates expected = refraction.apply(HorizontalCoordinates.of(az[i], geometric[i]));
+			assertEquals(expected.alt(), alt[i], 1e-12);
+
+			//The unit vectors stay of norm 1 and keep their azimuths
+			assertEquals(1, north[i] * north[i] + east[i] * east[i] + up[i] * up[i], 1e-9);
+			assertEquals(0, Math.sin(az[i] - Math.atan2(east[i], north[i])), 1e-9);
+			assertEquals(expected.alt(), Math.asin(up[i]), Angle.ofArcsec(2));
+		}
+	}
+
+	@Test
+	void invalidArgumentsAreRejected() {
+		double[] a = new double[3], b = new double[4];
+
+		assertThrows(IllegalArgumentException.class, () -> new AtmosphericRefraction(-1, 10));
+		assertThrows(IllegalArgumentException.class, () -> new AtmosphericRefraction(1010, -300));
+		assertThrows(IllegalArgumentException.class, () -> AtmosphericRefraction.STANDARD.applyTo(a, 2, 4));
+		assertThrows(IllegalArgumentException.class, () -> AtmosphericRefraction.STANDARD.applyToUnitVectors(a, a, b, 0, 3));
+	}
+}
@@ -0,0 +1,74 @@
+package ch.epfl.rigel.coordinates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.test.TestRandomizer;
+
+public class MyCartesianGridTest {
+
+	private static int bruteForceClosest(double[] positions, double x, double y, double maxDistance) {
+		int closest = -1;
+		double minDistance = maxDistance;
+
+		for(int i = 0; i < positions.length / 2; ++i) {
+			double distance = Math.hypot(positions[2 * i] - x, positions[2 * i + 1] - y);
+
+			if (distance <= minDistance) {
+				minDistance = distance;
+				closest = i;
+			}
+		}
+
+		return closest;
+	}
+
+	@Test
+	void closestToMatchesLinearSearch() {
+		var rng = TestRandomizer.newRandom();
+		double[] positions = new double[2 * 5_000];
+
+		//Some points are far outside of the bounds of the grid
+		for(int i = 0; i < positions.length; ++i) {
+			positions[i] = rng.nextDouble() < 0.05 ? rng.nextDouble(-50, 50) : rng.nextDouble(-1.5, 1.5);
+		}
+
+		CartesianGrid grid = new CartesianGrid(positions);
+
+		for(int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; ++i) {
+			double x = rng.nextDouble(-3, 3);
+			double y = rng.nextDouble(-3, 3);
+			double maxDistance = rng.nextDouble(0, 0.2);
+
+			assertEquals(bruteForceClosest(positions, x, y, maxDistance), grid.closestTo(x, y, maxDistance));
+		}
+
+		assertEquals(bruteForceClosest(positions, 40, -40, 20), grid.closestTo(40, -40, 20));
+	}
+
+	@Test
+	void closestToWorksWithInfinitePositions() {
+		double[] positions = {Double.POSITIVE_INFINITY, 0, 0.5, 0.5, Double.NaN, Double.NaN};
+		CartesianGrid grid = new CartesianGrid(positions);
+
+		assertEquals(1, grid.closestTo(0.49, 0.5, 0.1));
+		assertEquals(-1, grid.closestTo(0, 0, 0.1));
+	}
+
+	@Test
+	void constructorFailsOnOddLength() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new CartesianGrid(new double[3]);
+		});
+	}
+
+	@Test
+	void closestToFailsOnNegativeDistance() {
+		CartesianGrid grid = new CartesianGrid(new double[] {0, 0});
+
+		assertThrows(IllegalArgumentException.class, () -> {
+			grid.closestTo(0, 0, -1);
+		});
+	}
+}
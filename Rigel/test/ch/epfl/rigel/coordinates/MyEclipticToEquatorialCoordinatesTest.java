@@ -7,6 +7,8 @@ import java.time.ZonedDateTime;
 
 import org.junit.jupiter.api.Test;
 
+import ch.epfl.rigel.astronomy.Epoch;
+
 import ch.epfl.rigel.math.Angle;
 
 public class MyEclipticToEquatorialCoordinatesTest {
@@ -72,4 +74,39 @@ public class MyEclipticToEquatorialCoordinatesTest {
 		//assertEquals(1.226876758986660, test6, 1E-4);
 	}
 
+	@Test
+	void batchConversionUsesObliquityOfEachInstant() {
+		ZonedDateTime start = ZonedDateTime.of(1980, 4, 22, 14, 36, 51, 0, ZoneOffset.UTC);
+		int count = 500;
+		double[] days = new double[count], lon = new double[count], lat = new double[count];
+		double[] ra = new double[count], dec = new double[count];
+
+		for(int i = 0; i < count; ++i) {
+			days[i] = Epoch.J2010.daysUntil(start.plusDays(53L * i));
+			lon[i] = Angle.ofDeg((7.3 * i) % 360);
+			lat[i] = Angle.ofDeg((11.1 * i) % 170 - 85);
+		}
+
+		EclipticToEquatorialConversion.applyTo(days, lon, lat, ra, dec, 0, count);
+
+		for(int i = 0; i < count; ++i) {
+			EquatorialCoordinates expected = new EclipticToEquatorialConversion(start.plusDays(53L * i)).apply(EclipticCoordinates.of(lon[i], lat[i]));
+			assertEquals(expected.ra(), ra[i], 1e-12);
+			assertEquals(expected.dec(), dec[i], 1e-12);
+		}
+
+		//Conversion in place
+		EclipticToEquatorialConversion.applyTo(days, lon, lat, lon, lat, 0, count);
+		assertArrayEquals(ra, lon);
+		assertArrayEquals(dec, lat);
+
+		assertThrows(IllegalArgumentException.class, () -> EclipticToEquatorialConversion.applyTo(days, lon, lat, ra, new double[1], 0, count));
+		assertThrows(IllegalArgumentException.class, () -> EclipticToEquatorialConversion.applyTo(days, lon, lat, ra, dec, 0, count + 1));
+	}
+
+	@Test
+	void obliquityIsCorrectAtJ2000() {
+		double daysAtJ2000 = -Epoch.J2000.daysUntil(Epoch.J2010);
+		assertEquals(Angle.ofDMS(23, 26, 21.45), EclipticToEquatorialConversion.obliquity(daysAtJ2000), 1e-15);
+	}
 }
@@ -12,6 +12,7 @@ import java.time.ZonedDateTime;
 import org.junit.jupiter.api.Test;
 
 import ch.epfl.rigel.math.Angle;
+import ch.epfl.test.TestRandomizer;
 
 import static ch.epfl.rigel.math.Angle.*;
 
@@ -27,4 +28,91 @@ public class MyEquatorialToHorizontalCoordinatesTest {
 	double actualAz= converter.apply(eqCoord).az();
 	assertEquals(5.0538984328743, actualAz, 1E-8);
 	}
+
+	@Test
+	public void arrayConversionMatchesApplyThenProjection() {
+		var rng = TestRandomizer.newRandom();
+		ZonedDateTime when = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(0, 0), ZoneOffset.UTC);
+		GeographicCoordinates where = GeographicCoordinates.ofDeg(30, 45);
+		EquatorialToHorizontalConversion converter = new EquatorialToHorizontalConversion(when, where);
+		StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.ofDeg(20, 22));
+
+		double[] ra = new double[TestRandomizer.RANDOM_ITERATIONS];
+		double[] dec = new double[TestRandomizer.RANDOM_ITERATIONS];
+		for(int i = 0; i < ra.length; ++i) {
+			ra[i] = rng.nextDouble(0, Angle.TAU);
+			dec[i] = rng.nextDouble(-Math.PI / 2, Math.PI / 2);
+		}
+
+		double[] az = new double[ra.length];
+		double[] alt = new double[ra.length];
+		double[] positions = new double[2 * ra.length];
+		converter.applyTo(ra, dec, az, alt, 0, ra.length);
+		projection.project(az, alt, positions, 0, ra.length);
+
+		for(int i = 0; i < ra.length; ++i) {
+			CartesianCoordinates expected = projection.apply(converter.apply(EquatorialCoordinates.of(ra[i], dec[i])));
+			assertEquals(expected.x(), positions[2 * i]);
+			assertEquals(expected.y(), positions[2 * i + 1]);
+		}
+	}
+
+	@Test
+	public void unitVectorConversionToAzAltWritesAtOffset() {
+		var rng = TestRandomizer.newRandom();
+		ZonedDateTime when = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(0, 0), ZoneOffset.UTC);
+		EquatorialToHorizontalConversion converter = new EquatorialToHorizontalConversion(when, GeographicCoordinates.ofDeg(30, 45));
+		int count = 100, offset = 7;
+
+		double[] x = new double[count], y = new double[count], z = new double[count];
+		EquatorialCoordinates[] equatorial = new EquatorialCoordinates[count];
+		for(int i = 0; i < count; ++i) {
+			equatorial[i] = EquatorialCoordinates.of(rng.nextDouble(0, Angle.TAU), rng.nextDouble(-Math.PI / 2, Math.PI / 2));
+			x[i] = Math.cos(equatorial[i].dec()) * Math.cos(equatorial[i].ra());
+			y[i] = Math.cos(equatorial[i].dec()) * Math.sin(equatorial[i].ra());
+			z[i] = Math.sin(equatorial[i].dec());
+		}
+
+		double[] az = new double[offset + count], alt = new double[offset + count];
+		converter.applyToUnitVectorsAzAlt(x, y, z, az, alt, offset, 0, count);
+
+		for(int i = 0; i < count; ++i) {
+			HorizontalCoordinates expected = converter.apply(equatorial[i]);
+			assertEquals(0, Math.sin(expected.az() - az[offset + i]), 1e-9);
+			assertEquals(expected.alt(), alt[offset + i], 1e-9);
+		}
+		assertThrows(IllegalArgumentException.class, () -> converter.applyToUnitVectorsAzAlt(x, y, z, az, alt, offset + 1, 0, count));
+	}
+
+	@Test
+	public void arrayConversionFailsOnMismatchedArrays() {
+		ZonedDateTime when = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(0, 0), ZoneOffset.UTC);
+		EquatorialToHorizontalConversion converter = new EquatorialToHorizontalConversion(when, GeographicCoordinates.ofDeg(30, 45));
+
+		assertThrows(IllegalArgumentException.class, () -> {
+			converter.applyTo(new double[3], new double[3], new double[3], new double[5], 0, 3);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			converter.applyTo(new double[3], new double[3], new double[3], new double[3], 2, 4);
+		});
+	}
+
+	@Test
+	public void equatorialUnitVectorIsInverseOfApply() {
+		var rng = TestRandomizer.newRandom();
+		ZonedDateTime when = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(0, 0), ZoneOffset.UTC);
+		EquatorialToHorizontalConversion converter = new EquatorialToHorizontalConversion(when, GeographicCoordinates.ofDeg(30, 45));
+
+		for(int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; ++i) {
+			HorizontalCoordinates horizontal = HorizontalCoordinates.of(rng.nextDouble(0, Angle.TAU), rng.nextDouble(-1.5, 1.5));
+			double[] vector = converter.equatorialUnitVector(horizontal);
+
+			assertEquals(1, vector[0]*vector[0] + vector[1]*vector[1] + vector[2]*vector[2], 1e-12);
+
+			EquatorialCoordinates equatorial = EquatorialCoordinates.of(normalizePositive(Math.atan2(vector[1], vector[0])), Math.asin(vector[2]));
+			HorizontalCoordinates back = converter.apply(equatorial);
+			assertEquals(horizontal.alt(), back.alt(), 1e-9);
+			assertEquals(0, Math.sin(horizontal.az() - back.az()), 1e-9);
+		}
+	}
 }
@@ -0,0 +1,76 @@
+package ch.epfl.rigel.coordinates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.rigel.math.Angle;
+import ch.epfl.test.TestRandomizer;
+
+public class MyPrecessionConversionTest {
+
+	@Test
+	void precessionWorksOnMeeusExample() {
+		//Theta Persei, Meeus example 21.b, after its proper motion
+		PrecessionConversion precession = new PrecessionConversion(0.2886705);
+		EquatorialCoordinates precessed = precession.apply(EquatorialCoordinates.of(Angle.ofDeg(41.054063), Angle.ofDeg(49.227750)));
+
+		assertEquals(41.547214, precessed.raDeg(), 1e-5);
+		assertEquals(49.348483, precessed.decDeg(), 1e-5);
+	}
+
+	@Test
+	void precessionIsIdentityAtJ2000() {
+		PrecessionConversion precession = new PrecessionConversion(ZonedDateTime.of(LocalDate.of(2000, Month.JANUARY, 1), LocalTime.NOON, ZoneOffset.UTC));
+		EquatorialCoordinates precessed = precession.apply(EquatorialCoordinates.of(1.2, -0.4));
+
+		assertEquals(1.2, precessed.ra(), 1e-12);
+		assertEquals(-0.4, precessed.dec(), 1e-12);
+	}
+
+	@Test
+	void unitVectorsAreRotatedLikeCoordinates() {
+		SplittableRandom rng = TestRandomizer.newRandom();
+		PrecessionConversion precession = new PrecessionConversion(2.5);
+		int count = 1000;
+		double[] x = new double[count], y = new double[count], z = new double[count];
+		EquatorialCoordinates[] coordinates = new EquatorialCoordinates[count];
+
+		for(int i = 0; i < count; ++i) {
+			coordinates[i] = EquatorialCoordinates.of(rng.nextDouble(0, Angle.TAU), rng.nextDouble(-Math.PI / 2, Math.PI / 2));
+			x[i] = Math.cos(coordinates[i].dec()) * Math.cos(coordinates[i].ra());
+			y[i] = Math.cos(coordinates[i].dec()) * Math.sin(coordinates[i].ra());
+			z[i] = Math.sin(coordinates[i].dec());
+		}
+
+		double[] sourceX = x.clone(), sourceY = y.clone(), sourceZ = z.clone();
+		precession.applyToUnitVectors(x, y, z, x, y, z, 0, count);
+
+		for(int i = 0; i < count; ++i) {
+			EquatorialCoordinates precessed = precession.apply(coordinates[i]);
+			assertEquals(Math.sin(precessed.dec()), z[i], 1e-12);
+			assertEquals(Math.cos(precessed.dec()) * Math.cos(precessed.ra()), x[i], 1e-12);
+
+			double[] inverse = precession.inverseUnitVector(new double[] {x[i], y[i], z[i]});
+			assertEquals(sourceX[i], inverse[0], 1e-12);
+			assertEquals(sourceY[i], inverse[1], 1e-12);
+			assertEquals(sourceZ[i], inverse[2], 1e-12);
+		}
+	}
+
+	@Test
+	void applyToUnitVectorsFailsOnInvalidRange() {
+		PrecessionConversion precession = new PrecessionConversion(1);
+		double[] a = new double[3], b = new double[4];
+
+		assertThrows(IllegalArgumentException.class, () -> precession.applyToUnitVectors(a, a, b, a, a, a, 0, 3));
+		assertThrows(IllegalArgumentException.class, () -> precession.applyToUnitVectors(a, a, a, a, a, a, 2, 4));
+	}
+}
@@ -278,4 +278,31 @@ public class MyStereographicProjectionTest {
 			proj.hashCode();
 		});
 	}
+
+	@Test
+	void projectWithIndicesMatchesApply() {
+		var rng = TestRandomizer.newRandom();
+		StereographicProjection projection = new StereographicProjection(ofDeg(20, 22));
+
+		double[] az = new double[TestRandomizer.RANDOM_ITERATIONS];
+		double[] alt = new double[az.length];
+		for(int i = 0; i < az.length; ++i) {
+			az[i] = rng.nextDouble(0, Angle.TAU);
+			alt[i] = rng.nextDouble(-Math.PI / 2, Math.PI / 2);
+		}
+
+		int[] indices = {7, 3, 3, 0, az.length - 1};
+		double[] positions = new double[2 * indices.length];
+		projection.project(az, alt, indices, positions, 0, indices.length);
+
+		for(int k = 0; k < indices.length; ++k) {
+			CartesianCoordinates expected = projection.apply(HorizontalCoordinates.of(az[indices[k]], alt[indices[k]]));
+			assertEquals(expected.x(), positions[2 * k]);
+			assertEquals(expected.y(), positions[2 * k + 1]);
+		}
+
+		assertThrows(IllegalArgumentException.class, () -> {
+			projection.project(az, alt, indices, new double[2 * indices.length - 1], 0, 1);
+		});
+	}
 }
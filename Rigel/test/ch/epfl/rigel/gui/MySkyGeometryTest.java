@@ -0,0 +1,55 @@
+package ch.epfl.rigel.gui;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import ch.epfl.rigel.math.Angle;
+
+public class MySkyGeometryTest {
+
+	private static final StereographicProjection PROJECTION = new StereographicProjection(HorizontalCoordinates.ofDeg(180, 45));
+
+	@Test
+	void pointsAreTransformedByTheFlatMatrix() {
+		//Scale of 2, symmetry about the horizontal axis and translation of (10, 20)
+		double[] matrix = {2, 0, 0, -2, 10, 20};
+		double[] points = new double[4];
+		SkyGeometry.transformPoints(DoubleBuffer.wrap(new double[] {1, 2, -3, 0.5}).asReadOnlyBuffer(), points, matrix);
+
+		assertArrayEquals(new double[] {12, 16, 4, 19}, points, 1e-12);
+		assertEquals(2, SkyGeometry.scale(matrix), 1e-12);
+	}
+
+	@Test
+	void diskSizesDependOnClippedMagnitude() {
+		double[] matrix = {1000, 0, 0, -1000, 0, 0};
+		double sunMoon = SkyGeometry.transformedSunMoonSize(PROJECTION, matrix);
+
+		assertEquals(1000 * PROJECTION.applyToAngle(Angle.ofDeg(0.5)), sunMoon, 1e-12);
+		assertEquals(sunMoon * (99 + 34) / 140.0, SkyGeometry.transformedDiskSize(PROJECTION, -2, matrix), 1e-12);
+		assertEquals(sunMoon * (99 + 34) / 140.0, SkyGeometry.transformedDiskSize(PROJECTION, -26, matrix), 1e-12);
+		assertEquals(sunMoon * (99 - 85) / 140.0, SkyGeometry.transformedDiskSize(PROJECTION, 8, matrix), 1e-12);
+	}
+
+	@Test
+	void largestOfHaloAndDiskOfSunIsPaintedFirst() {
+		List<String> order = new ArrayList<>();
+		List<Double> diameters = new ArrayList<>();
+
+		SkyGeometry.paintSun(10, d -> {order.add("halo"); diameters.add(d);}, d -> {order.add("disk"); diameters.add(d);},
+				d -> {order.add("sun"); diameters.add(d);});
+		assertEquals(List.of("halo", "disk", "sun"), order);
+		assertEquals(List.of(22.0, 12.0, 10.0), diameters);
+
+		order.clear();
+		SkyGeometry.paintSun(1, d -> order.add("halo"), d -> order.add("disk"), d -> order.add("sun"));
+		assertEquals(List.of("disk", "halo", "sun"), order);
+	}
+}
@@ -0,0 +1,100 @@
+package ch.epfl.rigel.headless;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.rigel.astronomy.Asterism;
+import ch.epfl.rigel.astronomy.HorizontalSky;
+import ch.epfl.rigel.astronomy.ObservedSky.Mode;
+import ch.epfl.rigel.astronomy.Star;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.math.Angle;
+
+public class MyChartRendererTest {
+
+	private static final ZonedDateTime WHEN = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(10, 0), ZoneOffset.UTC);
+	private static final GeographicCoordinates LAUSANNE = GeographicCoordinates.ofDeg(6.57, 46.52);
+
+	private static final List<Star> STARS = List.of(
+			new Star(24436, "Rigel", EquatorialCoordinates.of(Angle.ofDeg(78.63), Angle.ofDeg(-8.2)), 0.18f, -0.03f),
+			new Star(27989, "Betelgeuse", EquatorialCoordinates.of(Angle.ofDeg(88.79), Angle.ofDeg(7.41)), 0.45f, 1.5f),
+			new Star(11767, "Polaris", EquatorialCoordinates.of(Angle.ofDeg(37.95), Angle.ofDeg(89.26)), 1.97f, 0.64f));
+	private static final StarCatalogue CATALOGUE = new StarCatalogue(STARS, List.of(new Asterism(STARS.subList(0, 2))));
+
+	@Test
+	void sunIsDrawnAtTheCenterOfChartCenteredOnIt() {
+		HorizontalCoordinates sun = new HorizontalSky(WHEN, LAUSANNE, CATALOGUE, Mode.EXACT).sunHorizontal();
+		ChartRenderer renderer = new ChartRenderer(CATALOGUE, 200, 100, 6, 1);
+
+		BufferedImage image = renderer.image(new ChartRenderer.Chart(WHEN, LAUSANNE, sun, 20, Path.of("unused.png")));
+
+		assertEquals(200, image.getWidth());
+		assertEquals(100, image.getHeight());
+		assertEquals(0xFFFFFF, image.getRGB(100, 50) & 0xFFFFFF);
+		assertEquals(0x000000, image.getRGB(0, 0) & 0xFFFFFF);
+	}
+
+	@Test
+	void chartsAreWrittenIdenticallyWhateverTheNumberOfThreads() throws IOException {
+		Path directory = Files.createTempDirectory("charts");
+		List<ChartRenderer.Chart> single = new ArrayList<ChartRenderer.Chart>();
+		List<ChartRenderer.Chart> multiple = new ArrayList<ChartRenderer.Chart>();
+
+		for(int k = 0; k < 6; ++k) {
+			ZonedDateTime when = WHEN.plusHours(4 * k);
+			HorizontalCoordinates center = HorizontalCoordinates.ofDeg(60 * k, 20);
+
+			single.add(new ChartRenderer.Chart(when, LAUSANNE, center, 100, directory.resolve("single-" + k + ".png")));
+			multiple.add(new ChartRenderer.Chart(when, LAUSANNE, center, 100, directory.resolve("multiple-" + k + ".png")));
+		}
+
+		try {
+			assertTrue(new ChartRenderer(CATALOGUE, 160, 120, 6, 1).render(single) > 0);
+			assertTrue(new ChartRenderer(CATALOGUE, 160, 120, 6, 3).render(multiple) > 0);
+
+			for(int k = 0; k < 6; ++k) {
+				BufferedImage expected = ImageIO.read(single.get(k).output().toFile());
+				BufferedImage actual = ImageIO.read(multiple.get(k).output().toFile());
+
+				assertEquals(160, actual.getWidth());
+				assertEquals(120, actual.getHeight());
+				assertArrayEquals(expected.getRGB(0, 0, 160, 120, null, 0, 160), actual.getRGB(0, 0, 160, 120, null, 0, 160));
+			}
+		}
+		finally {
+			for(int k = 0; k < 6; ++k) {
+				Files.deleteIfExists(single.get(k).output());
+				Files.deleteIfExists(multiple.get(k).output());
+			}
+			Files.delete(directory);
+		}
+	}
+
+	@Test
+	void invalidArgumentsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> new ChartRenderer(CATALOGUE, 0, 100, 6, 1));
+		assertThrows(IllegalArgumentException.class, () -> new ChartRenderer(CATALOGUE, 100, 100, 6, 0));
+		assertThrows(IllegalArgumentException.class,
+				() -> new ChartRenderer.Chart(WHEN, LAUSANNE, HorizontalCoordinates.ofDeg(0, 0), 0, Path.of("unused.png")));
+		assertThrows(NullPointerException.class,
+				() -> new ChartRenderer.Chart(WHEN, null, HorizontalCoordinates.ofDeg(0, 0), 60, Path.of("unused.png")));
+	}
+}
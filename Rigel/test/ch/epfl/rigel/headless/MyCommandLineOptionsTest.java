@@ -0,0 +1,90 @@
+package ch.epfl.rigel.headless;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.rigel.astronomy.AsterismLoader;
+import ch.epfl.rigel.astronomy.HygDatabaseLoader;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+
+public class MyCommandLineOptionsTest {
+
+	private static final BiPredicate<String, Iterator<String>> NO_TOOL_OPTIONS = (option, arguments) -> false;
+
+	@Test
+	void sharedAndToolOptionsAreParsed() {
+		List<String> toolValues = new ArrayList<String>();
+		BiPredicate<String, Iterator<String>> toolOptions = (option, arguments) -> option.equals("--fov") && toolValues.add(arguments.next());
+
+		CommandLineOptions options = CommandLineOptions.parse(new String[] {"--start", "2020-04-04T21:00Z", "--fov", "60",
+				"--end", "2020-04-05T21:00Z", "--step", "PT1H", "--observer", "6.57,46.52", "--observer", "-70.74,-30.24",
+				"--threads", "3", "--output", "charts"}, toolOptions);
+
+		assertEquals(ZonedDateTime.parse("2020-04-04T21:00Z"), options.start());
+		assertEquals(ZonedDateTime.parse("2020-04-05T21:00Z"), options.end());
+		assertEquals(Duration.ofHours(1), options.step());
+		assertEquals(Path.of("charts"), options.output());
+		assertEquals(3, options.threads());
+		assertEquals(2, options.observers().size());
+		assertEquals(-70.74, options.observers().get(1).lonDeg(), 1e-9);
+		assertEquals(46.52, options.observers().get(0).latDeg(), 1e-9);
+		assertEquals(List.of("60"), toolValues);
+	}
+
+	@Test
+	void invalidCommandLinesAreRejected() {
+		String[] valid = {"--start", "2020-04-04T21:00Z", "--end", "2020-04-05T21:00Z", "--step", "PT1H",
+				"--observer", "6.57,46.52", "--output", "charts"};
+		assertEquals(Runtime.getRuntime().availableProcessors(), CommandLineOptions.parse(valid, NO_TOOL_OPTIONS).threads());
+
+		assertThrows(IllegalArgumentException.class, () -> CommandLineOptions.parse(concat(valid, "--fov", "60"), NO_TOOL_OPTIONS));
+		assertThrows(IllegalArgumentException.class, () -> CommandLineOptions.parse(concat(valid, "--threads", "0"), NO_TOOL_OPTIONS));
+		assertThrows(IllegalArgumentException.class, () -> CommandLineOptions.parse(concat(valid, "--observer", "6.57"), NO_TOOL_OPTIONS));
+		assertThrows(IllegalArgumentException.class, () -> CommandLineOptions.parse(concat(valid, "--step", "PT0S"), NO_TOOL_OPTIONS));
+		assertThrows(IllegalArgumentException.class, () -> CommandLineOptions.parse(concat(valid, "--end", "2020-04-04T21:00Z"), NO_TOOL_OPTIONS));
+		assertThrows(IllegalArgumentException.class, () -> CommandLineOptions.parse(new String[] {"--start", "2020-04-04T21:00Z",
+				"--end", "2020-04-05T21:00Z", "--step", "PT1H", "--output", "charts"}, NO_TOOL_OPTIONS));
+		assertThrows(RuntimeException.class, () -> CommandLineOptions.parse(concat(valid, "--threads"), NO_TOOL_OPTIONS));
+		assertThrows(RuntimeException.class, () -> CommandLineOptions.parse(concat(valid, "--start", "tomorrow"), NO_TOOL_OPTIONS));
+	}
+
+	@Test
+	void catalogueIsTheOneOfTheHygDatabase() throws IOException {
+		StarCatalogue expected;
+		try (InputStream hs = getClass().getResourceAsStream("/hygdata_v3.csv");
+				InputStream as = getClass().getResourceAsStream("/asterisms.txt")) {
+			expected = new StarCatalogue.Builder()
+					.loadFrom(hs, HygDatabaseLoader.INSTANCE)
+					.loadFrom(as, AsterismLoader.INSTANCE)
+					.build();
+		}
+
+		StarCatalogue catalogue = CommandLineOptions.loadCatalogue();
+
+		assertEquals(expected.stars().size(), catalogue.stars().size());
+		assertEquals(expected.asterisms().size(), catalogue.asterisms().size());
+
+		for(int i = 0; i < expected.stars().size(); ++i) {
+			assertEquals(expected.stars().get(i).hipparcosId(), catalogue.stars().get(i).hipparcosId());
+			assertEquals(expected.stars().get(i).equatorialPos().ra(), catalogue.stars().get(i).equatorialPos().ra());
+		}
+	}
+
+	private static String[] concat(String[] args, String... more) {
+		String[] all = new String[args.length + more.length];
+		System.arraycopy(args, 0, all, 0, args.length);
+		System.arraycopy(more, 0, all, args.length, more.length);
+		return all;
+	}
+}
@@ -0,0 +1,181 @@
+package ch.epfl.rigel.headless;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.rigel.astronomy.HorizontalSky;
+import ch.epfl.rigel.astronomy.ObservedSky.Mode;
+import ch.epfl.rigel.astronomy.Star;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.math.Angle;
+
+public class MyEphemerisGeneratorTest {
+
+	private static final ZonedDateTime START = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(21, 0), ZoneOffset.UTC);
+	private static final List<GeographicCoordinates> OBSERVERS = List.of(GeographicCoordinates.ofDeg(6.57, 46.52),
+			GeographicCoordinates.ofDeg(-70.74, -30.24));
+
+	private static final StarCatalogue CATALOGUE = new StarCatalogue(List.of(
+			new Star(24436, "Rigel", EquatorialCoordinates.of(Angle.ofDeg(78.63), Angle.ofDeg(-8.2)), 0.18f, -0.03f),
+			new Star(27989, "Betelgeuse, \"Alpha Ori\"", EquatorialCoordinates.of(Angle.ofDeg(88.79), Angle.ofDeg(7.41)), 0.45f, 1.5f),
+			new Star(11767, "Polaris", EquatorialCoordinates.of(Angle.ofDeg(37.95), Angle.ofDeg(89.26)), 1.97f, 0.64f)), List.of());
+
+	@Test
+	void csvRowsMatchHorizontalSky() throws IOException {
+		Path output = Files.createTempFile("ephemeris", ".csv");
+
+		try {
+			EphemerisGenerator generator = new EphemerisGenerator(null, OBSERVERS, EphemerisGenerator.Format.CSV, 2);
+			long rows = generator.generate(START, START.plusHours(29), Duration.ofHours(7), output);
+
+			//Instants at 0, 7, 14, 21 and 28 hours
+			List<String> lines = Files.readAllLines(output);
+			assertEquals(5 * OBSERVERS.size() * HorizontalSky.BODIES, rows);
+			assertEquals(rows + 1, lines.size());
+			assertEquals("instant,lon,lat,object,ra,dec,az,alt", lines.get(0));
+
+			int line = 1;
+			for(int k = 0; k < 5; ++k) {
+				ZonedDateTime when = START.plusHours(7 * k);
+
+				for(GeographicCoordinates where : OBSERVERS) {
+					HorizontalSky sky = new HorizontalSky(when, where, CATALOGUE, Mode.EXACT);
+
+					for(int i = 0; i < HorizontalSky.BODIES; ++i) {
+						String[] fields = lines.get(line++).split(",");
+						String name = i == 0 ? sky.sun().name() : i == 1 ? sky.moon().name() : sky.planets().get(i - 2).name();
+						EquatorialCoordinates equatorial = i == 0 ? sky.sun().equatorialPos()
+								: i == 1 ? sky.moon().equatorialPos() : sky.planets().get(i - 2).equatorialPos();
+						HorizontalCoordinates horizontal = i == 0 ? sky.sunHorizontal()
+								: i == 1 ? sky.moonHorizontal() : sky.planetsHorizontal().get(i - 2);
+
+						assertEquals(when.toInstant().toString(), fields[0]);
+						assertEquals(where.lonDeg(), Double.parseDouble(fields[1]));
+						assertEquals(where.latDeg(), Double.parseDouble(fields[2]));
+						assertEquals(name, fields[3]);
+						assertEquals(equatorial.raDeg(), Double.parseDouble(fields[4]));
+						assertEquals(equatorial.decDeg(), Double.parseDouble(fields[5]));
+						assertEquals(horizontal.azDeg(), Double.parseDouble(fields[6]));
+						assertEquals(horizontal.altDeg(), Double.parseDouble(fields[7]));
+					}
+				}
+			}
+		}
+		finally {
+			Files.delete(output);
+		}
+	}
+
+	@Test
+	void starsAreWrittenWithEscapedNames() throws IOException {
+		Path output = Files.createTempFile("ephemeris", ".ndjson");
+
+		try {
+			EphemerisGenerator generator = new EphemerisGenerator(CATALOGUE, OBSERVERS.subList(0, 1), EphemerisGenerator.Format.NDJSON, 1);
+			generator.generate(START, START.plusMinutes(1), Duration.ofHours(1), output);
+
+			List<String> lines = Files.readAllLines(output);
+			assertEquals(HorizontalSky.BODIES + 3, lines.size());
+			assertTrue(lines.get(0).startsWith("{\"instant\":\"2020-04-04T21:00:00Z\",\"lon\":" + OBSERVERS.get(0).lonDeg()
+					+ ",\"lat\":" + OBSERVERS.get(0).latDeg() + ",\"object\":\"Soleil\""));
+			assertTrue(lines.get(HorizontalSky.BODIES + 1).contains("\"object\":\"Betelgeuse, \\\"Alpha Ori\\\"\""));
+
+			//Polaris is always close to the altitude of the north celestial pole
+			String polaris = lines.get(HorizontalSky.BODIES + 2);
+			double alt = Double.parseDouble(polaris.substring(polaris.indexOf("\"alt\":") + 6, polaris.length() - 1));
+			assertEquals(46.52, alt, 1);
+		}
+		finally {
+			Files.delete(output);
+		}
+	}
+
+	@Test
+	void outputDoesNotDependOnThreadsAndChunks() throws IOException {
+		Path single = Files.createTempFile("ephemeris", ".csv"), multiple = Files.createTempFile("ephemeris", ".csv");
+
+		try {
+			//Several thousand instants, that is several chunks written in order
+			new EphemerisGenerator(CATALOGUE, OBSERVERS, EphemerisGenerator.Format.CSV, 1)
+			.generate(START, START.plusDays(3), Duration.ofMinutes(1), single);
+			new EphemerisGenerator(CATALOGUE, OBSERVERS, EphemerisGenerator.Format.CSV, 3)
+			.generate(START, START.plusDays(3), Duration.ofMinutes(1), multiple);
+
+			assertEquals(1 + 3 * 24 * 60 * OBSERVERS.size() * (HorizontalSky.BODIES + 3), Files.readAllLines(multiple).size());
+			assertArrayEquals(Files.readAllBytes(single), Files.readAllBytes(multiple));
+		}
+		finally {
+			Files.delete(single);
+			Files.delete(multiple);
+		}
+	}
+
+	@Test
+	void starsOfLargeCataloguesAreSplitInOrder() throws IOException {
+		Path single = Files.createTempFile("ephemeris", ".csv"), multiple = Files.createTempFile("ephemeris", ".csv");
+
+		//More stars than the rows of a chunk, so that the rows of each sky are split between several chunks
+		int count = 40_000;
+		List<Star> stars = new ArrayList<Star>();
+		for(int i = 0; i < count; ++i) {
+			stars.add(new Star(i, "S" + i, EquatorialCoordinates.of(Angle.TAU * i / count, Angle.ofDeg(-60 + 120.0 * i / count)), 5, 0));
+		}
+		StarCatalogue catalogue = new StarCatalogue(stars, List.of());
+
+		try {
+			new EphemerisGenerator(catalogue, OBSERVERS, EphemerisGenerator.Format.CSV, 1)
+			.generate(START, START.plusHours(2), Duration.ofHours(1), single);
+			long rows = new EphemerisGenerator(catalogue, OBSERVERS, EphemerisGenerator.Format.CSV, 3)
+			.generate(START, START.plusHours(2), Duration.ofHours(1), multiple);
+
+			List<String> lines = Files.readAllLines(multiple);
+			assertEquals(2 * OBSERVERS.size() * (HorizontalSky.BODIES + count), rows);
+			assertEquals(rows + 1, lines.size());
+			assertArrayEquals(Files.readAllBytes(single), Files.readAllBytes(multiple));
+
+			int line = 1;
+			for(int k = 0; k < 2; ++k) {
+				for(GeographicCoordinates where : OBSERVERS) {
+					assertTrue(lines.get(line).startsWith(START.plusHours(k).toInstant() + "," + where.lonDeg() + "," + where.latDeg() + ",Soleil,"));
+					line += HorizontalSky.BODIES;
+
+					for(int i = 0; i < count; ++i) {
+						assertEquals("S" + i, lines.get(line++).split(",")[3]);
+					}
+				}
+			}
+		}
+		finally {
+			Files.delete(single);
+			Files.delete(multiple);
+		}
+	}
+
+	@Test
+	void invalidArgumentsAreRejected() {
+		EphemerisGenerator generator = new EphemerisGenerator(null, OBSERVERS, EphemerisGenerator.Format.CSV, 1);
+		Path output = Path.of("unused.csv");
+
+		assertThrows(IllegalArgumentException.class, () -> generator.generate(START, START, Duration.ofHours(1), output));
+		assertThrows(IllegalArgumentException.class, () -> generator.generate(START, START.plusDays(1), Duration.ZERO, output));
+		assertThrows(IllegalArgumentException.class, () -> new EphemerisGenerator(null, List.of(), EphemerisGenerator.Format.CSV, 1));
+		assertThrows(IllegalArgumentException.class, () -> new EphemerisGenerator(null, OBSERVERS, EphemerisGenerator.Format.CSV, 0));
+		assertThrows(NullPointerException.class, () -> new EphemerisGenerator(null, OBSERVERS, null, 1));
+	}
+}
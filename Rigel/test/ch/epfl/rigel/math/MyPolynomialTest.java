@@ -0,0 +1,65 @@
+package ch.epfl.rigel.math;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class MyPolynomialTest {
+
+	@Test
+	void chebyshevNodesAreRootsOfChebyshevPolynomial() {
+		int count = 9;
+
+		for(int j = 0; j < count; ++j) {
+			double x = Polynomial.chebyshevNode(j, count);
+			assertEquals(0, Math.cos(count * Math.acos(x)), 1e-12);
+
+			if (j > 0)
+				assertTrue(x < Polynomial.chebyshevNode(j - 1, count));
+		}
+
+		assertThrows(IllegalArgumentException.class, () -> Polynomial.chebyshevNode(count, count));
+		assertThrows(IllegalArgumentException.class, () -> Polynomial.chebyshevNode(-1, count));
+	}
+
+	@Test
+	void chebyshevInterpolationIsExactOnPolynomials() {
+		Polynomial expected = Polynomial.of(3, -2, 0.5, 7, -1);
+		int count = 8;
+		double[] values = new double[count];
+
+		for(int j = 0; j < count; ++j) {
+			values[j] = expected.at(Polynomial.chebyshevNode(j, count));
+		}
+
+		Polynomial interpolation = Polynomial.chebyshevInterpolation(values);
+
+		for(double x = -1; x <= 1; x += 0.01) {
+			assertEquals(expected.at(x), interpolation.at(x), 1e-12);
+		}
+	}
+
+	@Test
+	void chebyshevInterpolationConvergesOnSmoothFunctions() {
+		int count = 16;
+		double[] values = new double[count];
+
+		for(int j = 0; j < count; ++j) {
+			values[j] = Math.sin(3 * Polynomial.chebyshevNode(j, count));
+		}
+
+		Polynomial interpolation = Polynomial.chebyshevInterpolation(values);
+
+		for(double x = -1; x <= 1; x += 0.001) {
+			assertEquals(Math.sin(3 * x), interpolation.at(x), 1e-11);
+		}
+	}
+
+	@Test
+	void chebyshevInterpolationWorksOnConstants() {
+		assertEquals(4.5, Polynomial.chebyshevInterpolation(4.5, 4.5, 4.5).at(0.3), 1e-15);
+		assertEquals(-1, Polynomial.chebyshevInterpolation(-1, -1).at(0.7), 1e-15);
+		assertThrows(IllegalArgumentException.class, () -> Polynomial.chebyshevInterpolation(0, 0));
+		assertThrows(IllegalArgumentException.class, () -> Polynomial.chebyshevInterpolation());
+	}
+}